@@ -0,0 +1,91 @@
+package com.skyrimgrade.application.analytics;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.skyrimgrade.domain.analytics.ActionCount;
+import com.skyrimgrade.domain.analytics.AuditAnalyticsRepository;
+import com.skyrimgrade.domain.analytics.DailyActivity;
+import com.skyrimgrade.domain.analytics.FacetCount;
+import com.skyrimgrade.domain.analytics.HeatmapCell;
+import com.skyrimgrade.domain.analytics.HourlyActivity;
+
+/**
+ * Данные для /api/analytics/activity и /api/analytics/facets.
+ *
+ * Читает только часовые и дневные агрегаты аудита (AuditRollupJob). Тепловая карта и дневной
+ * ряд собираются из одних и тех же часовых строк в памяти: их не больше 24 * 366 на запрос,
+ * и SQL не зависит от функций дат конкретной СУБД. userId null - по всем пользователям.
+ */
+public class AuditAnalyticsService {
+
+    public static final int MAX_DAYS = 366;
+
+    private final AuditAnalyticsRepository repository;
+
+    public AuditAnalyticsService(AuditAnalyticsRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Активность за дни [from, to]: ряд по дням с нулями, тепловая карта 7 x 24 и разбивка по действиям.
+     */
+    public ActivityReport activity(Integer userId, LocalDate from, LocalDate to) throws SQLException {
+        checkRange(from, to);
+        int user = userOrAll(userId);
+        List<HourlyActivity> hours = repository.findHourly(user, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+
+        Map<LocalDate, Long> byDay = new HashMap<>();
+        long[][] heatmap = new long[7][24];
+        for (HourlyActivity hour : hours) {
+            byDay.merge(hour.hourStart().toLocalDate(), hour.events(), Long::sum);
+            heatmap[hour.hourStart().getDayOfWeek().getValue() - 1][hour.hourStart().getHour()] += hour.events();
+        }
+
+        List<DailyActivity> daily = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            daily.add(new DailyActivity(day, byDay.getOrDefault(day, 0L)));
+        }
+        List<HeatmapCell> cells = new ArrayList<>(7 * 24);
+        for (int dayOfWeek = 1; dayOfWeek <= 7; dayOfWeek++) {
+            for (int hour = 0; hour < 24; hour++) {
+                cells.add(new HeatmapCell(dayOfWeek, hour, heatmap[dayOfWeek - 1][hour]));
+            }
+        }
+        List<ActionCount> actions = repository.findActions(user, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        return new ActivityReport(daily, cells, actions);
+    }
+
+    /**
+     * Значения ключей details (source, difficulty, status) за дни [from, to]; action null - по всем действиям.
+     */
+    public List<FacetCount> facets(Integer userId, LocalDate from, LocalDate to, String action) throws SQLException {
+        checkRange(from, to);
+        return repository.findFacets(userOrAll(userId), from, to, action);
+    }
+
+    private static int userOrAll(Integer userId) {
+        return userId != null ? userId : AuditAnalyticsRepository.ALL_USERS;
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new IllegalArgumentException("Range exceeds " + MAX_DAYS + " days");
+        }
+    }
+
+    public record ActivityReport(
+            List<DailyActivity> daily,
+            List<HeatmapCell> heatmap,
+            List<ActionCount> actions
+            ) {
+    }
+}
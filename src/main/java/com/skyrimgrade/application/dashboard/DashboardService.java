@@ -0,0 +1,182 @@
+package com.skyrimgrade.application.dashboard;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Subtask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.skyrimgrade.domain.dashboard.ActivityEntry;
+import com.skyrimgrade.domain.dashboard.Dashboard;
+import com.skyrimgrade.domain.dashboard.DashboardReadRepository;
+import com.skyrimgrade.domain.dashboard.PointsStanding;
+import com.skyrimgrade.domain.plan.PlanItem;
+import com.skyrimgrade.domain.plan.PlanRepository;
+import com.skyrimgrade.domain.task.TaskReadRepository;
+import com.skyrimgrade.domain.task.TaskStatus;
+import com.skyrimgrade.infrastructure.logging.RequestContext;
+import com.skyrimgrade.infrastructure.resilience.RequestDeadline;
+
+/**
+ * Данные главного экрана (GET /api/dashboard) за один запрос.
+ *
+ * Секции читаются параллельно в StructuredTaskScope на виртуальных потоках, поэтому время ответа
+ * близко к самому медленному запросу, а не к их сумме. Правила:
+ * <ul>
+ *   <li>у каждой секции свой timeout (вложенный scope), у всего экрана - общий;</li>
+ *   <li>обязательные секции (план, задачи, баллы) при ошибке отменяют остальные, и запрос падает;</li>
+ *   <li>необязательные (место в рейтинге, лента действий) при ошибке или timeout отдаются пустыми
+ *       и перечисляются в missingSections;</li>
+ *   <li>одновременно запрос держит не больше maxConnections соединений пула (Semaphore),
+ *       ожидание разрешения входит в timeout секции.</li>
+ * </ul>
+ * Отмена прерывает виртуальный поток секции; блокирующий сокет JDBC драйвера при этом
+ * закрывается, и пул заменяет такое соединение новым. Если запрос выполняется под
+ * RequestDeadline, timeout экрана и секций не превышает остаток срока.
+ */
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    private static final Duration ACTIVITY_WINDOW = Duration.ofDays(7);
+
+    private final PlanRepository plans;
+    private final TaskReadRepository tasks;
+    private final DashboardReadRepository reads;
+    private final Duration timeout;
+    private final Duration sectionTimeout;
+    private final int maxConnections;
+    private final int activityLimit;
+
+    public DashboardService(PlanRepository plans, TaskReadRepository tasks, DashboardReadRepository reads,
+                            Duration timeout, Duration sectionTimeout, int maxConnections, int activityLimit) {
+        this.plans = plans;
+        this.tasks = tasks;
+        this.reads = reads;
+        this.timeout = timeout;
+        this.sectionTimeout = sectionTimeout;
+        this.maxConnections = Math.max(1, maxConnections);
+        this.activityLimit = Math.max(1, activityLimit);
+    }
+
+    /**
+     * Пустой Optional, если пользователя нет.
+     */
+    public Optional<Dashboard> load(int userId, LocalDate date) throws SQLException, InterruptedException {
+        Semaphore connections = new Semaphore(maxConnections);
+        LocalDateTime activitySince = LocalDateTime.now().minus(ACTIVITY_WINDOW);
+        // срок запроса короче timeout экрана - ждем не дольше срока
+        Duration effectiveTimeout = RequestDeadline.cap(timeout);
+
+        try (StructuredTaskScope<Object, Void> scope = StructuredTaskScope.open(
+                StructuredTaskScope.Joiner.awaitAllSuccessfulOrThrow(),
+                config -> config.withTimeout(effectiveTimeout).withName("dashboard"))) {
+            Subtask<List<PlanItem>> plan = scope.fork(
+                    critical("plan", connections, () -> plans.findItemsByDate(userId, date)));
+            Subtask<Map<TaskStatus, Integer>> openTasks = scope.fork(
+                    critical("tasks", connections, () -> tasks.countOpen(userId)));
+            Subtask<Optional<PointsStanding>> points = scope.fork(
+                    critical("points", connections, () -> reads.findStanding(userId)));
+            Subtask<Optional<Long>> rank = scope.fork(
+                    optional("rank", connections, () -> reads.findRank(userId)));
+            Subtask<Optional<List<ActivityEntry>>> activity = scope.fork(
+                    optional("activity", connections, () -> reads.findRecentActivity(userId, activitySince, activityLimit)));
+
+            scope.join();
+
+            if (points.get().isEmpty()) {
+                return Optional.empty();
+            }
+            List<String> missing = new ArrayList<>();
+            if (rank.get().isEmpty()) {
+                missing.add("rank");
+            }
+            if (activity.get().isEmpty()) {
+                missing.add("activity");
+            }
+            return Optional.of(new Dashboard(date, plan.get(),
+                    openTasks.get().getOrDefault(TaskStatus.ACTIVE, 0),
+                    openTasks.get().getOrDefault(TaskStatus.OVERDUE, 0),
+                    points.get().get(), rank.get().orElse(null), activity.get().orElse(null), List.copyOf(missing)));
+        } catch (StructuredTaskScope.FailedException e) {
+            throw toSqlException(e.getCause());
+        } catch (StructuredTaskScope.TimeoutException e) {
+            throw new SQLTimeoutException("Dashboard was not loaded within " + effectiveTimeout.toMillis() + " ms");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Section<T> {
+        T load() throws Exception;
+    }
+
+    private <T> Callable<T> critical(String name, Semaphore connections, Section<T> section) {
+        return RequestContext.wrap(() -> {
+            try {
+                return loadSection(name, connections, section);
+            } catch (StructuredTaskScope.TimeoutException e) {
+                throw new SQLTimeoutException("Dashboard section '" + name + "' timed out");
+            } catch (StructuredTaskScope.FailedException e) {
+                throw toSqlException(e.getCause());
+            }
+        });
+    }
+
+    private <T> Callable<Optional<T>> optional(String name, Semaphore connections, Section<T> section) {
+        return RequestContext.wrap(() -> {
+            try {
+                return Optional.of(loadSection(name, connections, section));
+            } catch (StructuredTaskScope.TimeoutException e) {
+                logger.warn("Dashboard section '{}' timed out after {} ms, omitted", name, sectionTimeout.toMillis());
+                return Optional.empty();
+            } catch (StructuredTaskScope.FailedException e) {
+                logger.warn("Dashboard section '{}' failed, omitted", name, e.getCause());
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Выполняет секцию во вложенном scope с собственным timeout.
+     */
+    private <T> T loadSection(String name, Semaphore connections, Section<T> section) throws InterruptedException {
+        try (StructuredTaskScope<T, T> scope = StructuredTaskScope.open(
+                StructuredTaskScope.Joiner.<T>anySuccessfulResultOrThrow(),
+                config -> config.withTimeout(RequestDeadline.cap(sectionTimeout)).withName("dashboard-" + name))) {
+            // MDC не наследуется потоками scope, переносим request_id явно
+            scope.fork(RequestContext.wrap(() -> {
+                connections.acquire();
+                try {
+                    return section.load();
+                } finally {
+                    connections.release();
+                }
+            }));
+            return scope.join();
+        }
+    }
+
+    private static SQLException toSqlException(Throwable cause) {
+        if (cause instanceof SQLException sqlException) {
+            return sqlException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new SQLException("Dashboard section failed", cause);
+    }
+}
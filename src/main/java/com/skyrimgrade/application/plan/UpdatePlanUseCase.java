@@ -0,0 +1,44 @@
+package com.skyrimgrade.application.plan;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.domain.event.DomainEventPublisher;
+import com.skyrimgrade.domain.plan.PlanItem;
+import com.skyrimgrade.domain.plan.PlanRepository;
+import com.skyrimgrade.domain.plan.PlanUpdateResult;
+import com.skyrimgrade.infrastructure.cache.CollectionVersions;
+
+/**
+ * Изменение слотов дневного плана (PUT /api/plans/{id}).
+ *
+ * Клиент присылает полный список слотов и updated_at плана, который он видел.
+ * Записывается только разница; CONFLICT означает, что план успели изменить,
+ * и клиенту нужно перечитать его (409). Версия плана для ETag и PlanUpdated
+ * меняются, только если что-то действительно записано.
+ */
+public class UpdatePlanUseCase {
+
+    private final PlanRepository repository;
+    private final CollectionVersions versions;
+    private final DomainEventPublisher events;
+
+    public UpdatePlanUseCase(PlanRepository repository, CollectionVersions versions, DomainEventPublisher events) {
+        this.repository = repository;
+        this.versions = versions;
+        this.events = events;
+    }
+
+    public PlanUpdateResult execute(int userId, int planId, LocalDateTime expectedUpdatedAt, List<PlanItem> items)
+            throws SQLException {
+        PlanUpdateResult result = repository.updateItems(userId, planId, expectedUpdatedAt, items);
+        if (result.status() == PlanUpdateResult.Status.UPDATED) {
+            versions.bump(CollectionVersions.planKey(userId, result.planDate()));
+            events.publish(new DomainEvent.PlanUpdated(userId, planId, result.planDate(), Instant.now()));
+        }
+        return result;
+    }
+}
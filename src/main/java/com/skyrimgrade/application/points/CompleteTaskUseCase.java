@@ -0,0 +1,58 @@
+package com.skyrimgrade.application.points;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Optional;
+
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.domain.event.DomainEventPublisher;
+import com.skyrimgrade.domain.points.LedgerResult;
+import com.skyrimgrade.domain.points.PointsLedger;
+import com.skyrimgrade.infrastructure.cache.CollectionVersions;
+import com.skyrimgrade.infrastructure.cache.IdempotencyCache;
+
+/**
+ * Выполнение задачи с начислением баллов (POST /api/tasks/{id}/complete).
+ *
+ * Повтор с тем же Idempotency-Key отвечается из кэша узла, затем из idempotency_keys;
+ * события и сброс версий коллекций происходят только при первом успешном выполнении.
+ */
+public class CompleteTaskUseCase {
+
+    private final PointsLedger ledger;
+    private final IdempotencyCache<LedgerResult> idempotencyCache;
+    private final CollectionVersions versions;
+    private final DomainEventPublisher events;
+
+    public CompleteTaskUseCase(PointsLedger ledger, IdempotencyCache<LedgerResult> idempotencyCache,
+                               CollectionVersions versions, DomainEventPublisher events) {
+        this.ledger = ledger;
+        this.idempotencyCache = idempotencyCache;
+        this.versions = versions;
+        this.events = events;
+    }
+
+    public LedgerResult execute(int userId, int taskId, String idempotencyKey) throws SQLException {
+        String request = "complete:" + taskId;
+        if (idempotencyKey != null) {
+            Optional<LedgerResult> cached = idempotencyCache.get(userId, idempotencyKey, request);
+            if (cached.isPresent()) {
+                return cached.get().asReplay();
+            }
+        }
+
+        LedgerResult result = ledger.completeTask(userId, taskId, idempotencyKey);
+        if (result.isSuccess() && idempotencyKey != null) {
+            idempotencyCache.put(userId, idempotencyKey, request, result);
+        }
+        if (result.isSuccess() && !result.replayed()) {
+            versions.bump(userId, CollectionVersions.Collection.TASKS);
+            Instant now = Instant.now();
+            events.publish(new DomainEvent.TaskCompleted(userId, taskId, result.points(), now));
+            if (result.points() > 0) {
+                events.publish(new DomainEvent.PointsAwarded(userId, result.points(), now));
+            }
+        }
+        return result;
+    }
+}
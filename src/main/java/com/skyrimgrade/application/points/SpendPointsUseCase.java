@@ -0,0 +1,49 @@
+package com.skyrimgrade.application.points;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Optional;
+
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.domain.event.DomainEventPublisher;
+import com.skyrimgrade.domain.points.LedgerResult;
+import com.skyrimgrade.domain.points.PointsLedger;
+import com.skyrimgrade.infrastructure.cache.IdempotencyCache;
+
+/**
+ * Списание баллов (POST /api/users/me/points/spend). Остаток никогда не уходит в минус:
+ * проверка и списание - один условный UPDATE. Событие PointsSpent публикуется только
+ * при первом успешном списании, повтор по Idempotency-Key его не дублирует.
+ */
+public class SpendPointsUseCase {
+
+    private final PointsLedger ledger;
+    private final IdempotencyCache<LedgerResult> idempotencyCache;
+    private final DomainEventPublisher events;
+
+    public SpendPointsUseCase(PointsLedger ledger, IdempotencyCache<LedgerResult> idempotencyCache,
+                              DomainEventPublisher events) {
+        this.ledger = ledger;
+        this.idempotencyCache = idempotencyCache;
+        this.events = events;
+    }
+
+    public LedgerResult execute(int userId, int amount, String idempotencyKey) throws SQLException {
+        String request = "spend:" + amount;
+        if (idempotencyKey != null) {
+            Optional<LedgerResult> cached = idempotencyCache.get(userId, idempotencyKey, request);
+            if (cached.isPresent()) {
+                return cached.get().asReplay();
+            }
+        }
+
+        LedgerResult result = ledger.spendPoints(userId, amount, idempotencyKey);
+        if (result.isSuccess() && idempotencyKey != null) {
+            idempotencyCache.put(userId, idempotencyKey, request, result);
+        }
+        if (result.isSuccess() && !result.replayed()) {
+            events.publish(new DomainEvent.PointsSpent(userId, result.points(), result.balance(), Instant.now()));
+        }
+        return result;
+    }
+}
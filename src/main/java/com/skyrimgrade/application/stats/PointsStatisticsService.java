@@ -0,0 +1,95 @@
+package com.skyrimgrade.application.stats;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.skyrimgrade.domain.stats.CompletionBucket;
+import com.skyrimgrade.domain.stats.PointsBucket;
+import com.skyrimgrade.domain.stats.RollupGranularity;
+import com.skyrimgrade.domain.stats.StatsRollupRepository;
+import com.skyrimgrade.domain.task.Difficulty;
+
+/**
+ * Данные для графиков /api/statistics/points.
+ *
+ * Читает только предагрегированные бакеты и дополняет ряд нулями, чтобы у графика
+ * не было пропусков. Стоимость запроса зависит от числа бакетов, а не от длины истории.
+ */
+public class PointsStatisticsService {
+
+    public static final int MAX_BUCKETS = 1000;
+
+    private final StatsRollupRepository repository;
+
+    public PointsStatisticsService(StatsRollupRepository repository) {
+        this.repository = repository;
+    }
+
+    public List<PointsBucket> pointsSeries(int userId, RollupGranularity granularity, LocalDate from, LocalDate to)
+            throws SQLException {
+        List<LocalDate> buckets = buckets(granularity, from, to);
+        Map<LocalDate, Long> points = new HashMap<>();
+        for (PointsBucket bucket : repository.findPoints(userId, granularity, from, to)) {
+            points.put(bucket.bucketStart(), bucket.points());
+        }
+
+        List<PointsBucket> series = new ArrayList<>(buckets.size());
+        for (LocalDate start : buckets) {
+            series.add(new PointsBucket(start, points.getOrDefault(start, 0L)));
+        }
+        return series;
+    }
+
+    /**
+     * Число выполненных задач по сложностям в каждом бакете (все сложности, включая нули).
+     */
+    public List<CompletionSeries> completionSeries(int userId, RollupGranularity granularity, LocalDate from, LocalDate to)
+            throws SQLException {
+        List<LocalDate> buckets = buckets(granularity, from, to);
+        Map<LocalDate, Map<Difficulty, Integer>> byBucket = new HashMap<>();
+        for (CompletionBucket bucket : repository.findCompletions(userId, granularity, from, to)) {
+            byBucket.computeIfAbsent(bucket.bucketStart(), b -> new EnumMap<>(Difficulty.class))
+                    .put(bucket.difficulty(), bucket.completions());
+        }
+
+        List<CompletionSeries> series = new ArrayList<>(buckets.size());
+        for (LocalDate start : buckets) {
+            Map<Difficulty, Integer> counts = new EnumMap<>(Difficulty.class);
+            for (Difficulty difficulty : Difficulty.values()) {
+                counts.put(difficulty, byBucket.getOrDefault(start, Map.of()).getOrDefault(difficulty, 0));
+            }
+            series.add(new CompletionSeries(start, counts));
+        }
+        return series;
+    }
+
+    static List<LocalDate> buckets(RollupGranularity granularity, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        // грубая оценка до построения ряда, чтобы не создавать миллионы дат
+        if (ChronoUnit.DAYS.between(from, to) > MAX_BUCKETS * 31L) {
+            throw new IllegalArgumentException("Range is too large, use a coarser granularity");
+        }
+        List<LocalDate> buckets = new ArrayList<>();
+        for (LocalDate start = granularity.bucketStart(from); !start.isAfter(to); start = granularity.next(start)) {
+            if (buckets.size() == MAX_BUCKETS) {
+                throw new IllegalArgumentException("Range exceeds " + MAX_BUCKETS + " buckets, use a coarser granularity");
+            }
+            buckets.add(start);
+        }
+        return buckets;
+    }
+
+    public record CompletionSeries(
+            LocalDate bucketStart,
+            Map<Difficulty, Integer> completions
+            ) {
+    }
+}
@@ -0,0 +1,199 @@
+package com.skyrimgrade.application.task;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.domain.event.DomainEventPublisher;
+import com.skyrimgrade.domain.task.Difficulty;
+import com.skyrimgrade.domain.task.Task;
+import com.skyrimgrade.domain.task.TaskBatchRepository;
+import com.skyrimgrade.domain.task.TaskStatus;
+import com.skyrimgrade.infrastructure.cache.CollectionVersions;
+
+/**
+ * Массовый импорт задач (POST /api/tasks/import).
+ *
+ * Строки читаются потоково, проверяются на соответствие CHECK constraints из V2
+ * и пишутся пачками по batchSize - каждая пачка в своей транзакции.
+ * Ошибка пачки в БД помечает ошибочными только строки этой пачки.
+ */
+public class ImportTasksUseCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportTasksUseCase.class);
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_TITLE_LENGTH = 255;
+
+    private final TaskBatchRepository repository;
+    private final CollectionVersions versions;
+    private final DomainEventPublisher events;
+    private final int batchSize;
+
+    public ImportTasksUseCase(TaskBatchRepository repository, CollectionVersions versions,
+                              DomainEventPublisher events, int batchSize) {
+        this.repository = repository;
+        this.versions = versions;
+        this.events = events;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public TaskImportReport execute(int userId, InputStream input) throws IOException, SQLException {
+        Set<Integer> projectIds = repository.findProjectIds(userId);
+        Progress progress = new Progress();
+
+        List<Task> batch = new ArrayList<>(batchSize);
+        List<Integer> batchRows = new ArrayList<>(batchSize);
+
+        try (TaskImportReader reader = new TaskImportReader(input)) {
+            while (reader.hasNext()) {
+                TaskImportReader.ReadResult result = reader.next();
+                progress.total++;
+
+                if (result.error() != null) {
+                    progress.fail(result.rowNumber(), result.error());
+                    continue;
+                }
+
+                try {
+                    batch.add(toTask(userId, result.row(), projectIds));
+                    batchRows.add(result.rowNumber());
+                } catch (IllegalArgumentException e) {
+                    progress.fail(result.rowNumber(), e.getMessage());
+                    continue;
+                }
+
+                if (batch.size() >= batchSize) {
+                    flush(userId, batch, batchRows, progress);
+                }
+            }
+        }
+        flush(userId, batch, batchRows, progress);
+
+        if (progress.imported > 0) {
+            events.publish(new DomainEvent.TasksImported(userId, progress.imported, Instant.now()));
+        }
+
+        logger.info("Task import for user {}: total={}, imported={}, failed={}",
+                userId, progress.total, progress.imported, progress.failed);
+        return new TaskImportReport(progress.total, progress.imported, progress.failed,
+                progress.pointsAwarded, List.copyOf(progress.errors));
+    }
+
+    private void flush(int userId, List<Task> batch, List<Integer> batchRows, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            TaskBatchRepository.BatchResult result = repository.insertBatch(userId, batch);
+            progress.imported += result.taskIds().size();
+            progress.pointsAwarded += result.pointsAwarded();
+            versions.bump(userId, CollectionVersions.Collection.TASKS);
+            if (result.pointsAwarded() > 0) {
+                events.publish(new DomainEvent.PointsAwarded(userId, result.pointsAwarded(), Instant.now()));
+            }
+        } catch (SQLException e) {
+            logger.warn("Task import batch of {} rows failed for user {}", batch.size(), userId, e);
+            for (Integer row : batchRows) {
+                progress.fail(row, "Database error: " + e.getMessage());
+            }
+        }
+        batch.clear();
+        batchRows.clear();
+    }
+
+    /**
+     * Проверяет строку и превращает ее в задачу. Баллы задаются уровнем сложности.
+     */
+    private Task toTask(int userId, TaskImportRow row, Set<Integer> projectIds) {
+        if (row == null) {
+            throw new IllegalArgumentException("Row must be a JSON object");
+        }
+        if (row.title() == null || row.title().isBlank()) {
+            throw new IllegalArgumentException("title is required");
+        }
+        if (row.title().length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("title is longer than " + MAX_TITLE_LENGTH + " characters");
+        }
+        if (row.difficulty() == null) {
+            throw new IllegalArgumentException("difficulty is required");
+        }
+        Difficulty difficulty = parseEnum(Difficulty.class, row.difficulty(), "difficulty");
+        TaskStatus status = row.status() == null
+                ? TaskStatus.ACTIVE
+                : parseEnum(TaskStatus.class, row.status(), "status");
+
+        if (row.projectId() != null && !projectIds.contains(row.projectId())) {
+            throw new IllegalArgumentException("project " + row.projectId() + " not found");
+        }
+
+        LocalDateTime deadline = parseDateTime(row.deadline(), "deadline");
+        LocalDateTime completedAt = parseDateTime(row.completedAt(), "completedAt");
+        if (status == TaskStatus.COMPLETED && completedAt == null) {
+            completedAt = LocalDateTime.now();
+        } else if (status != TaskStatus.COMPLETED) {
+            completedAt = null;
+        }
+
+        return new Task(null, userId, row.title().trim(), row.description(), difficulty, difficulty.points(),
+                status, deadline, completedAt, row.projectId(), null, null);
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String field) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid " + field + ": " + value);
+        }
+    }
+
+    /**
+     * Принимает 2026-01-04, 2026-01-04T10:00:00 и 2026-01-04T10:00:00+03:00.
+     */
+    private static LocalDateTime parseDateTime(String value, String field) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String text = value.trim();
+        try {
+            if (text.length() == 10) {
+                return LocalDate.parse(text).atStartOfDay();
+            }
+            if (text.endsWith("Z") || text.matches(".*[+-]\\d{2}:\\d{2}$")) {
+                return OffsetDateTime.parse(text).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+            }
+            return LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid " + field + ": " + value);
+        }
+    }
+
+    private static final class Progress {
+        int total;
+        int imported;
+        int failed;
+        int pointsAwarded;
+        final List<TaskImportReport.RowError> errors = new ArrayList<>();
+
+        void fail(int row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new TaskImportReport.RowError(row, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.skyrimgrade.application.task;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.skyrimgrade.infrastructure.json.JsonCodec;
+
+/**
+ * Потоковое чтение строк импорта из JSON массива или NDJSON.
+ *
+ * Строки читаются по одной через MappingIterator, весь документ в памяти не держится.
+ * Ошибка маппинга одной строки не прерывает чтение, синтаксическая ошибка JSON - прерывает.
+ */
+public class TaskImportReader implements AutoCloseable {
+
+    private final MappingIterator<TaskImportRow> iterator;
+    private int rowNumber;
+    private boolean finished;
+
+    public TaskImportReader(InputStream input) throws IOException {
+        // для массива [...] MappingIterator сам разворачивает элементы,
+        // для NDJSON читает последовательность корневых объектов
+        // неизвестные поля игнорируются (настройка JsonCodec)
+        this.iterator = JsonCodec.shared().readValues(input, TaskImportRow.class);
+    }
+
+    public boolean hasNext() {
+        if (finished) {
+            return false;
+        }
+        try {
+            return iterator.hasNextValue();
+        } catch (IOException e) {
+            // синтаксическая ошибка: отдадим ее следующей строкой и остановимся
+            return true;
+        }
+    }
+
+    public ReadResult next() {
+        if (finished) {
+            throw new NoSuchElementException();
+        }
+        rowNumber++;
+        try {
+            return new ReadResult(rowNumber, iterator.nextValue(), null);
+        } catch (JsonParseException e) {
+            finished = true;
+            return new ReadResult(rowNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+        } catch (JsonProcessingException e) {
+            return new ReadResult(rowNumber, null, "Invalid row: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            finished = true;
+            return new ReadResult(rowNumber, null, "Failed to read input: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // MappingIterator оборачивает ошибки hasNextValue() в RuntimeJsonMappingException
+            finished = true;
+            return new ReadResult(rowNumber, null, "Malformed JSON: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        iterator.close();
+    }
+
+    public record ReadResult(
+            int rowNumber,
+            TaskImportRow row,
+            String error
+            ) {
+    }
+}
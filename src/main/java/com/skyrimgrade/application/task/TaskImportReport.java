@@ -0,0 +1,22 @@
+package com.skyrimgrade.application.task;
+
+import java.util.List;
+
+/**
+ * Результат массового импорта задач с ошибками по строкам.
+ * errors содержит не больше ImportTasksUseCase.MAX_REPORTED_ERRORS записей, failed - полное число.
+ */
+public record TaskImportReport(
+        int total,
+        int imported,
+        int failed,
+        int pointsAwarded,
+        List<RowError> errors
+        ) {
+
+    public record RowError(
+            int row,
+            String message
+            ) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.skyrimgrade.application.task;
+
+/**
+ * Строка импорта задач в "сыром" виде - как пришла в JSON.
+ * Значения enum и дат проверяются в ImportTasksUseCase, чтобы вернуть понятную ошибку по строке.
+ */
+public record TaskImportRow(
+        String title,
+        String description,
+        String difficulty,
+        String status,
+        String deadline,
+        String completedAt,
+        Integer projectId
+        ) {
+}
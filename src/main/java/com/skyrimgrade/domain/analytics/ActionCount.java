@@ -0,0 +1,11 @@
+package com.skyrimgrade.domain.analytics;
+
+/**
+ * Число записей аудита по действию и типу сущности.
+ */
+public record ActionCount(
+        String action,
+        String entityType,
+        long events
+        ) {
+}
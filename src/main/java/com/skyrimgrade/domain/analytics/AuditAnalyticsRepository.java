@@ -0,0 +1,31 @@
+package com.skyrimgrade.domain.analytics;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Чтение агрегатов аудита. Работает только с rollup-таблицами, сам audit_log не читается.
+ * userId = ALL_USERS - сумма по всем пользователям.
+ */
+public interface AuditAnalyticsRepository {
+
+    int ALL_USERS = 0;
+
+    /**
+     * Непустые часы в [from, to), по возрастанию.
+     */
+    List<HourlyActivity> findHourly(int userId, LocalDateTime from, LocalDateTime to) throws SQLException;
+
+    /**
+     * Действия в [from, to), по убыванию числа записей.
+     */
+    List<ActionCount> findActions(int userId, LocalDateTime from, LocalDateTime to) throws SQLException;
+
+    /**
+     * Значения ключей details за дни [from, to], по убыванию числа записей.
+     * action null - по всем действиям.
+     */
+    List<FacetCount> findFacets(int userId, LocalDate from, LocalDate to, String action) throws SQLException;
+}
@@ -0,0 +1,12 @@
+package com.skyrimgrade.domain.analytics;
+
+import java.time.LocalDate;
+
+/**
+ * Число записей аудита за день.
+ */
+public record DailyActivity(
+        LocalDate day,
+        long events
+        ) {
+}
@@ -0,0 +1,11 @@
+package com.skyrimgrade.domain.analytics;
+
+/**
+ * Число записей аудита с данным значением ключа details (например source = import).
+ */
+public record FacetCount(
+        String facet,
+        String value,
+        long events
+        ) {
+}
@@ -0,0 +1,11 @@
+package com.skyrimgrade.domain.analytics;
+
+/**
+ * Ячейка тепловой карты активности: день недели (1 - понедельник, 7 - воскресенье) и час суток.
+ */
+public record HeatmapCell(
+        int dayOfWeek,
+        int hour,
+        long events
+        ) {
+}
@@ -0,0 +1,12 @@
+package com.skyrimgrade.domain.analytics;
+
+import java.time.LocalDateTime;
+
+/**
+ * Число записей аудита за час (все действия).
+ */
+public record HourlyActivity(
+        LocalDateTime hourStart,
+        long events
+        ) {
+}
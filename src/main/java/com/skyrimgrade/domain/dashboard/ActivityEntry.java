@@ -0,0 +1,14 @@
+package com.skyrimgrade.domain.dashboard;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись ленты последних действий пользователя (из audit_log).
+ */
+public record ActivityEntry(
+        String action,
+        String entityType,
+        Integer entityId,
+        LocalDateTime createdAt
+        ) {
+}
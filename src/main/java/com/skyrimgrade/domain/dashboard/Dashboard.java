@@ -0,0 +1,24 @@
+package com.skyrimgrade.domain.dashboard;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.skyrimgrade.domain.plan.PlanItem;
+
+/**
+ * Данные главного экрана.
+ *
+ * rank и recentActivity необязательны: если их не удалось получить вовремя, они равны null,
+ * а имя секции попадает в missingSections.
+ */
+public record Dashboard(
+        LocalDate date,
+        List<PlanItem> plan,
+        int activeTasks,
+        int overdueTasks,
+        PointsStanding points,
+        Long rank,
+        List<ActivityEntry> recentActivity,
+        List<String> missingSections
+        ) {
+}
@@ -0,0 +1,24 @@
+package com.skyrimgrade.domain.dashboard;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Чтения для главного экрана, которых нет в репозиториях задач и планов.
+ */
+public interface DashboardReadRepository {
+
+    Optional<PointsStanding> findStanding(int userId) throws SQLException;
+
+    /**
+     * Место пользователя по total_points (1 - лучший).
+     */
+    long findRank(int userId) throws SQLException;
+
+    /**
+     * Последние действия не старше since, новые первыми.
+     */
+    List<ActivityEntry> findRecentActivity(int userId, LocalDateTime since, int limit) throws SQLException;
+}
@@ -0,0 +1,10 @@
+package com.skyrimgrade.domain.dashboard;
+
+/**
+ * Баллы пользователя: заработано всего и доступный остаток.
+ */
+public record PointsStanding(
+        int totalPoints,
+        int balance
+        ) {
+}
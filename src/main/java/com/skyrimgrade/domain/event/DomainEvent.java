@@ -0,0 +1,158 @@
+package com.skyrimgrade.domain.event;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import com.skyrimgrade.domain.task.Task;
+
+/**
+ * Доменные события, на которые подписываются push-уведомления (SSE) и кэши.
+ */
+public sealed interface DomainEvent permits
+        DomainEvent.TaskCompleted,
+        DomainEvent.PointsAwarded,
+        DomainEvent.PointsSpent,
+        DomainEvent.TaskOverdue,
+        DomainEvent.PlanUpdated,
+        DomainEvent.TaskSaved,
+        DomainEvent.TaskDeleted,
+        DomainEvent.TasksImported,
+        DomainEvent.TasksArchived,
+        DomainEvent.ProjectSaved,
+        DomainEvent.ProjectDeleted {
+
+    int userId();
+
+    Instant occurredAt();
+
+    /**
+     * Ключ склейки: из нескольких событий с одинаковым ключом подписчику
+     * достаточно доставить одно (см. coalesce).
+     */
+    String coalesceKey();
+
+    /**
+     * Склеивает это событие с более новым событием с тем же ключом.
+     * По умолчанию побеждает более новое.
+     */
+    default DomainEvent coalesce(DomainEvent newer) {
+        return newer;
+    }
+
+    record TaskCompleted(int userId, int taskId, int pointsAwarded, Instant occurredAt) implements DomainEvent {
+        @Override
+        public String coalesceKey() {
+            return "task:" + taskId;
+        }
+    }
+
+    record PointsAwarded(int userId, int points, Instant occurredAt) implements DomainEvent {
+        @Override
+        public String coalesceKey() {
+            return "points";
+        }
+
+        /**
+         * Начисления суммируются, чтобы клиент не потерял баллы при склейке.
+         */
+        @Override
+        public DomainEvent coalesce(DomainEvent newer) {
+            if (newer instanceof PointsAwarded next) {
+                return new PointsAwarded(userId, points + next.points(), next.occurredAt());
+            }
+            return newer;
+        }
+    }
+
+    /**
+     * Списание баллов; balance - остаток после списания.
+     */
+    record PointsSpent(int userId, int amount, int balance, Instant occurredAt) implements DomainEvent {
+        @Override
+        public String coalesceKey() {
+            return "points-spent";
+        }
+
+        /**
+         * Списания суммируются, остаток берется из более нового события.
+         */
+        @Override
+        public DomainEvent coalesce(DomainEvent newer) {
+            if (newer instanceof PointsSpent next) {
+                return new PointsSpent(userId, amount + next.amount(), next.balance(), next.occurredAt());
+            }
+            return newer;
+        }
+    }
+
+    record TaskOverdue(int userId, int taskId, Instant occurredAt) implements DomainEvent {
+        @Override
+        public String coalesceKey() {
+            return "task:" + taskId;
+        }
+    }
+
+    record PlanUpdated(int userId, int planId, LocalDate planDate, Instant occurredAt) implements DomainEvent {
+        @Override
+        public String coalesceKey() {
+            return "plan:" + planId;
+        }
+    }
+
+    record TaskSaved(int userId, Task task, Instant occurredAt) implements DomainEvent {
+        @Override
+        public String coalesceKey() {
+            return "task:" + task.id();
+        }
+    }
+
+    record TaskDeleted(int userId, int taskId, Instant occurredAt) implements DomainEvent {
+        @Override
+        public String coalesceKey() {
+            return "task:" + taskId;
+        }
+    }
+
+    /**
+     * Массовое изменение задач: подписчикам проще перечитать коллекцию целиком.
+     */
+    record TasksImported(int userId, int count, Instant occurredAt) implements DomainEvent {
+        @Override
+        public String coalesceKey() {
+            return "tasks";
+        }
+
+        @Override
+        public DomainEvent coalesce(DomainEvent newer) {
+            if (newer instanceof TasksImported next) {
+                return new TasksImported(userId, count + next.count(), next.occurredAt());
+            }
+            return newer;
+        }
+    }
+
+    /**
+     * Выполненные задачи перенесены в tasks_archive и пропали из списков без includeArchived.
+     */
+    record TasksArchived(int userId, int count, Instant occurredAt) implements DomainEvent {
+        @Override
+        public String coalesceKey() {
+            return "tasks";
+        }
+    }
+
+    record ProjectSaved(int userId, int projectId, String name, String description, String status,
+                        String difficulty, Instant occurredAt) implements DomainEvent {
+        @Override
+        public String coalesceKey() {
+            return "project:" + projectId;
+        }
+    }
+
+    record ProjectDeleted(int userId, int projectId, Instant occurredAt) implements DomainEvent {
+        @Override
+        public String coalesceKey() {
+            return "project:" + projectId;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.skyrimgrade.domain.event;
+
+/**
+ * Публикация доменных событий. Вызывается после commit транзакции.
+ */
+public interface DomainEventPublisher {
+
+    void publish(DomainEvent event);
+}
@@ -0,0 +1,31 @@
+package com.skyrimgrade.domain.plan;
+
+import java.time.LocalTime;
+import java.util.Objects;
+
+/**
+ * Слот дневного плана (таблица plan_items).
+ * id равен null у новых слотов, которых еще нет в БД.
+ */
+public record PlanItem(
+        Integer id,
+        Integer taskId,
+        String title,
+        String description,
+        LocalTime timeFrom,
+        LocalTime timeTo,
+        boolean completed
+        ) {
+
+    /**
+     * Совпадает ли содержимое слота, без учета id.
+     */
+    public boolean sameContent(PlanItem other) {
+        return completed == other.completed
+                && Objects.equals(taskId, other.taskId)
+                && Objects.equals(title, other.title)
+                && Objects.equals(description, other.description)
+                && Objects.equals(timeFrom, other.timeFrom)
+                && Objects.equals(timeTo, other.timeTo);
+    }
+}
@@ -0,0 +1,71 @@
+package com.skyrimgrade.domain.plan;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Разница между сохраненными слотами плана и тем, что прислал клиент.
+ *
+ * Слоты без id - вставки; слоты с id, у которых изменилось содержимое, - обновления;
+ * сохраненные слоты, которых нет в запросе, - удаления. Неизмененные слоты не трогаются,
+ * поэтому перенос одного слота в плане из 30 стоит одного UPDATE.
+ */
+public record PlanItemDiff(
+        List<PlanItem> inserts,
+        List<PlanItem> updates,
+        List<Integer> deletes
+        ) {
+
+    public static PlanItemDiff compute(List<PlanItem> stored, List<PlanItem> desired) {
+        Map<Integer, PlanItem> storedById = new HashMap<>();
+        for (PlanItem item : stored) {
+            storedById.put(item.id(), item);
+        }
+
+        List<PlanItem> inserts = new ArrayList<>();
+        List<PlanItem> updates = new ArrayList<>();
+        Set<Integer> kept = new HashSet<>();
+        for (PlanItem item : desired) {
+            validate(item);
+            if (item.id() == null) {
+                inserts.add(item);
+                continue;
+            }
+            PlanItem current = storedById.get(item.id());
+            if (current == null) {
+                throw new IllegalArgumentException("Plan item " + item.id() + " does not belong to the plan");
+            }
+            if (!kept.add(item.id())) {
+                throw new IllegalArgumentException("Plan item " + item.id() + " is listed twice");
+            }
+            if (!current.sameContent(item)) {
+                updates.add(item);
+            }
+        }
+
+        List<Integer> deletes = new ArrayList<>();
+        for (PlanItem item : stored) {
+            if (!kept.contains(item.id())) {
+                deletes.add(item.id());
+            }
+        }
+        return new PlanItemDiff(List.copyOf(inserts), List.copyOf(updates), List.copyOf(deletes));
+    }
+
+    private static void validate(PlanItem item) {
+        if (item.title() == null || item.title().isBlank()) {
+            throw new IllegalArgumentException("Plan item title is required");
+        }
+        if (item.timeFrom() == null || item.timeTo() == null || !item.timeTo().isAfter(item.timeFrom())) {
+            throw new IllegalArgumentException("Plan item time_to must be after time_from");
+        }
+    }
+
+    public boolean isEmpty() {
+        return inserts.isEmpty() && updates.isEmpty() && deletes.isEmpty();
+    }
+}
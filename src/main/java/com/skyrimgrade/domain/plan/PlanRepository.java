@@ -0,0 +1,26 @@
+package com.skyrimgrade.domain.plan;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Хранение слотов дневных планов.
+ */
+public interface PlanRepository {
+
+    List<PlanItem> findItems(int userId, int planId) throws SQLException;
+
+    /**
+     * Слоты плана пользователя на дату; пустой список, если плана нет.
+     */
+    List<PlanItem> findItemsByDate(int userId, LocalDate planDate) throws SQLException;
+
+    /**
+     * Приводит слоты плана к items, записывая только разницу (PlanItemDiff), в одной транзакции.
+     * Если daily_plans.updated_at не равен expectedUpdatedAt, ничего не меняет и возвращает CONFLICT.
+     */
+    PlanUpdateResult updateItems(int userId, int planId, LocalDateTime expectedUpdatedAt, List<PlanItem> items)
+            throws SQLException;
+}
@@ -0,0 +1,31 @@
+package com.skyrimgrade.domain.plan;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Итог обновления слотов плана.
+ *
+ * updatedAt - актуальное значение daily_plans.updated_at: новое после UPDATED, текущее
+ * при UNCHANGED и CONFLICT. Клиент передает его в следующем запросе как ожидаемую версию.
+ */
+public record PlanUpdateResult(
+        Status status,
+        LocalDate planDate,
+        LocalDateTime updatedAt,
+        int inserted,
+        int updated,
+        int deleted
+        ) {
+
+    public enum Status {
+        UPDATED,
+        UNCHANGED,
+        NOT_FOUND,
+        CONFLICT
+    }
+
+    public boolean isSuccess() {
+        return status == Status.UPDATED || status == Status.UNCHANGED;
+    }
+}
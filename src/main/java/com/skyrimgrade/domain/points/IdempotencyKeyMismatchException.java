@@ -0,0 +1,11 @@
+package com.skyrimgrade.domain.points;
+
+/**
+ * Idempotency-Key уже использован для другой операции или другого аргумента.
+ */
+public class IdempotencyKeyMismatchException extends IllegalArgumentException {
+
+    public IdempotencyKeyMismatchException(String idempotencyKey) {
+        super("Idempotency key " + idempotencyKey + " was already used for a different request");
+    }
+}
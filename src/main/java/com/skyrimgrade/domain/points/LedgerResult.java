@@ -0,0 +1,33 @@
+package com.skyrimgrade.domain.points;
+
+/**
+ * Итог операции с баллами.
+ *
+ * points - начислено или списано; balance - доступный остаток (total_points - points_spent);
+ * version - новая версия измененной строки (задачи при выполнении, пользователя при списании).
+ * replayed = true, если ответ взят из сохраненного результата по Idempotency-Key.
+ */
+public record LedgerResult(
+        Status status,
+        int points,
+        int balance,
+        long version,
+        boolean replayed
+        ) {
+
+    public enum Status {
+        COMPLETED,
+        SPENT,
+        NOT_FOUND,
+        NOT_ACTIVE,
+        INSUFFICIENT_POINTS
+    }
+
+    public boolean isSuccess() {
+        return status == Status.COMPLETED || status == Status.SPENT;
+    }
+
+    public LedgerResult asReplay() {
+        return replayed ? this : new LedgerResult(status, points, balance, version, true);
+    }
+}
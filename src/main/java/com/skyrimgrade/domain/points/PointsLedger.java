@@ -0,0 +1,18 @@
+package com.skyrimgrade.domain.points;
+
+import java.sql.SQLException;
+
+/**
+ * Выполнение задач и списание баллов без блокировки строки пользователя на чтение.
+ *
+ * Каждое изменение - условный UPDATE, который либо проходит целиком, либо не меняет ничего,
+ * поэтому баллы не начисляются дважды и не списываются в минус при гонках и повторах.
+ * Если задан idempotencyKey, успешный результат сохраняется, и повтор с тем же ключом
+ * получает его без повторного выполнения. Неуспешные результаты не сохраняются.
+ */
+public interface PointsLedger {
+
+    LedgerResult completeTask(int userId, int taskId, String idempotencyKey) throws SQLException;
+
+    LedgerResult spendPoints(int userId, int amount, String idempotencyKey) throws SQLException;
+}
@@ -0,0 +1,15 @@
+package com.skyrimgrade.domain.stats;
+
+import java.time.LocalDate;
+
+import com.skyrimgrade.domain.task.Difficulty;
+
+/**
+ * Число выполненных задач одной сложности за бакет.
+ */
+public record CompletionBucket(
+        LocalDate bucketStart,
+        Difficulty difficulty,
+        int completions
+        ) {
+}
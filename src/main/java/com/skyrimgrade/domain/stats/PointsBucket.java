@@ -0,0 +1,12 @@
+package com.skyrimgrade.domain.stats;
+
+import java.time.LocalDate;
+
+/**
+ * Сумма начисленных баллов за бакет.
+ */
+public record PointsBucket(
+        LocalDate bucketStart,
+        long points
+        ) {
+}
@@ -0,0 +1,43 @@
+package com.skyrimgrade.domain.stats;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Гранулярность бакетов статистики (колонка granularity в points_rollup / completion_rollup).
+ */
+public enum RollupGranularity {
+    DAY("D"),
+    WEEK("W"),
+    MONTH("M");
+
+    private final String code;
+
+    RollupGranularity(String code) {
+        this.code = code;
+    }
+
+    public String code() {
+        return code;
+    }
+
+    /**
+     * Первый день бакета, в который попадает дата: сама дата, понедельник недели или 1-е число.
+     */
+    public LocalDate bucketStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate next(LocalDate bucketStart) {
+        return switch (this) {
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.skyrimgrade.domain.stats;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Чтение предагрегированной статистики. Возвращаются только непустые бакеты
+ * в диапазоне [from, to], отсортированные по началу бакета.
+ */
+public interface StatsRollupRepository {
+
+    List<PointsBucket> findPoints(int userId, RollupGranularity granularity, LocalDate from, LocalDate to)
+            throws SQLException;
+
+    List<CompletionBucket> findCompletions(int userId, RollupGranularity granularity, LocalDate from, LocalDate to)
+            throws SQLException;
+}
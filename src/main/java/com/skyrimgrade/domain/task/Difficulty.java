@@ -0,0 +1,23 @@
+package com.skyrimgrade.domain.task;
+
+/**
+ * Уровни сложности задач (CHECK constraint в V2__create_tasks.sql) и баллы за выполнение.
+ */
+public enum Difficulty {
+    NOVICE(5),
+    APPRENTICE(10),
+    ADEPT(20),
+    EXPERT(50),
+    MASTER(100),
+    LEGENDARY(200);
+
+    private final int points;
+
+    Difficulty(int points) {
+        this.points = points;
+    }
+
+    public int points() {
+        return points;
+    }
+}
@@ -0,0 +1,27 @@
+package com.skyrimgrade.domain.task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Задача пользователя (таблица tasks).
+ * id равен null, пока задача не сохранена.
+ */
+public record Task(
+        Integer id,
+        int userId,
+        String title,
+        String description,
+        Difficulty difficulty,
+        int points,
+        TaskStatus status,
+        LocalDateTime deadline,
+        LocalDateTime completedAt,
+        Integer projectId,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+        ) {
+
+    public boolean isCompleted() {
+        return status == TaskStatus.COMPLETED;
+    }
+}
@@ -0,0 +1,28 @@
+package com.skyrimgrade.domain.task;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Пакетная запись задач (массовый импорт).
+ */
+public interface TaskBatchRepository {
+
+    /**
+     * id проектов пользователя - импортируемые задачи могут ссылаться только на них.
+     */
+    Set<Integer> findProjectIds(int userId) throws SQLException;
+
+    /**
+     * Вставляет задачи одной транзакцией вместе с начислением баллов за выполненные
+     * задачи и записями в audit_log.
+     */
+    BatchResult insertBatch(int userId, List<Task> tasks) throws SQLException;
+
+    record BatchResult(
+            List<Integer> taskIds,
+            int pointsAwarded
+            ) {
+    }
+}
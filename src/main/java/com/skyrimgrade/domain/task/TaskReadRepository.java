@@ -0,0 +1,27 @@
+package com.skyrimgrade.domain.task;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Чтение задач пользователя. Давно завершенные задачи лежат в архиве (V12)
+ * и попадают в результат только при includeArchived.
+ */
+public interface TaskReadRepository {
+
+    /**
+     * Задачи с указанными статусами (пустой набор - все статусы), новые первыми.
+     */
+    List<Task> findByUser(int userId, Set<TaskStatus> statuses, boolean includeArchived, int limit)
+            throws SQLException;
+
+    Optional<Task> findById(int userId, int taskId, boolean includeArchived) throws SQLException;
+
+    /**
+     * Число открытых задач (ACTIVE, OVERDUE) по статусам; статусы без задач отсутствуют в результате.
+     */
+    Map<TaskStatus, Integer> countOpen(int userId) throws SQLException;
+}
@@ -0,0 +1,11 @@
+package com.skyrimgrade.domain.task;
+
+/**
+ * Статусы задач (CHECK constraint в V2__create_tasks.sql).
+ */
+public enum TaskStatus {
+    ACTIVE,
+    COMPLETED,
+    OVERDUE,
+    CANCELLED
+}
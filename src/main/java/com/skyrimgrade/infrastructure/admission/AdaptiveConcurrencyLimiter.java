@@ -0,0 +1,78 @@
+package com.skyrimgrade.infrastructure.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Глобальный лимит одновременных запросов по схеме AIMD.
+ *
+ * Лимит растет на 1 за "окно" успешных запросов (аддитивно) и умножается на backoff,
+ * если задержка выше целевой, пул соединений насыщен (есть ожидающие потоки)
+ * или запрос завершился перегрузкой. Уменьшение не чаще одного раза за окно задержки,
+ * чтобы одна пачка медленных ответов не обрушила лимит до минимума.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final IntSupplier poolWaiting;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private double limit;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      long targetLatencyMillis, IntSupplier poolWaiting) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, targetLatencyMillis));
+        this.poolWaiting = poolWaiting;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Освобождает слот и корректирует лимит по результату запроса.
+     */
+    public void release(long latencyNanos, boolean overloaded, long nowNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        boolean saturated = overloaded
+                || latencyNanos > targetLatencyNanos
+                || poolWaiting.getAsInt() > 0;
+
+        synchronized (this) {
+            if (saturated) {
+                if (nowNanos - lastDecreaseNanos >= targetLatencyNanos) {
+                    limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                    lastDecreaseNanos = nowNanos;
+                }
+            } else if (inFlightBefore >= (int) limit / 2) {
+                // растем только когда лимит реально используется
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,142 @@
+package com.skyrimgrade.infrastructure.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.skyrimgrade.infrastructure.config.AppConfig;
+import com.skyrimgrade.infrastructure.persistence.DatabaseConnectionManager;
+
+/**
+ * Контроль нагрузки на входе: per-user token bucket + глобальный адаптивный лимит.
+ *
+ * Лишние запросы отклоняются сразу (429 для пользователя, превысившего свою квоту,
+ * 503 при глобальной перегрузке), а не ждут connectionTimeout пула.
+ *
+ * <pre>
+ * try (AdmissionController.Permit permit = admission.admit(userId)) {
+ *     try {
+ *         ... обработка запроса ...
+ *     } catch (SQLTransientConnectionException e) {
+ *         permit.markOverloaded();
+ *         throw e;
+ *     }
+ * }
+ * </pre>
+ */
+public class AdmissionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionController.class);
+
+    private static final int CLEANUP_EVERY = 4096;
+    private static final long GLOBAL_RETRY_AFTER_SECONDS = 1;
+
+    private final ConcurrentHashMap<Integer, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger admissions = new AtomicInteger();
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final double userRatePerSecond;
+    private final int userBurst;
+    private final LongSupplier nanoClock;
+
+    public AdmissionController(AppConfig config, DatabaseConnectionManager dbManager) {
+        this(new AdaptiveConcurrencyLimiter(
+                        config.getAdmissionInitialLimit(),
+                        config.getAdmissionMinLimit(),
+                        config.getAdmissionMaxLimit(),
+                        config.getAdmissionTargetLatencyMillis(),
+                        () -> dbManager.getPoolStats().waiting()),
+                config.getAdmissionUserRate(),
+                config.getAdmissionUserBurst(),
+                System::nanoTime);
+    }
+
+    public AdmissionController(AdaptiveConcurrencyLimiter limiter, double userRatePerSecond, int userBurst,
+                               LongSupplier nanoClock) {
+        this.limiter = limiter;
+        this.userRatePerSecond = userRatePerSecond;
+        this.userBurst = userBurst;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Пропускает запрос или бросает AdmissionRejectedException.
+     *
+     * @param userId пользователь или null для анонимных запросов (только глобальный лимит)
+     */
+    public Permit admit(Integer userId) {
+        long now = nanoClock.getAsLong();
+
+        if (userId != null) {
+            TokenBucket bucket = buckets.computeIfAbsent(userId,
+                    id -> new TokenBucket(userRatePerSecond, userBurst, now));
+            long waitNanos = bucket.tryAcquire(now);
+            if (waitNanos > 0) {
+                long second = TimeUnit.SECONDS.toNanos(1);
+                long retryAfter = Math.max(1, (waitNanos + second - 1) / second);
+                throw new AdmissionRejectedException("Rate limit exceeded for user " + userId,
+                        AdmissionRejectedException.TOO_MANY_REQUESTS, retryAfter);
+            }
+        }
+
+        if (!limiter.tryAcquire()) {
+            logger.debug("Global concurrency limit {} reached", limiter.getLimit());
+            throw new AdmissionRejectedException("Server is overloaded",
+                    AdmissionRejectedException.SERVICE_UNAVAILABLE, GLOBAL_RETRY_AFTER_SECONDS);
+        }
+
+        if (admissions.incrementAndGet() % CLEANUP_EVERY == 0) {
+            evictIdleBuckets(now);
+        }
+        return new Permit(now);
+    }
+
+    private void evictIdleBuckets(long now) {
+        buckets.entrySet().removeIf(entry -> entry.getValue().isFull(now));
+    }
+
+    public int getConcurrencyLimit() {
+        return limiter.getLimit();
+    }
+
+    public int getInFlight() {
+        return limiter.getInFlight();
+    }
+
+    public int trackedUsers() {
+        return buckets.size();
+    }
+
+    /**
+     * Разрешение на выполнение запроса. close() освобождает слот глобального лимита.
+     */
+    public final class Permit implements AutoCloseable {
+        private final long startNanos;
+        private boolean overloaded;
+        private boolean released;
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Запрос упал из-за перегрузки (например, таймаут получения соединения из пула).
+         */
+        public void markOverloaded() {
+            this.overloaded = true;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            long now = nanoClock.getAsLong();
+            limiter.release(now - startNanos, overloaded, now);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.skyrimgrade.infrastructure.admission;
+
+/**
+ * Запрос отклонен контролем нагрузки.
+ * HTTP слой отвечает statusCode (429 / 503) с заголовком Retry-After.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    public static final int TOO_MANY_REQUESTS = 429;
+    public static final int SERVICE_UNAVAILABLE = 503;
+
+    private final int statusCode;
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(String message, int statusCode, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.statusCode = statusCode;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
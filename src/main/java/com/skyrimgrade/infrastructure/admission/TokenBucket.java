@@ -0,0 +1,54 @@
+package com.skyrimgrade.infrastructure.admission;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket: ratePerSecond токенов в секунду, не больше burst накопленных.
+ * Время передается снаружи (System.nanoTime()), чтобы бакет был тестируемым.
+ */
+public class TokenBucket {
+
+    private final double ratePerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("ratePerSecond must be positive");
+        }
+        this.ratePerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Забирает токен. Возвращает 0 при успехе или сколько наносекунд ждать до следующего токена.
+     */
+    public synchronized long tryAcquire(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / ratePerNano);
+    }
+
+    /**
+     * Полный бакет ничем не отличается от нового - такой можно выбросить из памяти.
+     */
+    public synchronized boolean isFull(long nowNanos) {
+        refill(nowNanos);
+        return tokens >= capacity;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * ratePerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.skyrimgrade.infrastructure.cache;
+
+import java.time.LocalDate;
+
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.infrastructure.event.InProcessEventBus;
+import com.skyrimgrade.infrastructure.search.SearchIndexRegistry;
+
+/**
+ * Связывает локальные кэши узла с InvalidationBus.
+ *
+ * Доменные события этого узла сразу сдвигают локальную версию коллекции (ETag) и превращаются
+ * в записи журнала для других узлов: свои записи InvalidationBus не применяет. Записи других
+ * узлов сбрасывают здесь только затронутые ключи: версию коллекции и поисковый индекс пользователя.
+ */
+public class CacheInvalidationBridge implements AutoCloseable {
+
+    public static final String COLLECTIONS_CACHE = "collections";
+    public static final String SEARCH_CACHE = "search";
+
+    private static final String PLANS_PREFIX = CollectionVersions.Collection.PLANS.name() + ":";
+
+    private final InvalidationBus bus;
+    private final CollectionVersions versions;
+    private final InProcessEventBus.Subscription subscription;
+
+    public CacheInvalidationBridge(InvalidationBus bus, InProcessEventBus events, CollectionVersions versions,
+                                   SearchIndexRegistry searchIndexes) {
+        this.bus = bus;
+        this.versions = versions;
+        this.subscription = events.subscribe(this::onLocalEvent);
+
+        bus.register(COLLECTIONS_CACHE, invalidation -> {
+            if (invalidation.userId() != null && invalidation.key() != null) {
+                versions.bump(toVersionKey(invalidation.userId(), invalidation.key()));
+            }
+        });
+        bus.register(SEARCH_CACHE, invalidation -> {
+            if (invalidation.userId() != null) {
+                searchIndexes.evict(invalidation.userId());
+            }
+        });
+    }
+
+    private void onLocalEvent(DomainEvent event) {
+        int userId = event.userId();
+        switch (event) {
+            case DomainEvent.TaskSaved e -> tasksChanged(userId);
+            case DomainEvent.TaskDeleted e -> tasksChanged(userId);
+            case DomainEvent.TaskCompleted e -> tasksChanged(userId);
+            case DomainEvent.TaskOverdue e -> tasksChanged(userId);
+            case DomainEvent.TasksImported e -> tasksChanged(userId);
+            case DomainEvent.TasksArchived e -> tasksChanged(userId);
+            case DomainEvent.ProjectSaved e -> projectsChanged(userId);
+            case DomainEvent.ProjectDeleted e -> projectsChanged(userId);
+            case DomainEvent.PlanUpdated e -> {
+                versions.bump(CollectionVersions.planKey(userId, e.planDate()));
+                bus.enqueue(new Invalidation(COLLECTIONS_CACHE, userId, PLANS_PREFIX + e.planDate()));
+            }
+            case DomainEvent.PointsAwarded e -> {
+                // баллы пока не кэшируются
+            }
+            case DomainEvent.PointsSpent e -> {
+                // баллы пока не кэшируются
+            }
+        }
+    }
+
+    private void tasksChanged(int userId) {
+        // события фоновых job'ов (TaskOverdue, TasksArchived) не проходят через use case с bump
+        versions.bump(userId, CollectionVersions.Collection.TASKS);
+        bus.enqueue(new Invalidation(COLLECTIONS_CACHE, userId, CollectionVersions.Collection.TASKS.name()));
+        bus.enqueue(new Invalidation(SEARCH_CACHE, userId, null));
+    }
+
+    private void projectsChanged(int userId) {
+        versions.bump(userId, CollectionVersions.Collection.PROJECTS);
+        bus.enqueue(new Invalidation(COLLECTIONS_CACHE, userId, CollectionVersions.Collection.PROJECTS.name()));
+        bus.enqueue(new Invalidation(SEARCH_CACHE, userId, null));
+    }
+
+    static CollectionVersions.VersionKey toVersionKey(int userId, String key) {
+        if (key.startsWith(PLANS_PREFIX)) {
+            return CollectionVersions.planKey(userId, LocalDate.parse(key.substring(PLANS_PREFIX.length())));
+        }
+        return CollectionVersions.key(userId, CollectionVersions.Collection.valueOf(key));
+    }
+
+    @Override
+    public void close() {
+        subscription.close();
+    }
+}
@@ -0,0 +1,98 @@
+package com.skyrimgrade.infrastructure.cache;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Версии коллекций пользователя (tasks, projects, планы на дату) для ETag / If-None-Match.
+ *
+ * Любая мутация коллекции вызывает bump(). Версии берутся из одного монотонного счетчика,
+ * поэтому вытеснение ключа из карты безопасно: заново созданный ключ получает
+ * текущее значение счетчика, которое не меньше любой ранее выданной версии этого ключа.
+ * Эпоха (время старта узла) входит в ETag, чтобы после рестарта старые ETag не совпали.
+ */
+public class CollectionVersions {
+
+    public enum Collection {
+        TASKS,
+        PROJECTS,
+        PLANS
+    }
+
+    public record VersionKey(
+            int userId,
+            Collection collection,
+            LocalDate planDate
+            ) {
+
+        public VersionKey {
+            Objects.requireNonNull(collection, "collection");
+        }
+    }
+
+    private final ConcurrentHashMap<VersionKey, Long> versions = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final String epoch;
+    private final int maxEntries;
+
+    public CollectionVersions(int maxEntries) {
+        this.maxEntries = Math.max(16, maxEntries);
+        this.epoch = Long.toHexString(System.currentTimeMillis());
+    }
+
+    public static VersionKey key(int userId, Collection collection) {
+        return new VersionKey(userId, collection, null);
+    }
+
+    public static VersionKey planKey(int userId, LocalDate planDate) {
+        return new VersionKey(userId, Collection.PLANS, planDate);
+    }
+
+    public long version(VersionKey key) {
+        Long version = versions.get(key);
+        if (version != null) {
+            return version;
+        }
+        evictIfFull();
+        return versions.computeIfAbsent(key, k -> clock.get());
+    }
+
+    /**
+     * Отмечает изменение коллекции. Вызывается после commit транзакции.
+     */
+    public void bump(VersionKey key) {
+        evictIfFull();
+        versions.put(key, clock.incrementAndGet());
+    }
+
+    public void bump(int userId, Collection collection) {
+        bump(key(userId, collection));
+    }
+
+    /**
+     * Сильный ETag для текущей версии коллекции.
+     */
+    public String etag(VersionKey key) {
+        return "\"" + epoch + "-" + Long.toHexString(version(key)) + "\"";
+    }
+
+    public int size() {
+        return versions.size();
+    }
+
+    private void evictIfFull() {
+        if (versions.size() < maxEntries) {
+            return;
+        }
+        // грубое вытеснение: удаляем примерно десятую часть ключей
+        int toRemove = Math.max(1, maxEntries / 10);
+        Iterator<VersionKey> iterator = versions.keySet().iterator();
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.skyrimgrade.infrastructure.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Ответы на недавние запросы с Idempotency-Key, чтобы повторы (двойной клик, retry клиента)
+ * не доходили до БД. Источник истины - таблица idempotency_keys, здесь только LRU копия
+ * на этом узле. В ключ входит описание запроса: тот же Idempotency-Key с другим аргументом
+ * не попадает в кэш и отклоняется уже при записи в БД.
+ */
+public class IdempotencyCache<V> {
+
+    private final Map<Key, V> entries;
+
+    public IdempotencyCache(int maxEntries) {
+        int capacity = Math.max(16, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized Optional<V> get(int userId, String idempotencyKey, String request) {
+        return Optional.ofNullable(entries.get(new Key(userId, idempotencyKey, request)));
+    }
+
+    public synchronized void put(int userId, String idempotencyKey, String request, V value) {
+        entries.put(new Key(userId, idempotencyKey, request), value);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Key(int userId, String idempotencyKey, String request) {
+    }
+}
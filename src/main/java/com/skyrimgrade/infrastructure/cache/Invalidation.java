@@ -0,0 +1,18 @@
+package com.skyrimgrade.infrastructure.cache;
+
+import java.util.Objects;
+
+/**
+ * Запись журнала инвалидаций: какой кэш, какого пользователя и какой ключ сбросить.
+ * userId и key могут быть null, если сбрасывается весь кэш или все ключи пользователя.
+ */
+public record Invalidation(
+        String cache,
+        Integer userId,
+        String key
+        ) {
+
+    public Invalidation {
+        Objects.requireNonNull(cache, "cache");
+    }
+}
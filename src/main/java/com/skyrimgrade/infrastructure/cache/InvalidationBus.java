@@ -0,0 +1,376 @@
+package com.skyrimgrade.infrastructure.cache;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Шина инвалидаций кэша между узлами без внешнего брокера (таблица cache_invalidation, V10).
+ *
+ * publish() пишет записи в таблицу, каждый узел читает ее по id с интервалом pollMillis и
+ * вызывает обработчики зарегистрированных кэшей. Свои записи узел пропускает - их уже
+ * применили локальные подписчики. На PostgreSQL дополнительно слушается канал
+ * cache_invalidation (LISTEN/NOTIFY), и узел опрашивает таблицу сразу после уведомления.
+ *
+ * Транзакции коммитятся не в порядке id, поэтому пропуски в последовательности id
+ * запоминаются и еще gapTimeoutMillis дочитываются по id отдельным запросом: запись из долгой
+ * транзакции не теряется, а новые записи за пропуском читаются сразу.
+ * Повторное применение инвалидации безвредно.
+ */
+public class InvalidationBus implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private static final String CHANNEL = "cache_invalidation";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO cache_invalidation (origin_node, cache_name, user_id, cache_key) VALUES (?, ?, ?, ?)";
+
+    private static final String SELECT_SQL = """
+            SELECT id, origin_node, cache_name, user_id, cache_key FROM cache_invalidation
+            WHERE id > ? ORDER BY id LIMIT ?
+            """;
+
+    private static final String SELECT_GAPS_SQL = """
+            SELECT id, origin_node, cache_name, user_id, cache_key FROM cache_invalidation
+            WHERE id = ANY(?)
+            """;
+
+    private static final String MAX_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM cache_invalidation";
+
+    private static final String PRUNE_SQL = "DELETE FROM cache_invalidation WHERE created_at < ?";
+
+    private static final int POLL_LIMIT = 1000;
+    // больший разрыв - это скачок sequence, а не незакоммиченные транзакции
+    private static final int MAX_TRACKED_GAP = 1000;
+    private static final int MAX_OUTBOX = 10_000;
+    private static final long PRUNE_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final DataSource dataSource;
+    private final String nodeId;
+    private final long gapTimeoutNanos;
+    private final int retentionMinutes;
+    private final LongSupplier nanoClock;
+    private final Map<String, List<Consumer<Invalidation>>> handlers = new ConcurrentHashMap<>();
+    private final Semaphore wakeups = new Semaphore(0);
+    // одинаковые инвалидации склеиваются до отправки
+    private final Set<Invalidation> outbox = ConcurrentHashMap.newKeySet();
+
+    // состояние чтения меняет только поток опроса (или тест через pollOnce), guarded by this
+    private long lastId = -1;
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+    private long lastPruneNanos;
+
+    private volatile boolean running;
+    private Thread poller;
+    private Thread listener;
+
+    public InvalidationBus(DataSource dataSource, long gapTimeoutMillis, int retentionMinutes) {
+        this(dataSource, UUID.randomUUID().toString(), gapTimeoutMillis, retentionMinutes, System::nanoTime);
+    }
+
+    public InvalidationBus(DataSource dataSource, String nodeId, long gapTimeoutMillis, int retentionMinutes,
+                           LongSupplier nanoClock) {
+        this.dataSource = dataSource;
+        this.nodeId = nodeId;
+        this.gapTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, gapTimeoutMillis));
+        this.retentionMinutes = Math.max(1, retentionMinutes);
+        this.nanoClock = nanoClock;
+        this.lastPruneNanos = nanoClock.getAsLong();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Регистрирует обработчик кэша. Обработчик вызывается из потока опроса
+     * для записей других узлов.
+     */
+    public void register(String cache, Consumer<Invalidation> handler) {
+        handlers.computeIfAbsent(cache, c -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    /**
+     * Ставит инвалидацию в очередь: она уйдет в журнал пачкой из потока опроса,
+     * поэтому поток запроса не ждет записи в БД.
+     */
+    public void enqueue(Invalidation invalidation) {
+        if (outbox.size() >= MAX_OUTBOX) {
+            logger.warn("Cache invalidation outbox is full, dropping {}", invalidation);
+            return;
+        }
+        outbox.add(invalidation);
+        wakeups.release();
+    }
+
+    /**
+     * Отправляет накопленные инвалидации. При ошибке они возвращаются в очередь до следующей попытки.
+     */
+    public void flush() throws SQLException {
+        if (outbox.isEmpty()) {
+            return;
+        }
+        // забираем элементы из очереди до записи: повторный enqueue той же инвалидации
+        // во время publish остается в очереди и уйдет следующей пачкой
+        List<Invalidation> batch = new ArrayList<>();
+        for (Iterator<Invalidation> it = outbox.iterator(); it.hasNext(); ) {
+            batch.add(it.next());
+            it.remove();
+        }
+        try {
+            publish(batch);
+        } catch (SQLException | RuntimeException e) {
+            outbox.addAll(batch);
+            throw e;
+        }
+    }
+
+    /**
+     * Добавляет записи в журнал одной пачкой (в autocommit). Вызывается после commit
+     * изменений, локальные кэши к этому моменту уже сброшены.
+     */
+    public void publish(List<Invalidation> invalidations) throws SQLException {
+        if (invalidations.isEmpty()) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            append(connection, invalidations);
+        }
+    }
+
+    /**
+     * То же в рамках транзакции вызывающего кода: при rollback записи не появятся.
+     */
+    public void append(Connection connection, List<Invalidation> invalidations) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (Invalidation invalidation : invalidations) {
+                statement.setString(1, nodeId);
+                statement.setString(2, invalidation.cache());
+                if (invalidation.userId() != null) {
+                    statement.setInt(3, invalidation.userId());
+                } else {
+                    statement.setNull(3, Types.INTEGER);
+                }
+                statement.setString(4, invalidation.key());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * Запускает опрос журнала. Записи, появившиеся до старта, не применяются:
+     * локальные кэши нового узла еще пусты.
+     */
+    public synchronized void start(long pollMillis, boolean listen) throws SQLException {
+        if (running) {
+            return;
+        }
+        initPosition();
+        running = true;
+        poller = Thread.ofPlatform().name("cache-invalidation-poller").daemon(true)
+                .start(() -> pollLoop(Math.max(10, pollMillis)));
+        if (listen) {
+            listener = Thread.ofPlatform().name("cache-invalidation-listener").daemon(true)
+                    .start(this::listenLoop);
+        }
+        logger.info("Cache invalidation bus started (node {}, poll {} ms, listen={})", nodeId, pollMillis, listen);
+    }
+
+    private synchronized void initPosition() throws SQLException {
+        if (lastId >= 0) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(MAX_ID_SQL)) {
+            rs.next();
+            lastId = rs.getLong(1);
+        }
+    }
+
+    private void pollLoop(long pollMillis) {
+        while (running) {
+            try {
+                flush();
+                pollOnce();
+                pruneIfDue();
+            } catch (Exception e) {
+                logger.warn("Cache invalidation poll failed: {}", e.getMessage());
+            }
+            try {
+                wakeups.tryAcquire(pollMillis, TimeUnit.MILLISECONDS);
+                wakeups.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Читает новые записи журнала и применяет чужие. Возвращает число примененных записей.
+     */
+    public synchronized int pollOnce() throws SQLException {
+        initPosition();
+        long now = nanoClock.getAsLong();
+        gaps.values().removeIf(firstSeen -> now - firstSeen > gapTimeoutNanos);
+
+        int applied = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            // поздние записи под запомненными пропусками
+            if (!gaps.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(SELECT_GAPS_SQL)) {
+                    statement.setArray(1, connection.createArrayOf("BIGINT", gaps.keySet().toArray()));
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            gaps.remove(rs.getLong("id"));
+                            applied += applyRecord(rs);
+                        }
+                    }
+                }
+            }
+
+            // новые записи; пропуск не задерживает чтение того, что за ним
+            int read;
+            do {
+                read = 0;
+                try (PreparedStatement statement = connection.prepareStatement(SELECT_SQL)) {
+                    statement.setLong(1, lastId);
+                    statement.setInt(2, POLL_LIMIT);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            read++;
+                            long id = rs.getLong("id");
+                            if (id - lastId - 1 <= MAX_TRACKED_GAP) {
+                                for (long missing = lastId + 1; missing < id; missing++) {
+                                    gaps.put(missing, now);
+                                }
+                            }
+                            lastId = id;
+                            applied += applyRecord(rs);
+                        }
+                    }
+                }
+            } while (read == POLL_LIMIT);
+        }
+        return applied;
+    }
+
+    /**
+     * Применяет запись журнала, если она пришла с другого узла; возвращает 1, если применена.
+     */
+    private int applyRecord(ResultSet rs) throws SQLException {
+        if (nodeId.equals(rs.getString("origin_node"))) {
+            return 0;
+        }
+        int userId = rs.getInt("user_id");
+        Integer user = rs.wasNull() ? null : userId;
+        apply(new Invalidation(rs.getString("cache_name"), user, rs.getString("cache_key")));
+        return 1;
+    }
+
+    private void apply(Invalidation invalidation) {
+        for (Consumer<Invalidation> handler : handlers.getOrDefault(invalidation.cache(), List.of())) {
+            try {
+                handler.accept(invalidation);
+            } catch (RuntimeException e) {
+                logger.error("Cache invalidation handler failed for {}", invalidation, e);
+            }
+        }
+    }
+
+    private void pruneIfDue() throws SQLException {
+        long now = nanoClock.getAsLong();
+        if (now - lastPruneNanos < PRUNE_INTERVAL_NANOS) {
+            return;
+        }
+        lastPruneNanos = now;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(PRUNE_SQL)) {
+            statement.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now().minusMinutes(retentionMinutes)));
+            int removed = statement.executeUpdate();
+            if (removed > 0) {
+                logger.debug("Pruned {} cache invalidation records", removed);
+            }
+        }
+    }
+
+    /**
+     * LISTEN на отдельном соединении. Соединение занято все время работы узла,
+     * поэтому на PostgreSQL пул фактически уменьшается на одно соединение.
+     */
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                if (!connection.isWrapperFor(PGConnection.class)) {
+                    logger.info("LISTEN/NOTIFY is not available, cache invalidation relies on polling");
+                    return;
+                }
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                while (running) {
+                    var notifications = pg.getNotifications(1000);
+                    if (notifications != null && notifications.length > 0) {
+                        wakeups.release();
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Cache invalidation LISTEN failed, retrying: {}", e.getMessage());
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            flush();
+        } catch (SQLException e) {
+            logger.warn("Failed to flush {} cache invalidations on close: {}", outbox.size(), e.getMessage());
+        }
+        running = false;
+        wakeups.release();
+        if (poller != null) {
+            poller.interrupt();
+        }
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+}
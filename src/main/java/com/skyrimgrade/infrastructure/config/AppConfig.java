@@ -13,11 +13,29 @@ public class AppConfig {
     private final String databasePassword;
     private final int databasePoolSize;
     private final int databaseConnectionTimeout;
+    private final int databaseHealthIntervalMillis;
+    private final int databaseHealthTimeoutSeconds;
+    private final int databaseBreakerFailureThreshold;
+    private final int databaseBreakerOpenMillis;
+    private final boolean databaseInstrumentationEnabled;
+    private final int databaseSlowQueryMillis;
+    private final int databaseNPlusOneThreshold;
 
     // Server settings
     private final int serverPort;
     private final String serverHost;
 
+    // Lifecycle settings
+    private final int lifecycleReadinessGraceMillis;
+    private final int lifecycleDrainTimeoutMillis;
+    private final int warmupPoolPrefill;
+    private final int warmupIterations;
+    private final int warmupTimeoutMillis;
+
+    // Request deadline settings
+    private final int requestDeadlineMillis;
+    private final int requestDeadlineImportMillis;
+
     // Application settings
     private final String appName;
     private final String appVersion;
@@ -27,6 +45,69 @@ public class AppConfig {
     private final String loggingLevel;
     private final String loggingFilePath;
 
+    // Partitioning and retention settings
+    private final int partitionPremakeMonths;
+    private final int partitionMaintenanceIntervalMinutes;
+    private final String partitionRetentionMode;
+    private final int auditLogRetentionMonths;
+    private final int errorLogRetentionMonths;
+    private final int pointsHistoryRetentionMonths;
+
+    // Task archive settings
+    private final int archiveAfterDays;
+    private final int archiveBatchSize;
+    private final int archiveIntervalMinutes;
+    private final int archivePauseMillis;
+
+    // Overdue check settings
+    private final int overdueIntervalSeconds;
+    private final int overdueBatchSize;
+
+    // Import settings
+    private final int importBatchSize;
+
+    // Statistics rollup settings
+    private final int rollupBackfillChunkSize;
+    private final int rollupBackfillPauseMillis;
+
+    // Cache settings
+    private final int cacheVersionsMaxEntries;
+    private final int cacheInvalidationPollMillis;
+    private final int cacheInvalidationGapTimeoutMillis;
+    private final int cacheInvalidationRetentionMinutes;
+    private final boolean cacheInvalidationListen;
+
+    // Idempotency settings
+    private final int idempotencyCacheMaxEntries;
+    private final int idempotencyRetentionHours;
+
+    // Server-sent events settings
+    private final int sseBufferSize;
+    private final int sseHeartbeatSeconds;
+
+    // Search settings
+    private final int searchMaxUsers;
+    private final int searchMaxPostings;
+
+    // Dashboard settings
+    private final int dashboardTimeoutMillis;
+    private final int dashboardSectionTimeoutMillis;
+    private final int dashboardMaxConnections;
+    private final int dashboardActivityLimit;
+
+    // Audit analytics settings
+    private final int analyticsRollupIntervalMillis;
+    private final int analyticsRollupChunkSize;
+    private final int analyticsRollupGapTimeoutMillis;
+
+    // Admission control settings
+    private final int admissionUserRate;
+    private final int admissionUserBurst;
+    private final int admissionInitialLimit;
+    private final int admissionMinLimit;
+    private final int admissionMaxLimit;
+    private final int admissionTargetLatencyMillis;
+
     public AppConfig() {
         this(new ConfigLoader());
     }
@@ -40,11 +121,35 @@ public class AppConfig {
         this.databasePassword = configLoader.get("DB_PASSWORD", "db.password");
         this.databasePoolSize = configLoader.getInt("DB_POOL_SIZE", "db.pool.size", 10);
         this.databaseConnectionTimeout = configLoader.getInt("DB_CONNECTION_TIMEOUT", "db.connection.timeout", 30000);
+        this.databaseHealthIntervalMillis = configLoader.getInt("DB_HEALTH_INTERVAL_MS", "db.health.interval.ms", 2000);
+        this.databaseHealthTimeoutSeconds = configLoader.getInt("DB_HEALTH_TIMEOUT_SECONDS", "db.health.timeout.seconds", 2);
+        this.databaseBreakerFailureThreshold = configLoader.getInt(
+                "DB_BREAKER_FAILURE_THRESHOLD", "db.breaker.failure.threshold", 5);
+        this.databaseBreakerOpenMillis = configLoader.getInt("DB_BREAKER_OPEN_MS", "db.breaker.open.ms", 5000);
+        this.databaseInstrumentationEnabled = configLoader.getBoolean(
+                "DB_INSTRUMENTATION_ENABLED", "db.instrumentation.enabled", false);
+        this.databaseSlowQueryMillis = configLoader.getInt("DB_SLOW_QUERY_MS", "db.slow.query.ms", 200);
+        this.databaseNPlusOneThreshold = configLoader.getInt(
+                "DB_N_PLUS_ONE_THRESHOLD", "db.n_plus_one.threshold", 25);
 
         // Load server configuration
         this.serverPort = configLoader.getInt("SERVER_PORT", "server.port", 8080);
         this.serverHost = configLoader.get("SERVER_HOST", "server.host", "0.0.0.0");
 
+        // Load lifecycle configuration
+        this.lifecycleReadinessGraceMillis = configLoader.getInt(
+                "LIFECYCLE_READINESS_GRACE_MS", "lifecycle.readiness.grace.ms", 2000);
+        this.lifecycleDrainTimeoutMillis = configLoader.getInt(
+                "LIFECYCLE_DRAIN_TIMEOUT_MS", "lifecycle.drain.timeout.ms", 25000);
+        this.warmupPoolPrefill = configLoader.getInt("WARMUP_POOL_PREFILL", "warmup.pool.prefill", 10);
+        this.warmupIterations = configLoader.getInt("WARMUP_ITERATIONS", "warmup.iterations", 2000);
+        this.warmupTimeoutMillis = configLoader.getInt("WARMUP_TIMEOUT_MS", "warmup.timeout.ms", 30000);
+
+        // Load request deadline configuration
+        this.requestDeadlineMillis = configLoader.getInt("REQUEST_DEADLINE_MS", "request.deadline.ms", 5000);
+        this.requestDeadlineImportMillis = configLoader.getInt(
+                "REQUEST_DEADLINE_IMPORT_MS", "request.deadline.import.ms", 60000);
+
         // Load application configuration
         this.appName = configLoader.get("APP_NAME", "app.name", "SkyrimGrade");
         this.appVersion = configLoader.get("APP_VERSION", "app.version", "1.0.0");
@@ -54,6 +159,85 @@ public class AppConfig {
         this.loggingLevel = configLoader.get("LOGGING_LEVEL", "logging.level", "INFO");
         this.loggingFilePath = configLoader.get("LOGGING_FILE_PATH", "logging.file.path", "logs/application.log");
 
+        // Load partitioning and retention configuration (0 months = keep forever)
+        this.partitionPremakeMonths = configLoader.getInt("PARTITION_PREMAKE_MONTHS", "partition.premake.months", 3);
+        this.partitionMaintenanceIntervalMinutes = configLoader.getInt(
+                "PARTITION_MAINTENANCE_INTERVAL_MINUTES", "partition.maintenance.interval.minutes", 360);
+        this.partitionRetentionMode = configLoader.get("PARTITION_RETENTION_MODE", "partition.retention.mode", "DETACH");
+        this.auditLogRetentionMonths = configLoader.getInt("RETENTION_AUDIT_LOG_MONTHS", "retention.audit_log.months", 12);
+        this.errorLogRetentionMonths = configLoader.getInt("RETENTION_ERROR_LOG_MONTHS", "retention.error_log.months", 3);
+        this.pointsHistoryRetentionMonths = configLoader.getInt(
+                "RETENTION_POINTS_HISTORY_MONTHS", "retention.points_history.months", 0);
+
+        // Load task archive configuration
+        this.archiveAfterDays = configLoader.getInt("ARCHIVE_AFTER_DAYS", "archive.after.days", 90);
+        this.archiveBatchSize = configLoader.getInt("ARCHIVE_BATCH_SIZE", "archive.batch.size", 1000);
+        this.archiveIntervalMinutes = configLoader.getInt("ARCHIVE_INTERVAL_MINUTES", "archive.interval.minutes", 60);
+        this.archivePauseMillis = configLoader.getInt("ARCHIVE_PAUSE_MS", "archive.pause.ms", 200);
+
+        // Load overdue check configuration
+        this.overdueIntervalSeconds = configLoader.getInt("OVERDUE_INTERVAL_SECONDS", "overdue.interval.seconds", 60);
+        this.overdueBatchSize = configLoader.getInt("OVERDUE_BATCH_SIZE", "overdue.batch.size", 1000);
+
+        // Load import configuration
+        this.importBatchSize = configLoader.getInt("IMPORT_BATCH_SIZE", "import.batch.size", 1000);
+
+        // Load statistics rollup configuration
+        this.rollupBackfillChunkSize = configLoader.getInt(
+                "ROLLUP_BACKFILL_CHUNK_SIZE", "rollup.backfill.chunk.size", 5000);
+        this.rollupBackfillPauseMillis = configLoader.getInt(
+                "ROLLUP_BACKFILL_PAUSE_MS", "rollup.backfill.pause.ms", 200);
+
+        // Load cache configuration
+        this.cacheVersionsMaxEntries = configLoader.getInt(
+                "CACHE_VERSIONS_MAX_ENTRIES", "cache.versions.max.entries", 100000);
+        this.cacheInvalidationPollMillis = configLoader.getInt(
+                "CACHE_INVALIDATION_POLL_MS", "cache.invalidation.poll.ms", 1000);
+        this.cacheInvalidationGapTimeoutMillis = configLoader.getInt(
+                "CACHE_INVALIDATION_GAP_TIMEOUT_MS", "cache.invalidation.gap.timeout.ms", 30000);
+        this.cacheInvalidationRetentionMinutes = configLoader.getInt(
+                "CACHE_INVALIDATION_RETENTION_MINUTES", "cache.invalidation.retention.minutes", 60);
+        this.cacheInvalidationListen = configLoader.getBoolean(
+                "CACHE_INVALIDATION_LISTEN", "cache.invalidation.listen", true);
+
+        // Load idempotency configuration
+        this.idempotencyCacheMaxEntries = configLoader.getInt(
+                "IDEMPOTENCY_CACHE_MAX_ENTRIES", "idempotency.cache.max.entries", 10000);
+        this.idempotencyRetentionHours = configLoader.getInt(
+                "IDEMPOTENCY_RETENTION_HOURS", "idempotency.retention.hours", 24);
+
+        // Load SSE configuration
+        this.sseBufferSize = configLoader.getInt("SSE_BUFFER_SIZE", "sse.buffer.size", 64);
+        this.sseHeartbeatSeconds = configLoader.getInt("SSE_HEARTBEAT_SECONDS", "sse.heartbeat.seconds", 25);
+
+        // Load search configuration
+        this.searchMaxUsers = configLoader.getInt("SEARCH_MAX_USERS", "search.max.users", 1000);
+        this.searchMaxPostings = configLoader.getInt("SEARCH_MAX_POSTINGS", "search.max.postings", 2000000);
+
+        // Load dashboard configuration
+        this.dashboardTimeoutMillis = configLoader.getInt("DASHBOARD_TIMEOUT_MS", "dashboard.timeout.ms", 2000);
+        this.dashboardSectionTimeoutMillis = configLoader.getInt(
+                "DASHBOARD_SECTION_TIMEOUT_MS", "dashboard.section.timeout.ms", 1000);
+        this.dashboardMaxConnections = configLoader.getInt("DASHBOARD_MAX_CONNECTIONS", "dashboard.max.connections", 3);
+        this.dashboardActivityLimit = configLoader.getInt("DASHBOARD_ACTIVITY_LIMIT", "dashboard.activity.limit", 20);
+
+        // Load audit analytics configuration
+        this.analyticsRollupIntervalMillis = configLoader.getInt(
+                "ANALYTICS_ROLLUP_INTERVAL_MS", "analytics.rollup.interval.ms", 5000);
+        this.analyticsRollupChunkSize = configLoader.getInt(
+                "ANALYTICS_ROLLUP_CHUNK_SIZE", "analytics.rollup.chunk.size", 5000);
+        this.analyticsRollupGapTimeoutMillis = configLoader.getInt(
+                "ANALYTICS_ROLLUP_GAP_TIMEOUT_MS", "analytics.rollup.gap.timeout.ms", 30000);
+
+        // Load admission control configuration
+        this.admissionUserRate = configLoader.getInt("ADMISSION_USER_RATE", "admission.user.rate", 20);
+        this.admissionUserBurst = configLoader.getInt("ADMISSION_USER_BURST", "admission.user.burst", 40);
+        this.admissionInitialLimit = configLoader.getInt("ADMISSION_INITIAL_LIMIT", "admission.limit.initial", 50);
+        this.admissionMinLimit = configLoader.getInt("ADMISSION_MIN_LIMIT", "admission.limit.min", 5);
+        this.admissionMaxLimit = configLoader.getInt("ADMISSION_MAX_LIMIT", "admission.limit.max", 500);
+        this.admissionTargetLatencyMillis = configLoader.getInt(
+                "ADMISSION_TARGET_LATENCY_MS", "admission.latency.target.ms", 250);
+
         validate();
     }
 
@@ -93,6 +277,34 @@ public class AppConfig {
         return databaseConnectionTimeout;
     }
 
+    public int getDatabaseHealthIntervalMillis() {
+        return databaseHealthIntervalMillis;
+    }
+
+    public int getDatabaseHealthTimeoutSeconds() {
+        return databaseHealthTimeoutSeconds;
+    }
+
+    public int getDatabaseBreakerFailureThreshold() {
+        return databaseBreakerFailureThreshold;
+    }
+
+    public int getDatabaseBreakerOpenMillis() {
+        return databaseBreakerOpenMillis;
+    }
+
+    public boolean isDatabaseInstrumentationEnabled() {
+        return databaseInstrumentationEnabled;
+    }
+
+    public int getDatabaseSlowQueryMillis() {
+        return databaseSlowQueryMillis;
+    }
+
+    public int getDatabaseNPlusOneThreshold() {
+        return databaseNPlusOneThreshold;
+    }
+
     // Server getters
     public int getServerPort() {
         return serverPort;
@@ -102,6 +314,36 @@ public class AppConfig {
         return serverHost;
     }
 
+    // Lifecycle getters
+    public int getLifecycleReadinessGraceMillis() {
+        return lifecycleReadinessGraceMillis;
+    }
+
+    public int getLifecycleDrainTimeoutMillis() {
+        return lifecycleDrainTimeoutMillis;
+    }
+
+    public int getWarmupPoolPrefill() {
+        return warmupPoolPrefill;
+    }
+
+    public int getWarmupIterations() {
+        return warmupIterations;
+    }
+
+    public int getWarmupTimeoutMillis() {
+        return warmupTimeoutMillis;
+    }
+
+    // Request deadline getters
+    public int getRequestDeadlineMillis() {
+        return requestDeadlineMillis;
+    }
+
+    public int getRequestDeadlineImportMillis() {
+        return requestDeadlineImportMillis;
+    }
+
     // Application getters
     public String getAppName() {
         return appName;
@@ -132,6 +374,174 @@ public class AppConfig {
         return loggingFilePath;
     }
 
+    // Partitioning getters
+    public int getPartitionPremakeMonths() {
+        return partitionPremakeMonths;
+    }
+
+    public int getPartitionMaintenanceIntervalMinutes() {
+        return partitionMaintenanceIntervalMinutes;
+    }
+
+    public String getPartitionRetentionMode() {
+        return partitionRetentionMode;
+    }
+
+    public int getAuditLogRetentionMonths() {
+        return auditLogRetentionMonths;
+    }
+
+    public int getErrorLogRetentionMonths() {
+        return errorLogRetentionMonths;
+    }
+
+    public int getPointsHistoryRetentionMonths() {
+        return pointsHistoryRetentionMonths;
+    }
+
+    // Task archive getters
+    public int getArchiveAfterDays() {
+        return archiveAfterDays;
+    }
+
+    public int getArchiveBatchSize() {
+        return archiveBatchSize;
+    }
+
+    public int getArchiveIntervalMinutes() {
+        return archiveIntervalMinutes;
+    }
+
+    public int getArchivePauseMillis() {
+        return archivePauseMillis;
+    }
+
+    // Overdue check getters
+    public int getOverdueIntervalSeconds() {
+        return overdueIntervalSeconds;
+    }
+
+    public int getOverdueBatchSize() {
+        return overdueBatchSize;
+    }
+
+    // Import getters
+    public int getImportBatchSize() {
+        return importBatchSize;
+    }
+
+    // Statistics rollup getters
+    public int getRollupBackfillChunkSize() {
+        return rollupBackfillChunkSize;
+    }
+
+    public int getRollupBackfillPauseMillis() {
+        return rollupBackfillPauseMillis;
+    }
+
+    // Cache getters
+    public int getCacheVersionsMaxEntries() {
+        return cacheVersionsMaxEntries;
+    }
+
+    public int getCacheInvalidationPollMillis() {
+        return cacheInvalidationPollMillis;
+    }
+
+    public int getCacheInvalidationGapTimeoutMillis() {
+        return cacheInvalidationGapTimeoutMillis;
+    }
+
+    public int getCacheInvalidationRetentionMinutes() {
+        return cacheInvalidationRetentionMinutes;
+    }
+
+    public boolean isCacheInvalidationListen() {
+        return cacheInvalidationListen;
+    }
+
+    // Idempotency getters
+    public int getIdempotencyCacheMaxEntries() {
+        return idempotencyCacheMaxEntries;
+    }
+
+    public int getIdempotencyRetentionHours() {
+        return idempotencyRetentionHours;
+    }
+
+    // SSE getters
+    public int getSseBufferSize() {
+        return sseBufferSize;
+    }
+
+    public int getSseHeartbeatSeconds() {
+        return sseHeartbeatSeconds;
+    }
+
+    // Search getters
+    public int getSearchMaxUsers() {
+        return searchMaxUsers;
+    }
+
+    public int getSearchMaxPostings() {
+        return searchMaxPostings;
+    }
+
+    // Dashboard getters
+    public int getDashboardTimeoutMillis() {
+        return dashboardTimeoutMillis;
+    }
+
+    public int getDashboardSectionTimeoutMillis() {
+        return dashboardSectionTimeoutMillis;
+    }
+
+    public int getDashboardMaxConnections() {
+        return dashboardMaxConnections;
+    }
+
+    public int getDashboardActivityLimit() {
+        return dashboardActivityLimit;
+    }
+
+    // Audit analytics getters
+    public int getAnalyticsRollupIntervalMillis() {
+        return analyticsRollupIntervalMillis;
+    }
+
+    public int getAnalyticsRollupChunkSize() {
+        return analyticsRollupChunkSize;
+    }
+
+    public int getAnalyticsRollupGapTimeoutMillis() {
+        return analyticsRollupGapTimeoutMillis;
+    }
+
+    // Admission control getters
+    public int getAdmissionUserRate() {
+        return admissionUserRate;
+    }
+
+    public int getAdmissionUserBurst() {
+        return admissionUserBurst;
+    }
+
+    public int getAdmissionInitialLimit() {
+        return admissionInitialLimit;
+    }
+
+    public int getAdmissionMinLimit() {
+        return admissionMinLimit;
+    }
+
+    public int getAdmissionMaxLimit() {
+        return admissionMaxLimit;
+    }
+
+    public int getAdmissionTargetLatencyMillis() {
+        return admissionTargetLatencyMillis;
+    }
+
     @Override
     public String toString() {
         return "AppConfig{" +
@@ -140,6 +550,10 @@ public class AppConfig {
                 ", databasePassword='***'" +
                 ", databasePoolSize=" + databasePoolSize +
                 ", databaseConnectionTimeout=" + databaseConnectionTimeout +
+                ", databaseHealthIntervalMillis=" + databaseHealthIntervalMillis +
+                ", databaseBreakerFailureThreshold=" + databaseBreakerFailureThreshold +
+                ", databaseBreakerOpenMillis=" + databaseBreakerOpenMillis +
+                ", databaseInstrumentationEnabled=" + databaseInstrumentationEnabled +
                 ", serverPort=" + serverPort +
                 ", serverHost='" + serverHost + '\'' +
                 ", appName='" + appName + '\'' +
@@ -147,6 +561,22 @@ public class AppConfig {
                 ", appEnvironment='" + appEnvironment + '\'' +
                 ", loggingLevel='" + loggingLevel + '\'' +
                 ", loggingFilePath='" + loggingFilePath + '\'' +
+                ", partitionPremakeMonths=" + partitionPremakeMonths +
+                ", partitionRetentionMode='" + partitionRetentionMode + '\'' +
+                ", auditLogRetentionMonths=" + auditLogRetentionMonths +
+                ", errorLogRetentionMonths=" + errorLogRetentionMonths +
+                ", pointsHistoryRetentionMonths=" + pointsHistoryRetentionMonths +
+                ", importBatchSize=" + importBatchSize +
+                ", rollupBackfillChunkSize=" + rollupBackfillChunkSize +
+                ", cacheVersionsMaxEntries=" + cacheVersionsMaxEntries +
+                ", sseBufferSize=" + sseBufferSize +
+                ", sseHeartbeatSeconds=" + sseHeartbeatSeconds +
+                ", searchMaxUsers=" + searchMaxUsers +
+                ", searchMaxPostings=" + searchMaxPostings +
+                ", admissionUserRate=" + admissionUserRate +
+                ", admissionUserBurst=" + admissionUserBurst +
+                ", admissionLimit=" + admissionMinLimit + ".." + admissionMaxLimit +
+                ", admissionTargetLatencyMillis=" + admissionTargetLatencyMillis +
                 '}';
     }
 }
@@ -0,0 +1,64 @@
+package com.skyrimgrade.infrastructure.event;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.domain.event.DomainEventPublisher;
+
+/**
+ * Шина доменных событий внутри процесса.
+ *
+ * Доставка синхронная, в потоке публикующего: подписчики не должны блокироваться
+ * (SSE только кладет событие в буфер подписчика). Ошибка одного подписчика
+ * не мешает остальным.
+ */
+public class InProcessEventBus implements DomainEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(InProcessEventBus.class);
+
+    private final List<Listener<?>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(DomainEvent event) {
+        for (Listener<?> listener : listeners) {
+            try {
+                listener.deliver(event);
+            } catch (RuntimeException e) {
+                logger.error("Event listener failed for {}", event.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    public <E extends DomainEvent> Subscription subscribe(Class<E> type, Consumer<? super E> handler) {
+        Listener<E> listener = new Listener<>(type, handler);
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    public Subscription subscribe(Consumer<DomainEvent> handler) {
+        return subscribe(DomainEvent.class, handler);
+    }
+
+    public int listenerCount() {
+        return listeners.size();
+    }
+
+    @FunctionalInterface
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private record Listener<E extends DomainEvent>(Class<E> type, Consumer<? super E> handler) {
+        void deliver(DomainEvent event) {
+            if (type.isInstance(event)) {
+                handler.accept(type.cast(event));
+            }
+        }
+    }
+}
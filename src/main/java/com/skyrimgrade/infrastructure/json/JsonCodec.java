@@ -0,0 +1,116 @@
+package com.skyrimgrade.infrastructure.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Единая точка JSON сериализации приложения.
+ *
+ * ObjectMapper настраивается один раз, ObjectReader/ObjectWriter строятся на тип заранее
+ * (preload при старте) и дальше берутся из карты без блокировок. Ответы пишутся сразу
+ * в OutputStream ответа, без промежуточной строки; списки пишутся поэлементно через
+ * один JsonGenerator. Буферы генераторов и парсеров берутся из общего lock-free пула:
+ * пул по умолчанию привязан к ThreadLocal и на виртуальных потоках не переиспользуется.
+ */
+public final class JsonCodec {
+
+    private static final JsonCodec SHARED = new JsonCodec();
+
+    private final JsonMapper mapper;
+    private final ConcurrentHashMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public JsonCodec() {
+        JsonFactory factory = JsonFactory.builder()
+                .recyclerPool(JsonRecyclerPools.newLockFreePool())
+                // поток ответа закрывает контейнер, а не сериализатор
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .build();
+        this.mapper = JsonMapper.builder(factory)
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                // flush после каждого элемента списка превращается в мелкие записи в сокет
+                .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    public static JsonCodec shared() {
+        return SHARED;
+    }
+
+    /**
+     * Заранее строит reader и writer для типов, чтобы первый запрос не платил
+     * за интроспекцию и построение сериализаторов.
+     */
+    public void preload(Class<?>... types) {
+        for (Class<?> type : types) {
+            writerFor(type);
+            readerFor(type);
+        }
+    }
+
+    public ObjectWriter writerFor(Class<?> type) {
+        ObjectWriter writer = writers.get(type);
+        return writer != null ? writer : writers.computeIfAbsent(type, mapper::writerFor);
+    }
+
+    public ObjectReader readerFor(Class<?> type) {
+        ObjectReader reader = readers.get(type);
+        return reader != null ? reader : readers.computeIfAbsent(type, mapper::readerFor);
+    }
+
+    /**
+     * Пишет значение в поток ответа. Поток не закрывается.
+     */
+    public void write(OutputStream out, Object value) throws IOException {
+        writerFor(value.getClass()).writeValue(out, value);
+    }
+
+    /**
+     * Пишет JSON массив элементов по одному: items может быть курсором по ResultSet,
+     * весь список в памяти не нужен. Поток не закрывается.
+     */
+    public <T> void writeArray(OutputStream out, Class<T> elementType, Iterable<? extends T> items)
+            throws IOException {
+        ObjectWriter writer = writerFor(elementType);
+        try (JsonGenerator generator = writer.createGenerator(out)) {
+            generator.writeStartArray();
+            for (T item : items) {
+                writer.writeValue(generator, item);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Строка нужна только там, где канал принимает текст (SSE фреймы).
+     */
+    public String writeString(Object value) throws IOException {
+        return writerFor(value.getClass()).writeValueAsString(value);
+    }
+
+    public <T> T read(InputStream in, Class<T> type) throws IOException {
+        return readerFor(type).readValue(in);
+    }
+
+    /**
+     * Потоковое чтение последовательности значений: элементы JSON массива или NDJSON.
+     */
+    public <T> MappingIterator<T> readValues(InputStream in, Class<T> type) throws IOException {
+        return readerFor(type).readValues(in);
+    }
+}
@@ -0,0 +1,261 @@
+package com.skyrimgrade.infrastructure.lifecycle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.skyrimgrade.infrastructure.admission.AdmissionRejectedException;
+
+/**
+ * Готовность узла, учет запросов в обработке и упорядоченная остановка.
+ *
+ * shutdown() проходит фазы строго по порядку и замеряет каждую:
+ * <ol>
+ *   <li>readiness - isReady() становится false, балансировщику дается readinessGrace,
+ *       чтобы перестать слать новые запросы;</li>
+ *   <li>stop-accepting - шаги STOP_ACCEPTING (коннекторы, SSE, фоновые job'ы);
+ *       новые запросы отклоняются 503;</li>
+ *   <li>drain - ожидание запросов в обработке, не дольше drainTimeout;</li>
+ *   <li>flush - шаги FLUSH (очереди асинхронной записи);</li>
+ *   <li>close - шаги CLOSE (пул соединений закрывается последним).</li>
+ * </ol>
+ * Ошибка одного шага логируется и не прерывает остальные.
+ */
+public class LifecycleManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(LifecycleManager.class);
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    public enum Phase {
+        STOP_ACCEPTING,
+        FLUSH,
+        CLOSE
+    }
+
+    @FunctionalInterface
+    public interface Step {
+        void run() throws Exception;
+    }
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Phase, List<NamedStep>> steps = new EnumMap<>(Phase.class);
+    private final LongSupplier nanoClock;
+
+    private volatile boolean ready;
+    private volatile boolean draining;
+    private ShutdownReport report;
+
+    public LifecycleManager() {
+        this(System::nanoTime);
+    }
+
+    public LifecycleManager(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        for (Phase phase : Phase.values()) {
+            steps.put(phase, new ArrayList<>());
+        }
+    }
+
+    /**
+     * Шаги одной фазы выполняются в порядке регистрации.
+     */
+    public synchronized void register(Phase phase, String name, Step step) {
+        steps.get(phase).add(new NamedStep(name, step));
+    }
+
+    public void markReady() {
+        if (!draining) {
+            ready = true;
+        }
+    }
+
+    /**
+     * Readiness для балансировщика: true после старта и до начала остановки.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Регистрирует запрос в обработке. Во время остановки бросает AdmissionRejectedException (503).
+     *
+     * <pre>
+     * try (LifecycleManager.Request request = lifecycle.enter()) {
+     *     ... обработка запроса ...
+     * }
+     * </pre>
+     */
+    public Request enter() {
+        if (draining) {
+            throw rejected();
+        }
+        inFlight.incrementAndGet();
+        // остановка могла начаться между проверкой и инкрементом
+        if (draining) {
+            exit();
+            throw rejected();
+        }
+        return new Request();
+    }
+
+    private static AdmissionRejectedException rejected() {
+        return new AdmissionRejectedException("Server is shutting down",
+                AdmissionRejectedException.SERVICE_UNAVAILABLE, RETRY_AFTER_SECONDS);
+    }
+
+    private void exit() {
+        if (inFlight.decrementAndGet() == 0 && draining) {
+            synchronized (inFlight) {
+                inFlight.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Останавливает узел. Повторный вызов возвращает отчет первого.
+     */
+    public synchronized ShutdownReport shutdown(Duration readinessGrace, Duration drainTimeout) {
+        if (report != null) {
+            return report;
+        }
+        List<PhaseTiming> timings = new ArrayList<>();
+        List<String> failedSteps = new ArrayList<>();
+
+        long start = nanoClock.getAsLong();
+        ready = false;
+        sleep(readinessGrace);
+        timings.add(new PhaseTiming("readiness", elapsedMillis(start)));
+
+        start = nanoClock.getAsLong();
+        draining = true;
+        runSteps(Phase.STOP_ACCEPTING, failedSteps);
+        timings.add(new PhaseTiming("stop-accepting", elapsedMillis(start)));
+
+        start = nanoClock.getAsLong();
+        int abandoned = awaitInFlight(drainTimeout);
+        timings.add(new PhaseTiming("drain", elapsedMillis(start)));
+
+        start = nanoClock.getAsLong();
+        runSteps(Phase.FLUSH, failedSteps);
+        timings.add(new PhaseTiming("flush", elapsedMillis(start)));
+
+        start = nanoClock.getAsLong();
+        runSteps(Phase.CLOSE, failedSteps);
+        timings.add(new PhaseTiming("close", elapsedMillis(start)));
+
+        report = new ShutdownReport(List.copyOf(timings), abandoned, List.copyOf(failedSteps));
+        if (abandoned > 0) {
+            logger.warn("Shutdown drain timed out with {} requests still in flight", abandoned);
+        }
+        logger.info("Shutdown phases: {}", report);
+        return report;
+    }
+
+    private int awaitInFlight(Duration timeout) {
+        long deadline = nanoClock.getAsLong() + timeout.toNanos();
+        synchronized (inFlight) {
+            while (inFlight.get() > 0) {
+                long remaining = deadline - nanoClock.getAsLong();
+                if (remaining <= 0) {
+                    break;
+                }
+                try {
+                    // проверяем и по таймеру: nanoClock в тестах может идти не вместе со временем ожидания
+                    inFlight.wait(Math.max(1, Math.min(TimeUnit.NANOSECONDS.toMillis(remaining), 100)));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        return inFlight.get();
+    }
+
+    private void runSteps(Phase phase, List<String> failedSteps) {
+        List<NamedStep> phaseSteps;
+        synchronized (this) {
+            phaseSteps = List.copyOf(steps.get(phase));
+        }
+        for (NamedStep step : phaseSteps) {
+            long start = nanoClock.getAsLong();
+            try {
+                step.step().run();
+                logger.debug("Shutdown step {} took {} ms", step.name(), elapsedMillis(start));
+            } catch (Exception e) {
+                failedSteps.add(step.name());
+                logger.error("Shutdown step {} failed", step.name(), e);
+            }
+        }
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanoClock.getAsLong() - startNanos);
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Запрос в обработке. close() идемпотентен.
+     */
+    public final class Request implements AutoCloseable {
+        private boolean closed;
+
+        private Request() {
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                exit();
+            }
+        }
+    }
+
+    private record NamedStep(String name, Step step) {
+    }
+
+    public record PhaseTiming(
+            String phase,
+            long millis
+            ) {
+
+        @Override
+        public String toString() {
+            return phase + "=" + millis + "ms";
+        }
+    }
+
+    public record ShutdownReport(
+            List<PhaseTiming> phases,
+            int abandonedRequests,
+            List<String> failedSteps
+            ) {
+    }
+}
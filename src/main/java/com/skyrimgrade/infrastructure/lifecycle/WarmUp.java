@@ -0,0 +1,101 @@
+package com.skyrimgrade.infrastructure.lifecycle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Прогрев узла перед тем, как он объявит себя готовым.
+ *
+ * Каждый шаг - синтетический вызов горячего пути (сериализация, чтение репозиториев,
+ * расчет баллов), который повторяется iterations раз, чтобы JIT скомпилировал его до прихода
+ * трафика. Шаги не должны ничего менять в БД. Прогрев не бесконечен: по истечении timeout
+ * оставшиеся итерации пропускаются, а ошибка шага только логируется - узел все равно станет готов,
+ * просто холоднее.
+ */
+public class WarmUp {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmUp.class);
+
+    private final List<NamedStep> steps = new ArrayList<>();
+    private final LongSupplier nanoClock;
+
+    private volatile Report lastReport;
+
+    public WarmUp() {
+        this(System::nanoTime);
+    }
+
+    public WarmUp(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Шаги выполняются в порядке регистрации.
+     */
+    public synchronized WarmUp register(String name, LifecycleManager.Step step) {
+        steps.add(new NamedStep(name, step));
+        return this;
+    }
+
+    /**
+     * Выполняет шаги и запоминает отчет (getLastReport()).
+     */
+    public synchronized Report run(int iterations, Duration timeout) {
+        int rounds = Math.max(1, iterations);
+        long start = nanoClock.getAsLong();
+        long deadline = start + timeout.toNanos();
+        List<LifecycleManager.PhaseTiming> timings = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        boolean timedOut = false;
+
+        for (NamedStep step : steps) {
+            long stepStart = nanoClock.getAsLong();
+            try {
+                // первый вызов выполняется всегда, даже если время уже вышло
+                for (int i = 0; i < rounds; i++) {
+                    if (i > 0 && nanoClock.getAsLong() - deadline >= 0) {
+                        timedOut = true;
+                        break;
+                    }
+                    step.step().run();
+                }
+            } catch (Exception e) {
+                logger.warn("Warm-up step '{}' failed, continuing", step.name(), e);
+                failed.add(step.name());
+            }
+            timings.add(new LifecycleManager.PhaseTiming(step.name(), elapsedMillis(stepStart)));
+        }
+
+        Report report = new Report(elapsedMillis(start), List.copyOf(timings), List.copyOf(failed), timedOut);
+        lastReport = report;
+        return report;
+    }
+
+    /**
+     * Отчет последнего прогрева или null, если прогрева не было.
+     */
+    public Report getLastReport() {
+        return lastReport;
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanoClock.getAsLong() - startNanos);
+    }
+
+    private record NamedStep(String name, LifecycleManager.Step step) {
+    }
+
+    public record Report(
+            long durationMillis,
+            List<LifecycleManager.PhaseTiming> steps,
+            List<String> failedSteps,
+            boolean timedOut
+            ) {
+    }
+}
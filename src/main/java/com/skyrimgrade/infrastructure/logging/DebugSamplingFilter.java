@@ -0,0 +1,87 @@
+package com.skyrimgrade.infrastructure.logging;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Пропускает только каждое N-е DEBUG/TRACE сообщение шумных логгеров.
+ *
+ * Настраивается в logback.xml: {@code <sample>com.skyrimgrade.infrastructure.search=100</sample>}.
+ * Правило применяется к логгеру и всем его потомкам, выигрывает самый длинный префикс.
+ * INFO и выше не сэмплируются никогда. Решение принимается до форматирования сообщения,
+ * поэтому отброшенные события почти ничего не стоят.
+ */
+public class DebugSamplingFilter extends TurboFilter {
+
+    private final Map<String, Integer> rates = new ConcurrentHashMap<>();
+    private final Map<String, Sampler> samplers = new ConcurrentHashMap<>();
+
+    /**
+     * Правило вида {@code logger.name=N}: из каждых N сообщений логгера пропускается одно.
+     */
+    public void addSample(String rule) {
+        int separator = rule.lastIndexOf('=');
+        if (separator <= 0) {
+            addError("Invalid sample rule '" + rule + "', expected <logger>=<rate>");
+            return;
+        }
+        try {
+            int rate = Integer.parseInt(rule.substring(separator + 1).trim());
+            rates.put(rule.substring(0, separator).trim(), Math.max(1, rate));
+            samplers.clear();
+        } catch (NumberFormatException e) {
+            addError("Invalid sample rate in '" + rule + "'");
+        }
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.toInt() > Level.DEBUG_INT || rates.isEmpty() || !isStarted()) {
+            return FilterReply.NEUTRAL;
+        }
+        // выключенный DEBUG не должен двигать счетчик; isEnabledFor() снова вызвал бы turbo-фильтры
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Sampler sampler = samplers.computeIfAbsent(logger.getName(), this::samplerFor);
+        return sampler.admit() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private Sampler samplerFor(String loggerName) {
+        String name = loggerName;
+        while (true) {
+            Integer rate = rates.get(name);
+            if (rate != null) {
+                return new Sampler(rate);
+            }
+            int dot = name.lastIndexOf('.');
+            if (dot < 0) {
+                return Sampler.ALWAYS;
+            }
+            name = name.substring(0, dot);
+        }
+    }
+
+    private static final class Sampler {
+        static final Sampler ALWAYS = new Sampler(1);
+
+        private final int rate;
+        private final AtomicLong counter = new AtomicLong();
+
+        Sampler(int rate) {
+            this.rate = rate;
+        }
+
+        boolean admit() {
+            return rate == 1 || counter.getAndIncrement() % rate == 0;
+        }
+    }
+}
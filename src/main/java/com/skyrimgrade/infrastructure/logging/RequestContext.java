@@ -0,0 +1,124 @@
+package com.skyrimgrade.infrastructure.logging;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.MDC;
+
+/**
+ * Контекст текущего запроса: request_id (тот же, что пишется в error_log) и атрибуты,
+ * которые живут ровно столько, сколько запрос.
+ *
+ * Источник истины - ScopedValue: он наследуется потоками StructuredTaskScope и стоит дешево
+ * на виртуальных потоках. MDC заполняется параллельно, потому что его читает logback.
+ * Задачи, отправляемые в обычные executor'ы, нужно оборачивать через wrap() - ни ScopedValue,
+ * ни MDC не переходят в пул потоков сами.
+ */
+public final class RequestContext {
+
+    public static final String MDC_KEY = "request_id";
+
+    private static final ScopedValue<Scope> CURRENT = ScopedValue.newInstance();
+
+    private RequestContext() {
+    }
+
+    /**
+     * Новый идентификатор, укладывается в error_log.request_id VARCHAR(50).
+     */
+    public static String newRequestId() {
+        return UUID.randomUUID().toString();
+    }
+
+    public static Optional<String> currentRequestId() {
+        return CURRENT.isBound() ? Optional.of(CURRENT.get().requestId()) : Optional.empty();
+    }
+
+    public static Optional<Scope> currentScope() {
+        return CURRENT.isBound() ? Optional.of(CURRENT.get()) : Optional.empty();
+    }
+
+    public static void run(String requestId, Runnable action) {
+        run(new Scope(requestId), action);
+    }
+
+    public static <T> T call(String requestId, Callable<T> action) throws Exception {
+        return call(new Scope(requestId), action);
+    }
+
+    private static void run(Scope scope, Runnable action) {
+        ScopedValue.where(CURRENT, scope).run(() -> {
+            String previous = bindMdc(scope.requestId());
+            try {
+                action.run();
+            } finally {
+                restoreMdc(previous);
+            }
+        });
+    }
+
+    private static <T> T call(Scope scope, Callable<T> action) throws Exception {
+        return ScopedValue.where(CURRENT, scope).call(() -> {
+            String previous = bindMdc(scope.requestId());
+            try {
+                return action.call();
+            } finally {
+                restoreMdc(previous);
+            }
+        });
+    }
+
+    /**
+     * Переносит контекст текущего запроса в задачу, которая выполнится в другом потоке.
+     * Дочерняя задача видит те же атрибуты, что и родительский поток.
+     */
+    public static Runnable wrap(Runnable action) {
+        Optional<Scope> scope = currentScope();
+        return scope.isEmpty() ? action : () -> run(scope.get(), action);
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> action) {
+        Optional<Scope> scope = currentScope();
+        return scope.isEmpty() ? action : () -> call(scope.get(), action);
+    }
+
+    private static String bindMdc(String requestId) {
+        String previous = MDC.get(MDC_KEY);
+        MDC.put(MDC_KEY, requestId);
+        return previous;
+    }
+
+    private static void restoreMdc(String previous) {
+        if (previous != null) {
+            MDC.put(MDC_KEY, previous);
+        } else {
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    /**
+     * Данные одного запроса. Атрибуты собираются сборщиком мусора вместе с запросом,
+     * поэтому их не нужно явно очищать.
+     */
+    public static final class Scope {
+
+        private final String requestId;
+        private final Map<Class<?>, Object> attributes = new ConcurrentHashMap<>();
+
+        private Scope(String requestId) {
+            this.requestId = requestId;
+        }
+
+        public String requestId() {
+            return requestId;
+        }
+
+        public <T> T attribute(Class<T> type, Supplier<? extends T> factory) {
+            return type.cast(attributes.computeIfAbsent(type, t -> factory.get()));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.skyrimgrade.infrastructure.persistence;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.skyrimgrade.infrastructure.resilience.CircuitBreaker;
+
+/**
+ * DataSource, который не ждет соединения, пока БД заведомо недоступна (circuit breaker OPEN).
+ *
+ * Отказом БД считается только ошибка установки соединения. Не считаются:
+ * <ul>
+ *   <li>истекший срок запроса (SQLTimeoutException от DeadlineDataSource);</li>
+ *   <li>таймаут ожидания пула без причины - все соединения заняты, но БД отвечает. Когда пул
+ *       не может открыть соединение, Hikari кладет последнюю ошибку подключения в cause.</li>
+ * </ul>
+ * Соединение отдается как есть: ошибки отдельных запросов breaker не учитывает.
+ */
+public class CircuitBreakerDataSource implements DataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreakerDataSource.class);
+
+    private final DataSource delegate;
+    private final CircuitBreaker circuitBreaker;
+
+    public CircuitBreakerDataSource(DataSource delegate, CircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        // БД заведомо недоступна: отказываем сразу, а не ждем connectionTimeout
+        if (!circuitBreaker.tryAcquire()) {
+            throw new SQLTransientConnectionException("Database circuit breaker is open", "08001");
+        }
+        try {
+            Connection connection = delegate.getConnection();
+            circuitBreaker.recordSuccess();
+            return connection;
+        } catch (SQLTimeoutException e) {
+            // срок запроса истек до выдачи соединения - это не отказ БД
+            circuitBreaker.release();
+            throw e;
+        } catch (SQLTransientConnectionException e) {
+            if (e.getCause() == null) {
+                // пул исчерпан - перегрузка, ее отсекает AdmissionController
+                circuitBreaker.release();
+            } else {
+                circuitBreaker.recordFailure();
+                logger.error("Failed to get connection from pool", e);
+            }
+            throw e;
+        } catch (SQLException | RuntimeException e) {
+            circuitBreaker.recordFailure();
+            logger.error("Failed to get connection from pool", e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return delegate.getConnection(username, password);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? (T) this : delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || delegate.isWrapperFor(iface);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+}
@@ -2,6 +2,9 @@ package com.skyrimgrade.infrastructure.persistence;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 
 import javax.sql.DataSource;
 
@@ -9,8 +12,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.skyrimgrade.infrastructure.config.AppConfig;
+import com.skyrimgrade.infrastructure.persistence.instrument.InstrumentedDataSource;
+import com.skyrimgrade.infrastructure.persistence.instrument.QueryStatistics;
+import com.skyrimgrade.infrastructure.persistence.instrument.SqlInstrumentation;
+import com.skyrimgrade.infrastructure.resilience.CircuitBreaker;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.pool.HikariPool;
 
 public class DatabaseConnectionManager {
 
@@ -18,12 +27,39 @@ public class DatabaseConnectionManager {
 
     private static volatile DatabaseConnectionManager instance;
 
+    private static final int MAX_SQL_SHAPES = 2000;
+
+    private static final long PREFILL_POLL_MILLIS = 20;
+
     private final HikariDataSource dataSource;
+    // пул под обертками срока, breaker и инструментирования - то, что получает код приложения
+    private final DataSource exposedDataSource;
+    private final SqlInstrumentation instrumentation;
     private final AppConfig config;
+    private final CircuitBreaker circuitBreaker;
+    private final DatabaseHealthProbe healthProbe;
 
     private DatabaseConnectionManager(AppConfig config) {
         this.config = config;
         this.dataSource = initializeDataSource();
+        this.circuitBreaker = new CircuitBreaker("database",
+                config.getDatabaseBreakerFailureThreshold(),
+                config.getDatabaseBreakerOpenMillis());
+        // срок запроса ограничивает ожидание пула и timeout SQL; breaker над ним отказывает без ожидания,
+        // инструментирование снаружи видит итоговое время
+        DataSource guarded = new CircuitBreakerDataSource(
+                new DeadlineDataSource(dataSource, this::getPoolConnection), circuitBreaker);
+        if (config.isDatabaseInstrumentationEnabled()) {
+            this.instrumentation = new SqlInstrumentation(new QueryStatistics(MAX_SQL_SHAPES),
+                    config.getDatabaseSlowQueryMillis(), config.getDatabaseNPlusOneThreshold());
+            this.exposedDataSource = new InstrumentedDataSource(guarded, instrumentation);
+            logger.info("SQL instrumentation enabled (slow query threshold {} ms, N+1 threshold {})",
+                    config.getDatabaseSlowQueryMillis(), config.getDatabaseNPlusOneThreshold());
+        } else {
+            this.instrumentation = null;
+            this.exposedDataSource = guarded;
+        }
+        this.healthProbe = new DatabaseHealthProbe(dataSource, circuitBreaker, config.getDatabaseHealthTimeoutSeconds());
         logger.info("DataConnectionManager initialized with pool size {}", config.getDatabasePoolSize());
     }
 
@@ -60,7 +96,9 @@ public class DatabaseConnectionManager {
 
             // Pool settings
             hikariConfig.setMaximumPoolSize(config.getDatabasePoolSize());
-            hikariConfig.setMinimumIdle(Math.max(2, config.getDatabasePoolSize() / 2));
+            // прогретые при старте соединения (prefill) не должны закрываться как лишние
+            hikariConfig.setMinimumIdle(Math.min(config.getDatabasePoolSize(),
+                    Math.max(Math.max(2, config.getDatabasePoolSize() / 2), config.getWarmupPoolPrefill())));
             hikariConfig.setConnectionTimeout(config.getDatabaseConnectionTimeout());
 
             int min = 1000 * 60 * 60;
@@ -80,6 +118,11 @@ public class DatabaseConnectionManager {
             hikariConfig.setAutoCommit(true);
             hikariConfig.setTransactionIsolation("TRANSACTION_READ_COMMITTED");
 
+            // PostgreSQL: пакетные INSERT переписываются драйвером в multi-row INSERT
+            if (config.getDatabaseUrl().startsWith("jdbc:postgresql:")) {
+                hikariConfig.addDataSourceProperty("reWriteBatchedInserts", "true");
+            }
+
             // Leak detection (for development)
             if (config.isDevelopment()) {
                 hikariConfig.setLeakDetectionThreshold(10000); // 10 seconds
@@ -94,28 +137,97 @@ public class DatabaseConnectionManager {
         }
     }
 
+    /**
+     * Соединение из getDataSource(): со сроком запроса и circuit breaker.
+     */
     public Connection getConnection() throws SQLException {
-        try {
-            Connection connection = this.dataSource.getConnection();
-            return connection;
-        } catch (Exception e) {
-            logger.error(
-                    "Failed to get connection from pool", e
-            );
-            throw e;
+        return this.exposedDataSource.getConnection();
+    }
+
+    /**
+     * Соединение из пула с ожиданием не дольше timeoutMillis (и не дольше db.connection.timeout).
+     * getHikariPoolMXBean() возвращает сам HikariPool, у которого есть выдача с собственным timeout.
+     */
+    private Connection getPoolConnection(long timeoutMillis) throws SQLException {
+        if (this.dataSource.getHikariPoolMXBean() instanceof HikariPool pool) {
+            return pool.getConnection(Math.min(timeoutMillis, config.getDatabaseConnectionTimeout()));
+        }
+        return this.dataSource.getConnection();
+    }
+
+    /**
+     * Ждет, пока пул откроет соединения заранее, чтобы первые запросы после старта не ждали их установки.
+     * Соединения открывает сам Hikari до minimumIdle (он не меньше warmup.pool.prefill); prefill их
+     * не занимает, поэтому не мешает тем, кто уже держит соединение (LISTEN InvalidationBus, фоновые job'ы).
+     * Не дождавшись target соединений (не больше размера пула) за timeout, пишет предупреждение:
+     * узел стартует с тем, что есть. Возвращает число соединений в пуле.
+     */
+    public int prefill(int target, Duration timeout) {
+        int count = Math.min(Math.max(0, target), config.getDatabasePoolSize());
+        HikariPoolMXBean pool = this.dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            logger.warn("Pool prefill skipped: pool is not running");
+            return 0;
         }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (pool.getTotalConnections() < count && System.nanoTime() - deadline < 0) {
+            try {
+                Thread.sleep(PREFILL_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        int total = pool.getTotalConnections();
+        if (total < count) {
+            logger.warn("Pool prefill opened {} of {} connections within {} ms, continuing",
+                    total, count, timeout.toMillis());
+        }
+        return total;
     }
 
+    /**
+     * Источник соединений для кода приложения: пул под DeadlineDataSource (без RequestDeadline
+     * отдает соединения пула как есть) и CircuitBreakerDataSource (при открытом breaker отказ сразу). При db.instrumentation.enabled=true поверх еще обертка,
+     * замеряющая каждый запрос.
+     */
     public DataSource getDataSource() {
-        return this.dataSource;
+        return this.exposedDataSource;
+    }
+
+    /**
+     * Статистика по формам SQL или пустой Optional, если инструментирование выключено.
+     */
+    public Optional<QueryStatistics> getQueryStatistics() {
+        return Optional.ofNullable(instrumentation).map(SqlInstrumentation::getStatistics);
+    }
+
+    /**
+     * Запускает фоновую проверку здоровья БД; после этого isHealthy() читает кэш.
+     */
+    public void startHealthProbe() {
+        this.healthProbe.start(config.getDatabaseHealthIntervalMillis());
     }
 
+    /**
+     * Состояние БД. Если фоновая проверка запущена, возвращается последний результат
+     * без обращения к пулу, иначе выполняется проверка на месте.
+     */
     public boolean isHealthy() {
-        try (Connection connection = this.getConnection()) {
-            return connection.isValid(5);
-        } catch (SQLException e) {
-            return false;
+        DatabaseHealthProbe.HealthState state = this.healthProbe.getState();
+        if (this.healthProbe.isRunning() && state != null) {
+            return state.healthy();
         }
+        return this.healthProbe.probe().healthy();
+    }
+
+    public DatabaseHealthProbe.HealthState getHealthState() {
+        DatabaseHealthProbe.HealthState state = this.healthProbe.getState();
+        return state != null ? state : this.healthProbe.probe();
+    }
+
+    public CircuitBreaker.State getCircuitBreakerState() {
+        return this.circuitBreaker.getState();
     }
 
     public PoolStats getPoolStats() {
@@ -143,11 +255,20 @@ public class DatabaseConnectionManager {
     public void shutdown() {
         if (this.dataSource != null && !this.dataSource.isClosed()) {
             logger.info("Shutting down database connection pool...");
+            this.healthProbe.stop();
+            logQueryStatistics();
             this.dataSource.close();
             logger.info("Database connection pool closed");
         }
     }
 
+    private void logQueryStatistics() {
+        getQueryStatistics().ifPresent(statistics -> {
+            List<QueryStatistics.ShapeStats> top = statistics.snapshot();
+            top.stream().limit(10).forEach(stats -> logger.info("SQL {}", stats));
+        });
+    }
+
     public boolean isClosed() {
         return this.dataSource == null || this.dataSource.isClosed();
     }
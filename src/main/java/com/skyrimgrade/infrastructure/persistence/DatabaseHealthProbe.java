@@ -0,0 +1,110 @@
+package com.skyrimgrade.infrastructure.persistence;
+
+import java.sql.Connection;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.skyrimgrade.infrastructure.resilience.CircuitBreaker;
+
+/**
+ * Фоновая проверка доступности БД.
+ *
+ * Раз в interval берет одно соединение и вызывает isValid(timeout). Результат публикуется
+ * как HealthState, поэтому health endpoint балансировщика читает готовое значение
+ * и не отнимает соединения у реального трафика. Результаты проверок также подаются
+ * в circuit breaker: ошибка открывает его, успех переводит в HALF_OPEN.
+ */
+public class DatabaseHealthProbe {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseHealthProbe.class);
+
+    private final DataSource dataSource;
+    private final CircuitBreaker circuitBreaker;
+    private final int validationTimeoutSeconds;
+
+    private volatile HealthState state;
+    private ScheduledExecutorService scheduler;
+
+    public DatabaseHealthProbe(DataSource dataSource, CircuitBreaker circuitBreaker, int validationTimeoutSeconds) {
+        this.dataSource = dataSource;
+        this.circuitBreaker = circuitBreaker;
+        this.validationTimeoutSeconds = Math.max(1, validationTimeoutSeconds);
+    }
+
+    public synchronized void start(long intervalMillis) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("db-health-probe")
+                .daemon(true)
+                .factory());
+        scheduler.scheduleWithFixedDelay(this::probe, 0, Math.max(100, intervalMillis), TimeUnit.MILLISECONDS);
+        logger.info("Database health probe started (interval={}ms)", intervalMillis);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Выполняет одну проверку и публикует результат.
+     */
+    public HealthState probe() {
+        long start = System.nanoTime();
+        HealthState result;
+        // соединение берем напрямую из пула, минуя breaker: проверка должна работать и когда он открыт
+        try (Connection connection = dataSource.getConnection()) {
+            boolean valid = connection.isValid(validationTimeoutSeconds);
+            result = new HealthState(valid, elapsedMillis(start), Instant.now(), valid ? null : "Connection is not valid");
+        } catch (Exception e) {
+            result = new HealthState(false, elapsedMillis(start), Instant.now(), e.getMessage());
+        }
+
+        HealthState previous = state;
+        state = result;
+
+        if (result.healthy()) {
+            circuitBreaker.probeSucceeded();
+        } else {
+            circuitBreaker.recordFailure();
+        }
+        if (previous == null || previous.healthy() != result.healthy()) {
+            logger.info("Database health changed: {}", result);
+        }
+        return result;
+    }
+
+    /**
+     * Последний опубликованный результат или null, если проверок еще не было.
+     */
+    public HealthState getState() {
+        return state;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    public record HealthState(
+            boolean healthy,
+            long latencyMillis,
+            Instant checkedAt,
+            String error
+            ) {
+    }
+}
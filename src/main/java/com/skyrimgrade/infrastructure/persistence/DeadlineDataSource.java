@@ -0,0 +1,217 @@
+package com.skyrimgrade.infrastructure.persistence;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.postgresql.jdbc.PgStatement;
+
+import com.skyrimgrade.infrastructure.resilience.RequestDeadline;
+
+/**
+ * DataSource, который подчиняет работу с БД сроку текущего запроса (RequestDeadline).
+ *
+ * Без срока (фоновые job'ы, прогрев) отдается исходное соединение, и обертка ничего не стоит.
+ * Со сроком:
+ * <ul>
+ *   <li>ожидание соединения пула ограничено остатком срока, истекший срок - отказ без обращения к пулу;</li>
+ *   <li>перед каждым execute* ставится query timeout, равный остатку срока: долгий запрос
+ *       отменяется драйвером и не держит соединение дольше, чем ждет клиент;</li>
+ *   <li>на время execute запрос регистрируется в сроке, и RequestDeadline.cancel() отменяет его сразу;</li>
+ *   <li>ошибка запроса, прерванного сроком, приходит как SQLTimeoutException.</li>
+ * </ul>
+ * Срок фиксируется при выдаче соединения: соединение принадлежит одному запросу.
+ */
+public class DeadlineDataSource implements DataSource {
+
+    /**
+     * Выдача соединения с ограничением ожидания.
+     */
+    @FunctionalInterface
+    public interface TimedConnectionSource {
+        Connection getConnection(long timeoutMillis) throws SQLException;
+    }
+
+    private final DataSource delegate;
+    private final TimedConnectionSource timedSource;
+
+    public DeadlineDataSource(DataSource delegate, TimedConnectionSource timedSource) {
+        this.delegate = delegate;
+        this.timedSource = timedSource;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Optional<RequestDeadline> current = RequestDeadline.current();
+        if (current.isEmpty()) {
+            return delegate.getConnection();
+        }
+        RequestDeadline deadline = current.get();
+        deadline.check();
+        // таймаут пула (SQLTransientConnectionException) не переводим: это сигнал перегрузки для AdmissionController
+        Connection connection = timedSource.getConnection(Math.max(1, deadline.remainingMillis()));
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection, deadline));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return delegate.getConnection(username, password);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? (T) this : delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || delegate.isWrapperFor(iface);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Query timeout по остатку срока. У PostgreSQL - в миллисекундах, у остальных драйверов
+     * JDBC дает только секунды, округляем вверх.
+     */
+    private static void applyTimeout(Statement statement, long remainingMillis) throws SQLException {
+        if (statement.isWrapperFor(PgStatement.class)) {
+            statement.unwrap(PgStatement.class).setQueryTimeoutMs(remainingMillis);
+        } else {
+            statement.setQueryTimeout((int) Math.min(Integer.MAX_VALUE,
+                    (remainingMillis + TimeUnit.SECONDS.toMillis(1) - 1) / TimeUnit.SECONDS.toMillis(1)));
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+        private final RequestDeadline deadline;
+
+        ConnectionHandler(Connection connection, RequestDeadline deadline) {
+            this.connection = connection;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "unwrap" -> {
+                    Class<?> iface = (Class<?>) args[0];
+                    return iface.isInstance(proxy) ? proxy : connection.unwrap(iface);
+                }
+                case "isWrapperFor" -> {
+                    Class<?> iface = (Class<?>) args[0];
+                    return iface.isInstance(proxy) || connection.isWrapperFor(iface);
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+
+            Object result = DeadlineDataSource.invoke(connection, method, args);
+            return switch (name) {
+                case "createStatement" -> wrapStatement((Statement) result, Statement.class, proxy);
+                case "prepareStatement" -> wrapStatement((Statement) result, PreparedStatement.class, proxy);
+                case "prepareCall" -> wrapStatement((Statement) result, CallableStatement.class, proxy);
+                default -> result;
+            };
+        }
+
+        private Object wrapStatement(Statement statement, Class<? extends Statement> type, Object connectionProxy) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                    new StatementHandler(statement, connectionProxy, deadline));
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final Object connectionProxy;
+        private final RequestDeadline deadline;
+
+        StatementHandler(Statement statement, Object connectionProxy, RequestDeadline deadline) {
+            this.statement = statement;
+            this.connectionProxy = connectionProxy;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                return switch (name) {
+                    case "getConnection" -> connectionProxy;
+                    case "unwrap" -> ((Class<?>) args[0]).isInstance(proxy) ? proxy : statement.unwrap((Class<?>) args[0]);
+                    case "isWrapperFor" -> ((Class<?>) args[0]).isInstance(proxy)
+                            || statement.isWrapperFor((Class<?>) args[0]);
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> DeadlineDataSource.invoke(statement, method, args);
+                };
+            }
+
+            deadline.check();
+            applyTimeout(statement, Math.max(1, deadline.remainingMillis()));
+            try (RequestDeadline.Registration registration = deadline.track(statement)) {
+                return DeadlineDataSource.invoke(statement, method, args);
+            } catch (SQLException e) {
+                // запрос отменен по timeout или cancel(); остальные ошибки как есть
+                if (deadline.isExpired()) {
+                    throw deadline.expired(e);
+                }
+                throw e;
+            }
+        }
+    }
+}
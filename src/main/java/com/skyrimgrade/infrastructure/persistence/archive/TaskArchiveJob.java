@@ -0,0 +1,179 @@
+package com.skyrimgrade.infrastructure.persistence.archive;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.domain.event.DomainEventPublisher;
+
+/**
+ * Переносит давно завершенные задачи (COMPLETED / CANCELLED) из tasks в tasks_archive (V12).
+ *
+ * Перенос идет пачками: id пачки выбираются с FOR UPDATE SKIP LOCKED, копируются в архив
+ * и удаляются из tasks в одной транзакции. id сохраняются, поэтому plan_items и
+ * user_points_history продолжают ссылаться на ту же задачу; на PostgreSQL транзакция
+ * выставляет skyrimgrade.archiving, чтобы триггер удаления не трогал эти ссылки.
+ * Между пачками job спит, чтобы не вытеснять рабочий набор из shared buffers.
+ */
+public class TaskArchiveJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskArchiveJob.class);
+
+    private static final String COLUMNS = """
+            id, user_id, title, description, difficulty, points, status, deadline, completed_at, project_id, \
+            created_at, updated_at, version""";
+
+    private static final String SELECT_BATCH_SQL = """
+            SELECT id, user_id FROM tasks
+            WHERE status IN ('COMPLETED', 'CANCELLED') AND COALESCE(completed_at, updated_at) < ?
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String COPY_SQL = "INSERT INTO tasks_archive (" + COLUMNS + ") SELECT " + COLUMNS
+            + " FROM tasks WHERE id = ANY(?)";
+
+    private static final String DELETE_SQL = "DELETE FROM tasks WHERE id = ANY(?)";
+
+    private static final String MARK_ARCHIVING_SQL = "SELECT set_config('skyrimgrade.archiving', 'on', true)";
+
+    private final DataSource dataSource;
+    private final DomainEventPublisher events;
+    private final int batchSize;
+    private final int archiveAfterDays;
+
+    private ScheduledExecutorService scheduler;
+
+    public TaskArchiveJob(DataSource dataSource, DomainEventPublisher events, int batchSize, int archiveAfterDays) {
+        this.dataSource = dataSource;
+        this.events = events;
+        this.batchSize = Math.max(1, batchSize);
+        this.archiveAfterDays = Math.max(1, archiveAfterDays);
+    }
+
+    /**
+     * Запускает архивацию: каждые intervalMinutes переносит все подходящие задачи
+     * пачками с паузой pauseMillis между ними.
+     */
+    public synchronized void start(long intervalMinutes, long pauseMillis) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("task-archive")
+                .daemon(true)
+                .factory());
+        scheduler.scheduleWithFixedDelay(() -> runSafely(pauseMillis), 1, Math.max(1, intervalMinutes),
+                TimeUnit.MINUTES);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void runSafely(long pauseMillis) {
+        try {
+            int total = 0;
+            int moved;
+            do {
+                moved = archiveBatch();
+                total += moved;
+                if (moved == batchSize) {
+                    Thread.sleep(Math.max(0, pauseMillis));
+                }
+            } while (moved == batchSize);
+            if (total > 0) {
+                logger.info("Archived {} finished tasks", total);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Task archiving failed, will retry", e);
+        }
+    }
+
+    /**
+     * Переносит одну пачку и возвращает число перенесенных задач.
+     */
+    public int archiveBatch() throws SQLException {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveAfterDays);
+        Map<Integer, Integer> perUser = new TreeMap<>();
+        int moved;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                List<Integer> ids = new ArrayList<>(batchSize);
+                try (PreparedStatement statement = connection.prepareStatement(SELECT_BATCH_SQL)) {
+                    statement.setTimestamp(1, Timestamp.valueOf(cutoff));
+                    statement.setInt(2, batchSize);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getInt("id"));
+                            perUser.merge(rs.getInt("user_id"), 1, Integer::sum);
+                        }
+                    }
+                }
+                if (ids.isEmpty()) {
+                    connection.rollback();
+                    return 0;
+                }
+
+                markArchiving(connection);
+                Array idArray = connection.createArrayOf("INTEGER", ids.toArray());
+                try (PreparedStatement copy = connection.prepareStatement(COPY_SQL);
+                     PreparedStatement delete = connection.prepareStatement(DELETE_SQL)) {
+                    copy.setArray(1, idArray);
+                    copy.executeUpdate();
+                    delete.setArray(1, idArray);
+                    moved = delete.executeUpdate();
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+
+        Instant now = Instant.now();
+        perUser.forEach((userId, count) -> events.publish(new DomainEvent.TasksArchived(userId, count, now)));
+        logger.debug("Archived batch of {} tasks for {} users", moved, perUser.size());
+        return moved;
+    }
+
+    /**
+     * Флаг для триггера tasks_after_delete (только PostgreSQL, действует до конца транзакции).
+     */
+    private static void markArchiving(Connection connection) throws SQLException {
+        if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(MARK_ARCHIVING_SQL);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.skyrimgrade.infrastructure.persistence.instrument;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSource, который измеряет каждое выполнение SQL.
+ *
+ * Connection и Statement оборачиваются динамическими прокси: вызовы execute* и executeBatch
+ * замеряются через System.nanoTime(), остальные методы уходят в исходный объект напрямую.
+ * Форма SQL вычисляется один раз при prepareStatement. Когда инструментирование выключено,
+ * DatabaseConnectionManager отдает исходный пул и этот класс не участвует вовсе.
+ */
+public class InstrumentedDataSource implements DataSource {
+
+    private static final String BATCH_SHAPE = "<batch>";
+
+    private final DataSource delegate;
+    private final SqlInstrumentation instrumentation;
+
+    public InstrumentedDataSource(DataSource delegate, SqlInstrumentation instrumentation) {
+        this.delegate = delegate;
+        this.instrumentation = instrumentation;
+    }
+
+    public SqlInstrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(delegate.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(delegate.getConnection(username, password));
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? (T) this : delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || delegate.isWrapperFor(iface);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "unwrap" -> {
+                    Class<?> iface = (Class<?>) args[0];
+                    return iface.isInstance(proxy) ? proxy : connection.unwrap(iface);
+                }
+                case "isWrapperFor" -> {
+                    Class<?> iface = (Class<?>) args[0];
+                    return iface.isInstance(proxy) || connection.isWrapperFor(iface);
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+
+            Object result = InstrumentedDataSource.invoke(connection, method, args);
+            return switch (name) {
+                case "createStatement" -> wrapStatement((Statement) result, Statement.class, proxy, null);
+                case "prepareStatement" -> wrapStatement((Statement) result, PreparedStatement.class, proxy,
+                        SqlShape.normalize((String) args[0]));
+                case "prepareCall" -> wrapStatement((Statement) result, CallableStatement.class, proxy,
+                        SqlShape.normalize((String) args[0]));
+                default -> result;
+            };
+        }
+
+        private Object wrapStatement(Statement statement, Class<? extends Statement> type, Object connectionProxy,
+                                     String shape) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                    new StatementHandler(statement, connectionProxy, shape));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final Object connectionProxy;
+        // форма prepared-запроса; для обычного Statement берется из аргумента execute*
+        private final String preparedShape;
+
+        StatementHandler(Statement statement, Object connectionProxy, String preparedShape) {
+            this.statement = statement;
+            this.connectionProxy = connectionProxy;
+            this.preparedShape = preparedShape;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                return switch (name) {
+                    case "getConnection" -> connectionProxy;
+                    case "unwrap" -> ((Class<?>) args[0]).isInstance(proxy) ? proxy : statement.unwrap((Class<?>) args[0]);
+                    case "isWrapperFor" -> ((Class<?>) args[0]).isInstance(proxy)
+                            || statement.isWrapperFor((Class<?>) args[0]);
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> InstrumentedDataSource.invoke(statement, method, args);
+                };
+            }
+
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = InstrumentedDataSource.invoke(statement, method, args);
+                failed = false;
+                return result;
+            } finally {
+                instrumentation.record(shapeOf(name, args), System.nanoTime() - start, failed);
+            }
+        }
+
+        private String shapeOf(String method, Object[] args) {
+            if (preparedShape != null) {
+                return preparedShape;
+            }
+            if (args != null && args.length > 0 && args[0] instanceof String sql) {
+                return SqlShape.normalize(sql);
+            }
+            return method.startsWith("executeLargeBatch") || method.equals("executeBatch") ? BATCH_SHAPE : method;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.skyrimgrade.infrastructure.persistence.instrument;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Лог-линейная гистограмма задержек в микросекундах: 4 бакета на каждую степень двойки,
+ * погрешность перцентилей не больше ~19%. Запись - один инкремент без блокировок.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int MAX_POWER = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray((MAX_POWER + 1) * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+
+    void record(long micros) {
+        buckets.incrementAndGet(index(Math.max(0, micros)));
+        count.increment();
+    }
+
+    /**
+     * Верхняя граница бакета, в который попадает перцентиль (0 < percentile <= 1).
+     */
+    long percentileMicros(double percentile) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= threshold) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(buckets.length() - 1);
+    }
+
+    static int index(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int power = 63 - Long.numberOfLeadingZeros(micros);
+        if (power > MAX_POWER) {
+            return (MAX_POWER + 1) * SUB_BUCKETS - 1;
+        }
+        int sub = (int) ((micros >>> (power - 2)) & (SUB_BUCKETS - 1));
+        return power * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int index) {
+        int power = index / SUB_BUCKETS;
+        int sub = index % SUB_BUCKETS;
+        if (power < 2) {
+            return index;
+        }
+        return (1L << power) + ((long) (sub + 1) << (power - 2)) - 1;
+    }
+}
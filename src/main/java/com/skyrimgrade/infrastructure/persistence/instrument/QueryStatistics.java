@@ -0,0 +1,83 @@
+package com.skyrimgrade.infrastructure.persistence.instrument;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Агрегаты по формам SQL: число выполнений, суммарное и максимальное время, p99.
+ * Число форм ограничено: после maxShapes новые формы учитываются в общей строке OTHER_SHAPE,
+ * чтобы динамически собранный SQL не раздувал память.
+ */
+public class QueryStatistics {
+
+    public static final String OTHER_SHAPE = "<other>";
+
+    private final Map<String, ShapeCounters> shapes = new ConcurrentHashMap<>();
+    private final int maxShapes;
+
+    public QueryStatistics(int maxShapes) {
+        this.maxShapes = Math.max(1, maxShapes);
+    }
+
+    public void record(String shape, long nanos) {
+        ShapeCounters counters = shapes.get(shape);
+        if (counters == null) {
+            String key = shapes.size() < maxShapes ? shape : OTHER_SHAPE;
+            counters = shapes.computeIfAbsent(key, k -> new ShapeCounters());
+        }
+        counters.record(nanos);
+    }
+
+    /**
+     * Снимок статистики, отсортированный по суммарному времени (самые дорогие формы первыми).
+     */
+    public List<ShapeStats> snapshot() {
+        List<ShapeStats> result = new ArrayList<>(shapes.size());
+        shapes.forEach((shape, counters) -> result.add(counters.toStats(shape)));
+        result.sort(Comparator.comparingDouble(ShapeStats::totalMillis).reversed());
+        return result;
+    }
+
+    public void reset() {
+        shapes.clear();
+    }
+
+    private static final class ShapeCounters {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            histogram.record(nanos / 1_000);
+        }
+
+        ShapeStats toStats(String shape) {
+            return new ShapeStats(shape, count.sum(), totalNanos.sum() / 1_000_000.0,
+                    histogram.percentileMicros(0.99) / 1_000.0, maxNanos.get() / 1_000_000.0);
+        }
+    }
+
+    public record ShapeStats(
+            String shape,
+            long count,
+            double totalMillis,
+            double p99Millis,
+            double maxMillis
+            ) {
+
+        @Override
+        public String toString() {
+            return String.format("%8d x  total=%.1fms  p99=%.2fms  max=%.2fms  %s",
+                    count, totalMillis, p99Millis, maxMillis, shape);
+        }
+    }
+}
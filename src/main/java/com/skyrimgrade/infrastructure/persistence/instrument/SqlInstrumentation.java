@@ -0,0 +1,63 @@
+package com.skyrimgrade.infrastructure.persistence.instrument;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.skyrimgrade.infrastructure.logging.RequestContext;
+
+/**
+ * Обработка измерений от InstrumentedDataSource: статистика по формам SQL,
+ * журнал медленных запросов и поиск N+1.
+ *
+ * N+1: если в рамках одного запроса (RequestContext) одна и та же форма выполняется
+ * больше nPlusOneThreshold раз, пишется одно предупреждение на пару (запрос, форма).
+ * Счетчики хранятся в атрибутах запроса и исчезают вместе с ним.
+ */
+public class SqlInstrumentation {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlInstrumentation.class);
+
+    private final QueryStatistics statistics;
+    private final long slowThresholdNanos;
+    private final int nPlusOneThreshold;
+
+    public SqlInstrumentation(QueryStatistics statistics, long slowThresholdMillis, int nPlusOneThreshold) {
+        this.statistics = statistics;
+        this.slowThresholdNanos = Math.max(1, slowThresholdMillis) * 1_000_000;
+        this.nPlusOneThreshold = Math.max(1, nPlusOneThreshold);
+    }
+
+    public QueryStatistics getStatistics() {
+        return statistics;
+    }
+
+    void record(String shape, long nanos, boolean failed) {
+        statistics.record(shape, nanos);
+
+        Optional<RequestContext.Scope> scope = RequestContext.currentScope();
+        if (nanos >= slowThresholdNanos) {
+            logger.warn("Slow query {} ms{} [request {}]: {}", nanos / 1_000_000, failed ? " (failed)" : "",
+                    scope.map(RequestContext.Scope::requestId).orElse("-"), shape);
+        }
+        if (scope.isPresent()) {
+            int executions = scope.get().attribute(ShapeCounts.class, ShapeCounts::new).increment(shape);
+            if (executions == nPlusOneThreshold + 1) {
+                logger.warn("Possible N+1: request {} executed the same statement more than {} times: {}",
+                        scope.get().requestId(), nPlusOneThreshold, shape);
+            }
+        }
+    }
+
+    private static final class ShapeCounts {
+        private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+        int increment(String shape) {
+            return counts.computeIfAbsent(shape, s -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.skyrimgrade.infrastructure.persistence.instrument;
+
+/**
+ * Нормализация SQL до "формы": литералы заменяются на ?, списки IN (?, ?, ...) сворачиваются
+ * в IN (?...), пробелы схлопываются, регистр ключевых слов не меняется.
+ * Запросы, отличающиеся только параметрами, получают одну форму.
+ */
+public final class SqlShape {
+
+    private static final int MAX_LENGTH = 500;
+
+    private SqlShape() {
+    }
+
+    public static String normalize(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(Math.min(sql.length(), MAX_LENGTH));
+        int i = 0;
+        int length = sql.length();
+        while (i < length && out.length() < MAX_LENGTH) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                i = skipQuoted(sql, i);
+                out.append('?');
+            } else if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (!out.isEmpty()) {
+                    out.append(' ');
+                }
+            } else if (Character.isDigit(c) && !partOfIdentifier(out)) {
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return collapseInLists(out.toString().strip());
+    }
+
+    private static int skipQuoted(String sql, int start) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == '\'') {
+                // '' внутри строки - экранированная кавычка
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == '\'') {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean partOfIdentifier(StringBuilder out) {
+        if (out.isEmpty()) {
+            return false;
+        }
+        char previous = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == '$';
+    }
+
+    private static String collapseInLists(String shape) {
+        if (!shape.contains("?,") && !shape.contains("? ,")) {
+            return shape;
+        }
+        return shape.replaceAll("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)", "(?...)");
+    }
+}
@@ -0,0 +1,109 @@
+package com.skyrimgrade.infrastructure.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import com.skyrimgrade.domain.analytics.ActionCount;
+import com.skyrimgrade.domain.analytics.AuditAnalyticsRepository;
+import com.skyrimgrade.domain.analytics.FacetCount;
+import com.skyrimgrade.domain.analytics.HourlyActivity;
+
+/**
+ * Чтение audit_activity_rollup / audit_facet_rollup. Диапазон покрывается префиксом первичного
+ * ключа (user_id, bucket_start), поэтому запрос читает только строки бакетов периода.
+ */
+public class JdbcAuditAnalyticsRepository implements AuditAnalyticsRepository {
+
+    private static final String SELECT_HOURLY_SQL = """
+            SELECT bucket_start, SUM(events) AS events FROM audit_activity_rollup
+            WHERE user_id = ? AND bucket_start >= ? AND bucket_start < ?
+            GROUP BY bucket_start
+            ORDER BY bucket_start
+            """;
+
+    private static final String SELECT_ACTIONS_SQL = """
+            SELECT action, entity_type, SUM(events) AS events FROM audit_activity_rollup
+            WHERE user_id = ? AND bucket_start >= ? AND bucket_start < ?
+            GROUP BY action, entity_type
+            ORDER BY events DESC, action, entity_type
+            """;
+
+    private static final String SELECT_FACETS_SQL = """
+            SELECT facet_key, facet_value, SUM(events) AS events FROM audit_facet_rollup
+            WHERE user_id = ? AND bucket_start BETWEEN ? AND ? AND (CAST(? AS VARCHAR) IS NULL OR action = ?)
+            GROUP BY facet_key, facet_value
+            ORDER BY facet_key, events DESC, facet_value
+            """;
+
+    private final DataSource dataSource;
+
+    public JdbcAuditAnalyticsRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public List<HourlyActivity> findHourly(int userId, LocalDateTime from, LocalDateTime to) throws SQLException {
+        List<HourlyActivity> hours = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_HOURLY_SQL)) {
+            setRange(statement, userId, from, to);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    hours.add(new HourlyActivity(rs.getTimestamp("bucket_start").toLocalDateTime(), rs.getLong("events")));
+                }
+            }
+        }
+        return hours;
+    }
+
+    @Override
+    public List<ActionCount> findActions(int userId, LocalDateTime from, LocalDateTime to) throws SQLException {
+        List<ActionCount> actions = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_ACTIONS_SQL)) {
+            setRange(statement, userId, from, to);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    actions.add(new ActionCount(rs.getString("action"), rs.getString("entity_type"), rs.getLong("events")));
+                }
+            }
+        }
+        return actions;
+    }
+
+    @Override
+    public List<FacetCount> findFacets(int userId, LocalDate from, LocalDate to, String action) throws SQLException {
+        List<FacetCount> facets = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_FACETS_SQL)) {
+            statement.setInt(1, userId);
+            statement.setDate(2, Date.valueOf(from));
+            statement.setDate(3, Date.valueOf(to));
+            statement.setString(4, action);
+            statement.setString(5, action);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    facets.add(new FacetCount(rs.getString("facet_key"), rs.getString("facet_value"), rs.getLong("events")));
+                }
+            }
+        }
+        return facets;
+    }
+
+    private static void setRange(PreparedStatement statement, int userId, LocalDateTime from, LocalDateTime to)
+            throws SQLException {
+        statement.setInt(1, userId);
+        statement.setTimestamp(2, Timestamp.valueOf(from));
+        statement.setTimestamp(3, Timestamp.valueOf(to));
+    }
+}
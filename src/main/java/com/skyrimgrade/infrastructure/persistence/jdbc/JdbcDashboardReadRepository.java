@@ -0,0 +1,94 @@
+package com.skyrimgrade.infrastructure.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import com.skyrimgrade.domain.dashboard.ActivityEntry;
+import com.skyrimgrade.domain.dashboard.DashboardReadRepository;
+import com.skyrimgrade.domain.dashboard.PointsStanding;
+
+/**
+ * JDBC чтения главного экрана.
+ *
+ * Лента действий ограничена по created_at: audit_log партиционирован по месяцам (V8),
+ * и без нижней границы запрос прошел бы по индексам всех партиций.
+ * Место в рейтинге считается по индексу idx_users_total_points (V14): читаются только
+ * пользователи выше, а не вся таблица users.
+ */
+public class JdbcDashboardReadRepository implements DashboardReadRepository {
+
+    private static final String SELECT_STANDING_SQL =
+            "SELECT total_points, total_points - points_spent AS balance FROM users WHERE id = ?";
+
+    private static final String SELECT_RANK_SQL = """
+            SELECT COUNT(*) + 1 FROM users
+            WHERE total_points > (SELECT total_points FROM users WHERE id = ?)
+            """;
+
+    private static final String SELECT_ACTIVITY_SQL = """
+            SELECT action, entity_type, entity_id, created_at FROM audit_log
+            WHERE user_id = ? AND created_at >= ?
+            ORDER BY created_at DESC
+            LIMIT ?
+            """;
+
+    private final DataSource dataSource;
+
+    public JdbcDashboardReadRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Optional<PointsStanding> findStanding(int userId) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_STANDING_SQL)) {
+            statement.setInt(1, userId);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next()
+                        ? Optional.of(new PointsStanding(rs.getInt("total_points"), rs.getInt("balance")))
+                        : Optional.empty();
+            }
+        }
+    }
+
+    @Override
+    public long findRank(int userId) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_RANK_SQL)) {
+            statement.setInt(1, userId);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    @Override
+    public List<ActivityEntry> findRecentActivity(int userId, LocalDateTime since, int limit) throws SQLException {
+        List<ActivityEntry> entries = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_ACTIVITY_SQL)) {
+            statement.setInt(1, userId);
+            statement.setTimestamp(2, Timestamp.valueOf(since));
+            statement.setInt(3, Math.max(1, limit));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    int entityId = rs.getInt("entity_id");
+                    Integer entity = rs.wasNull() ? null : entityId;
+                    entries.add(new ActivityEntry(rs.getString("action"), rs.getString("entity_type"), entity,
+                            rs.getTimestamp("created_at").toLocalDateTime()));
+                }
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,258 @@
+package com.skyrimgrade.infrastructure.persistence.jdbc;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import com.skyrimgrade.domain.plan.PlanItem;
+import com.skyrimgrade.domain.plan.PlanItemDiff;
+import com.skyrimgrade.domain.plan.PlanRepository;
+import com.skyrimgrade.domain.plan.PlanUpdateResult;
+
+/**
+ * JDBC реализация PlanRepository.
+ *
+ * Обновление не удаляет и не вставляет слоты заново: сохраненные слоты сравниваются с новыми
+ * (PlanItemDiff) и пишется только разница - удаления одним DELETE по массиву id, обновления
+ * и вставки пачками. Оптимистическая блокировка - условный UPDATE daily_plans.updated_at
+ * первым оператором транзакции: он же удерживает строку плана до commit, так что два
+ * одновременных изменения одного плана не перемешиваются.
+ */
+public class JdbcPlanRepository implements PlanRepository {
+
+    private static final String SELECT_ITEMS_SQL = """
+            SELECT i.id, i.task_id, i.title, i.description, i.time_from, i.time_to, i.is_completed
+            FROM plan_items i JOIN daily_plans p ON p.id = i.plan_id
+            WHERE i.plan_id = ? AND p.user_id = ?
+            ORDER BY i.time_from, i.id
+            """;
+
+    private static final String SELECT_ITEMS_BY_DATE_SQL = """
+            SELECT i.id, i.task_id, i.title, i.description, i.time_from, i.time_to, i.is_completed
+            FROM plan_items i JOIN daily_plans p ON p.id = i.plan_id
+            WHERE p.user_id = ? AND p.plan_date = ?
+            ORDER BY i.time_from, i.id
+            """;
+
+    private static final String SELECT_ITEMS_FOR_UPDATE_SQL = """
+            SELECT id, task_id, title, description, time_from, time_to, is_completed
+            FROM plan_items WHERE plan_id = ?
+            """;
+
+    private static final String CLAIM_PLAN_SQL = """
+            UPDATE daily_plans SET updated_at = ?
+            WHERE id = ? AND user_id = ? AND updated_at IS NOT DISTINCT FROM ?
+            """;
+
+    private static final String SELECT_PLAN_SQL = "SELECT plan_date, updated_at FROM daily_plans WHERE id = ? AND user_id = ?";
+
+    private static final String DELETE_ITEMS_SQL = "DELETE FROM plan_items WHERE plan_id = ? AND id = ANY(?)";
+
+    private static final String UPDATE_ITEM_SQL = """
+            UPDATE plan_items SET task_id = ?, title = ?, description = ?, time_from = ?, time_to = ?, is_completed = ?
+            WHERE id = ? AND plan_id = ?
+            """;
+
+    private static final String INSERT_ITEM_SQL = """
+            INSERT INTO plan_items (plan_id, task_id, title, description, time_from, time_to, is_completed)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_AUDIT_SQL = """
+            INSERT INTO audit_log (user_id, action, entity_type, entity_id, details)
+            VALUES (?, 'PLAN_UPDATED', 'PLAN', ?, CAST(? AS JSON))
+            """;
+
+    private final DataSource dataSource;
+
+    public JdbcPlanRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public List<PlanItem> findItems(int userId, int planId) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_ITEMS_SQL)) {
+            statement.setInt(1, planId);
+            statement.setInt(2, userId);
+            return readItems(statement);
+        }
+    }
+
+    @Override
+    public List<PlanItem> findItemsByDate(int userId, LocalDate planDate) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_ITEMS_BY_DATE_SQL)) {
+            statement.setInt(1, userId);
+            statement.setDate(2, Date.valueOf(planDate));
+            return readItems(statement);
+        }
+    }
+
+    @Override
+    public PlanUpdateResult updateItems(int userId, int planId, LocalDateTime expectedUpdatedAt, List<PlanItem> items)
+            throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                PlanUpdateResult result = doUpdateItems(connection, userId, planId, expectedUpdatedAt, items);
+                if (result.status() == PlanUpdateResult.Status.UPDATED) {
+                    connection.commit();
+                } else {
+                    // конфликт или пустая разница: updated_at не сдвигаем
+                    connection.rollback();
+                }
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private PlanUpdateResult doUpdateItems(Connection connection, int userId, int planId,
+                                           LocalDateTime expectedUpdatedAt, List<PlanItem> items) throws SQLException {
+        LocalDateTime updatedAt = nextUpdatedAt(expectedUpdatedAt);
+        int claimed;
+        try (PreparedStatement statement = connection.prepareStatement(CLAIM_PLAN_SQL)) {
+            statement.setTimestamp(1, Timestamp.valueOf(updatedAt));
+            statement.setInt(2, planId);
+            statement.setInt(3, userId);
+            statement.setTimestamp(4, toTimestamp(expectedUpdatedAt));
+            claimed = statement.executeUpdate();
+        }
+
+        LocalDate planDate;
+        LocalDateTime currentUpdatedAt;
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_PLAN_SQL)) {
+            statement.setInt(1, planId);
+            statement.setInt(2, userId);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()) {
+                    return new PlanUpdateResult(PlanUpdateResult.Status.NOT_FOUND, null, null, 0, 0, 0);
+                }
+                planDate = rs.getDate("plan_date").toLocalDate();
+                Timestamp stored = rs.getTimestamp("updated_at");
+                currentUpdatedAt = stored != null ? stored.toLocalDateTime() : null;
+            }
+        }
+        if (claimed == 0) {
+            // план изменил другой запрос после того, как клиент его прочитал
+            return new PlanUpdateResult(PlanUpdateResult.Status.CONFLICT, planDate, currentUpdatedAt, 0, 0, 0);
+        }
+
+        List<PlanItem> stored;
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_ITEMS_FOR_UPDATE_SQL)) {
+            statement.setInt(1, planId);
+            stored = readItems(statement);
+        }
+        PlanItemDiff diff = PlanItemDiff.compute(stored, items);
+        if (diff.isEmpty()) {
+            return new PlanUpdateResult(PlanUpdateResult.Status.UNCHANGED, planDate, expectedUpdatedAt, 0, 0, 0);
+        }
+
+        // сначала удаления: освободившиеся слоты не мешают обновленным и новым
+        if (!diff.deletes().isEmpty()) {
+            Array ids = connection.createArrayOf("INTEGER", diff.deletes().toArray());
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_ITEMS_SQL)) {
+                statement.setInt(1, planId);
+                statement.setArray(2, ids);
+                statement.executeUpdate();
+            }
+        }
+        if (!diff.updates().isEmpty()) {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_ITEM_SQL)) {
+                for (PlanItem item : diff.updates()) {
+                    setContent(statement, 1, item);
+                    statement.setInt(7, item.id());
+                    statement.setInt(8, planId);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+        if (!diff.inserts().isEmpty()) {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_ITEM_SQL)) {
+                for (PlanItem item : diff.inserts()) {
+                    statement.setInt(1, planId);
+                    setContent(statement, 2, item);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_AUDIT_SQL)) {
+            statement.setInt(1, userId);
+            statement.setInt(2, planId);
+            statement.setString(3, String.format("{\"inserted\":%d,\"updated\":%d,\"deleted\":%d}",
+                    diff.inserts().size(), diff.updates().size(), diff.deletes().size()));
+            statement.executeUpdate();
+        }
+        return new PlanUpdateResult(PlanUpdateResult.Status.UPDATED, planDate, updatedAt,
+                diff.inserts().size(), diff.updates().size(), diff.deletes().size());
+    }
+
+    /**
+     * Новое значение updated_at: точность TIMESTAMP в PostgreSQL - микросекунды, и оно
+     * обязано отличаться от ожидаемого, иначе следующий запрос со старой версией пройдет.
+     */
+    private static LocalDateTime nextUpdatedAt(LocalDateTime expected) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (expected != null && !now.isAfter(expected)) {
+            return expected.truncatedTo(ChronoUnit.MICROS).plus(1, ChronoUnit.MICROS);
+        }
+        return now;
+    }
+
+    private static List<PlanItem> readItems(PreparedStatement statement) throws SQLException {
+        List<PlanItem> items = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                int taskId = rs.getInt("task_id");
+                boolean noTask = rs.wasNull();
+                items.add(new PlanItem(
+                        rs.getInt("id"),
+                        noTask ? null : taskId,
+                        rs.getString("title"),
+                        rs.getString("description"),
+                        rs.getTime("time_from").toLocalTime(),
+                        rs.getTime("time_to").toLocalTime(),
+                        rs.getBoolean("is_completed")));
+            }
+        }
+        return items;
+    }
+
+    private static void setContent(PreparedStatement statement, int index, PlanItem item) throws SQLException {
+        if (item.taskId() != null) {
+            statement.setInt(index, item.taskId());
+        } else {
+            statement.setNull(index, Types.INTEGER);
+        }
+        statement.setString(index + 1, item.title());
+        statement.setString(index + 2, item.description());
+        statement.setTime(index + 3, Time.valueOf(item.timeFrom()));
+        statement.setTime(index + 4, Time.valueOf(item.timeTo()));
+        statement.setBoolean(index + 5, item.completed());
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
@@ -0,0 +1,337 @@
+package com.skyrimgrade.infrastructure.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.skyrimgrade.domain.points.IdempotencyKeyMismatchException;
+import com.skyrimgrade.domain.points.LedgerResult;
+import com.skyrimgrade.domain.points.PointsLedger;
+import com.skyrimgrade.domain.task.Difficulty;
+import com.skyrimgrade.infrastructure.persistence.rollup.RollupDelta;
+
+/**
+ * JDBC реализация PointsLedger на условных UPDATE и version колонках (V11).
+ *
+ * Вместо SELECT ... FOR UPDATE по строке пользователя каждое изменение проверяет условие
+ * в самом UPDATE: задача выполняется только из ACTIVE, списание проходит только при
+ * достаточном остатке. Строка users обновляется последней в транзакции, поэтому
+ * ее блокировка держится минимальное время. Idempotency-Key занимается первым же
+ * INSERT ... ON CONFLICT DO NOTHING: одновременный повтор с тем же ключом дожидается
+ * commit первого запроса и читает его результат.
+ */
+public class JdbcPointsLedger implements PointsLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcPointsLedger.class);
+
+    private static final String COMPLETE_TASK = "COMPLETE_TASK";
+    private static final String SPEND_POINTS = "SPEND_POINTS";
+
+    private static final String CLAIM_KEY_SQL = """
+            INSERT INTO idempotency_keys (user_id, idempotency_key, operation, fingerprint) VALUES (?, ?, ?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String SELECT_KEY_SQL = """
+            SELECT operation, fingerprint, outcome, points, balance, entity_version
+            FROM idempotency_keys WHERE user_id = ? AND idempotency_key = ?
+            """;
+
+    private static final String STORE_RESULT_SQL = """
+            UPDATE idempotency_keys SET outcome = ?, points = ?, balance = ?, entity_version = ?
+            WHERE user_id = ? AND idempotency_key = ?
+            """;
+
+    private static final String PRUNE_KEYS_SQL = "DELETE FROM idempotency_keys WHERE created_at < ?";
+
+    private static final String COMPLETE_TASK_SQL = """
+            UPDATE tasks SET status = 'COMPLETED', completed_at = ?, version = version + 1, updated_at = CURRENT_TIMESTAMP
+            WHERE id = ? AND user_id = ? AND status = 'ACTIVE'
+            """;
+
+    private static final String SELECT_TASK_SQL =
+            "SELECT title, difficulty, points, status, version FROM tasks WHERE id = ? AND user_id = ?";
+
+    private static final String INSERT_POINTS_SQL = """
+            INSERT INTO user_points_history (user_id, points_earned, reason, task_id, created_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String AWARD_POINTS_SQL = """
+            UPDATE users SET total_points = total_points + ?, version = version + 1, updated_at = CURRENT_TIMESTAMP
+            WHERE id = ?
+            """;
+
+    private static final String SPEND_POINTS_SQL = """
+            UPDATE users SET points_spent = points_spent + ?, version = version + 1, updated_at = CURRENT_TIMESTAMP
+            WHERE id = ? AND total_points - points_spent >= ?
+            """;
+
+    private static final String SELECT_BALANCE_SQL =
+            "SELECT total_points - points_spent AS balance, version FROM users WHERE id = ?";
+
+    private static final String INSERT_AUDIT_SQL = """
+            INSERT INTO audit_log (user_id, action, entity_type, entity_id, details)
+            VALUES (?, ?, ?, ?, CAST(? AS JSON))
+            """;
+
+    private static final int MAX_REASON_LENGTH = 255;
+    private static final long PRUNE_INTERVAL_MILLIS = Duration.ofHours(1).toMillis();
+
+    private final DataSource dataSource;
+    private final Duration keyRetention;
+    private final AtomicLong nextPruneAt = new AtomicLong();
+
+    public JdbcPointsLedger(DataSource dataSource, Duration keyRetention) {
+        this.dataSource = dataSource;
+        this.keyRetention = keyRetention;
+    }
+
+    @Override
+    public LedgerResult completeTask(int userId, int taskId, String idempotencyKey) throws SQLException {
+        return inTransaction(userId, idempotencyKey, COMPLETE_TASK, "task:" + taskId,
+                connection -> doCompleteTask(connection, userId, taskId));
+    }
+
+    @Override
+    public LedgerResult spendPoints(int userId, int amount, String idempotencyKey) throws SQLException {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("amount must be positive");
+        }
+        return inTransaction(userId, idempotencyKey, SPEND_POINTS, "amount:" + amount,
+                connection -> doSpendPoints(connection, userId, amount));
+    }
+
+    private LedgerResult doCompleteTask(Connection connection, int userId, int taskId) throws SQLException {
+        LocalDateTime completedAt = LocalDateTime.now();
+        int updated;
+        try (PreparedStatement statement = connection.prepareStatement(COMPLETE_TASK_SQL)) {
+            statement.setTimestamp(1, Timestamp.valueOf(completedAt));
+            statement.setInt(2, taskId);
+            statement.setInt(3, userId);
+            updated = statement.executeUpdate();
+        }
+
+        String title;
+        Difficulty difficulty;
+        int points;
+        long taskVersion;
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_TASK_SQL)) {
+            statement.setInt(1, taskId);
+            statement.setInt(2, userId);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()) {
+                    return new LedgerResult(LedgerResult.Status.NOT_FOUND, 0, 0, 0, false);
+                }
+                if (updated == 0) {
+                    // задачу уже выполнил параллельный запрос или она не в ACTIVE
+                    return new LedgerResult(LedgerResult.Status.NOT_ACTIVE, 0, 0, rs.getLong("version"), false);
+                }
+                title = rs.getString("title");
+                difficulty = Difficulty.valueOf(rs.getString("difficulty"));
+                points = rs.getInt("points");
+                taskVersion = rs.getLong("version");
+            }
+        }
+
+        if (points > 0) {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_POINTS_SQL)) {
+                statement.setInt(1, userId);
+                statement.setInt(2, points);
+                statement.setString(3, truncate("Task completed: " + title, MAX_REASON_LENGTH));
+                statement.setInt(4, taskId);
+                statement.setTimestamp(5, Timestamp.valueOf(completedAt));
+                statement.executeUpdate();
+            }
+            RollupDelta rollup = new RollupDelta();
+            rollup.addPoints(userId, completedAt, points);
+            rollup.addCompletion(userId, completedAt, difficulty);
+            rollup.apply(connection);
+        }
+        writeAudit(connection, userId, "TASK_COMPLETED", "TASK", taskId, "{\"points\":" + points + "}");
+
+        // строка пользователя - последней, чтобы держать ее блокировку как можно меньше;
+        // тот же порядок (rollup, затем users) в JdbcTaskBatchRepository.awardPoints
+        if (points > 0) {
+            try (PreparedStatement statement = connection.prepareStatement(AWARD_POINTS_SQL)) {
+                statement.setInt(1, points);
+                statement.setInt(2, userId);
+                statement.executeUpdate();
+            }
+        }
+        return new LedgerResult(LedgerResult.Status.COMPLETED, points, (int) balance(connection, userId)[0],
+                taskVersion, false);
+    }
+
+    private LedgerResult doSpendPoints(Connection connection, int userId, int amount) throws SQLException {
+        // условный UPDATE сначала: списание и есть проверка остатка, audit пишется только о состоявшемся
+        int updated;
+        try (PreparedStatement statement = connection.prepareStatement(SPEND_POINTS_SQL)) {
+            statement.setInt(1, amount);
+            statement.setInt(2, userId);
+            statement.setInt(3, amount);
+            updated = statement.executeUpdate();
+        }
+        if (updated == 1) {
+            writeAudit(connection, userId, "POINTS_SPENT", "USER", userId, "{\"amount\":" + amount + "}");
+        }
+
+        long[] balance = balance(connection, userId);
+        if (balance == null) {
+            return new LedgerResult(LedgerResult.Status.NOT_FOUND, 0, 0, 0, false);
+        }
+        LedgerResult.Status status = updated == 1 ? LedgerResult.Status.SPENT : LedgerResult.Status.INSUFFICIENT_POINTS;
+        return new LedgerResult(status, updated == 1 ? amount : 0, (int) balance[0], balance[1], false);
+    }
+
+    /**
+     * Остаток и версия пользователя; null, если пользователя нет.
+     */
+    private static long[] balance(Connection connection, int userId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_BALANCE_SQL)) {
+            statement.setInt(1, userId);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? new long[] {rs.getLong("balance"), rs.getLong("version")} : null;
+            }
+        }
+    }
+
+    /**
+     * Общая обвязка: занимает ключ, выполняет операцию, сохраняет успешный результат.
+     * Неуспешная операция откатывается вместе с ключом, чтобы повтор проверил условие заново.
+     */
+    private LedgerResult inTransaction(int userId, String idempotencyKey, String operation, String fingerprint,
+                                       Operation action) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                if (idempotencyKey != null) {
+                    Optional<LedgerResult> stored = claimKey(connection, userId, idempotencyKey, operation, fingerprint);
+                    if (stored.isPresent()) {
+                        connection.rollback();
+                        return stored.get();
+                    }
+                }
+
+                LedgerResult result = action.execute(connection);
+                if (!result.isSuccess()) {
+                    connection.rollback();
+                    return result;
+                }
+                if (idempotencyKey != null) {
+                    storeResult(connection, userId, idempotencyKey, result);
+                }
+                connection.commit();
+                pruneIfDue(connection);
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static Optional<LedgerResult> claimKey(Connection connection, int userId, String idempotencyKey,
+                                                   String operation, String fingerprint) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(CLAIM_KEY_SQL)) {
+            statement.setInt(1, userId);
+            statement.setString(2, idempotencyKey);
+            statement.setString(3, operation);
+            statement.setString(4, fingerprint);
+            if (statement.executeUpdate() == 1) {
+                return Optional.empty();
+            }
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_KEY_SQL)) {
+            statement.setInt(1, userId);
+            statement.setString(2, idempotencyKey);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()) {
+                    // ключ удалили между INSERT и SELECT (ретеншн) - пусть клиент повторит
+                    throw new SQLException("Idempotency key " + idempotencyKey + " disappeared, retry the request");
+                }
+                if (!operation.equals(rs.getString("operation")) || !fingerprint.equals(rs.getString("fingerprint"))) {
+                    throw new IdempotencyKeyMismatchException(idempotencyKey);
+                }
+                String outcome = rs.getString("outcome");
+                if (outcome == null) {
+                    throw new SQLException("Idempotency key " + idempotencyKey + " has no stored result");
+                }
+                return Optional.of(new LedgerResult(LedgerResult.Status.valueOf(outcome), rs.getInt("points"),
+                        rs.getInt("balance"), rs.getLong("entity_version"), true));
+            }
+        }
+    }
+
+    private static void storeResult(Connection connection, int userId, String idempotencyKey, LedgerResult result)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(STORE_RESULT_SQL)) {
+            statement.setString(1, result.status().name());
+            statement.setInt(2, result.points());
+            statement.setInt(3, result.balance());
+            statement.setLong(4, result.version());
+            statement.setInt(5, userId);
+            statement.setString(6, idempotencyKey);
+            statement.executeUpdate();
+        }
+    }
+
+    private static void writeAudit(Connection connection, int userId, String action, String entityType, int entityId,
+                                   String details) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_AUDIT_SQL)) {
+            statement.setInt(1, userId);
+            statement.setString(2, action);
+            statement.setString(3, entityType);
+            statement.setInt(4, entityId);
+            statement.setString(5, details);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Раз в час удаляет ключи старше keyRetention. Выполняется тем запросом, который
+     * первым заметил срок, на уже открытом соединении (autocommit).
+     */
+    private void pruneIfDue(Connection connection) {
+        long now = System.currentTimeMillis();
+        long due = nextPruneAt.get();
+        if (now < due || !nextPruneAt.compareAndSet(due, now + PRUNE_INTERVAL_MILLIS)) {
+            return;
+        }
+        try {
+            connection.setAutoCommit(true);
+            try (PreparedStatement statement = connection.prepareStatement(PRUNE_KEYS_SQL)) {
+                statement.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now().minus(keyRetention)));
+                int removed = statement.executeUpdate();
+                if (removed > 0) {
+                    logger.debug("Pruned {} expired idempotency keys", removed);
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("Failed to prune idempotency keys: {}", e.getMessage());
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        LedgerResult execute(Connection connection) throws SQLException;
+    }
+}
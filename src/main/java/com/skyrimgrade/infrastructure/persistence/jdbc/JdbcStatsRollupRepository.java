@@ -0,0 +1,84 @@
+package com.skyrimgrade.infrastructure.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import com.skyrimgrade.domain.stats.CompletionBucket;
+import com.skyrimgrade.domain.stats.PointsBucket;
+import com.skyrimgrade.domain.stats.RollupGranularity;
+import com.skyrimgrade.domain.stats.StatsRollupRepository;
+import com.skyrimgrade.domain.task.Difficulty;
+
+/**
+ * Чтение points_rollup / completion_rollup. Диапазон покрывается префиксом первичного ключа
+ * (user_id, granularity, bucket_start), поэтому запрос читает только строки бакетов.
+ */
+public class JdbcStatsRollupRepository implements StatsRollupRepository {
+
+    private static final String SELECT_POINTS_SQL = """
+            SELECT bucket_start, points_earned FROM points_rollup
+            WHERE user_id = ? AND granularity = ? AND bucket_start BETWEEN ? AND ?
+            ORDER BY bucket_start
+            """;
+
+    private static final String SELECT_COMPLETIONS_SQL = """
+            SELECT bucket_start, difficulty, completions FROM completion_rollup
+            WHERE user_id = ? AND granularity = ? AND bucket_start BETWEEN ? AND ?
+            ORDER BY bucket_start, difficulty
+            """;
+
+    private final DataSource dataSource;
+
+    public JdbcStatsRollupRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public List<PointsBucket> findPoints(int userId, RollupGranularity granularity, LocalDate from, LocalDate to)
+            throws SQLException {
+        List<PointsBucket> buckets = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_POINTS_SQL)) {
+            setRange(statement, userId, granularity, from, to);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    buckets.add(new PointsBucket(rs.getDate("bucket_start").toLocalDate(), rs.getLong("points_earned")));
+                }
+            }
+        }
+        return buckets;
+    }
+
+    @Override
+    public List<CompletionBucket> findCompletions(int userId, RollupGranularity granularity, LocalDate from, LocalDate to)
+            throws SQLException {
+        List<CompletionBucket> buckets = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_COMPLETIONS_SQL)) {
+            setRange(statement, userId, granularity, from, to);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    buckets.add(new CompletionBucket(rs.getDate("bucket_start").toLocalDate(),
+                            Difficulty.valueOf(rs.getString("difficulty")), rs.getInt("completions")));
+                }
+            }
+        }
+        return buckets;
+    }
+
+    private static void setRange(PreparedStatement statement, int userId, RollupGranularity granularity,
+                                 LocalDate from, LocalDate to) throws SQLException {
+        statement.setInt(1, userId);
+        statement.setString(2, granularity.code());
+        statement.setDate(3, Date.valueOf(granularity.bucketStart(from)));
+        statement.setDate(4, Date.valueOf(to));
+    }
+}
@@ -0,0 +1,192 @@
+package com.skyrimgrade.infrastructure.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import com.skyrimgrade.domain.task.Task;
+import com.skyrimgrade.domain.task.TaskBatchRepository;
+import com.skyrimgrade.infrastructure.persistence.rollup.RollupDelta;
+
+/**
+ * JDBC реализация пакетной записи задач.
+ *
+ * Все вставки идут через addBatch/executeBatch; на PostgreSQL драйвер с
+ * reWriteBatchedInserts=true (см. DatabaseConnectionManager) склеивает их в multi-row INSERT.
+ */
+public class JdbcTaskBatchRepository implements TaskBatchRepository {
+
+    private static final String SELECT_PROJECT_IDS_SQL = "SELECT id FROM projects WHERE user_id = ?";
+
+    private static final String INSERT_TASK_SQL = """
+            INSERT INTO tasks (user_id, title, description, difficulty, points, status, deadline, completed_at, project_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_POINTS_SQL = """
+            INSERT INTO user_points_history (user_id, points_earned, reason, task_id, created_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPDATE_USER_POINTS_SQL = """
+            UPDATE users SET total_points = total_points + ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?
+            """;
+
+    private static final String INSERT_AUDIT_SQL = """
+            INSERT INTO audit_log (user_id, action, entity_type, entity_id, details)
+            VALUES (?, 'TASK_CREATED', 'TASK', ?, CAST(? AS JSON))
+            """;
+
+    private static final int MAX_REASON_LENGTH = 255;
+
+    private final DataSource dataSource;
+
+    public JdbcTaskBatchRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Set<Integer> findProjectIds(int userId) throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_PROJECT_IDS_SQL)) {
+            statement.setInt(1, userId);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public BatchResult insertBatch(int userId, List<Task> tasks) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                List<Integer> ids = insertTasks(connection, userId, tasks);
+                int points = awardPoints(connection, userId, tasks, ids);
+                writeAudit(connection, userId, tasks, ids);
+                connection.commit();
+                return new BatchResult(ids, points);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private List<Integer> insertTasks(Connection connection, int userId, List<Task> tasks) throws SQLException {
+        List<Integer> ids = new ArrayList<>(tasks.size());
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_TASK_SQL, new String[] {"id"})) {
+            for (Task task : tasks) {
+                statement.setInt(1, userId);
+                statement.setString(2, task.title());
+                statement.setString(3, task.description());
+                statement.setString(4, task.difficulty().name());
+                statement.setInt(5, task.points());
+                statement.setString(6, task.status().name());
+                statement.setTimestamp(7, toTimestamp(task.deadline()));
+                statement.setTimestamp(8, toTimestamp(task.completedAt()));
+                if (task.projectId() != null) {
+                    statement.setInt(9, task.projectId());
+                } else {
+                    statement.setNull(9, Types.INTEGER);
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                while (keys.next()) {
+                    ids.add(keys.getInt(1));
+                }
+            }
+        }
+        if (ids.size() != tasks.size()) {
+            throw new SQLException("Expected " + tasks.size() + " generated ids, got " + ids.size());
+        }
+        return ids;
+    }
+
+    /**
+     * Баллы за импортированные выполненные задачи: пачка записей в историю,
+     * одно обновление users.total_points и приращения rollup-статистики на всю пачку.
+     * Баллы датируются моментом импорта, выполнения - task.completedAt().
+     */
+    private int awardPoints(Connection connection, int userId, List<Task> tasks, List<Integer> ids) throws SQLException {
+        int total = 0;
+        // баллы начисляются сейчас: created_at задается явно, чтобы бакет points_rollup совпадал
+        // с записью истории. Выполнение же относится ко дню completedAt из файла импорта
+        LocalDateTime awardedAt = LocalDateTime.now();
+        RollupDelta rollup = new RollupDelta();
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_POINTS_SQL)) {
+            for (int i = 0; i < tasks.size(); i++) {
+                Task task = tasks.get(i);
+                if (!task.isCompleted() || task.points() <= 0) {
+                    continue;
+                }
+                statement.setInt(1, userId);
+                statement.setInt(2, task.points());
+                statement.setString(3, truncate("Task completed: " + task.title(), MAX_REASON_LENGTH));
+                statement.setInt(4, ids.get(i));
+                statement.setTimestamp(5, Timestamp.valueOf(awardedAt));
+                statement.addBatch();
+                total += task.points();
+                rollup.addPoints(userId, awardedAt, task.points());
+                rollup.addCompletion(userId, task.completedAt() != null ? task.completedAt() : awardedAt,
+                        task.difficulty());
+            }
+            if (total > 0) {
+                statement.executeBatch();
+            }
+        }
+
+        if (total > 0) {
+            // порядок блокировок как в JdbcPointsLedger: бакеты rollup, затем строка пользователя -
+            // параллельное выполнение задачи того же пользователя не встанет во встречную блокировку
+            rollup.apply(connection);
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_USER_POINTS_SQL)) {
+                statement.setInt(1, total);
+                statement.setInt(2, userId);
+                statement.executeUpdate();
+            }
+        }
+        return total;
+    }
+
+    private void writeAudit(Connection connection, int userId, List<Task> tasks, List<Integer> ids) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_AUDIT_SQL)) {
+            for (int i = 0; i < tasks.size(); i++) {
+                Task task = tasks.get(i);
+                statement.setInt(1, userId);
+                statement.setInt(2, ids.get(i));
+                statement.setString(3, String.format("{\"source\":\"import\",\"difficulty\":\"%s\",\"status\":\"%s\"}",
+                        task.difficulty().name(), task.status().name()));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
@@ -0,0 +1,149 @@
+package com.skyrimgrade.infrastructure.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import com.skyrimgrade.domain.task.Difficulty;
+import com.skyrimgrade.domain.task.Task;
+import com.skyrimgrade.domain.task.TaskReadRepository;
+import com.skyrimgrade.domain.task.TaskStatus;
+
+/**
+ * JDBC чтение задач из tasks и, по запросу, из tasks_archive через UNION ALL.
+ *
+ * Статусы подставляются в SQL литералами (это значения enum, а не ввод пользователя):
+ * с параметром PostgreSQL не может доказать условие частичного индекса
+ * idx_tasks_open_user_deadline и для generic плана его не выберет.
+ * Архив содержит только COMPLETED и CANCELLED, поэтому запрос открытых задач
+ * в архив не ходит даже при includeArchived.
+ */
+public class JdbcTaskReadRepository implements TaskReadRepository {
+
+    private static final String COLUMNS = """
+            id, user_id, title, description, difficulty, points, status, deadline, completed_at, project_id, \
+            created_at, updated_at""";
+
+    private static final Set<TaskStatus> ARCHIVED_STATUSES = EnumSet.of(TaskStatus.COMPLETED, TaskStatus.CANCELLED);
+
+    private static final String ORDER_SQL = " ORDER BY created_at DESC, id DESC LIMIT ?";
+
+    private static final String COUNT_OPEN_SQL = """
+            SELECT status, COUNT(*) FROM tasks WHERE user_id = ? AND status IN ('ACTIVE', 'OVERDUE')
+            GROUP BY status
+            """;
+
+    private final DataSource dataSource;
+
+    public JdbcTaskReadRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public List<Task> findByUser(int userId, Set<TaskStatus> statuses, boolean includeArchived, int limit)
+            throws SQLException {
+        String statusFilter = statusFilter(statuses);
+        boolean withArchive = includeArchived && touchesArchive(statuses);
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS)
+                .append(" FROM tasks WHERE user_id = ?").append(statusFilter);
+        if (withArchive) {
+            sql.append(" UNION ALL SELECT ").append(COLUMNS)
+                    .append(" FROM tasks_archive WHERE user_id = ?").append(statusFilter);
+        }
+        sql.append(ORDER_SQL);
+
+        List<Task> tasks = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            int index = 1;
+            statement.setInt(index++, userId);
+            if (withArchive) {
+                statement.setInt(index++, userId);
+            }
+            statement.setInt(index, Math.max(1, limit));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    tasks.add(toTask(rs));
+                }
+            }
+        }
+        return tasks;
+    }
+
+    @Override
+    public Optional<Task> findById(int userId, int taskId, boolean includeArchived) throws SQLException {
+        String sql = "SELECT " + COLUMNS + " FROM tasks WHERE id = ? AND user_id = ?";
+        if (includeArchived) {
+            sql += " UNION ALL SELECT " + COLUMNS + " FROM tasks_archive WHERE id = ? AND user_id = ?";
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, taskId);
+            statement.setInt(2, userId);
+            if (includeArchived) {
+                statement.setInt(3, taskId);
+                statement.setInt(4, userId);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? Optional.of(toTask(rs)) : Optional.empty();
+            }
+        }
+    }
+
+    @Override
+    public Map<TaskStatus, Integer> countOpen(int userId) throws SQLException {
+        Map<TaskStatus, Integer> counts = new EnumMap<>(TaskStatus.class);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(COUNT_OPEN_SQL)) {
+            statement.setInt(1, userId);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(TaskStatus.valueOf(rs.getString(1)), rs.getInt(2));
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static String statusFilter(Set<TaskStatus> statuses) {
+        if (statuses.isEmpty() || statuses.containsAll(EnumSet.allOf(TaskStatus.class))) {
+            return "";
+        }
+        return statuses.stream()
+                .map(status -> "'" + status.name() + "'")
+                .sorted()
+                .collect(Collectors.joining(", ", " AND status IN (", ")"));
+    }
+
+    private static boolean touchesArchive(Set<TaskStatus> statuses) {
+        return statuses.isEmpty() || statuses.stream().anyMatch(ARCHIVED_STATUSES::contains);
+    }
+
+    private static Task toTask(ResultSet rs) throws SQLException {
+        int projectId = rs.getInt("project_id");
+        Integer project = rs.wasNull() ? null : projectId;
+        return new Task(rs.getInt("id"), rs.getInt("user_id"), rs.getString("title"), rs.getString("description"),
+                Difficulty.valueOf(rs.getString("difficulty")), rs.getInt("points"),
+                TaskStatus.valueOf(rs.getString("status")), toLocalDateTime(rs.getTimestamp("deadline")),
+                toLocalDateTime(rs.getTimestamp("completed_at")), project,
+                toLocalDateTime(rs.getTimestamp("created_at")), toLocalDateTime(rs.getTimestamp("updated_at")));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp value) {
+        return value != null ? value.toLocalDateTime() : null;
+    }
+}
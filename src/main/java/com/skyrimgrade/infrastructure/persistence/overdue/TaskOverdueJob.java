@@ -0,0 +1,143 @@
+package com.skyrimgrade.infrastructure.persistence.overdue;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.domain.event.DomainEventPublisher;
+
+/**
+ * Переводит ACTIVE задачи с прошедшим deadline в OVERDUE и публикует TaskOverdue
+ * (SSE-уведомление, сброс кэшей и поискового индекса).
+ *
+ * Задачи выбираются пачками по частичному индексу idx_tasks_active_deadline с FOR UPDATE
+ * SKIP LOCKED, так что несколько узлов не переводят одну задачу дважды, а задача, которую
+ * пользователь сейчас выполняет, достается ему. События публикуются после commit.
+ */
+public class TaskOverdueJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskOverdueJob.class);
+
+    private static final String SELECT_BATCH_SQL = """
+            SELECT id, user_id FROM tasks
+            WHERE status = 'ACTIVE' AND deadline < ?
+            ORDER BY deadline
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String MARK_OVERDUE_SQL = """
+            UPDATE tasks SET status = 'OVERDUE', updated_at = ?, version = version + 1
+            WHERE id = ANY(?) AND status = 'ACTIVE'
+            """;
+
+    private final DataSource dataSource;
+    private final DomainEventPublisher events;
+    private final int batchSize;
+
+    private ScheduledExecutorService scheduler;
+
+    public TaskOverdueJob(DataSource dataSource, DomainEventPublisher events, int batchSize) {
+        this.dataSource = dataSource;
+        this.events = events;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Запускает проверку каждые intervalSeconds; за проход переводятся все просроченные задачи.
+     */
+    public synchronized void start(long intervalSeconds) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("task-overdue")
+                .daemon(true)
+                .factory());
+        scheduler.scheduleWithFixedDelay(this::runSafely, 0, Math.max(1, intervalSeconds), TimeUnit.SECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void runSafely() {
+        try {
+            int total = 0;
+            int marked;
+            do {
+                marked = markBatch();
+                total += marked;
+            } while (marked == batchSize && !Thread.currentThread().isInterrupted());
+            if (total > 0) {
+                logger.info("Marked {} tasks as overdue", total);
+            }
+        } catch (Exception e) {
+            logger.error("Overdue check failed, will retry", e);
+        }
+    }
+
+    /**
+     * Переводит одну пачку и возвращает число задач, ставших OVERDUE.
+     */
+    public int markBatch() throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        List<int[]> tasks = new ArrayList<>(batchSize);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                try (PreparedStatement statement = connection.prepareStatement(SELECT_BATCH_SQL)) {
+                    statement.setTimestamp(1, Timestamp.valueOf(now));
+                    statement.setInt(2, batchSize);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            tasks.add(new int[] {rs.getInt("id"), rs.getInt("user_id")});
+                        }
+                    }
+                }
+                if (tasks.isEmpty()) {
+                    connection.rollback();
+                    return 0;
+                }
+
+                Array ids = connection.createArrayOf("INTEGER", tasks.stream().map(task -> task[0]).toArray());
+                try (PreparedStatement statement = connection.prepareStatement(MARK_OVERDUE_SQL)) {
+                    statement.setTimestamp(1, Timestamp.valueOf(now));
+                    statement.setArray(2, ids);
+                    statement.executeUpdate();
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+
+        Instant occurredAt = Instant.now();
+        for (int[] task : tasks) {
+            events.publish(new DomainEvent.TaskOverdue(task[1], task[0], occurredAt));
+        }
+        return tasks.size();
+    }
+}
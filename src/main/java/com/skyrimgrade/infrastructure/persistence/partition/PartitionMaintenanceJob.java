@@ -0,0 +1,237 @@
+package com.skyrimgrade.infrastructure.persistence.partition;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.skyrimgrade.infrastructure.config.AppConfig;
+
+/**
+ * Обслуживание месячных партиций для audit_log, error_log и user_points_history.
+ *
+ * Заранее создает партиции на partition.premake.months вперед и удаляет (DROP)
+ * или отсоединяет (DETACH) партиции старше срока хранения. Удаление целой партиции
+ * не оставляет мертвых строк, поэтому размер индексов и стоимость вставки не растут с историей.
+ */
+public class PartitionMaintenanceJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceJob.class);
+
+    private static final String LIST_PARTITIONS_SQL = """
+            SELECT child.relname
+            FROM pg_inherits i
+            JOIN pg_class child ON i.inhrelid = child.oid
+            JOIN pg_class parent ON i.inhparent = parent.oid
+            WHERE parent.relname = ?
+            """;
+
+    private final DataSource dataSource;
+    private final int premakeMonths;
+    private final boolean dropExpired;
+    private final Map<PartitionedTable, Integer> retentionMonths;
+    private final Clock clock;
+
+    private ScheduledExecutorService scheduler;
+
+    public PartitionMaintenanceJob(DataSource dataSource, AppConfig config) {
+        this(dataSource,
+                config.getPartitionPremakeMonths(),
+                "DROP".equalsIgnoreCase(config.getPartitionRetentionMode()),
+                retentionFrom(config),
+                Clock.systemDefaultZone());
+    }
+
+    public PartitionMaintenanceJob(DataSource dataSource, int premakeMonths, boolean dropExpired,
+                                   Map<PartitionedTable, Integer> retentionMonths, Clock clock) {
+        this.dataSource = dataSource;
+        this.premakeMonths = Math.max(1, premakeMonths);
+        this.dropExpired = dropExpired;
+        this.retentionMonths = new EnumMap<>(PartitionedTable.class);
+        this.retentionMonths.putAll(retentionMonths);
+        this.clock = clock;
+    }
+
+    private static Map<PartitionedTable, Integer> retentionFrom(AppConfig config) {
+        Map<PartitionedTable, Integer> retention = new EnumMap<>(PartitionedTable.class);
+        retention.put(PartitionedTable.AUDIT_LOG, config.getAuditLogRetentionMonths());
+        retention.put(PartitionedTable.ERROR_LOG, config.getErrorLogRetentionMonths());
+        retention.put(PartitionedTable.POINTS_HISTORY, config.getPointsHistoryRetentionMonths());
+        return retention;
+    }
+
+    /**
+     * Запускает периодическое обслуживание. Первый прогон выполняется сразу.
+     */
+    public synchronized void start(long intervalMinutes) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("partition-maintenance")
+                .daemon(true)
+                .factory());
+        scheduler.scheduleWithFixedDelay(this::runSafely, 0, Math.max(1, intervalMinutes), TimeUnit.MINUTES);
+        logger.info("Partition maintenance scheduled every {} min (premake={} months, mode={})",
+                intervalMinutes, premakeMonths, dropExpired ? "DROP" : "DETACH");
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void runSafely() {
+        try {
+            runOnce();
+        } catch (Exception e) {
+            logger.error("Partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * Один проход обслуживания по всем партиционированным таблицам.
+     */
+    public MaintenanceResult runOnce() throws SQLException {
+        YearMonth current = YearMonth.now(clock);
+        List<String> created = new ArrayList<>();
+        List<String> expired = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection()) {
+            for (PartitionedTable table : PartitionedTable.values()) {
+                List<String> existing = listPartitions(connection, table);
+
+                for (YearMonth month : monthsToCreate(current, premakeMonths)) {
+                    String name = partitionName(table, month);
+                    if (!existing.contains(name)) {
+                        createPartition(connection, table, month);
+                        created.add(name);
+                    }
+                }
+
+                int retention = retentionMonths.getOrDefault(table, 0);
+                for (String name : existing) {
+                    Optional<YearMonth> month = parseMonth(table, name);
+                    if (month.isPresent() && isExpired(month.get(), current, retention)) {
+                        removePartition(connection, table, name);
+                        expired.add(name);
+                    }
+                }
+
+                warnIfDefaultPartitionUsed(connection, table);
+            }
+        }
+
+        if (!created.isEmpty() || !expired.isEmpty()) {
+            logger.info("Partition maintenance: created={}, {}={}", created, dropExpired ? "dropped" : "detached", expired);
+        }
+        return new MaintenanceResult(created, expired);
+    }
+
+    private List<String> listPartitions(Connection connection, PartitionedTable table) throws SQLException {
+        List<String> partitions = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(LIST_PARTITIONS_SQL)) {
+            statement.setString(1, table.tableName());
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    partitions.add(rs.getString(1));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private void createPartition(Connection connection, PartitionedTable table, YearMonth month) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT create_monthly_partition(?, ?)")) {
+            statement.setString(1, table.tableName());
+            statement.setDate(2, Date.valueOf(month.atDay(1)));
+            statement.execute();
+        }
+    }
+
+    private void removePartition(Connection connection, PartitionedTable table, String partition) throws SQLException {
+        // имена проверены parseMonth(), поэтому конкатенация безопасна
+        String sql = dropExpired
+                ? "DROP TABLE " + partition
+                : "ALTER TABLE " + table.tableName() + " DETACH PARTITION " + partition;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private void warnIfDefaultPartitionUsed(Connection connection, PartitionedTable table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM " + table.defaultPartitionName() + ")")) {
+            if (rs.next() && rs.getBoolean(1)) {
+                logger.warn("Default partition {} contains rows: increase partition.premake.months",
+                        table.defaultPartitionName());
+            }
+        }
+    }
+
+    public static String partitionName(PartitionedTable table, YearMonth month) {
+        return String.format("%s_%04d_%02d", table.tableName(), month.getYear(), month.getMonthValue());
+    }
+
+    public static Optional<YearMonth> parseMonth(PartitionedTable table, String partitionName) {
+        Pattern pattern = Pattern.compile("^" + Pattern.quote(table.tableName()) + "_(\\d{4})_(\\d{2})$");
+        Matcher matcher = pattern.matcher(partitionName);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        int month = Integer.parseInt(matcher.group(2));
+        if (month < 1 || month > 12) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(1)), month));
+    }
+
+    /**
+     * Текущий месяц и premakeMonths следующих.
+     */
+    public static List<YearMonth> monthsToCreate(YearMonth current, int premakeMonths) {
+        List<YearMonth> months = new ArrayList<>();
+        for (int i = 0; i <= premakeMonths; i++) {
+            months.add(current.plusMonths(i));
+        }
+        return months;
+    }
+
+    /**
+     * Партиция устарела, если ее месяц раньше, чем retentionMonths полных месяцев до текущего.
+     * retentionMonths <= 0 означает бессрочное хранение.
+     */
+    public static boolean isExpired(YearMonth partitionMonth, YearMonth current, int retentionMonths) {
+        if (retentionMonths <= 0) {
+            return false;
+        }
+        return partitionMonth.isBefore(current.minusMonths(retentionMonths));
+    }
+
+    public record MaintenanceResult(
+            List<String> created,
+            List<String> removed
+            ) {
+    }
+}
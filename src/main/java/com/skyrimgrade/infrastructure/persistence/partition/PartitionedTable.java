@@ -0,0 +1,30 @@
+package com.skyrimgrade.infrastructure.persistence.partition;
+
+/**
+ * Таблицы, партиционированные по месяцам (см. V8__partition_log_tables.sql).
+ */
+public enum PartitionedTable {
+    AUDIT_LOG("audit_log", "created_at"),
+    ERROR_LOG("error_log", "timestamp"),
+    POINTS_HISTORY("user_points_history", "created_at");
+
+    private final String tableName;
+    private final String partitionColumn;
+
+    PartitionedTable(String tableName, String partitionColumn) {
+        this.tableName = tableName;
+        this.partitionColumn = partitionColumn;
+    }
+
+    public String tableName() {
+        return tableName;
+    }
+
+    public String partitionColumn() {
+        return partitionColumn;
+    }
+
+    public String defaultPartitionName() {
+        return tableName + "_default";
+    }
+}
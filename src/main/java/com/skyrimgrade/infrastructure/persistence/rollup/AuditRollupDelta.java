@@ -0,0 +1,152 @@
+package com.skyrimgrade.infrastructure.persistence.rollup;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.skyrimgrade.domain.analytics.AuditAnalyticsRepository;
+
+/**
+ * Накопленные приращения для audit_activity_rollup и audit_facet_rollup.
+ *
+ * Каждая запись audit_log считается дважды: для своего пользователя и в общей строке
+ * user_id = 0. Приращения складываются в памяти, так что порция из тысяч записей
+ * превращается в несколько десятков UPDATE. Ключи отсортированы, как в RollupDelta.
+ */
+public final class AuditRollupDelta {
+
+    /**
+     * user_id строк с суммой по всем пользователям.
+     */
+    public static final int ALL_USERS = AuditAnalyticsRepository.ALL_USERS;
+
+    private static final int MAX_FACET_VALUE_LENGTH = 100;
+
+    private static final String ENSURE_ACTIVITY_SQL = """
+            INSERT INTO audit_activity_rollup (user_id, bucket_start, action, entity_type) VALUES (?, ?, ?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String UPDATE_ACTIVITY_SQL = """
+            UPDATE audit_activity_rollup SET events = events + ?
+            WHERE user_id = ? AND bucket_start = ? AND action = ? AND entity_type = ?
+            """;
+
+    private static final String ENSURE_FACET_SQL = """
+            INSERT INTO audit_facet_rollup (user_id, bucket_start, action, facet_key, facet_value) VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String UPDATE_FACET_SQL = """
+            UPDATE audit_facet_rollup SET events = events + ?
+            WHERE user_id = ? AND bucket_start = ? AND action = ? AND facet_key = ? AND facet_value = ?
+            """;
+
+    private final Map<ActivityKey, long[]> activity = new TreeMap<>(ActivityKey.ORDER);
+    private final Map<FacetKey, long[]> facets = new TreeMap<>(FacetKey.ORDER);
+
+    /**
+     * Учитывает одну запись audit_log. userId null - пользователь удален, запись идет только в общий счетчик.
+     */
+    public void add(Integer userId, String action, String entityType, LocalDateTime createdAt,
+                    Map<String, String> facetValues) {
+        LocalDateTime hour = createdAt.truncatedTo(ChronoUnit.HOURS);
+        LocalDate day = createdAt.toLocalDate();
+        addFor(ALL_USERS, action, entityType, hour, day, facetValues);
+        if (userId != null && userId != ALL_USERS) {
+            addFor(userId, action, entityType, hour, day, facetValues);
+        }
+    }
+
+    private void addFor(int userId, String action, String entityType, LocalDateTime hour, LocalDate day,
+                        Map<String, String> facetValues) {
+        activity.computeIfAbsent(new ActivityKey(userId, hour, action, entityType), k -> new long[1])[0]++;
+        for (Map.Entry<String, String> facet : facetValues.entrySet()) {
+            String value = facet.getValue().length() <= MAX_FACET_VALUE_LENGTH
+                    ? facet.getValue()
+                    : facet.getValue().substring(0, MAX_FACET_VALUE_LENGTH);
+            facets.computeIfAbsent(new FacetKey(userId, day, action, facet.getKey(), value), k -> new long[1])[0]++;
+        }
+    }
+
+    public boolean isEmpty() {
+        return activity.isEmpty() && facets.isEmpty();
+    }
+
+    /**
+     * Пишет приращения в транзакции вызывающего кода: сначала гарантирует наличие строк, затем увеличивает счетчики.
+     */
+    public void apply(Connection connection) throws SQLException {
+        if (!activity.isEmpty()) {
+            try (PreparedStatement ensure = connection.prepareStatement(ENSURE_ACTIVITY_SQL);
+                 PreparedStatement update = connection.prepareStatement(UPDATE_ACTIVITY_SQL)) {
+                for (Map.Entry<ActivityKey, long[]> entry : activity.entrySet()) {
+                    ActivityKey key = entry.getKey();
+                    setActivityKey(ensure, 1, key);
+                    ensure.addBatch();
+
+                    update.setLong(1, entry.getValue()[0]);
+                    setActivityKey(update, 2, key);
+                    update.addBatch();
+                }
+                ensure.executeBatch();
+                update.executeBatch();
+            }
+        }
+
+        if (!facets.isEmpty()) {
+            try (PreparedStatement ensure = connection.prepareStatement(ENSURE_FACET_SQL);
+                 PreparedStatement update = connection.prepareStatement(UPDATE_FACET_SQL)) {
+                for (Map.Entry<FacetKey, long[]> entry : facets.entrySet()) {
+                    FacetKey key = entry.getKey();
+                    setFacetKey(ensure, 1, key);
+                    ensure.addBatch();
+
+                    update.setLong(1, entry.getValue()[0]);
+                    setFacetKey(update, 2, key);
+                    update.addBatch();
+                }
+                ensure.executeBatch();
+                update.executeBatch();
+            }
+        }
+    }
+
+    private static void setActivityKey(PreparedStatement statement, int index, ActivityKey key) throws SQLException {
+        statement.setInt(index, key.userId());
+        statement.setTimestamp(index + 1, Timestamp.valueOf(key.hour()));
+        statement.setString(index + 2, key.action());
+        statement.setString(index + 3, key.entityType());
+    }
+
+    private static void setFacetKey(PreparedStatement statement, int index, FacetKey key) throws SQLException {
+        statement.setInt(index, key.userId());
+        statement.setDate(index + 1, Date.valueOf(key.day()));
+        statement.setString(index + 2, key.action());
+        statement.setString(index + 3, key.facet());
+        statement.setString(index + 4, key.value());
+    }
+
+    private record ActivityKey(int userId, LocalDateTime hour, String action, String entityType) {
+        static final Comparator<ActivityKey> ORDER = Comparator.comparingInt(ActivityKey::userId)
+                .thenComparing(ActivityKey::hour)
+                .thenComparing(ActivityKey::action)
+                .thenComparing(ActivityKey::entityType);
+    }
+
+    private record FacetKey(int userId, LocalDate day, String action, String facet, String value) {
+        static final Comparator<FacetKey> ORDER = Comparator.comparingInt(FacetKey::userId)
+                .thenComparing(FacetKey::day)
+                .thenComparing(FacetKey::action)
+                .thenComparing(FacetKey::facet)
+                .thenComparing(FacetKey::value);
+    }
+}
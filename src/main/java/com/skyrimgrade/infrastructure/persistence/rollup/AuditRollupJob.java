@@ -0,0 +1,329 @@
+package com.skyrimgrade.infrastructure.persistence.rollup;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.skyrimgrade.infrastructure.json.JsonCodec;
+
+/**
+ * Инкрементальная агрегация audit_log в audit_activity_rollup и audit_facet_rollup (V13).
+ *
+ * Job читает audit_log порциями по id после rollup_checkpoint.last_id; порция, приращения
+ * счетчиков и сдвиг чекпоинта коммитятся в одной транзакции, поэтому после рестарта ничего
+ * не теряется и не учитывается дважды. Первый запуск начинает с id 0 и тем же способом
+ * агрегирует уже накопленную историю.
+ *
+ * Счетчики не пишутся в транзакции самого аудита: общие строки user_id = 0 стали бы точкой
+ * блокировки для всех пишущих запросов. Вместо этого события шины будят job (wakeUp), а
+ * опрос с интервалом подбирает записи, сделанные без событий.
+ *
+ * Транзакции коммитятся не в порядке id, а откаченные сжигают свои id. Job не ждет на
+ * пропусках: он обрабатывает все видимые записи, а отсутствующие id запоминает в rollup_gap
+ * с временем обнаружения. Каждая порция сначала забирает записи, закоммиченные под этими id,
+ * и удаляет из rollup_gap id старше gapTimeoutMillis (откат или скачок sequence). Пропуски
+ * хранятся в той же транзакции, что и чекпоинт, поэтому переживают рестарт и смену узла.
+ */
+public class AuditRollupJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditRollupJob.class);
+
+    private static final String CHECKPOINT_NAME = "audit_log";
+
+    /**
+     * Больший скачок id - не незакоммиченные транзакции, а сдвиг sequence; такие id не отслеживаются.
+     */
+    private static final int MAX_TRACKED_GAP = 1000;
+
+    /**
+     * Ключи details, значения которых считаются в audit_facet_rollup. Остальные ключи
+     * (points, amount и т.п.) слишком разнообразны для счетчиков.
+     */
+    static final List<String> FACET_KEYS = List.of("source", "difficulty", "status");
+
+    private static final String LOCK_CHECKPOINT_SQL = "SELECT last_id FROM rollup_checkpoint WHERE name = ? FOR UPDATE";
+
+    private static final String SELECT_CHUNK_SQL = """
+            SELECT id, user_id, action, entity_type, details, created_at FROM audit_log
+            WHERE id > ? ORDER BY id LIMIT ?
+            """;
+
+    private static final String SELECT_LATE_SQL = """
+            SELECT a.id, a.user_id, a.action, a.entity_type, a.details, a.created_at
+            FROM rollup_gap g JOIN audit_log a ON a.id = g.id
+            WHERE g.name = ?
+            """;
+
+    private static final String DELETE_EXPIRED_GAPS_SQL = "DELETE FROM rollup_gap WHERE name = ? AND seen_at < ?";
+
+    private static final String DELETE_GAP_SQL = "DELETE FROM rollup_gap WHERE name = ? AND id = ?";
+
+    private static final String INSERT_GAP_SQL = "INSERT INTO rollup_gap (name, id, seen_at) VALUES (?, ?, ?)";
+
+    private static final String UPDATE_CHECKPOINT_SQL =
+            "UPDATE rollup_checkpoint SET last_id = ?, updated_at = ? WHERE name = ?";
+
+    private static final ObjectReader DETAILS_READER = JsonCodec.shared().readerFor(JsonNode.class);
+
+    private final DataSource dataSource;
+    private final int chunkSize;
+    private final Duration gapTimeout;
+    private final Clock clock;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+
+    private volatile ScheduledExecutorService scheduler;
+
+    public AuditRollupJob(DataSource dataSource, int chunkSize, long gapTimeoutMillis) {
+        this(dataSource, chunkSize, gapTimeoutMillis, Clock.systemDefaultZone());
+    }
+
+    public AuditRollupJob(DataSource dataSource, int chunkSize, long gapTimeoutMillis, Clock clock) {
+        this.dataSource = dataSource;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.gapTimeout = Duration.ofMillis(Math.max(0, gapTimeoutMillis));
+        this.clock = clock;
+    }
+
+    /**
+     * Запускает агрегацию в фоне: догоняет журнал, затем проверяет его каждые intervalMillis.
+     */
+    public synchronized void start(long intervalMillis) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("audit-rollup")
+                .daemon(true)
+                .factory());
+        scheduler.scheduleWithFixedDelay(this::runSafely, 0, Math.max(10, intervalMillis), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Просит job прочитать журнал сейчас, не дожидаясь интервала. Вызывается из обработчика
+     * событий после commit; частые вызовы склеиваются в один проход.
+     */
+    public void wakeUp() {
+        ScheduledExecutorService current = scheduler;
+        if (current == null || !wakeUpPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            current.execute(this::runSafely);
+        } catch (RejectedExecutionException e) {
+            wakeUpPending.set(false);
+        }
+    }
+
+    private void runSafely() {
+        wakeUpPending.set(false);
+        try {
+            long total = 0;
+            ChunkResult result;
+            do {
+                result = runChunk();
+                total += result.processed();
+            } while (!result.caughtUp() && !Thread.currentThread().isInterrupted());
+            if (total > 0) {
+                logger.debug("Audit rollup: {} rows, last id {}", total, result.lastId());
+            }
+        } catch (Exception e) {
+            logger.error("Audit rollup chunk failed, will retry", e);
+        }
+    }
+
+    /**
+     * Обрабатывает одну порцию журнала в отдельной транзакции.
+     */
+    public ChunkResult runChunk() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                ChunkResult result = processChunk(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private ChunkResult processChunk(Connection connection) throws SQLException {
+        long lastId;
+        // FOR UPDATE сериализует несколько узлов: порцию обрабатывает только один
+        try (PreparedStatement statement = connection.prepareStatement(LOCK_CHECKPOINT_SQL)) {
+            statement.setString(1, CHECKPOINT_NAME);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()) {
+                    return new ChunkResult(0, 0, true);
+                }
+                lastId = rs.getLong("last_id");
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        AuditRollupDelta delta = new AuditRollupDelta();
+        int processed = processLate(connection, now, delta);
+
+        int read = 0;
+        long position = lastId;
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_CHUNK_SQL);
+             PreparedStatement insertGap = connection.prepareStatement(INSERT_GAP_SQL)) {
+            statement.setLong(1, lastId);
+            statement.setInt(2, chunkSize);
+            int gaps = 0;
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    read++;
+                    long id = rs.getLong("id");
+                    // история до первого запуска могла уйти с ретеншном, ее начало не пропуск
+                    if (id > position + 1 && position > 0) {
+                        gaps += trackGap(insertGap, position + 1, id - 1, now);
+                    }
+                    add(delta, rs, id);
+                    position = id;
+                    processed++;
+                }
+            }
+            if (gaps > 0) {
+                insertGap.executeBatch();
+            }
+        }
+        if (processed == 0) {
+            return new ChunkResult(0, lastId, true);
+        }
+
+        delta.apply(connection);
+        if (position > lastId) {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_CHECKPOINT_SQL)) {
+                statement.setLong(1, position);
+                statement.setTimestamp(2, Timestamp.valueOf(now));
+                statement.setString(3, CHECKPOINT_NAME);
+                statement.executeUpdate();
+            }
+        }
+        return new ChunkResult(processed, position, read < chunkSize);
+    }
+
+    /**
+     * Записи, закоммиченные под запомненными пропусками; пропуски старше gapTimeout забываются.
+     */
+    private int processLate(Connection connection, LocalDateTime now, AuditRollupDelta delta) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(DELETE_EXPIRED_GAPS_SQL)) {
+            statement.setString(1, CHECKPOINT_NAME);
+            statement.setTimestamp(2, Timestamp.valueOf(now.minus(gapTimeout)));
+            int expired = statement.executeUpdate();
+            if (expired > 0) {
+                logger.debug("Audit rollup gave up on {} missing ids after {} ms", expired, gapTimeout.toMillis());
+            }
+        }
+
+        int processed = 0;
+        try (PreparedStatement select = connection.prepareStatement(SELECT_LATE_SQL);
+             PreparedStatement delete = connection.prepareStatement(DELETE_GAP_SQL)) {
+            select.setString(1, CHECKPOINT_NAME);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    long id = rs.getLong("id");
+                    add(delta, rs, id);
+                    delete.setString(1, CHECKPOINT_NAME);
+                    delete.setLong(2, id);
+                    delete.addBatch();
+                    processed++;
+                }
+            }
+            if (processed > 0) {
+                delete.executeBatch();
+            }
+        }
+        return processed;
+    }
+
+    /**
+     * Запоминает отсутствующие id from..to; возвращает, сколько добавлено в пачку.
+     */
+    private int trackGap(PreparedStatement insertGap, long from, long to, LocalDateTime now) throws SQLException {
+        long missing = to - from + 1;
+        if (missing > MAX_TRACKED_GAP) {
+            logger.warn("Audit rollup skips {} ids {}..{}: too large a jump to wait for", missing, from, to);
+            return 0;
+        }
+        for (long id = from; id <= to; id++) {
+            insertGap.setString(1, CHECKPOINT_NAME);
+            insertGap.setLong(2, id);
+            insertGap.setTimestamp(3, Timestamp.valueOf(now));
+            insertGap.addBatch();
+        }
+        return (int) missing;
+    }
+
+    private static void add(AuditRollupDelta delta, ResultSet rs, long id) throws SQLException {
+        int userId = rs.getInt("user_id");
+        Integer user = rs.wasNull() ? null : userId;
+        delta.add(user, rs.getString("action"), rs.getString("entity_type"),
+                rs.getTimestamp("created_at").toLocalDateTime(), facets(rs.getString("details"), id));
+    }
+
+    /**
+     * Значения FACET_KEYS верхнего уровня details. Битый JSON не останавливает агрегацию.
+     */
+    static Map<String, String> facets(String details, long id) {
+        if (details == null) {
+            return Map.of();
+        }
+        try {
+            JsonNode node = DETAILS_READER.readValue(details);
+            if (node == null || !node.isObject()) {
+                return Map.of();
+            }
+            Map<String, String> values = new LinkedHashMap<>();
+            for (String key : FACET_KEYS) {
+                JsonNode value = node.get(key);
+                if (value != null && value.isValueNode() && !value.isNull()) {
+                    values.put(key, value.asText());
+                }
+            }
+            return values;
+        } catch (IOException e) {
+            logger.warn("Audit log entry {} has unreadable details, facets skipped: {}", id, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    public record ChunkResult(
+            int processed,
+            long lastId,
+            boolean caughtUp
+            ) {
+    }
+}
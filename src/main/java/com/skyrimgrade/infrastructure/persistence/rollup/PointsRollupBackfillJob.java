@@ -0,0 +1,176 @@
+package com.skyrimgrade.infrastructure.persistence.rollup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.skyrimgrade.domain.task.Difficulty;
+
+/**
+ * Заполняет points_rollup и completion_rollup из истории, накопленной до V9.
+ *
+ * История читается порциями по id в диапазоне (last_id, high_water_id]. Порция и
+ * сдвиг last_id коммитятся в одной транзакции, поэтому после рестарта job
+ * продолжает с места остановки и ничего не учитывает дважды. Выполненной задачей
+ * считается запись истории с task_id, сложность берется из tasks или tasks_archive.
+ */
+public class PointsRollupBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PointsRollupBackfillJob.class);
+
+    private static final String CHECKPOINT_NAME = "points_history";
+
+    private static final String LOCK_CHECKPOINT_SQL =
+            "SELECT last_id, high_water_id FROM rollup_backfill WHERE name = ? FOR UPDATE";
+
+    private static final String SELECT_CHUNK_SQL = """
+            SELECT h.id, h.user_id, h.points_earned, h.created_at, COALESCE(t.difficulty, a.difficulty) AS difficulty
+            FROM user_points_history h
+            LEFT JOIN tasks t ON t.id = h.task_id
+            LEFT JOIN tasks_archive a ON a.id = h.task_id
+            WHERE h.id > ? AND h.id <= ?
+            ORDER BY h.id
+            LIMIT ?
+            """;
+
+    private static final String UPDATE_CHECKPOINT_SQL =
+            "UPDATE rollup_backfill SET last_id = ?, completed_at = ? WHERE name = ?";
+
+    private final DataSource dataSource;
+    private final int chunkSize;
+
+    private ScheduledExecutorService scheduler;
+
+    public PointsRollupBackfillJob(DataSource dataSource, int chunkSize) {
+        this.dataSource = dataSource;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Запускает заполнение в фоне: порция, пауза pauseMillis, следующая порция.
+     * Останавливается сам, когда история обработана до high_water_id.
+     */
+    public synchronized void start(long pauseMillis) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("rollup-backfill")
+                .daemon(true)
+                .factory());
+        scheduler.scheduleWithFixedDelay(this::runSafely, 0, Math.max(1, pauseMillis), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void runSafely() {
+        try {
+            ChunkResult result = runChunk();
+            if (result.complete()) {
+                logger.info("Points rollup backfill complete (last id {})", result.lastId());
+                stop();
+            }
+        } catch (Exception e) {
+            logger.error("Points rollup backfill chunk failed, will retry", e);
+        }
+    }
+
+    /**
+     * Обрабатывает одну порцию истории в отдельной транзакции.
+     */
+    public ChunkResult runChunk() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                ChunkResult result = processChunk(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private ChunkResult processChunk(Connection connection) throws SQLException {
+        long lastId;
+        long highWaterId;
+        // FOR UPDATE сериализует несколько узлов: порцию обрабатывает только один
+        try (PreparedStatement statement = connection.prepareStatement(LOCK_CHECKPOINT_SQL)) {
+            statement.setString(1, CHECKPOINT_NAME);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()) {
+                    return new ChunkResult(0, 0, true);
+                }
+                lastId = rs.getLong("last_id");
+                highWaterId = rs.getLong("high_water_id");
+            }
+        }
+        if (lastId >= highWaterId) {
+            return new ChunkResult(0, lastId, true);
+        }
+
+        RollupDelta delta = new RollupDelta();
+        int processed = 0;
+        long maxId = lastId;
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_CHUNK_SQL)) {
+            statement.setLong(1, lastId);
+            statement.setLong(2, highWaterId);
+            statement.setInt(3, chunkSize);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    int userId = rs.getInt("user_id");
+                    LocalDateTime createdAt = rs.getTimestamp("created_at").toLocalDateTime();
+                    delta.addPoints(userId, createdAt, rs.getInt("points_earned"));
+
+                    // difficulty null: запись не о задаче или задача уже удалена
+                    String difficulty = rs.getString("difficulty");
+                    if (difficulty != null) {
+                        delta.addCompletion(userId, createdAt, Difficulty.valueOf(difficulty));
+                    }
+                    maxId = rs.getLong("id");
+                    processed++;
+                }
+            }
+        }
+
+        // неполная порция - до high_water_id записей больше нет (часть id могла уйти с ретеншном)
+        long newLastId = processed < chunkSize ? highWaterId : maxId;
+        boolean complete = newLastId >= highWaterId;
+        delta.apply(connection);
+
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_CHECKPOINT_SQL)) {
+            statement.setLong(1, newLastId);
+            statement.setTimestamp(2, complete ? Timestamp.valueOf(LocalDateTime.now()) : null);
+            statement.setString(3, CHECKPOINT_NAME);
+            statement.executeUpdate();
+        }
+        logger.debug("Points rollup backfill: {} rows, last id {}/{}", processed, newLastId, highWaterId);
+        return new ChunkResult(processed, newLastId, complete);
+    }
+
+    public record ChunkResult(
+            int processed,
+            long lastId,
+            boolean complete
+            ) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.skyrimgrade.infrastructure.persistence.rollup;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.skyrimgrade.domain.stats.RollupGranularity;
+import com.skyrimgrade.domain.task.Difficulty;
+
+/**
+ * Накопленные приращения для points_rollup и completion_rollup.
+ *
+ * Каждое начисление попадает сразу в дневной, недельный и месячный бакеты.
+ * Приращения складываются в памяти, поэтому пачка из тысячи начислений за один день
+ * превращается в три UPDATE. apply() пишет их в той же транзакции, что и историю баллов.
+ */
+public final class RollupDelta {
+
+    private static final String ENSURE_POINTS_SQL = """
+            INSERT INTO points_rollup (user_id, granularity, bucket_start) VALUES (?, ?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String UPDATE_POINTS_SQL = """
+            UPDATE points_rollup SET points_earned = points_earned + ?, entries = entries + ?
+            WHERE user_id = ? AND granularity = ? AND bucket_start = ?
+            """;
+
+    private static final String ENSURE_COMPLETIONS_SQL = """
+            INSERT INTO completion_rollup (user_id, granularity, bucket_start, difficulty) VALUES (?, ?, ?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String UPDATE_COMPLETIONS_SQL = """
+            UPDATE completion_rollup SET completions = completions + ?
+            WHERE user_id = ? AND granularity = ? AND bucket_start = ? AND difficulty = ?
+            """;
+
+    // ключи отсортированы: конкурентные транзакции блокируют строки в одном порядке и не дедлокаются
+    private final Map<Bucket, long[]> points = new TreeMap<>(Bucket.ORDER);
+    private final Map<CompletionKey, int[]> completions = new TreeMap<>(CompletionKey.ORDER);
+
+    public void addPoints(int userId, LocalDateTime at, int pointsEarned) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            long[] totals = points.computeIfAbsent(bucket(userId, granularity, at), b -> new long[2]);
+            totals[0] += pointsEarned;
+            totals[1]++;
+        }
+    }
+
+    public void addCompletion(int userId, LocalDateTime at, Difficulty difficulty) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            completions.computeIfAbsent(new CompletionKey(bucket(userId, granularity, at), difficulty),
+                    k -> new int[1])[0]++;
+        }
+    }
+
+    public boolean isEmpty() {
+        return points.isEmpty() && completions.isEmpty();
+    }
+
+    /**
+     * Пишет приращения: сначала гарантирует наличие строк (ON CONFLICT DO NOTHING),
+     * затем увеличивает счетчики. Вызывается внутри транзакции вызывающего кода.
+     */
+    public void apply(Connection connection) throws SQLException {
+        if (!points.isEmpty()) {
+            try (PreparedStatement ensure = connection.prepareStatement(ENSURE_POINTS_SQL);
+                 PreparedStatement update = connection.prepareStatement(UPDATE_POINTS_SQL)) {
+                for (Map.Entry<Bucket, long[]> entry : points.entrySet()) {
+                    Bucket bucket = entry.getKey();
+                    setBucket(ensure, 1, bucket);
+                    ensure.addBatch();
+
+                    update.setLong(1, entry.getValue()[0]);
+                    update.setLong(2, entry.getValue()[1]);
+                    setBucket(update, 3, bucket);
+                    update.addBatch();
+                }
+                ensure.executeBatch();
+                update.executeBatch();
+            }
+        }
+
+        if (!completions.isEmpty()) {
+            try (PreparedStatement ensure = connection.prepareStatement(ENSURE_COMPLETIONS_SQL);
+                 PreparedStatement update = connection.prepareStatement(UPDATE_COMPLETIONS_SQL)) {
+                for (Map.Entry<CompletionKey, int[]> entry : completions.entrySet()) {
+                    CompletionKey key = entry.getKey();
+                    setBucket(ensure, 1, key.bucket());
+                    ensure.setString(4, key.difficulty().name());
+                    ensure.addBatch();
+
+                    update.setInt(1, entry.getValue()[0]);
+                    setBucket(update, 2, key.bucket());
+                    update.setString(5, key.difficulty().name());
+                    update.addBatch();
+                }
+                ensure.executeBatch();
+                update.executeBatch();
+            }
+        }
+    }
+
+    private static Bucket bucket(int userId, RollupGranularity granularity, LocalDateTime at) {
+        return new Bucket(userId, granularity, granularity.bucketStart(at.toLocalDate()));
+    }
+
+    private static void setBucket(PreparedStatement statement, int index, Bucket bucket) throws SQLException {
+        statement.setInt(index, bucket.userId());
+        statement.setString(index + 1, bucket.granularity().code());
+        statement.setDate(index + 2, Date.valueOf(bucket.start()));
+    }
+
+    private record Bucket(int userId, RollupGranularity granularity, LocalDate start) {
+        static final Comparator<Bucket> ORDER = Comparator.comparingInt(Bucket::userId)
+                .thenComparing(Bucket::granularity)
+                .thenComparing(Bucket::start);
+    }
+
+    private record CompletionKey(Bucket bucket, Difficulty difficulty) {
+        static final Comparator<CompletionKey> ORDER = Comparator.comparing(CompletionKey::bucket, Bucket.ORDER)
+                .thenComparing(CompletionKey::difficulty);
+    }
+}
@@ -0,0 +1,114 @@
+package com.skyrimgrade.infrastructure.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Circuit breaker: CLOSED -> OPEN после failureThreshold ошибок подряд,
+ * OPEN -> HALF_OPEN через openDuration (или раньше, если фоновая проверка увидела восстановление),
+ * в HALF_OPEN пропускается один пробный вызов: успех закрывает, ошибка снова открывает.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(String name, int failureThreshold, long openDurationMillis) {
+        this(name, failureThreshold, openDurationMillis, System::nanoTime);
+    }
+
+    public CircuitBreaker(String name, int failureThreshold, long openDurationMillis, LongSupplier nanoClock) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, openDurationMillis));
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Можно ли выполнить вызов. Если вернулось true, вызывающий обязан
+     * сообщить результат через recordSuccess(), recordFailure() или release().
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoClock.getAsLong() - openedAtNanos < openDurationNanos) {
+                    return false;
+                }
+                transition(State.HALF_OPEN);
+                // fall through: первый вызов после таймаута становится пробным
+            case HALF_OPEN:
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        if (state != State.CLOSED) {
+            transition(State.CLOSED);
+        }
+    }
+
+    public synchronized void recordFailure() {
+        trialInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            openedAtNanos = nanoClock.getAsLong();
+            transition(State.OPEN);
+        } else if (state == State.OPEN) {
+            openedAtNanos = nanoClock.getAsLong();
+        }
+    }
+
+    /**
+     * Вызов завершился без сведений о зависимости (например, не дождался своей очереди):
+     * счетчик ошибок не меняется, пробный вызов в HALF_OPEN снова доступен.
+     */
+    public synchronized void release() {
+        trialInFlight = false;
+    }
+
+    /**
+     * Внешний сигнал о восстановлении (успешная фоновая проверка):
+     * не дожидаясь openDuration, пропускаем следующий пробный вызов.
+     */
+    public synchronized void probeSucceeded() {
+        if (state == State.OPEN) {
+            transition(State.HALF_OPEN);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void transition(State next) {
+        logger.warn("Circuit breaker '{}': {} -> {}", name, state, next);
+        state = next;
+    }
+}
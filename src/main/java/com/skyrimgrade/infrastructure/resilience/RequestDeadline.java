@@ -0,0 +1,161 @@
+package com.skyrimgrade.infrastructure.resilience;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Крайний срок обработки запроса, общий для всего стека вызовов.
+ *
+ * Срок задается на входе запроса (бюджет эндпоинта) и доступен через ScopedValue, поэтому
+ * его видят и потоки StructuredTaskScope. DeadlineDataSource ограничивает им ожидание
+ * соединения пула и timeout каждого SQL-запроса, а cancel() (клиент отключился) прерывает
+ * выполняющиеся запросы сразу. Вложенный call() не может продлить срок внешнего.
+ *
+ * <pre>
+ * RequestDeadline.call("GET /api/dashboard", Duration.ofMillis(config.getRequestDeadlineMillis()), () -> {
+ *     ... обработка запроса ...
+ * });
+ * </pre>
+ */
+public final class RequestDeadline {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestDeadline.class);
+
+    private static final ScopedValue<RequestDeadline> CURRENT = ScopedValue.newInstance();
+
+    private final String operation;
+    private final long deadlineNanos;
+    // выполняющиеся сейчас запросы, их отменяет cancel()
+    private final Set<Statement> running = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean cancelled;
+
+    private RequestDeadline(String operation, long deadlineNanos) {
+        this.operation = operation;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static Optional<RequestDeadline> current() {
+        return CURRENT.isBound() ? Optional.of(CURRENT.get()) : Optional.empty();
+    }
+
+    public static <T> T call(String operation, Duration budget, Callable<T> action) throws Exception {
+        return ScopedValue.where(CURRENT, open(operation, budget)).call(action::call);
+    }
+
+    public static void run(String operation, Duration budget, Runnable action) {
+        ScopedValue.where(CURRENT, open(operation, budget)).run(action);
+    }
+
+    private static RequestDeadline open(String operation, Duration budget) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        Optional<RequestDeadline> outer = current();
+        if (outer.isPresent() && outer.get().deadlineNanos - deadline < 0) {
+            return outer.get();
+        }
+        return new RequestDeadline(operation, deadline);
+    }
+
+    /**
+     * Меньшее из timeout и остатка текущего срока; без срока - сам timeout.
+     */
+    public static Duration cap(Duration timeout) {
+        Optional<RequestDeadline> deadline = current();
+        if (deadline.isEmpty()) {
+            return timeout;
+        }
+        Duration remaining = deadline.get().remaining();
+        return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+    }
+
+    public String operation() {
+        return operation;
+    }
+
+    /**
+     * Оставшееся время, не меньше нуля.
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, remainingNanos()));
+    }
+
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(0, remainingNanos()));
+    }
+
+    private long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public boolean isExpired() {
+        return cancelled || remainingNanos() <= 0;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Бросает SQLTimeoutException, если срок истек или запрос отменен.
+     */
+    public void check() throws SQLTimeoutException {
+        if (isExpired()) {
+            throw expired(null);
+        }
+    }
+
+    /**
+     * Исключение для запроса, прерванного по сроку; SQLState 57014 - как у отмены в PostgreSQL.
+     */
+    public SQLTimeoutException expired(Throwable cause) {
+        String reason = cancelled ? "was cancelled" : "exceeded its deadline";
+        return new SQLTimeoutException("Request '" + operation + "' " + reason, "57014", cause);
+    }
+
+    /**
+     * Отменяет запрос: клиент отключился, результат больше не нужен. Выполняющиеся SQL-запросы
+     * прерываются Statement.cancel(), новые не начинаются.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (Statement statement : running) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                logger.debug("Failed to cancel statement of '{}': {}", operation, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Регистрирует выполняющийся запрос на время execute; снимается через close().
+     */
+    public Registration track(Statement statement) {
+        running.add(statement);
+        // cancel() мог пройти до add
+        if (cancelled) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                logger.debug("Failed to cancel statement of '{}': {}", operation, e.getMessage());
+            }
+        }
+        return () -> running.remove(statement);
+    }
+
+    @FunctionalInterface
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,62 @@
+package com.skyrimgrade.infrastructure.search;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+/**
+ * Загружает задачи и проекты пользователя для построения индекса.
+ * Обычный SQL без PostgreSQL-специфики - работает и на H2.
+ */
+public class JdbcSearchDocumentLoader implements SearchDocumentLoader {
+
+    private static final String TASKS_SQL =
+            "SELECT id, title, description, status, difficulty, project_id FROM tasks WHERE user_id = ?";
+
+    private static final String PROJECTS_SQL = """
+            SELECT id, name, description, status, COALESCE(manual_difficulty, calculated_difficulty) AS difficulty
+            FROM projects WHERE user_id = ?
+            """;
+
+    private final DataSource dataSource;
+
+    public JdbcSearchDocumentLoader(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public List<SearchDocument> loadForUser(int userId) throws SQLException {
+        List<SearchDocument> documents = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(TASKS_SQL)) {
+                statement.setInt(1, userId);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        int projectId = rs.getInt("project_id");
+                        documents.add(new SearchDocument(SearchDocument.Type.TASK, rs.getInt("id"),
+                                rs.getString("title"), rs.getString("description"),
+                                rs.getString("status"), rs.getString("difficulty"),
+                                rs.wasNull() ? null : projectId));
+                    }
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(PROJECTS_SQL)) {
+                statement.setInt(1, userId);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        int id = rs.getInt("id");
+                        documents.add(new SearchDocument(SearchDocument.Type.PROJECT, id,
+                                rs.getString("name"), rs.getString("description"),
+                                rs.getString("status"), rs.getString("difficulty"), id));
+                    }
+                }
+            }
+        }
+        return documents;
+    }
+}
@@ -0,0 +1,28 @@
+package com.skyrimgrade.infrastructure.search;
+
+/**
+ * Документ поискового индекса: задача или проект пользователя.
+ * Для проекта projectId равен его собственному id.
+ */
+public record SearchDocument(
+        Type type,
+        int id,
+        String title,
+        String body,
+        String status,
+        String difficulty,
+        Integer projectId
+        ) {
+
+    public enum Type {
+        TASK,
+        PROJECT
+    }
+
+    public Key key() {
+        return new Key(type, id);
+    }
+
+    public record Key(Type type, int id) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.skyrimgrade.infrastructure.search;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Источник документов для первичного построения индекса пользователя.
+ */
+@FunctionalInterface
+public interface SearchDocumentLoader {
+
+    List<SearchDocument> loadForUser(int userId) throws SQLException;
+}
@@ -0,0 +1,10 @@
+package com.skyrimgrade.infrastructure.search;
+
+/**
+ * Найденный документ с релевантностью.
+ */
+public record SearchHit(
+        SearchDocument document,
+        double score
+        ) {
+}
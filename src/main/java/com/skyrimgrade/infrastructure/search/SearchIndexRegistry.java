@@ -0,0 +1,185 @@
+package com.skyrimgrade.infrastructure.search;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.domain.task.Task;
+import com.skyrimgrade.infrastructure.event.InProcessEventBus;
+
+/**
+ * Поисковые индексы пользователей с ленивым построением и LRU вытеснением.
+ *
+ * Индекс строится при первом поиске пользователя и дальше поддерживается событиями
+ * изменения задач и проектов. Память ограничена числом пользователей и суммарным числом
+ * postings: при превышении выбрасываются индексы, к которым дольше всего не обращались.
+ * Если событие приходит во время построения, построенный индекс не кэшируется,
+ * чтобы не потерять изменение - следующий поиск построит его заново.
+ */
+public class SearchIndexRegistry implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexRegistry.class);
+
+    private final SearchDocumentLoader loader;
+    private final int maxUsers;
+    private final long maxPostings;
+    private final InProcessEventBus.Subscription subscription;
+
+    // порядок вставки = порядок последнего обращения (см. touch), guarded by this
+    private final LinkedHashMap<Integer, UserSearchIndex> indexes = new LinkedHashMap<>();
+    private final Map<Integer, Build> building = new HashMap<>();
+
+    public SearchIndexRegistry(SearchDocumentLoader loader, InProcessEventBus eventBus, int maxUsers, long maxPostings) {
+        this.loader = loader;
+        this.maxUsers = Math.max(1, maxUsers);
+        this.maxPostings = Math.max(1, maxPostings);
+        this.subscription = eventBus.subscribe(this::onEvent);
+    }
+
+    public List<SearchHit> search(int userId, SearchQuery query) throws SQLException {
+        return indexFor(userId).search(query);
+    }
+
+    private UserSearchIndex indexFor(int userId) throws SQLException {
+        Build build;
+        boolean owner = false;
+        synchronized (this) {
+            UserSearchIndex index = touch(userId);
+            if (index != null) {
+                return index;
+            }
+            build = building.get(userId);
+            if (build == null) {
+                build = new Build();
+                building.put(userId, build);
+                owner = true;
+            }
+        }
+
+        if (!owner) {
+            return await(build);
+        }
+
+        try {
+            long start = System.nanoTime();
+            UserSearchIndex index = new UserSearchIndex(loader.loadForUser(userId));
+            synchronized (this) {
+                building.remove(userId);
+                if (!build.dirty) {
+                    indexes.put(userId, index);
+                    enforceLimits();
+                }
+            }
+            logger.debug("Search index for user {} built in {} ms ({} documents)",
+                    userId, (System.nanoTime() - start) / 1_000_000, index.documentCount());
+            build.future.complete(index);
+            return index;
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                building.remove(userId);
+            }
+            build.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static UserSearchIndex await(Build build) throws SQLException {
+        try {
+            return build.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw e;
+        }
+    }
+
+    private UserSearchIndex touch(int userId) {
+        UserSearchIndex index = indexes.remove(userId);
+        if (index != null) {
+            indexes.put(userId, index);
+        }
+        return index;
+    }
+
+    private void enforceLimits() {
+        long postings = indexes.values().stream().mapToLong(UserSearchIndex::postingCount).sum();
+        Iterator<Map.Entry<Integer, UserSearchIndex>> eldest = indexes.entrySet().iterator();
+        while (indexes.size() > 1 && (indexes.size() > maxUsers || postings > maxPostings) && eldest.hasNext()) {
+            Map.Entry<Integer, UserSearchIndex> entry = eldest.next();
+            postings -= entry.getValue().postingCount();
+            eldest.remove();
+            logger.debug("Evicted search index of user {}", entry.getKey());
+        }
+    }
+
+    public synchronized void evict(int userId) {
+        indexes.remove(userId);
+        Build build = building.get(userId);
+        if (build != null) {
+            build.dirty = true;
+        }
+    }
+
+    public synchronized int loadedUsers() {
+        return indexes.size();
+    }
+
+    private void onEvent(DomainEvent event) {
+        UserSearchIndex index;
+        synchronized (this) {
+            Build build = building.get(event.userId());
+            if (build != null) {
+                build.dirty = true;
+            }
+            index = indexes.get(event.userId());
+        }
+        if (index == null) {
+            return;
+        }
+
+        switch (event) {
+            case DomainEvent.TaskSaved e -> index.upsert(toDocument(e.task()));
+            case DomainEvent.TaskDeleted e -> index.remove(new SearchDocument.Key(SearchDocument.Type.TASK, e.taskId()));
+            case DomainEvent.TaskCompleted e ->
+                    index.updateStatus(new SearchDocument.Key(SearchDocument.Type.TASK, e.taskId()), "COMPLETED");
+            case DomainEvent.TaskOverdue e ->
+                    index.updateStatus(new SearchDocument.Key(SearchDocument.Type.TASK, e.taskId()), "OVERDUE");
+            case DomainEvent.ProjectSaved e -> index.upsert(new SearchDocument(SearchDocument.Type.PROJECT,
+                    e.projectId(), e.name(), e.description(), e.status(), e.difficulty(), e.projectId()));
+            // удаление проекта обнуляет project_id у задач, а импорт меняет много задач сразу - проще перестроить
+            case DomainEvent.ProjectDeleted e -> evict(e.userId());
+            case DomainEvent.TasksImported e -> evict(e.userId());
+            case DomainEvent.TasksArchived e -> evict(e.userId());
+            default -> {
+            }
+        }
+    }
+
+    private static SearchDocument toDocument(Task task) {
+        return new SearchDocument(SearchDocument.Type.TASK, task.id(), task.title(), task.description(),
+                task.status().name(), task.difficulty().name(), task.projectId());
+    }
+
+    @Override
+    public void close() {
+        subscription.close();
+        synchronized (this) {
+            indexes.clear();
+        }
+    }
+
+    private static final class Build {
+        final CompletableFuture<UserSearchIndex> future = new CompletableFuture<>();
+        volatile boolean dirty;
+    }
+}
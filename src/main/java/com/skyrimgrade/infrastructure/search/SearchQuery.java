@@ -0,0 +1,28 @@
+package com.skyrimgrade.infrastructure.search;
+
+import java.util.Set;
+
+/**
+ * Поисковый запрос. Пустые фильтры (null) не ограничивают выдачу.
+ * Каждое слово запроса ищется и как точный термин, и как префикс.
+ */
+public record SearchQuery(
+        String text,
+        Set<SearchDocument.Type> types,
+        Set<String> statuses,
+        Set<String> difficulties,
+        Integer projectId,
+        int limit
+        ) {
+
+    public static SearchQuery of(String text) {
+        return new SearchQuery(text, null, null, null, null, 20);
+    }
+
+    boolean accepts(SearchDocument document) {
+        return (types == null || types.contains(document.type()))
+                && (statuses == null || statuses.contains(document.status()))
+                && (difficulties == null || difficulties.contains(document.difficulty()))
+                && (projectId == null || projectId.equals(document.projectId()));
+    }
+}
@@ -0,0 +1,64 @@
+package com.skyrimgrade.infrastructure.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Токенизация и нормализация текста для поиска (русский и английский).
+ *
+ * Нижний регистр, ё -> е, удаление диакритики у латиницы (café -> cafe),
+ * разбиение по всему, что не буква и не цифра, отбрасывание стоп-слов.
+ * Морфология не учитывается - ее частично покрывает поиск по префиксу.
+ */
+public final class TextTokenizer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "и", "в", "во", "на", "с", "со", "к", "по", "из", "за", "для", "от", "до", "не", "а", "но", "или", "о", "об",
+            "the", "a", "an", "and", "or", "of", "to", "in", "on", "for", "with", "at", "by", "is");
+
+    private TextTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = normalize(text);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = normalized.substring(start, i);
+                if (!STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    static String normalize(String text) {
+        String lower = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        // NFD раскладывает "é" на "e" + combining accent; "й" при этом тоже раскладывается,
+        // поэтому удаляем только диакритику после латинских букв
+        String decomposed = Normalizer.normalize(lower, Normalizer.Form.NFD);
+        StringBuilder result = new StringBuilder(decomposed.length());
+        char previous = 0;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK && previous < 0x0400) {
+                continue;
+            }
+            result.append(c);
+            previous = c;
+        }
+        return Normalizer.normalize(result, Normalizer.Form.NFC);
+    }
+}
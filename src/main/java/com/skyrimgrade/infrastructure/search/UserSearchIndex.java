@@ -0,0 +1,186 @@
+package com.skyrimgrade.infrastructure.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс задач и проектов одного пользователя.
+ *
+ * Термины хранятся в TreeMap, поэтому поиск по префиксу - это subMap по диапазону.
+ * Ранжирование: сумма idf * (2 * tf в заголовке + tf в описании) по словам запроса,
+ * совпадение только по префиксу весит вдвое меньше точного. Все слова запроса обязательны.
+ */
+public class UserSearchIndex {
+
+    private static final double TITLE_WEIGHT = 2.0;
+    private static final double PREFIX_WEIGHT = 0.5;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Map<SearchDocument.Key, Posting>> terms = new TreeMap<>();
+    private final Map<SearchDocument.Key, SearchDocument> documents = new HashMap<>();
+    private final Map<SearchDocument.Key, Set<String>> documentTerms = new HashMap<>();
+    private int postings;
+
+    public UserSearchIndex(Collection<SearchDocument> initial) {
+        initial.forEach(this::addLocked);
+    }
+
+    public void upsert(SearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.key());
+            addLocked(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(SearchDocument.Key key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Меняет только атрибуты фильтрации (статус) без переиндексации текста.
+     */
+    public void updateStatus(SearchDocument.Key key, String status) {
+        lock.writeLock().lock();
+        try {
+            SearchDocument current = documents.get(key);
+            if (current != null) {
+                documents.put(key, new SearchDocument(current.type(), current.id(), current.title(), current.body(),
+                        status, current.difficulty(), current.projectId()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<SearchHit> search(SearchQuery query) {
+        List<String> queryTokens = TextTokenizer.tokenize(query.text());
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<SearchDocument.Key, Double> scores = null;
+            for (String token : new HashSet<>(queryTokens)) {
+                Map<SearchDocument.Key, Double> tokenScores = scoreToken(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((key, score) -> score + tokenScores.get(key));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<SearchHit> hits = new ArrayList<>();
+            for (Map.Entry<SearchDocument.Key, Double> entry : scores.entrySet()) {
+                SearchDocument document = documents.get(entry.getKey());
+                if (query.accepts(document)) {
+                    hits.add(new SearchHit(document, entry.getValue()));
+                }
+            }
+            hits.sort(Comparator.comparingDouble(SearchHit::score).reversed()
+                    .thenComparing(hit -> hit.document().id()));
+            return hits.size() > query.limit() ? List.copyOf(hits.subList(0, query.limit())) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Число пар (термин, документ) - оценка занимаемой памяти для LRU.
+     */
+    public int postingCount() {
+        lock.readLock().lock();
+        try {
+            return postings;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<SearchDocument.Key, Double> scoreToken(String token) {
+        Map<SearchDocument.Key, Double> scores = new HashMap<>();
+        NavigableMap<String, Map<SearchDocument.Key, Posting>> matches =
+                terms.subMap(token, true, token + Character.MAX_VALUE, true);
+        for (Map.Entry<String, Map<SearchDocument.Key, Posting>> term : matches.entrySet()) {
+            double weight = term.getKey().equals(token) ? 1.0 : PREFIX_WEIGHT;
+            double idf = Math.log(1 + (double) documents.size() / term.getValue().size());
+            for (Map.Entry<SearchDocument.Key, Posting> posting : term.getValue().entrySet()) {
+                Posting p = posting.getValue();
+                double score = weight * idf * (TITLE_WEIGHT * p.titleFrequency + p.bodyFrequency);
+                // для документа учитываем лучшее совпадение по этому слову запроса
+                scores.merge(posting.getKey(), score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private void addLocked(SearchDocument document) {
+        SearchDocument.Key key = document.key();
+        Map<String, Posting> documentPostings = new HashMap<>();
+        for (String token : TextTokenizer.tokenize(document.title())) {
+            documentPostings.computeIfAbsent(token, t -> new Posting()).titleFrequency++;
+        }
+        for (String token : TextTokenizer.tokenize(document.body())) {
+            documentPostings.computeIfAbsent(token, t -> new Posting()).bodyFrequency++;
+        }
+        for (Map.Entry<String, Posting> entry : documentPostings.entrySet()) {
+            terms.computeIfAbsent(entry.getKey(), t -> new HashMap<>()).put(key, entry.getValue());
+        }
+        documents.put(key, document);
+        documentTerms.put(key, documentPostings.keySet());
+        postings += documentPostings.size();
+    }
+
+    private void removeLocked(SearchDocument.Key key) {
+        Set<String> previous = documentTerms.remove(key);
+        documents.remove(key);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous) {
+            Map<SearchDocument.Key, Posting> termPostings = terms.get(term);
+            if (termPostings != null) {
+                termPostings.remove(key);
+                if (termPostings.isEmpty()) {
+                    terms.remove(term);
+                }
+            }
+        }
+        postings -= previous.size();
+    }
+
+    private static final class Posting {
+        int titleFrequency;
+        int bodyFrequency;
+    }
+}
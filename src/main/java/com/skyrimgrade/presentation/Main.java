@@ -1,10 +1,49 @@
 package com.skyrimgrade.presentation;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+
+import javax.sql.DataSource;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import ch.qos.logback.classic.LoggerContext;
+
+import com.skyrimgrade.application.stats.PointsStatisticsService;
+import com.skyrimgrade.application.task.TaskImportRow;
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.domain.points.LedgerResult;
+import com.skyrimgrade.domain.stats.RollupGranularity;
+import com.skyrimgrade.domain.task.Difficulty;
+import com.skyrimgrade.domain.task.Task;
+import com.skyrimgrade.domain.task.TaskReadRepository;
+import com.skyrimgrade.domain.task.TaskStatus;
+import com.skyrimgrade.infrastructure.cache.CacheInvalidationBridge;
+import com.skyrimgrade.infrastructure.cache.CollectionVersions;
+import com.skyrimgrade.infrastructure.cache.InvalidationBus;
 import com.skyrimgrade.infrastructure.config.AppConfig;
+import com.skyrimgrade.infrastructure.event.InProcessEventBus;
+import com.skyrimgrade.infrastructure.json.JsonCodec;
+import com.skyrimgrade.infrastructure.lifecycle.LifecycleManager;
+import com.skyrimgrade.infrastructure.lifecycle.WarmUp;
 import com.skyrimgrade.infrastructure.persistence.DatabaseConnectionManager;
+import com.skyrimgrade.infrastructure.persistence.archive.TaskArchiveJob;
+import com.skyrimgrade.infrastructure.persistence.overdue.TaskOverdueJob;
+import com.skyrimgrade.infrastructure.persistence.jdbc.JdbcStatsRollupRepository;
+import com.skyrimgrade.infrastructure.persistence.jdbc.JdbcTaskReadRepository;
+import com.skyrimgrade.infrastructure.persistence.partition.PartitionMaintenanceJob;
+import com.skyrimgrade.infrastructure.persistence.rollup.AuditRollupJob;
+import com.skyrimgrade.infrastructure.persistence.rollup.PointsRollupBackfillJob;
+import com.skyrimgrade.infrastructure.persistence.rollup.RollupDelta;
+import com.skyrimgrade.infrastructure.search.JdbcSearchDocumentLoader;
+import com.skyrimgrade.infrastructure.search.SearchIndexRegistry;
 
 /**
  * Main entry point for SkyrimGrade application.
@@ -21,6 +60,10 @@ public class Main {
             AppConfig config = new AppConfig();
             logger.info("Configuration loaded: {}", config);
 
+            // reader/writer для DTO и событий строятся до первого запроса
+            JsonCodec.shared().preload(Task.class, TaskImportRow.class, LedgerResult.class);
+            JsonCodec.shared().preload(DomainEvent.class.getPermittedSubclasses());
+
             // инициализируем connection pool
             logger.info("Initializing database connection pool...");
             DatabaseConnectionManager dbManager = DatabaseConnectionManager.getInstance(config);
@@ -28,25 +71,96 @@ public class Main {
             // проверяем подключение к БД
             if (!dbManager.isHealthy()) {
                 logger.error("Database health check failed! Cannot start application.");
+                flushLogs();
                 System.exit(1);
             }
             logger.info("Database connection successful!");
 
+            // дальше isHealthy() читает кэшированный результат фоновой проверки
+            dbManager.startHealthProbe();
+
             // показываем статистику пула
             DatabaseConnectionManager.PoolStats stats = dbManager.getPoolStats();
             logger.info("Connect  pool initialized: {}", stats);
 
+            // обслуживание партиций audit_log / error_log / user_points_history
+            PartitionMaintenanceJob partitionJob = new PartitionMaintenanceJob(dbManager.getDataSource(), config);
+            partitionJob.start(config.getPartitionMaintenanceIntervalMinutes());
+
+            // дозаполнение статистики из истории баллов до V9, останавливается само
+            PointsRollupBackfillJob rollupBackfill = new PointsRollupBackfillJob(
+                    dbManager.getDataSource(), config.getRollupBackfillChunkSize());
+            rollupBackfill.start(config.getRollupBackfillPauseMillis());
+
+            // локальные кэши узла и их согласование с другими узлами через cache_invalidation
+            InProcessEventBus eventBus = new InProcessEventBus();
+            CollectionVersions collectionVersions = new CollectionVersions(config.getCacheVersionsMaxEntries());
+            SearchIndexRegistry searchIndexes = new SearchIndexRegistry(
+                    new JdbcSearchDocumentLoader(dbManager.getDataSource()), eventBus,
+                    config.getSearchMaxUsers(), config.getSearchMaxPostings());
+            InvalidationBus invalidationBus = new InvalidationBus(dbManager.getDataSource(),
+                    config.getCacheInvalidationGapTimeoutMillis(), config.getCacheInvalidationRetentionMinutes());
+            CacheInvalidationBridge invalidationBridge = new CacheInvalidationBridge(
+                    invalidationBus, eventBus, collectionVersions, searchIndexes);
+            invalidationBus.start(config.getCacheInvalidationPollMillis(), config.isCacheInvalidationListen());
+
+            // перенос давно завершенных задач в tasks_archive; списки без архива при этом меняются,
+            // локальную версию TASKS сдвигает CacheInvalidationBridge
+            TaskArchiveJob taskArchive = new TaskArchiveJob(dbManager.getDataSource(), eventBus,
+                    config.getArchiveBatchSize(), config.getArchiveAfterDays());
+            taskArchive.start(config.getArchiveIntervalMinutes(), config.getArchivePauseMillis());
+
+            // просроченные задачи: ACTIVE -> OVERDUE, событие TaskOverdue уходит в SSE и кэши
+            TaskOverdueJob taskOverdue = new TaskOverdueJob(dbManager.getDataSource(), eventBus,
+                    config.getOverdueBatchSize());
+            taskOverdue.start(config.getOverdueIntervalSeconds());
+
+            // агрегаты audit_log для аналитики: опрос по интервалу, события после commit будят раньше
+            AuditRollupJob auditRollup = new AuditRollupJob(dbManager.getDataSource(),
+                    config.getAnalyticsRollupChunkSize(), config.getAnalyticsRollupGapTimeoutMillis());
+            eventBus.subscribe(event -> auditRollup.wakeUp());
+            auditRollup.start(config.getAnalyticsRollupIntervalMillis());
+
+            // порядок остановки: readiness -> прием запросов -> drain -> очереди записи -> пул
+            LifecycleManager lifecycle = new LifecycleManager();
+            lifecycle.register(LifecycleManager.Phase.STOP_ACCEPTING, "partition-maintenance", partitionJob::stop);
+            lifecycle.register(LifecycleManager.Phase.STOP_ACCEPTING, "rollup-backfill", rollupBackfill::stop);
+            lifecycle.register(LifecycleManager.Phase.STOP_ACCEPTING, "task-archive", taskArchive::stop);
+            lifecycle.register(LifecycleManager.Phase.STOP_ACCEPTING, "task-overdue", taskOverdue::stop);
+            lifecycle.register(LifecycleManager.Phase.STOP_ACCEPTING, "audit-rollup", auditRollup::stop);
+            lifecycle.register(LifecycleManager.Phase.FLUSH, "cache-invalidation-bridge", invalidationBridge::close);
+            // close() дописывает в журнал еще не отправленные инвалидации
+            lifecycle.register(LifecycleManager.Phase.FLUSH, "cache-invalidation-bus", invalidationBus::close);
+            lifecycle.register(LifecycleManager.Phase.CLOSE, "search-indexes", searchIndexes::close);
+            lifecycle.register(LifecycleManager.Phase.CLOSE, "database-pool", dbManager::shutdown);
+
             // добавляем shutdown hook для graceful завершения
             Runtime.getRuntime().addShutdownHook(new Thread(() -> {
                 logger.info("Shuttin down application...");
                 try {
-                    dbManager.shutdown();
-                    logger.info("Application shutdown complete");
+                    LifecycleManager.ShutdownReport report = lifecycle.shutdown(
+                            Duration.ofMillis(config.getLifecycleReadinessGraceMillis()),
+                            Duration.ofMillis(config.getLifecycleDrainTimeoutMillis()));
+                    logger.info("Application shutdown complete: {}", report);
                 } catch (Exception e) {
                     logger.error("Error during shutdown", e);
                 }
+                // логи - последними, чтобы в них попал отчет об остановке
+                flushLogs();
             }));
 
+            // прогрев до readiness: соединения пула и JIT горячих путей
+            DatabaseConnectionManager.PoolStats poolBefore = dbManager.getPoolStats();
+            // не дождавшись соединений, prefill только предупреждает: узел стартует и без прогрева
+            int prefilledConnections = dbManager.prefill(config.getWarmupPoolPrefill(),
+                    Duration.ofMillis(config.getDatabaseConnectionTimeout()));
+            WarmUp warmUp = createWarmUp(dbManager.getDataSource());
+            WarmUp.Report warmUpReport = warmUp.run(config.getWarmupIterations(),
+                    Duration.ofMillis(config.getWarmupTimeoutMillis()));
+            logger.info("Warm-up complete in {} ms: pool {} -> {} connections, steps {}, failed {}, timed out {}",
+                    warmUpReport.durationMillis(), poolBefore.total(), prefilledConnections,
+                    warmUpReport.steps(), warmUpReport.failedSteps(), warmUpReport.timedOut());
+
             // TODO: Запустить миграции БД (Flyway)
             logger.info("Running database migrations...");
 
@@ -58,13 +172,77 @@ public class Main {
                     config.getAppVersion(),
                     config.getAppEnvironment());
 
+            lifecycle.markReady();
+
             // Keep application running
             logger.info("Application is running. Press Ctrl+C to stop.");
             Thread.currentThread().join();
 
         } catch (Exception e) {
             logger.error("Failed to start application", e);
+            flushLogs();
             System.exit(1);
         }
     }
+
+    /**
+     * Синтетические вызовы горячих путей: только чтение и вычисления в памяти, БД не меняется.
+     * Чтения идут от имени первого пользователя, если он есть, иначе по пустым выборкам.
+     */
+    private static WarmUp createWarmUp(DataSource dataSource) {
+        int userId = sampleUserId(dataSource);
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        Task sample = new Task(1, userId, "Warm-up", "Synthetic task", Difficulty.ADEPT,
+                Difficulty.ADEPT.points(), TaskStatus.ACTIVE, now.plusDays(1), null, null, now, now);
+        TaskReadRepository taskReads = new JdbcTaskReadRepository(dataSource);
+        PointsStatisticsService statistics = new PointsStatisticsService(new JdbcStatsRollupRepository(dataSource));
+        JsonCodec codec = JsonCodec.shared();
+
+        return new WarmUp()
+                .register("json", () -> {
+                    String json = codec.writeString(sample);
+                    codec.readerFor(Task.class).readValue(json);
+                    codec.writeString(new LedgerResult(LedgerResult.Status.COMPLETED, 20, 100, 1, false));
+                })
+                .register("task-reads", () -> {
+                    taskReads.findByUser(userId, EnumSet.of(TaskStatus.ACTIVE, TaskStatus.OVERDUE), false, 50);
+                    taskReads.findById(userId, 1, false);
+                })
+                .register("statistics", () -> {
+                    statistics.pointsSeries(userId, RollupGranularity.DAY, today.minusDays(30), today);
+                    statistics.completionSeries(userId, RollupGranularity.WEEK, today.minusWeeks(12), today);
+                })
+                .register("points", () -> {
+                    // RollupDelta без apply(): тот же расчет, что при начислении, но без записи
+                    RollupDelta delta = new RollupDelta();
+                    for (Difficulty difficulty : Difficulty.values()) {
+                        delta.addPoints(userId, now, difficulty.points());
+                        delta.addCompletion(userId, now, difficulty);
+                    }
+                });
+    }
+
+    /**
+     * Первый пользователь для чтений прогрева; 0, если его нет или запрос не удался - прогрев не мешает старту.
+     */
+    private static int sampleUserId(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT MIN(id) FROM users")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            logger.warn("Warm-up could not pick a sample user, reads will use empty selections: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Дописывает очереди асинхронных appender'ов (logback.xml) перед выходом из JVM.
+     */
+    private static void flushLogs() {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            context.stop();
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package com.skyrimgrade.presentation.http;
+
+/**
+ * Обработка условных GET запросов (RFC 9110, If-None-Match).
+ *
+ * Проверка выполняется до обращения к БД и сериализации: если ETag совпал,
+ * контроллер сразу отвечает 304 Not Modified.
+ */
+public final class ConditionalRequests {
+
+    public static final int NOT_MODIFIED = 304;
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * true, если If-None-Match содержит текущий ETag (или "*").
+     * Для If-None-Match используется слабое сравнение: префикс W/ игнорируется.
+     */
+    public static boolean isNotModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || etag == null) {
+            return false;
+        }
+        String current = opaqueTag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaqueTag(tag).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,106 @@
+package com.skyrimgrade.presentation.sse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.infrastructure.event.InProcessEventBus;
+import com.skyrimgrade.infrastructure.json.JsonCodec;
+
+/**
+ * Рассылка доменных событий подписчикам SSE (GET /api/events).
+ *
+ * Каждый подписчик обслуживается своим виртуальным потоком, который спит на условии
+ * до прихода события или heartbeat, поэтому десятки тысяч простаивающих соединений
+ * стоят несколько килобайт на соединение.
+ */
+public class SseBroadcaster implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseBroadcaster.class);
+
+    private final ConcurrentHashMap<Integer, Set<SseSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final int bufferSize;
+    private final long heartbeatMillis;
+    private final InProcessEventBus.Subscription subscription;
+
+    /**
+     * @param heartbeat интервал комментария-пинга для простаивающего соединения
+     *                  (Duration.ofSeconds(config.getSseHeartbeatSeconds()))
+     */
+    public SseBroadcaster(InProcessEventBus eventBus, int bufferSize, Duration heartbeat) {
+        this.bufferSize = bufferSize;
+        this.heartbeatMillis = Math.max(1, heartbeat.toMillis());
+        this.subscription = eventBus.subscribe(this::dispatch);
+    }
+
+    /**
+     * Регистрирует соединение пользователя и запускает его поток доставки.
+     */
+    public SseSubscriber subscribe(int userId, SseSink sink) {
+        SseSubscriber subscriber = new SseSubscriber(userId, sink, bufferSize, heartbeatMillis, SseBroadcaster::format);
+        subscribers.compute(userId, (id, set) -> {
+            Set<SseSubscriber> result = set != null ? set : ConcurrentHashMap.newKeySet();
+            result.add(subscriber);
+            return result;
+        });
+
+        Thread.ofVirtual()
+                .name("sse-" + userId + "-" + sequence.incrementAndGet())
+                .start(() -> {
+                    try {
+                        subscriber.deliverLoop();
+                    } finally {
+                        unsubscribe(subscriber);
+                    }
+                });
+        return subscriber;
+    }
+
+    private void dispatch(DomainEvent event) {
+        Set<SseSubscriber> userSubscribers = subscribers.get(event.userId());
+        if (userSubscribers == null) {
+            return;
+        }
+        for (SseSubscriber subscriber : userSubscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    private void unsubscribe(SseSubscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId(), (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    public int connectionCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    static String format(DomainEvent event) {
+        try {
+            return "event: " + event.getClass().getSimpleName() + "\n"
+                    + "data: " + JsonCodec.shared().writeString(event) + "\n\n";
+        } catch (IOException e) {
+            logger.error("Failed to serialize event {}", event, e);
+            return SseSubscriber.RESYNC_FRAME;
+        }
+    }
+
+    /**
+     * Закрывает все соединения (при остановке приложения).
+     */
+    @Override
+    public void close() {
+        subscription.close();
+        subscribers.values().forEach(set -> set.forEach(SseSubscriber::close));
+        subscribers.clear();
+    }
+}
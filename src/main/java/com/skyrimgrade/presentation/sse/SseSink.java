@@ -0,0 +1,16 @@
+package com.skyrimgrade.presentation.sse;
+
+import java.io.IOException;
+
+/**
+ * Канал до клиента SSE (обертка над потоком HTTP ответа).
+ */
+public interface SseSink {
+
+    /**
+     * Пишет готовый SSE фрейм и сбрасывает буфер ответа.
+     */
+    void send(String frame) throws IOException;
+
+    void close();
+}
@@ -0,0 +1,151 @@
+package com.skyrimgrade.presentation.sse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import com.skyrimgrade.domain.event.DomainEvent;
+
+/**
+ * Подписчик SSE с ограниченным буфером и склейкой событий.
+ *
+ * События с одинаковым coalesceKey склеиваются в буфере, пока поток доставки занят.
+ * При переполнении вытесняется самое старое событие, а клиент получает "resync"
+ * и должен перечитать состояние целиком.
+ */
+public class SseSubscriber {
+
+    static final String RESYNC_FRAME = "event: resync\ndata: {}\n\n";
+    static final String HEARTBEAT_FRAME = ":\n\n";
+
+    private final int userId;
+    private final SseSink sink;
+    private final int capacity;
+    private final long heartbeatNanos;
+    private final Function<DomainEvent, String> formatter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final LinkedHashMap<String, DomainEvent> buffer = new LinkedHashMap<>();
+    private boolean overflowed;
+    private volatile boolean closed;
+
+    SseSubscriber(int userId, SseSink sink, int capacity, long heartbeatMillis,
+                  Function<DomainEvent, String> formatter) {
+        this.userId = userId;
+        this.sink = sink;
+        this.capacity = Math.max(1, capacity);
+        this.heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, heartbeatMillis));
+        this.formatter = formatter;
+    }
+
+    public int userId() {
+        return userId;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Кладет событие в буфер. Никогда не блокируется на записи в сеть.
+     */
+    void offer(DomainEvent event) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            String key = event.coalesceKey();
+            DomainEvent previous = buffer.remove(key);
+            if (previous != null) {
+                buffer.put(key, previous.coalesce(event));
+            } else {
+                if (buffer.size() >= capacity) {
+                    Iterator<String> oldest = buffer.keySet().iterator();
+                    oldest.next();
+                    oldest.remove();
+                    overflowed = true;
+                }
+                buffer.put(key, event);
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Цикл доставки: выполняется в отдельном виртуальном потоке до закрытия соединения.
+     */
+    void deliverLoop() {
+        try {
+            while (!closed) {
+                Batch batch = awaitBatch();
+                if (batch == null) {
+                    break;
+                }
+                if (batch.events().isEmpty() && !batch.resync()) {
+                    sink.send(HEARTBEAT_FRAME);
+                    continue;
+                }
+                if (batch.resync()) {
+                    sink.send(RESYNC_FRAME);
+                }
+                for (DomainEvent event : batch.events()) {
+                    sink.send(formatter.apply(event));
+                }
+            }
+        } catch (IOException e) {
+            // клиент отключился
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close();
+        }
+    }
+
+    private Batch awaitBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = heartbeatNanos;
+            while (buffer.isEmpty() && !overflowed && !closed && remaining > 0) {
+                remaining = available.awaitNanos(remaining);
+            }
+            if (closed) {
+                return null;
+            }
+            List<DomainEvent> events = new ArrayList<>(buffer.values());
+            boolean resync = overflowed;
+            buffer.clear();
+            overflowed = false;
+            return new Batch(events, resync);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        sink.close();
+    }
+
+    private record Batch(List<DomainEvent> events, boolean resync) {
+    }
+}
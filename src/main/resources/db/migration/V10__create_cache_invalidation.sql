@@ -0,0 +1,28 @@
+-- V10: Журнал инвалидаций кэша для нескольких узлов приложения.
+-- Узел, изменивший данные, добавляет сюда записи; остальные узлы читают журнал по id
+-- и сбрасывают у себя только затронутые ключи. Старые записи удаляет InvalidationBus.
+
+CREATE TABLE IF NOT EXISTS cache_invalidation (
+    id BIGSERIAL PRIMARY KEY,
+    origin_node VARCHAR(64) NOT NULL,
+    cache_name VARCHAR(50) NOT NULL,
+    user_id INTEGER,
+    cache_key VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_cache_invalidation_created_at ON cache_invalidation(created_at);
+
+-- LISTEN/NOTIFY ускоряет доставку: узлы просыпаются сразу после commit, а не по таймеру.
+-- Одно уведомление на INSERT-оператор, полезная нагрузка не нужна - узел все равно читает таблицу.
+CREATE OR REPLACE FUNCTION notify_cache_invalidation()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('cache_invalidation', '');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_cache_invalidation_notify
+    AFTER INSERT ON cache_invalidation
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation();
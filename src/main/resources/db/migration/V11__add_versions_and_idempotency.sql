@@ -0,0 +1,27 @@
+-- V11: Version columns for optimistic concurrency and idempotency keys for retried mutations
+
+-- Balance arithmetic in conditional UPDATEs must not see NULL
+UPDATE users SET total_points = 0 WHERE total_points IS NULL;
+UPDATE users SET points_spent = 0 WHERE points_spent IS NULL;
+ALTER TABLE users ALTER COLUMN total_points SET NOT NULL;
+ALTER TABLE users ALTER COLUMN points_spent SET NOT NULL;
+
+-- Incremented by every conditional UPDATE of the row
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE tasks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Outcome of a mutation keyed by the client's Idempotency-Key; retries are answered from here
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    user_id INTEGER NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    idempotency_key VARCHAR(100) NOT NULL,
+    operation VARCHAR(30) NOT NULL, -- COMPLETE_TASK, SPEND_POINTS
+    fingerprint VARCHAR(100) NOT NULL, -- task id or amount: the same key must not be reused for another request
+    outcome VARCHAR(30),
+    points INTEGER,
+    balance INTEGER,
+    entity_version BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys(created_at);
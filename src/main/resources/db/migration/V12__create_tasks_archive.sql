@@ -0,0 +1,83 @@
+-- V12: Hot/cold split of tasks. Finished tasks move to tasks_archive (TaskArchiveJob),
+-- the hot table keeps ACTIVE/OVERDUE work and recently finished tasks.
+
+CREATE TABLE IF NOT EXISTS tasks_archive (
+    id INTEGER PRIMARY KEY, -- same id as in tasks, references keep pointing at it
+    user_id INTEGER NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    difficulty VARCHAR(20) NOT NULL,
+    points INTEGER NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('COMPLETED', 'CANCELLED')),
+    deadline TIMESTAMP,
+    completed_at TIMESTAMP,
+    project_id INTEGER REFERENCES projects(id) ON DELETE SET NULL,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_tasks_archive_user_completed ON tasks_archive(user_id, completed_at DESC);
+
+-- A task now lives in one of two tables, so plan_items and user_points_history cannot keep a
+-- foreign key to tasks. The same ON DELETE semantics are kept by a trigger that runs for real
+-- deletions only; the archiver sets skyrimgrade.archiving for its transaction.
+ALTER TABLE plan_items DROP CONSTRAINT IF EXISTS plan_items_task_id_fkey;
+ALTER TABLE user_points_history DROP CONSTRAINT IF EXISTS fk_points_history_task;
+
+CREATE OR REPLACE FUNCTION tasks_after_delete() RETURNS trigger AS $$
+BEGIN
+    IF current_setting('skyrimgrade.archiving', true) = 'on' THEN
+        RETURN NULL;
+    END IF;
+    DELETE FROM plan_items WHERE task_id = OLD.id;
+    UPDATE user_points_history SET task_id = NULL WHERE task_id = OLD.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_tasks_after_delete
+    AFTER DELETE ON tasks
+    FOR EACH ROW EXECUTE FUNCTION tasks_after_delete();
+
+CREATE TRIGGER trg_tasks_archive_after_delete
+    AFTER DELETE ON tasks_archive
+    FOR EACH ROW EXECUTE FUNCTION tasks_after_delete();
+
+-- Replacement for the insert-side check of the dropped foreign keys. Like a real foreign key,
+-- the referenced row is locked FOR KEY SHARE: a concurrent DELETE waits for the referencing
+-- transaction and its cleanup trigger then sees the new row, so no dangling reference is left.
+-- A task being archived is found in tasks_archive once the archiver commits.
+CREATE OR REPLACE FUNCTION check_task_reference() RETURNS trigger AS $$
+BEGIN
+    IF NEW.task_id IS NULL THEN
+        RETURN NEW;
+    END IF;
+    PERFORM 1 FROM tasks WHERE id = NEW.task_id FOR KEY SHARE;
+    IF NOT FOUND THEN
+        PERFORM 1 FROM tasks_archive WHERE id = NEW.task_id FOR KEY SHARE;
+        IF NOT FOUND THEN
+            RAISE EXCEPTION 'task % does not exist', NEW.task_id USING ERRCODE = 'foreign_key_violation';
+        END IF;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_plan_items_check_task
+    BEFORE INSERT OR UPDATE OF task_id ON plan_items
+    FOR EACH ROW EXECUTE FUNCTION check_task_reference();
+
+CREATE TRIGGER trg_points_history_check_task
+    BEFORE INSERT OR UPDATE OF task_id ON user_points_history
+    FOR EACH ROW EXECUTE FUNCTION check_task_reference();
+
+-- Status-aware indexes: almost every query on tasks looks at open work
+DROP INDEX IF EXISTS idx_tasks_status;
+DROP INDEX IF EXISTS idx_tasks_deadline;
+CREATE INDEX idx_tasks_open_user_deadline ON tasks(user_id, deadline) WHERE status IN ('ACTIVE', 'OVERDUE');
+-- overdue detection scans ACTIVE tasks with a passed deadline across all users
+CREATE INDEX idx_tasks_active_deadline ON tasks(deadline) WHERE status = 'ACTIVE';
+-- archiver candidates
+CREATE INDEX idx_tasks_finished_at ON tasks((COALESCE(completed_at, updated_at))) WHERE status IN ('COMPLETED', 'CANCELLED');
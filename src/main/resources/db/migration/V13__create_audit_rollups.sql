@@ -0,0 +1,43 @@
+-- V13: Incremental aggregates over audit_log for the analytics API.
+-- AuditRollupJob tails audit_log by id and adds counts here; analytics queries never scan audit_log.
+-- user_id = 0 holds the totals over all users (and over rows whose user was deleted),
+-- so there is no foreign key to users.
+
+CREATE TABLE IF NOT EXISTS audit_activity_rollup (
+    user_id INTEGER NOT NULL,
+    bucket_start TIMESTAMP NOT NULL, -- start of the hour
+    action VARCHAR(50) NOT NULL,
+    entity_type VARCHAR(50) NOT NULL,
+    events BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, bucket_start, action, entity_type)
+);
+
+-- Values of selected top-level keys of audit_log.details (source, difficulty, status), per day
+CREATE TABLE IF NOT EXISTS audit_facet_rollup (
+    user_id INTEGER NOT NULL,
+    bucket_start DATE NOT NULL,
+    action VARCHAR(50) NOT NULL,
+    facet_key VARCHAR(50) NOT NULL,
+    facet_value VARCHAR(100) NOT NULL,
+    events BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, bucket_start, action, facet_key, facet_value)
+);
+
+-- Position of continuous consumers of append-only tables. The first run of the job starts from
+-- id 0, so the history that already exists is aggregated by the same catch-up scan.
+CREATE TABLE IF NOT EXISTS rollup_checkpoint (
+    name VARCHAR(50) PRIMARY KEY,
+    last_id BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP
+);
+
+INSERT INTO rollup_checkpoint (name) VALUES ('audit_log') ON CONFLICT DO NOTHING;
+
+-- Ids a consumer moved past while they were not visible (transaction still open or rolled back).
+-- Rows committed later under these ids are picked up by id; entries older than the gap timeout are dropped.
+CREATE TABLE IF NOT EXISTS rollup_gap (
+    name VARCHAR(50) NOT NULL,
+    id BIGINT NOT NULL,
+    seen_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (name, id)
+);
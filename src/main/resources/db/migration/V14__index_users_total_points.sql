@@ -0,0 +1,4 @@
+-- V14: Index for the leaderboard rank on the dashboard.
+-- The rank counts users with more points than the caller; with this index it is an index-only
+-- range scan over the users above, instead of a sequential scan of the whole users table.
+CREATE INDEX IF NOT EXISTS idx_users_total_points ON users(total_points);
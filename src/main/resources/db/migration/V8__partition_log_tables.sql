@@ -0,0 +1,133 @@
+-- V8: Monthly range partitioning for append-only history tables
+-- audit_log, error_log и user_points_history пересоздаются как партиционированные по времени.
+-- Ретеншн выполняется через DROP/DETACH старых партиций (PartitionMaintenanceJob), а не через DELETE.
+-- Первичный ключ партиционированной таблицы обязан включать ключ партиционирования.
+
+-- Создает месячную партицию (если ее еще нет) и возвращает ее имя: <parent>_YYYY_MM
+CREATE OR REPLACE FUNCTION create_monthly_partition(parent_table TEXT, month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    range_from TIMESTAMP := date_trunc('month', month_start);
+    range_to TIMESTAMP := date_trunc('month', month_start) + INTERVAL '1 month';
+    partition_name TEXT := parent_table || '_' || to_char(range_from, 'YYYY_MM');
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+        partition_name, parent_table, range_from, range_to
+    );
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Создает партиции с месяца самой старой записи до текущего месяца + 3
+CREATE OR REPLACE FUNCTION create_monthly_partitions_since(parent_table TEXT, oldest TIMESTAMP)
+RETURNS VOID AS $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE(oldest, CURRENT_TIMESTAMP));
+BEGIN
+    WHILE month_start <= date_trunc('month', CURRENT_TIMESTAMP) + INTERVAL '3 months' LOOP
+        PERFORM create_monthly_partition(parent_table, month_start);
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- audit_log
+ALTER TABLE audit_log RENAME TO audit_log_legacy;
+ALTER SEQUENCE audit_log_id_seq RENAME TO audit_log_legacy_id_seq;
+
+CREATE TABLE audit_log (
+    id BIGSERIAL,
+    user_id INTEGER REFERENCES users(id) ON DELETE SET NULL,
+    action VARCHAR(50) NOT NULL, -- TASK_CREATED, TASK_COMPLETED, PROJECT_CREATED, etc.
+    entity_type VARCHAR(50) NOT NULL, -- TASK, PROJECT, PLAN
+    entity_id INTEGER,
+    details JSONB, -- Additional information in JSON format
+    ip_address VARCHAR(45), -- IPv4 or IPv6
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE audit_log_default PARTITION OF audit_log DEFAULT;
+SELECT create_monthly_partitions_since('audit_log', (SELECT MIN(created_at) FROM audit_log_legacy));
+
+INSERT INTO audit_log (id, user_id, action, entity_type, entity_id, details, ip_address, created_at)
+SELECT id, user_id, action, entity_type, entity_id, details, ip_address, COALESCE(created_at, CURRENT_TIMESTAMP)
+FROM audit_log_legacy;
+
+SELECT setval('audit_log_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM audit_log;
+DROP TABLE audit_log_legacy;
+
+CREATE INDEX idx_audit_log_user_id ON audit_log(user_id, created_at DESC);
+CREATE INDEX idx_audit_log_action ON audit_log(action);
+CREATE INDEX idx_audit_log_entity ON audit_log(entity_type, entity_id);
+CREATE INDEX idx_audit_log_created_at ON audit_log(created_at DESC);
+CREATE INDEX idx_audit_log_details ON audit_log USING gin(details); -- For JSONB queries
+
+-- error_log
+ALTER TABLE error_log RENAME TO error_log_legacy;
+ALTER SEQUENCE error_log_id_seq RENAME TO error_log_legacy_id_seq;
+
+CREATE TABLE error_log (
+    id BIGSERIAL,
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    level VARCHAR(10) NOT NULL, -- ERROR, WARN
+    logger_name VARCHAR(255),
+    message TEXT NOT NULL,
+    exception_class VARCHAR(255),
+    exception_message TEXT,
+    stack_trace TEXT,
+    request_id VARCHAR(50), -- To correlate multiple log entries from same request
+    user_id INTEGER REFERENCES users(id) ON DELETE SET NULL,
+    endpoint VARCHAR(255), -- HTTP endpoint if applicable
+    http_method VARCHAR(10), -- GET, POST, etc.
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE error_log_default PARTITION OF error_log DEFAULT;
+SELECT create_monthly_partitions_since('error_log', (SELECT MIN(timestamp) FROM error_log_legacy));
+
+INSERT INTO error_log (id, timestamp, level, logger_name, message, exception_class, exception_message,
+                       stack_trace, request_id, user_id, endpoint, http_method)
+SELECT id, COALESCE(timestamp, CURRENT_TIMESTAMP), level, logger_name, message, exception_class, exception_message,
+       stack_trace, request_id, user_id, endpoint, http_method
+FROM error_log_legacy;
+
+SELECT setval('error_log_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM error_log;
+DROP TABLE error_log_legacy;
+
+CREATE INDEX idx_error_log_timestamp ON error_log(timestamp DESC);
+CREATE INDEX idx_error_log_level ON error_log(level);
+CREATE INDEX idx_error_log_request_id ON error_log(request_id);
+CREATE INDEX idx_error_log_user_id ON error_log(user_id);
+
+-- user_points_history
+ALTER TABLE user_points_history RENAME TO user_points_history_legacy;
+ALTER SEQUENCE user_points_history_id_seq RENAME TO user_points_history_legacy_id_seq;
+
+CREATE TABLE user_points_history (
+    id BIGSERIAL,
+    user_id INTEGER NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    points_earned INTEGER NOT NULL,
+    reason VARCHAR(255) NOT NULL, -- "Task completed: Learn Java", "Project completed: Backend"
+    task_id INTEGER,
+    project_id INTEGER REFERENCES projects(id) ON DELETE SET NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_points_history_task FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE SET NULL
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE user_points_history_default PARTITION OF user_points_history DEFAULT;
+SELECT create_monthly_partitions_since('user_points_history', (SELECT MIN(created_at) FROM user_points_history_legacy));
+
+INSERT INTO user_points_history (id, user_id, points_earned, reason, task_id, project_id, created_at)
+SELECT id, user_id, points_earned, reason, task_id, project_id, COALESCE(created_at, CURRENT_TIMESTAMP)
+FROM user_points_history_legacy;
+
+SELECT setval('user_points_history_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM user_points_history;
+DROP TABLE user_points_history_legacy;
+
+CREATE INDEX idx_points_history_user_id ON user_points_history(user_id, created_at DESC);
+CREATE INDEX idx_points_history_created_at ON user_points_history(created_at DESC);
+
+DROP FUNCTION create_monthly_partitions_since(TEXT, TIMESTAMP);
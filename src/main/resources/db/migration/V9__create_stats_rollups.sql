@@ -0,0 +1,35 @@
+-- V9: Предагрегированная статистика баллов и выполненных задач.
+-- Графики /api/statistics/points читают O(число бакетов) строк вместо полной истории.
+-- granularity: D - день, W - неделя (с понедельника), M - месяц; bucket_start - первый день бакета.
+
+CREATE TABLE IF NOT EXISTS points_rollup (
+    user_id INTEGER NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    granularity CHAR(1) NOT NULL CHECK (granularity IN ('D', 'W', 'M')),
+    bucket_start DATE NOT NULL,
+    points_earned BIGINT NOT NULL DEFAULT 0,
+    entries INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, granularity, bucket_start)
+);
+
+CREATE TABLE IF NOT EXISTS completion_rollup (
+    user_id INTEGER NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    granularity CHAR(1) NOT NULL CHECK (granularity IN ('D', 'W', 'M')),
+    bucket_start DATE NOT NULL,
+    difficulty VARCHAR(20) NOT NULL CHECK (difficulty IN ('NOVICE', 'APPRENTICE', 'ADEPT', 'EXPERT', 'MASTER', 'LEGENDARY')),
+    completions INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, granularity, bucket_start, difficulty)
+);
+
+-- Прогресс заполнения rollup-таблиц из уже существующей истории.
+-- Записи с id <= high_water_id заполняет PointsRollupBackfillJob, более новые учитываются
+-- при вставке в user_points_history. Миграция выполняется до старта приложения,
+-- поэтому граница фиксируется без гонки с новыми начислениями.
+CREATE TABLE IF NOT EXISTS rollup_backfill (
+    name VARCHAR(50) PRIMARY KEY,
+    last_id BIGINT NOT NULL DEFAULT 0,
+    high_water_id BIGINT NOT NULL,
+    completed_at TIMESTAMP
+);
+
+INSERT INTO rollup_backfill (name, high_water_id)
+SELECT 'points_history', COALESCE(MAX(id), 0) FROM user_points_history;
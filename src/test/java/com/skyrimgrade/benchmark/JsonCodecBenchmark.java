@@ -0,0 +1,108 @@
+package com.skyrimgrade.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.skyrimgrade.domain.task.Difficulty;
+import com.skyrimgrade.domain.task.Task;
+import com.skyrimgrade.domain.task.TaskStatus;
+import com.skyrimgrade.infrastructure.json.JsonCodec;
+
+/**
+ * Сравнение сериализации списка задач: ObjectMapper на вызов + промежуточная строка
+ * против JsonCodec с потоковой записью. Печатает пропускную способность и аллокации
+ * на одну сериализацию (ThreadMXBean текущего потока).
+ *
+ * Запуск: ./gradlew jsonBenchmark [-PbenchTasks=5000] [-PbenchIterations=200]
+ */
+public final class JsonCodecBenchmark {
+
+    private JsonCodecBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        List<Task> tasks = sampleTasks(taskCount);
+        JsonCodec codec = JsonCodec.shared();
+        codec.preload(Task.class);
+
+        System.out.printf("Serializing %d tasks, %d iterations%n", taskCount, iterations);
+        run("mapper per call + String", iterations, () -> {
+            ObjectMapper mapper = new ObjectMapper()
+                    .registerModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+            byte[] body = mapper.writeValueAsString(tasks).getBytes(StandardCharsets.UTF_8);
+            return body.length;
+        });
+        run("JsonCodec streaming", iterations, () -> {
+            CountingOutputStream out = new CountingOutputStream();
+            codec.writeArray(out, Task.class, tasks);
+            return out.count;
+        });
+    }
+
+    private static void run(String name, int iterations, Serialization serialization) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        // прогрев JIT
+        for (int i = 0; i < Math.max(10, iterations / 5); i++) {
+            serialization.run();
+        }
+
+        long bytes = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            bytes += serialization.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf("%-28s %8.2f ms/op %10.1f MB/s %12d B allocated/op%n", name,
+                elapsed / 1e6 / iterations, bytes / (elapsed / 1e9) / (1 << 20), allocated / iterations);
+    }
+
+    private static List<Task> sampleTasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        LocalDateTime now = LocalDateTime.of(2026, 1, 4, 10, 0);
+        Difficulty[] difficulties = Difficulty.values();
+        for (int i = 0; i < count; i++) {
+            Difficulty difficulty = difficulties[i % difficulties.length];
+            tasks.add(new Task(i + 1, 1, "Task #" + i, "Description of task " + i, difficulty, difficulty.points(),
+                    TaskStatus.ACTIVE, now.plusDays(i % 30), null, null, now, now));
+        }
+        return tasks;
+    }
+
+    @FunctionalInterface
+    private interface Serialization {
+        long run() throws IOException;
+    }
+
+    /**
+     * Отбрасывает байты, как сокет, но считает их.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
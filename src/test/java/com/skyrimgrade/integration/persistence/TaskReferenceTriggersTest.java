@@ -0,0 +1,158 @@
+package com.skyrimgrade.integration.persistence;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Триггеры V12, заменяющие внешние ключи на tasks, на настоящем PostgreSQL.
+ * H2 не исполняет plpgsql, поэтому тест идет на Testcontainers и пропускается без Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class TaskReferenceTriggersTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static int userId;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement()) {
+            for (Path migration : migrations()) {
+                statement.execute(Files.readString(migration));
+            }
+            userId = insertReturningId(statement,
+                    "INSERT INTO users (username, password_hash) VALUES ('dovahkiin', 'hash') RETURNING id");
+        }
+    }
+
+    @Test
+    @DisplayName("История баллов не может ссылаться на несуществующую задачу, а на архивную - может")
+    void shouldCheckPointsHistoryTaskReference() throws SQLException {
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement()) {
+            // given
+            int archivedId = 1_000_000;
+            statement.execute("INSERT INTO tasks_archive (id, user_id, title, difficulty, status) VALUES ("
+                    + archivedId + ", " + userId + ", 'Archived quest', 'NOVICE', 'COMPLETED')");
+
+            // when & then
+            assertThatThrownBy(() -> statement.execute(pointsSql(999_999)))
+                    .isInstanceOf(SQLException.class)
+                    .satisfies(e -> assertThat(((SQLException) e).getSQLState()).isEqualTo("23503"));
+            statement.execute(pointsSql(archivedId));
+            assertThat(count(statement, "SELECT COUNT(*) FROM user_points_history WHERE task_id = " + archivedId))
+                    .isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Удаление задачи ждет незакоммиченную ссылку и затем удаляет ее")
+    void shouldNotLeaveDanglingPlanItemOnConcurrentDelete() throws Exception {
+        // given - транзакция добавляет пункт плана со ссылкой на задачу, но еще не закоммичена
+        int taskId;
+        int planId;
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement()) {
+            taskId = createTask(statement, "Contested quest");
+            planId = insertReturningId(statement, "INSERT INTO daily_plans (user_id, plan_date) VALUES ("
+                    + userId + ", CURRENT_DATE + " + taskId + ") RETURNING id");
+        }
+
+        try (Connection inserting = connect();
+             Connection deleting = connect()) {
+            inserting.setAutoCommit(false);
+            try (Statement statement = inserting.createStatement()) {
+                statement.execute("INSERT INTO plan_items (plan_id, task_id, title, time_from, time_to) VALUES ("
+                        + planId + ", " + taskId + ", 'Go', '10:00', '11:00')");
+            }
+
+            // when - удаление задачи в другой транзакции
+            CompletableFuture<Void> delete = CompletableFuture.runAsync(() -> {
+                try (Statement statement = deleting.createStatement()) {
+                    statement.execute("DELETE FROM tasks WHERE id = " + taskId);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Thread.sleep(300);
+            boolean blocked = !delete.isDone();
+            inserting.commit();
+            delete.get(10, TimeUnit.SECONDS);
+
+            // then
+            assertThat(blocked).isTrue();
+        }
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement()) {
+            assertThat(count(statement, "SELECT COUNT(*) FROM plan_items WHERE task_id = " + taskId)).isZero();
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    /**
+     * Миграции из db/migration по возрастанию версии, как их применил бы Flyway.
+     */
+    private static List<Path> migrations() throws IOException, URISyntaxException {
+        Path directory = Path.of(TaskReferenceTriggersTest.class.getResource("/db/migration").toURI());
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().matches("V\\d+__.*\\.sql"))
+                    .sorted(Comparator.comparingInt(TaskReferenceTriggersTest::version))
+                    .toList();
+        }
+    }
+
+    private static int version(Path migration) {
+        String name = migration.getFileName().toString();
+        return Integer.parseInt(name.substring(1, name.indexOf("__")));
+    }
+
+    private static int createTask(Statement statement, String title) throws SQLException {
+        return insertReturningId(statement, "INSERT INTO tasks (user_id, title, difficulty, points) VALUES ("
+                + userId + ", '" + title + "', 'NOVICE', 10) RETURNING id");
+    }
+
+    private static String pointsSql(int taskId) {
+        return "INSERT INTO user_points_history (user_id, points_earned, reason, task_id) VALUES ("
+                + userId + ", 10, 'Task completed', " + taskId + ")";
+    }
+
+    private static int insertReturningId(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static long count(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.skyrimgrade.support;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+
+/**
+ * In-memory H2 база со схемой из db/h2-schema.sql для тестов JDBC кода.
+ */
+public final class H2TestDatabase {
+
+    private H2TestDatabase() {
+    }
+
+    /**
+     * Новая изолированная база в режиме совместимости с PostgreSQL.
+     */
+    public static DataSource create() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:test" + System.nanoTime() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        dataSource.setPassword("");
+        execute(dataSource, "RUNSCRIPT FROM 'classpath:/db/h2-schema.sql'");
+        return dataSource;
+    }
+
+    public static void execute(DataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * Создает пользователя и возвращает его id.
+     */
+    public static int createUser(DataSource dataSource, String username) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO users (username, password_hash) VALUES ('" + username + "', 'hash')",
+                    new String[] {"id"});
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.skyrimgrade.unit.application.dashboard;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.skyrimgrade.application.dashboard.DashboardService;
+import com.skyrimgrade.domain.dashboard.Dashboard;
+import com.skyrimgrade.domain.dashboard.DashboardReadRepository;
+import com.skyrimgrade.domain.dashboard.PointsStanding;
+import com.skyrimgrade.domain.plan.PlanRepository;
+import com.skyrimgrade.domain.task.TaskReadRepository;
+import com.skyrimgrade.domain.task.TaskStatus;
+
+/**
+ * Unit тесты для DashboardService.
+ */
+class DashboardServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    private PlanRepository plans;
+    private TaskReadRepository tasks;
+    private DashboardReadRepository reads;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        plans = mock(PlanRepository.class);
+        tasks = mock(TaskReadRepository.class);
+        reads = mock(DashboardReadRepository.class);
+        when(plans.findItemsByDate(anyInt(), any())).thenReturn(List.of());
+        when(tasks.countOpen(anyInt())).thenReturn(Map.of(TaskStatus.ACTIVE, 3, TaskStatus.OVERDUE, 1));
+        when(reads.findStanding(anyInt())).thenReturn(Optional.of(new PointsStanding(500, 120)));
+        when(reads.findRank(anyInt())).thenReturn(7L);
+        when(reads.findRecentActivity(anyInt(), any(), anyInt())).thenReturn(List.of());
+    }
+
+    @Test
+    @DisplayName("Секции читаются параллельно: время близко к самой медленной, а не к сумме")
+    void shouldLoadSectionsInParallel() throws Exception {
+        // given - каждая секция выполняется 200 мс
+        when(plans.findItemsByDate(anyInt(), any())).thenAnswer(invocation -> sleep(200, List.of()));
+        when(tasks.countOpen(anyInt())).thenAnswer(invocation -> sleep(200, Map.of(TaskStatus.ACTIVE, 3)));
+        when(reads.findStanding(anyInt())).thenAnswer(invocation -> sleep(200, Optional.of(new PointsStanding(500, 120))));
+        when(reads.findRank(anyInt())).thenAnswer(invocation -> sleep(200, 7L));
+        when(reads.findRecentActivity(anyInt(), any(), anyInt())).thenAnswer(invocation -> sleep(200, List.of()));
+        DashboardService service = service(Duration.ofSeconds(5), Duration.ofSeconds(5), 5);
+
+        // when
+        long start = System.nanoTime();
+        Dashboard dashboard = service.load(1, TODAY).orElseThrow();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // then
+        assertThat(elapsedMillis).isLessThan(800);
+        assertThat(dashboard.activeTasks()).isEqualTo(3);
+        assertThat(dashboard.overdueTasks()).isZero();
+        assertThat(dashboard.points().balance()).isEqualTo(120);
+        assertThat(dashboard.rank()).isEqualTo(7L);
+        assertThat(dashboard.missingSections()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Ошибка или timeout необязательной секции дает частичный результат")
+    void shouldReturnPartialDashboardWhenOptionalSectionFails() throws Exception {
+        // given
+        when(reads.findRank(anyInt())).thenThrow(new SQLException("rank query failed"));
+        when(reads.findRecentActivity(anyInt(), any(), anyInt())).thenAnswer(invocation -> sleep(5000, List.of()));
+        DashboardService service = service(Duration.ofSeconds(5), Duration.ofMillis(200), 5);
+
+        // when
+        Dashboard dashboard = service.load(1, TODAY).orElseThrow();
+
+        // then
+        assertThat(dashboard.rank()).isNull();
+        assertThat(dashboard.recentActivity()).isNull();
+        assertThat(dashboard.missingSections()).containsExactly("rank", "activity");
+        assertThat(dashboard.activeTasks()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Ошибка обязательной секции отменяет остальные и пробрасывается")
+    void shouldCancelSiblingsWhenCriticalSectionFails() throws Exception {
+        // given
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(plans.findItemsByDate(anyInt(), any())).thenThrow(new SQLException("plan query failed"));
+        when(reads.findRecentActivity(anyInt(), any(), anyInt())).thenAnswer(invocation -> {
+            try {
+                return sleep(10_000, List.of());
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        });
+        DashboardService service = service(Duration.ofSeconds(30), Duration.ofSeconds(30), 5);
+
+        // when & then
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> service.load(1, TODAY))
+                .isInstanceOf(SQLException.class)
+                .hasMessage("plan query failed");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5000);
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Запрос держит не больше maxConnections соединений одновременно")
+    void shouldCapConcurrentConnections() throws Exception {
+        // given
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        when(plans.findItemsByDate(anyInt(), any())).thenAnswer(invocation -> tracked(current, peak, List.of()));
+        when(tasks.countOpen(anyInt())).thenAnswer(invocation -> tracked(current, peak, Map.of()));
+        when(reads.findStanding(anyInt())).thenAnswer(invocation ->
+                tracked(current, peak, Optional.of(new PointsStanding(0, 0))));
+        when(reads.findRank(anyInt())).thenAnswer(invocation -> tracked(current, peak, 1L));
+        when(reads.findRecentActivity(anyInt(), any(), anyInt())).thenAnswer(invocation -> tracked(current, peak, List.of()));
+        DashboardService service = service(Duration.ofSeconds(5), Duration.ofSeconds(5), 2);
+
+        // when
+        Dashboard dashboard = service.load(1, TODAY).orElseThrow();
+
+        // then
+        assertThat(peak.get()).isEqualTo(2);
+        assertThat(dashboard.missingSections()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Для несуществующего пользователя возвращается пустой результат")
+    void shouldReturnEmptyForUnknownUser() throws Exception {
+        // given
+        when(reads.findStanding(anyInt())).thenReturn(Optional.empty());
+
+        // when & then
+        assertThat(service(Duration.ofSeconds(5), Duration.ofSeconds(5), 3).load(42, TODAY)).isEmpty();
+    }
+
+    private DashboardService service(Duration timeout, Duration sectionTimeout, int maxConnections) {
+        return new DashboardService(plans, tasks, reads, timeout, sectionTimeout, maxConnections, 10);
+    }
+
+    private static <T> T sleep(long millis, T result) throws InterruptedException {
+        Thread.sleep(millis);
+        return result;
+    }
+
+    private static <T> T tracked(AtomicInteger current, AtomicInteger peak, T result) throws InterruptedException {
+        peak.accumulateAndGet(current.incrementAndGet(), Math::max);
+        try {
+            return sleep(100, result);
+        } finally {
+            current.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.skyrimgrade.unit.application.points;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.skyrimgrade.application.points.SpendPointsUseCase;
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.domain.points.LedgerResult;
+import com.skyrimgrade.domain.points.PointsLedger;
+import com.skyrimgrade.infrastructure.cache.IdempotencyCache;
+
+/**
+ * Unit тесты для SpendPointsUseCase.
+ */
+class SpendPointsUseCaseTest {
+
+    private PointsLedger ledger;
+    private List<DomainEvent> published;
+    private SpendPointsUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        ledger = mock(PointsLedger.class);
+        published = new ArrayList<>();
+        useCase = new SpendPointsUseCase(ledger, new IdempotencyCache<>(100), published::add);
+    }
+
+    @Test
+    @DisplayName("Успешное списание публикует PointsSpent один раз, повтор по ключу - нет")
+    void shouldPublishPointsSpentOnlyForFirstSuccess() throws SQLException {
+        // given
+        when(ledger.spendPoints(1, 30, "spend-1"))
+                .thenReturn(new LedgerResult(LedgerResult.Status.SPENT, 30, 70, 2, false));
+
+        // when
+        useCase.execute(1, 30, "spend-1");
+        LedgerResult replay = useCase.execute(1, 30, "spend-1");
+
+        // then
+        assertThat(replay.replayed()).isTrue();
+        assertThat(published).hasSize(1);
+        assertThat(published.get(0)).isInstanceOfSatisfying(DomainEvent.PointsSpent.class, event -> {
+            assertThat(event.userId()).isEqualTo(1);
+            assertThat(event.amount()).isEqualTo(30);
+            assertThat(event.balance()).isEqualTo(70);
+        });
+    }
+
+    @Test
+    @DisplayName("Отказ в списании событие не публикует")
+    void shouldNotPublishWhenSpendIsRejected() throws SQLException {
+        // given
+        when(ledger.spendPoints(1, 500, null))
+                .thenReturn(new LedgerResult(LedgerResult.Status.INSUFFICIENT_POINTS, 0, 70, 2, false));
+
+        // when
+        useCase.execute(1, 500, null);
+
+        // then
+        assertThat(published).isEmpty();
+    }
+}
@@ -0,0 +1,95 @@
+package com.skyrimgrade.unit.application.stats;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.skyrimgrade.application.stats.PointsStatisticsService;
+import com.skyrimgrade.domain.stats.CompletionBucket;
+import com.skyrimgrade.domain.stats.PointsBucket;
+import com.skyrimgrade.domain.stats.RollupGranularity;
+import com.skyrimgrade.domain.stats.StatsRollupRepository;
+import com.skyrimgrade.domain.task.Difficulty;
+
+/**
+ * Unit тесты для PointsStatisticsService и бакетов RollupGranularity.
+ */
+class PointsStatisticsServiceTest {
+
+    private StatsRollupRepository repository;
+    private PointsStatisticsService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(StatsRollupRepository.class);
+        service = new PointsStatisticsService(repository);
+    }
+
+    @Test
+    @DisplayName("Начало бакета: день, понедельник недели, первое число месяца")
+    void shouldAlignBucketStart() {
+        LocalDate sunday = LocalDate.of(2026, 1, 4);
+
+        assertThat(RollupGranularity.DAY.bucketStart(sunday)).isEqualTo(sunday);
+        assertThat(RollupGranularity.WEEK.bucketStart(sunday)).isEqualTo(LocalDate.of(2025, 12, 29));
+        assertThat(RollupGranularity.MONTH.bucketStart(sunday)).isEqualTo(LocalDate.of(2026, 1, 1));
+        assertThat(RollupGranularity.WEEK.next(LocalDate.of(2025, 12, 29))).isEqualTo(LocalDate.of(2026, 1, 5));
+    }
+
+    @Test
+    @DisplayName("Пустые бакеты заполняются нулями")
+    void shouldFillGapsWithZeros() throws SQLException {
+        // given
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        LocalDate to = LocalDate.of(2026, 1, 4);
+        when(repository.findPoints(eq(1), eq(RollupGranularity.DAY), any(), any())).thenReturn(List.of(
+                new PointsBucket(LocalDate.of(2026, 1, 2), 50)));
+
+        // when
+        List<PointsBucket> series = service.pointsSeries(1, RollupGranularity.DAY, from, to);
+
+        // then
+        assertThat(series).extracting(PointsBucket::points).containsExactly(0L, 50L, 0L, 0L);
+        assertThat(series.getFirst().bucketStart()).isEqualTo(from);
+    }
+
+    @Test
+    @DisplayName("Ряд выполнений содержит все уровни сложности в каждом бакете")
+    void shouldBuildCompletionSeries() throws SQLException {
+        // given
+        when(repository.findCompletions(anyInt(), eq(RollupGranularity.MONTH), any(), any())).thenReturn(List.of(
+                new CompletionBucket(LocalDate.of(2026, 2, 1), Difficulty.EXPERT, 3)));
+
+        // when
+        List<PointsStatisticsService.CompletionSeries> series = service.completionSeries(
+                1, RollupGranularity.MONTH, LocalDate.of(2026, 1, 15), LocalDate.of(2026, 3, 10));
+
+        // then
+        assertThat(series).hasSize(3);
+        assertThat(series.get(1).completions()).hasSize(Difficulty.values().length)
+                .containsEntry(Difficulty.EXPERT, 3)
+                .containsEntry(Difficulty.NOVICE, 0);
+    }
+
+    @Test
+    @DisplayName("Слишком длинный ряд отклоняется")
+    void shouldRejectTooManyBuckets() {
+        assertThatThrownBy(() -> service.pointsSeries(1, RollupGranularity.DAY,
+                LocalDate.of(2020, 1, 1), LocalDate.of(2026, 1, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.pointsSeries(1, RollupGranularity.DAY,
+                LocalDate.of(2026, 1, 2), LocalDate.of(2026, 1, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,180 @@
+package com.skyrimgrade.unit.application.task;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.skyrimgrade.application.task.ImportTasksUseCase;
+import com.skyrimgrade.application.task.TaskImportReport;
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.domain.event.DomainEventPublisher;
+import com.skyrimgrade.domain.task.Difficulty;
+import com.skyrimgrade.domain.task.Task;
+import com.skyrimgrade.domain.task.TaskBatchRepository;
+import com.skyrimgrade.domain.task.TaskStatus;
+import com.skyrimgrade.infrastructure.cache.CollectionVersions;
+
+/**
+ * Unit тесты для ImportTasksUseCase.
+ */
+class ImportTasksUseCaseTest {
+
+    private TaskBatchRepository repository;
+    private List<List<Task>> batches;
+    private CollectionVersions versions;
+    private List<DomainEvent> published;
+    private DomainEventPublisher events;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        repository = mock(TaskBatchRepository.class);
+        batches = new ArrayList<>();
+        versions = new CollectionVersions(1000);
+        published = new ArrayList<>();
+        events = published::add;
+        when(repository.findProjectIds(1)).thenReturn(Set.of(7));
+        when(repository.insertBatch(anyInt(), anyList())).thenAnswer(invocation -> {
+            List<Task> tasks = List.copyOf(invocation.getArgument(1));
+            batches.add(tasks);
+            List<Integer> ids = new ArrayList<>();
+            int points = 0;
+            for (Task task : tasks) {
+                ids.add(ids.size() + 1);
+                points += task.isCompleted() ? task.points() : 0;
+            }
+            return new TaskBatchRepository.BatchResult(ids, points);
+        });
+    }
+
+    @Test
+    @DisplayName("Должен импортировать JSON массив пачками")
+    void shouldImportJsonArrayInBatches() throws Exception {
+        // given
+        String json = """
+                [
+                  {"title": "Learn Java", "difficulty": "adept"},
+                  {"title": "Write tests", "difficulty": "NOVICE", "status": "COMPLETED"},
+                  {"title": "Ship", "difficulty": "MASTER", "projectId": 7, "deadline": "2026-01-04"}
+                ]
+                """;
+
+        // when
+        TaskImportReport report = new ImportTasksUseCase(repository, versions, events, 2).execute(1, stream(json));
+
+        // then
+        assertThat(report.total()).isEqualTo(3);
+        assertThat(report.imported()).isEqualTo(3);
+        assertThat(report.failed()).isZero();
+        assertThat(report.pointsAwarded()).isEqualTo(Difficulty.NOVICE.points());
+        assertThat(published).hasSize(2);
+        assertThat(published.get(0)).isInstanceOfSatisfying(DomainEvent.PointsAwarded.class,
+                event -> assertThat(event.points()).isEqualTo(Difficulty.NOVICE.points()));
+        assertThat(published.get(1)).isInstanceOfSatisfying(DomainEvent.TasksImported.class,
+                event -> assertThat(event.count()).isEqualTo(3));
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0).get(0).difficulty()).isEqualTo(Difficulty.ADEPT);
+        assertThat(batches.get(0).get(0).points()).isEqualTo(20);
+        assertThat(batches.get(0).get(1).completedAt()).isNotNull();
+        assertThat(batches.get(1).get(0).deadline()).isNotNull();
+        verify(repository, times(2)).insertBatch(anyInt(), anyList());
+    }
+
+    @Test
+    @DisplayName("Успешная пачка меняет версию коллекции задач (ETag)")
+    void shouldBumpTasksVersionAfterImport() throws Exception {
+        // given
+        String etagBefore = versions.etag(CollectionVersions.key(1, CollectionVersions.Collection.TASKS));
+
+        // when
+        new ImportTasksUseCase(repository, versions, events, 10).execute(1, stream("{\"title\": \"a\", \"difficulty\": \"NOVICE\"}"));
+
+        // then
+        assertThat(versions.etag(CollectionVersions.key(1, CollectionVersions.Collection.TASKS))).isNotEqualTo(etagBefore);
+    }
+
+    @Test
+    @DisplayName("Должен импортировать NDJSON и отчитаться об ошибках по строкам")
+    void shouldReportRowErrorsForNdjson() throws Exception {
+        // given
+        String ndjson = """
+                {"title": "ok", "difficulty": "EXPERT"}
+                {"title": "", "difficulty": "EXPERT"}
+                {"title": "bad difficulty", "difficulty": "GODLIKE"}
+                {"title": "bad status", "difficulty": "NOVICE", "status": "DONE"}
+                {"title": "foreign project", "difficulty": "NOVICE", "projectId": 99}
+                {"title": "bad deadline", "difficulty": "NOVICE", "deadline": "tomorrow"}
+                {"title": "ok too", "difficulty": "LEGENDARY", "status": "OVERDUE"}
+                """;
+
+        // when
+        TaskImportReport report = new ImportTasksUseCase(repository, versions, events, 100).execute(1, stream(ndjson));
+
+        // then
+        assertThat(report.total()).isEqualTo(7);
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.failed()).isEqualTo(5);
+        assertThat(report.errors()).extracting(TaskImportReport.RowError::row).containsExactly(2, 3, 4, 5, 6);
+        assertThat(report.errors().get(1).message()).contains("difficulty");
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0).get(1).status()).isEqualTo(TaskStatus.OVERDUE);
+    }
+
+    @Test
+    @DisplayName("Ошибка БД помечает ошибочными только строки своей пачки")
+    void shouldFailOnlyRowsOfFailedBatch() throws Exception {
+        // given
+        when(repository.insertBatch(anyInt(), anyList()))
+                .thenThrow(new SQLException("boom"))
+                .thenReturn(new TaskBatchRepository.BatchResult(List.of(3), 0));
+        String ndjson = """
+                {"title": "a", "difficulty": "NOVICE"}
+                {"title": "b", "difficulty": "NOVICE"}
+                {"title": "c", "difficulty": "NOVICE"}
+                """;
+
+        // when
+        TaskImportReport report = new ImportTasksUseCase(repository, versions, events, 2).execute(1, stream(ndjson));
+
+        // then
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.failed()).isEqualTo(2);
+        assertThat(report.errors()).extracting(TaskImportReport.RowError::row).containsExactly(1, 2);
+    }
+
+    @Test
+    @DisplayName("Синтаксическая ошибка JSON прерывает импорт, но сохраняет уже прочитанное")
+    void shouldStopOnMalformedJson() throws Exception {
+        // given
+        String ndjson = """
+                {"title": "a", "difficulty": "NOVICE"}
+                {"title": "b", "difficulty":
+                """;
+
+        // when
+        TaskImportReport report = new ImportTasksUseCase(repository, versions, events, 10).execute(1, stream(ndjson));
+
+        // then
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.failed()).isEqualTo(1);
+        assertThat(report.errors().get(0).message()).startsWith("Malformed JSON");
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,112 @@
+package com.skyrimgrade.unit.infrastructure.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.infrastructure.admission.AdaptiveConcurrencyLimiter;
+import com.skyrimgrade.infrastructure.admission.AdmissionController;
+import com.skyrimgrade.infrastructure.admission.AdmissionRejectedException;
+
+/**
+ * Unit тесты для AdmissionController и AdaptiveConcurrencyLimiter.
+ */
+class AdmissionControllerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final AtomicInteger poolWaiting = new AtomicInteger();
+
+    @Test
+    @DisplayName("Пользователь сверх своей квоты получает 429 с Retry-After")
+    void shouldRejectUserOverQuotaWith429() {
+        // given
+        AdmissionController controller = controller(10, 1, 2);
+        controller.admit(1).close();
+        controller.admit(1).close();
+
+        // when & then
+        assertThatThrownBy(() -> controller.admit(1))
+                .isInstanceOfSatisfying(AdmissionRejectedException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(429);
+                    assertThat(e.getRetryAfterSeconds()).isEqualTo(1);
+                });
+        // другой пользователь не страдает
+        controller.admit(2).close();
+    }
+
+    @Test
+    @DisplayName("Глобальный лимит отклоняет лишние запросы с 503")
+    void shouldRejectOverGlobalLimitWith503() {
+        // given
+        AdmissionController controller = controller(2, 100, 100);
+        AdmissionController.Permit first = controller.admit(1);
+        AdmissionController.Permit second = controller.admit(2);
+
+        // when & then
+        assertThatThrownBy(() -> controller.admit(3))
+                .isInstanceOfSatisfying(AdmissionRejectedException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(503));
+
+        first.close();
+        second.close();
+        assertThat(controller.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Лимит уменьшается при ожидании соединений в пуле")
+    void shouldDecreaseLimitWhenPoolIsSaturated() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 100, 100, poolWaiting::get);
+        poolWaiting.set(3);
+
+        // when
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10), false, TimeUnit.SECONDS.toNanos(10));
+
+        // then
+        assertThat(limiter.getLimit()).isEqualTo(18);
+    }
+
+    @Test
+    @DisplayName("Лимит растет аддитивно при быстрых ответах и не падает ниже минимума")
+    void shouldIncreaseAdditivelyAndRespectBounds() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 3, 100, 100, poolWaiting::get);
+
+        // when - 4 параллельных быстрых запроса, много раз
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < limiter.getLimit(); i++) {
+                limiter.tryAcquire();
+            }
+            int inFlight = limiter.getInFlight();
+            for (int i = 0; i < inFlight; i++) {
+                limiter.release(TimeUnit.MILLISECONDS.toNanos(5), false, 0);
+            }
+        }
+
+        // then
+        assertThat(limiter.getLimit()).isGreaterThan(4);
+
+        // when - серия перегрузок
+        long time = TimeUnit.SECONDS.toNanos(100);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            time += TimeUnit.SECONDS.toNanos(1);
+            limiter.release(0, true, time);
+        }
+
+        // then
+        assertThat(limiter.getLimit()).isEqualTo(3);
+    }
+
+    private AdmissionController controller(int globalLimit, int userRate, int userBurst) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                globalLimit, 1, globalLimit, 1000, poolWaiting::get);
+        return new AdmissionController(limiter, userRate, userBurst, now::get);
+    }
+}
@@ -0,0 +1,48 @@
+package com.skyrimgrade.unit.infrastructure.admission;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.infrastructure.admission.TokenBucket;
+
+/**
+ * Unit тесты для TokenBucket.
+ */
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Пропускает burst запросов подряд и затем отказывает")
+    void shouldAllowBurstThenReject() {
+        // given
+        TokenBucket bucket = new TokenBucket(2, 3, 0);
+
+        // when & then
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    @DisplayName("Токены пополняются со временем, но не выше burst")
+    void shouldRefillUpToCapacity() {
+        // given
+        TokenBucket bucket = new TokenBucket(1, 2, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        // when - прошло 10 секунд
+        long later = 10 * SECOND;
+
+        // then
+        assertThat(bucket.isFull(later)).isTrue();
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isPositive();
+    }
+}
@@ -0,0 +1,82 @@
+package com.skyrimgrade.unit.infrastructure.cache;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.infrastructure.cache.CacheInvalidationBridge;
+import com.skyrimgrade.infrastructure.cache.CollectionVersions;
+import com.skyrimgrade.infrastructure.cache.CollectionVersions.Collection;
+import com.skyrimgrade.infrastructure.cache.Invalidation;
+import com.skyrimgrade.infrastructure.cache.InvalidationBus;
+import com.skyrimgrade.infrastructure.event.InProcessEventBus;
+import com.skyrimgrade.infrastructure.search.SearchIndexRegistry;
+import com.skyrimgrade.support.H2TestDatabase;
+
+/**
+ * Тесты CacheInvalidationBridge: локальные версии и журнал для других узлов.
+ */
+class CacheInvalidationBridgeTest {
+
+    private InProcessEventBus events;
+    private CollectionVersions versions;
+    private InvalidationBus nodeA;
+    private InvalidationBus nodeB;
+    private List<Invalidation> appliedOnB;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSource dataSource = H2TestDatabase.create();
+        events = new InProcessEventBus();
+        versions = new CollectionVersions(100);
+        nodeA = new InvalidationBus(dataSource, "node-a", 30_000, 60, System::nanoTime);
+        nodeB = new InvalidationBus(dataSource, "node-b", 30_000, 60, System::nanoTime);
+        appliedOnB = new CopyOnWriteArrayList<>();
+        nodeB.register(CacheInvalidationBridge.COLLECTIONS_CACHE, appliedOnB::add);
+        nodeB.pollOnce();
+        new CacheInvalidationBridge(nodeA, events, versions, mock(SearchIndexRegistry.class));
+    }
+
+    @Test
+    @DisplayName("Событие фонового job'а сдвигает ETag задач на своем узле и уходит на другие")
+    void shouldBumpLocalVersionAndNotifyOtherNodes() throws Exception {
+        // given
+        String before = versions.etag(CollectionVersions.key(7, Collection.TASKS));
+
+        // when
+        events.publish(new DomainEvent.TaskOverdue(7, 42, Instant.now()));
+        nodeA.flush();
+        nodeB.pollOnce();
+
+        // then
+        assertThat(versions.etag(CollectionVersions.key(7, Collection.TASKS))).isNotEqualTo(before);
+        assertThat(appliedOnB).containsExactly(
+                new Invalidation(CacheInvalidationBridge.COLLECTIONS_CACHE, 7, Collection.TASKS.name()));
+    }
+
+    @Test
+    @DisplayName("Архивация задач сдвигает только ETag задач пользователя")
+    void shouldBumpOnlyTasksOfArchivedUser() {
+        // given
+        String projects = versions.etag(CollectionVersions.key(7, Collection.PROJECTS));
+        String otherUser = versions.etag(CollectionVersions.key(8, Collection.TASKS));
+        String tasks = versions.etag(CollectionVersions.key(7, Collection.TASKS));
+
+        // when
+        events.publish(new DomainEvent.TasksArchived(7, 3, Instant.now()));
+
+        // then
+        assertThat(versions.etag(CollectionVersions.key(7, Collection.TASKS))).isNotEqualTo(tasks);
+        assertThat(versions.etag(CollectionVersions.key(7, Collection.PROJECTS))).isEqualTo(projects);
+        assertThat(versions.etag(CollectionVersions.key(8, Collection.TASKS))).isEqualTo(otherUser);
+    }
+}
@@ -0,0 +1,85 @@
+package com.skyrimgrade.unit.infrastructure.cache;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.infrastructure.cache.CollectionVersions;
+import com.skyrimgrade.infrastructure.cache.CollectionVersions.Collection;
+
+/**
+ * Unit тесты для CollectionVersions.
+ */
+class CollectionVersionsTest {
+
+    @Test
+    @DisplayName("ETag стабилен, пока коллекция не меняется")
+    void shouldKeepEtagStableWithoutMutations() {
+        // given
+        CollectionVersions versions = new CollectionVersions(100);
+        CollectionVersions.VersionKey key = CollectionVersions.key(1, Collection.TASKS);
+
+        // when & then
+        assertThat(versions.etag(key)).isEqualTo(versions.etag(key));
+        assertThat(versions.etag(key)).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    @DisplayName("bump меняет ETag только своей коллекции")
+    void shouldChangeEtagOnlyForBumpedCollection() {
+        // given
+        CollectionVersions versions = new CollectionVersions(100);
+        String tasks = versions.etag(CollectionVersions.key(1, Collection.TASKS));
+        String projects = versions.etag(CollectionVersions.key(1, Collection.PROJECTS));
+        String otherUser = versions.etag(CollectionVersions.key(2, Collection.TASKS));
+
+        // when
+        versions.bump(1, Collection.TASKS);
+
+        // then
+        assertThat(versions.etag(CollectionVersions.key(1, Collection.TASKS))).isNotEqualTo(tasks);
+        assertThat(versions.etag(CollectionVersions.key(1, Collection.PROJECTS))).isEqualTo(projects);
+        assertThat(versions.etag(CollectionVersions.key(2, Collection.TASKS))).isEqualTo(otherUser);
+    }
+
+    @Test
+    @DisplayName("Планы версионируются по дате")
+    void shouldVersionPlansPerDate() {
+        // given
+        CollectionVersions versions = new CollectionVersions(100);
+        LocalDate today = LocalDate.of(2026, 1, 4);
+        String todayEtag = versions.etag(CollectionVersions.planKey(1, today));
+        String tomorrowEtag = versions.etag(CollectionVersions.planKey(1, today.plusDays(1)));
+
+        // when
+        versions.bump(CollectionVersions.planKey(1, today));
+
+        // then
+        assertThat(versions.etag(CollectionVersions.planKey(1, today))).isNotEqualTo(todayEtag);
+        assertThat(versions.etag(CollectionVersions.planKey(1, today.plusDays(1)))).isEqualTo(tomorrowEtag);
+    }
+
+    @Test
+    @DisplayName("Вытеснение ключа не возвращает старую версию после изменения")
+    void shouldNeverReuseVersionAfterEviction() {
+        // given
+        CollectionVersions versions = new CollectionVersions(16);
+        CollectionVersions.VersionKey key = CollectionVersions.key(1, Collection.TASKS);
+        String before = versions.etag(key);
+        versions.bump(key);
+        String afterBump = versions.etag(key);
+
+        // when - вытесняем ключ массой других
+        for (int userId = 100; userId < 200; userId++) {
+            versions.etag(CollectionVersions.key(userId, Collection.TASKS));
+        }
+
+        // then
+        assertThat(versions.size()).isLessThanOrEqualTo(16);
+        assertThat(versions.etag(key)).isNotEqualTo(before);
+        assertThat(versions.version(key)).isGreaterThanOrEqualTo(1);
+        assertThat(afterBump).isNotEqualTo(before);
+    }
+}
@@ -0,0 +1,213 @@
+package com.skyrimgrade.unit.infrastructure.cache;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.infrastructure.cache.Invalidation;
+import com.skyrimgrade.infrastructure.cache.InvalidationBus;
+import com.skyrimgrade.support.H2TestDatabase;
+
+/**
+ * Тесты InvalidationBus на H2: два узла используют одну базу, опрос вызывается напрямую.
+ */
+class InvalidationBusTest {
+
+    private static final long GAP_TIMEOUT_MILLIS = 30_000;
+
+    private DataSource dataSource;
+    private AtomicLong clock;
+    private InvalidationBus nodeA;
+    private InvalidationBus nodeB;
+    private List<Invalidation> appliedOnA;
+    private List<Invalidation> appliedOnB;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = H2TestDatabase.create();
+        clock = new AtomicLong();
+        nodeA = new InvalidationBus(dataSource, "node-a", GAP_TIMEOUT_MILLIS, 60, clock::get);
+        nodeB = new InvalidationBus(dataSource, "node-b", GAP_TIMEOUT_MILLIS, 60, clock::get);
+        appliedOnA = new CopyOnWriteArrayList<>();
+        appliedOnB = new CopyOnWriteArrayList<>();
+        nodeA.register("collections", appliedOnA::add);
+        nodeB.register("collections", appliedOnB::add);
+
+        // первый опрос фиксирует позицию чтения: записи до старта узла не применяются
+        nodeA.pollOnce();
+        nodeB.pollOnce();
+    }
+
+    @Test
+    @DisplayName("Инвалидация одного узла применяется на другом, но не на нем самом")
+    void shouldApplyInvalidationOnOtherNodeOnly() throws Exception {
+        // given
+        Invalidation invalidation = new Invalidation("collections", 7, "TASKS");
+
+        // when
+        nodeA.publish(List.of(invalidation));
+        int appliedB = nodeB.pollOnce();
+        int appliedA = nodeA.pollOnce();
+
+        // then
+        assertThat(appliedB).isEqualTo(1);
+        assertThat(appliedOnB).containsExactly(invalidation);
+        assertThat(appliedA).isZero();
+        assertThat(appliedOnA).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Запись применяется один раз, даже если опросов несколько")
+    void shouldNotReapplyAlreadyReadRecords() throws Exception {
+        // given
+        nodeA.publish(List.of(new Invalidation("collections", 7, "TASKS")));
+        nodeB.pollOnce();
+
+        // when
+        int applied = nodeB.pollOnce();
+
+        // then
+        assertThat(applied).isZero();
+        assertThat(appliedOnB).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Одинаковые инвалидации из очереди склеиваются в одну запись")
+    void shouldCoalesceQueuedInvalidations() throws Exception {
+        // given
+        nodeA.enqueue(new Invalidation("collections", 7, "TASKS"));
+        nodeA.enqueue(new Invalidation("collections", 7, "TASKS"));
+        nodeA.enqueue(new Invalidation("collections", 7, "PROJECTS"));
+
+        // when
+        nodeA.flush();
+        nodeB.pollOnce();
+
+        // then
+        assertThat(appliedOnB).containsExactlyInAnyOrder(
+                new Invalidation("collections", 7, "TASKS"),
+                new Invalidation("collections", 7, "PROJECTS"));
+    }
+
+    @Test
+    @DisplayName("Инвалидация, поставленная в очередь во время отправки, уходит следующей пачкой")
+    void shouldKeepInvalidationEnqueuedDuringPublish() throws Exception {
+        // given - пока пачка пишется в журнал, тот же ключ снова меняется
+        Invalidation invalidation = new Invalidation("collections", 7, "TASKS");
+        AtomicBoolean reenqueued = new AtomicBoolean();
+        InvalidationBus nodeC = new InvalidationBus(dataSource, "node-c", GAP_TIMEOUT_MILLIS, 60, clock::get) {
+            @Override
+            public void publish(List<Invalidation> invalidations) throws SQLException {
+                if (reenqueued.compareAndSet(false, true)) {
+                    enqueue(invalidation);
+                }
+                super.publish(invalidations);
+            }
+        };
+        nodeC.enqueue(invalidation);
+
+        // when
+        nodeC.flush();
+        nodeC.flush();
+        nodeB.pollOnce();
+
+        // then
+        assertThat(appliedOnB).containsExactly(invalidation, invalidation);
+    }
+
+    @Test
+    @DisplayName("При ошибке записи пачка возвращается в очередь")
+    void shouldRequeueBatchWhenPublishFails() throws Exception {
+        // given
+        Invalidation invalidation = new Invalidation("collections", 7, "TASKS");
+        AtomicBoolean failed = new AtomicBoolean();
+        InvalidationBus nodeC = new InvalidationBus(dataSource, "node-c", GAP_TIMEOUT_MILLIS, 60, clock::get) {
+            @Override
+            public void publish(List<Invalidation> invalidations) throws SQLException {
+                if (failed.compareAndSet(false, true)) {
+                    throw new SQLException("connection reset");
+                }
+                super.publish(invalidations);
+            }
+        };
+        nodeC.enqueue(invalidation);
+
+        // when
+        assertThatThrownBy(nodeC::flush).isInstanceOf(SQLException.class);
+        nodeC.flush();
+        nodeB.pollOnce();
+
+        // then
+        assertThat(appliedOnB).containsExactly(invalidation);
+    }
+
+    @Test
+    @DisplayName("Запись с меньшим id, закоммиченная позже, не теряется")
+    void shouldApplyRecordCommittedOutOfOrder() throws Exception {
+        // given - транзакция с id 2 закоммитилась раньше транзакции с id 1
+        insertWithId(2, 2);
+        nodeB.pollOnce();
+
+        // when
+        insertWithId(1, 1);
+        int applied = nodeB.pollOnce();
+
+        // then
+        assertThat(applied).isEqualTo(1);
+        assertThat(appliedOnB).extracting(Invalidation::userId).containsExactly(2, 1);
+    }
+
+    @Test
+    @DisplayName("Пропуск в id перестает перечитываться после gap timeout")
+    void shouldForgetGapAfterTimeout() throws Exception {
+        // given
+        insertWithId(2, 2);
+        nodeB.pollOnce();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(GAP_TIMEOUT_MILLIS + 1));
+
+        // when
+        insertWithId(1, 1);
+        int applied = nodeB.pollOnce();
+
+        // then
+        assertThat(applied).isZero();
+        assertThat(appliedOnB).extracting(Invalidation::userId).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("Пропуск не задерживает чтение, даже если за ним больше записей, чем читается за раз")
+    void shouldReadPastGapBeyondPollLimit() throws Exception {
+        // given - id 1 еще не закоммичен, за ним 1200 записей
+        insertWithId(2, 2);
+        nodeB.pollOnce();
+        H2TestDatabase.execute(dataSource, "INSERT INTO cache_invalidation (id, origin_node, cache_name, user_id, "
+                + "cache_key) SELECT X, 'node-a', 'collections', 3, 'TASKS' FROM SYSTEM_RANGE(3, 1200)");
+        insertWithId(1201, 99);
+
+        // when
+        int applied = nodeB.pollOnce();
+        insertWithId(1, 1);
+        int late = nodeB.pollOnce();
+
+        // then
+        assertThat(applied).isEqualTo(1199);
+        assertThat(late).isEqualTo(1);
+        assertThat(appliedOnB).extracting(Invalidation::userId).contains(99, 1);
+    }
+
+    private void insertWithId(long id, int userId) throws Exception {
+        H2TestDatabase.execute(dataSource, "INSERT INTO cache_invalidation (id, origin_node, cache_name, user_id, "
+                + "cache_key) VALUES (" + id + ", 'node-a', 'collections', " + userId + ", 'TASKS')");
+    }
+}
@@ -33,6 +33,22 @@ class AppConfigTest {
         assertThat(config.getLoggingLevel()).isEqualTo("DEBUG");
     }
 
+    @Test
+    void shouldLoadPartitionSettings() {
+        // given
+        ConfigLoader loader = new ConfigLoader("/application-test.properties");
+
+        // when
+        AppConfig config = new AppConfig(loader);
+
+        // then
+        assertThat(config.getPartitionPremakeMonths()).isEqualTo(2);
+        assertThat(config.getPartitionRetentionMode()).isEqualTo("DROP");
+        assertThat(config.getAuditLogRetentionMonths()).isEqualTo(6);
+        assertThat(config.getErrorLogRetentionMonths()).isEqualTo(1);
+        assertThat(config.getPointsHistoryRetentionMonths()).isZero();
+    }
+
     @Test
     void shouldUseDefaultValues() {
         // given - create mock ConfigLoader that returns null for everything
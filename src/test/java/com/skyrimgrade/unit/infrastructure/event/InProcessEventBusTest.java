@@ -0,0 +1,72 @@
+package com.skyrimgrade.unit.infrastructure.event;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.infrastructure.event.InProcessEventBus;
+
+/**
+ * Unit тесты для InProcessEventBus.
+ */
+class InProcessEventBusTest {
+
+    @Test
+    @DisplayName("Подписчик получает только события своего типа")
+    void shouldDeliverEventsByType() {
+        // given
+        InProcessEventBus bus = new InProcessEventBus();
+        List<DomainEvent.PointsAwarded> points = new ArrayList<>();
+        List<DomainEvent> all = new ArrayList<>();
+        bus.subscribe(DomainEvent.PointsAwarded.class, points::add);
+        bus.subscribe(all::add);
+
+        // when
+        bus.publish(new DomainEvent.PointsAwarded(1, 10, Instant.now()));
+        bus.publish(new DomainEvent.TaskOverdue(1, 5, Instant.now()));
+
+        // then
+        assertThat(points).hasSize(1);
+        assertThat(all).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Ошибка подписчика не мешает остальным")
+    void shouldIsolateFailingListener() {
+        // given
+        InProcessEventBus bus = new InProcessEventBus();
+        List<DomainEvent> received = new ArrayList<>();
+        bus.subscribe(event -> {
+            throw new IllegalStateException("boom");
+        });
+        bus.subscribe(received::add);
+
+        // when
+        bus.publish(new DomainEvent.TaskOverdue(1, 5, Instant.now()));
+
+        // then
+        assertThat(received).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Закрытая подписка больше не получает событий")
+    void shouldUnsubscribe() {
+        // given
+        InProcessEventBus bus = new InProcessEventBus();
+        List<DomainEvent> received = new ArrayList<>();
+        InProcessEventBus.Subscription subscription = bus.subscribe(received::add);
+
+        // when
+        subscription.close();
+        bus.publish(new DomainEvent.TaskOverdue(1, 5, Instant.now()));
+
+        // then
+        assertThat(received).isEmpty();
+        assertThat(bus.listenerCount()).isZero();
+    }
+}
@@ -0,0 +1,93 @@
+package com.skyrimgrade.unit.infrastructure.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.domain.task.Difficulty;
+import com.skyrimgrade.domain.task.Task;
+import com.skyrimgrade.domain.task.TaskStatus;
+import com.skyrimgrade.infrastructure.json.JsonCodec;
+
+/**
+ * Unit тесты для JsonCodec.
+ */
+class JsonCodecTest {
+
+    private final JsonCodec codec = new JsonCodec();
+
+    @Test
+    @DisplayName("Writer строится один раз на тип")
+    void shouldReuseWriterPerType() {
+        // given
+        codec.preload(Task.class);
+
+        // when & then
+        assertThat(codec.writerFor(Task.class)).isSameAs(codec.writerFor(Task.class));
+        assertThat(codec.readerFor(Task.class)).isSameAs(codec.readerFor(Task.class));
+    }
+
+    @Test
+    @DisplayName("Потоковый массив совпадает с сериализацией списка и читается обратно")
+    void shouldStreamArrayCompatibleWithListSerialization() throws IOException {
+        // given
+        List<Task> tasks = List.of(task(1, "Slay a dragon"), task(2, "Buy potions"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        codec.writeArray(out, Task.class, tasks);
+
+        // then
+        String json = out.toString(StandardCharsets.UTF_8);
+        assertThat(json).startsWith("[{").endsWith("}]").contains("\"deadline\":\"2026-01-04T10:00:00\"");
+        Task[] parsed = codec.read(new ByteArrayInputStream(out.toByteArray()), Task[].class);
+        assertThat(parsed).containsExactlyElementsOf(tasks);
+    }
+
+    @Test
+    @DisplayName("Запись не закрывает поток ответа")
+    void shouldNotCloseTargetStream() throws IOException {
+        // given
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                throw new AssertionError("stream must stay open");
+            }
+        };
+
+        // when
+        codec.write(out, task(1, "Slay a dragon"));
+        codec.writeArray(out, Task.class, List.of());
+
+        // then
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith("[]");
+    }
+
+    @Test
+    @DisplayName("Неизвестные поля при чтении игнорируются")
+    void shouldIgnoreUnknownProperties() throws IOException {
+        // given
+        byte[] json = "{\"id\":1,\"userId\":1,\"title\":\"t\",\"difficulty\":\"NOVICE\",\"points\":5,\"status\":\"ACTIVE\",\"extra\":true}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        // when
+        Task task = codec.read(new ByteArrayInputStream(json), Task.class);
+
+        // then
+        assertThat(task.title()).isEqualTo("t");
+        assertThat(task.difficulty()).isEqualTo(Difficulty.NOVICE);
+    }
+
+    private static Task task(int id, String title) {
+        LocalDateTime deadline = LocalDateTime.of(2026, 1, 4, 10, 0);
+        return new Task(id, 1, title, null, Difficulty.ADEPT, 20, TaskStatus.ACTIVE, deadline, null, null,
+                deadline.minusDays(1), deadline.minusDays(1));
+    }
+}
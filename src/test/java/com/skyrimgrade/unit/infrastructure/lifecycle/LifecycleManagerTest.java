@@ -0,0 +1,116 @@
+package com.skyrimgrade.unit.infrastructure.lifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.infrastructure.admission.AdmissionRejectedException;
+import com.skyrimgrade.infrastructure.lifecycle.LifecycleManager;
+import com.skyrimgrade.infrastructure.lifecycle.LifecycleManager.Phase;
+
+/**
+ * Unit тесты для LifecycleManager.
+ */
+class LifecycleManagerTest {
+
+    @Test
+    @DisplayName("Фазы выполняются по порядку, пул закрывается после drain и flush")
+    void shouldRunPhasesInOrder() throws Exception {
+        // given
+        LifecycleManager lifecycle = new LifecycleManager();
+        List<String> calls = new CopyOnWriteArrayList<>();
+        lifecycle.register(Phase.CLOSE, "pool", () -> calls.add("pool"));
+        lifecycle.register(Phase.FLUSH, "outbox", () -> calls.add("outbox"));
+        lifecycle.register(Phase.STOP_ACCEPTING, "jobs", () -> calls.add("jobs"));
+        lifecycle.markReady();
+
+        LifecycleManager.Request request = lifecycle.enter();
+        CountDownLatch stopped = new CountDownLatch(1);
+        lifecycle.register(Phase.STOP_ACCEPTING, "latch", stopped::countDown);
+        Thread finisher = Thread.ofVirtual().start(() -> {
+            try {
+                stopped.await(5, TimeUnit.SECONDS);
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            calls.add("request-done");
+            request.close();
+        });
+
+        // when
+        LifecycleManager.ShutdownReport report = lifecycle.shutdown(Duration.ZERO, Duration.ofSeconds(5));
+        finisher.join();
+
+        // then
+        assertThat(calls).containsExactly("jobs", "request-done", "outbox", "pool");
+        assertThat(report.abandonedRequests()).isZero();
+        assertThat(report.failedSteps()).isEmpty();
+        assertThat(report.phases()).extracting(LifecycleManager.PhaseTiming::phase)
+                .containsExactly("readiness", "stop-accepting", "drain", "flush", "close");
+        assertThat(lifecycle.isReady()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Во время остановки новые запросы отклоняются 503")
+    void shouldRejectRequestsWhileDraining() {
+        // given
+        LifecycleManager lifecycle = new LifecycleManager();
+        lifecycle.markReady();
+
+        // when
+        lifecycle.shutdown(Duration.ZERO, Duration.ZERO);
+
+        // then
+        assertThatThrownBy(lifecycle::enter)
+                .isInstanceOfSatisfying(AdmissionRejectedException.class, e ->
+                        assertThat(e.getStatusCode()).isEqualTo(AdmissionRejectedException.SERVICE_UNAVAILABLE));
+        lifecycle.markReady();
+        assertThat(lifecycle.isReady()).isFalse();
+    }
+
+    @Test
+    @DisplayName("По истечении drainTimeout остановка продолжается и сообщает о зависших запросах")
+    void shouldGiveUpAfterDrainTimeout() {
+        // given
+        LifecycleManager lifecycle = new LifecycleManager();
+        List<String> calls = new CopyOnWriteArrayList<>();
+        lifecycle.register(Phase.CLOSE, "pool", () -> calls.add("pool"));
+        lifecycle.enter();
+
+        // when
+        LifecycleManager.ShutdownReport report = lifecycle.shutdown(Duration.ZERO, Duration.ofMillis(50));
+
+        // then
+        assertThat(report.abandonedRequests()).isEqualTo(1);
+        assertThat(calls).containsExactly("pool");
+    }
+
+    @Test
+    @DisplayName("Ошибка шага не прерывает остановку, повторный вызов возвращает тот же отчет")
+    void shouldContinueAfterFailedStep() {
+        // given
+        LifecycleManager lifecycle = new LifecycleManager();
+        List<String> calls = new CopyOnWriteArrayList<>();
+        lifecycle.register(Phase.FLUSH, "broken", () -> {
+            throw new IllegalStateException("boom");
+        });
+        lifecycle.register(Phase.CLOSE, "pool", () -> calls.add("pool"));
+
+        // when
+        LifecycleManager.ShutdownReport first = lifecycle.shutdown(Duration.ZERO, Duration.ZERO);
+        LifecycleManager.ShutdownReport second = lifecycle.shutdown(Duration.ZERO, Duration.ZERO);
+
+        // then
+        assertThat(first.failedSteps()).containsExactly("broken");
+        assertThat(calls).containsExactly("pool");
+        assertThat(second).isSameAs(first);
+    }
+}
@@ -0,0 +1,85 @@
+package com.skyrimgrade.unit.infrastructure.lifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.infrastructure.lifecycle.LifecycleManager;
+import com.skyrimgrade.infrastructure.lifecycle.WarmUp;
+
+/**
+ * Unit тесты для WarmUp.
+ */
+class WarmUpTest {
+
+    @Test
+    @DisplayName("Каждый шаг выполняется iterations раз, отчет содержит время шагов")
+    void shouldRunEachStepIterationsTimes() {
+        // given
+        AtomicInteger json = new AtomicInteger();
+        AtomicInteger reads = new AtomicInteger();
+        WarmUp warmUp = new WarmUp()
+                .register("json", json::incrementAndGet)
+                .register("reads", reads::incrementAndGet);
+
+        // when
+        WarmUp.Report report = warmUp.run(100, Duration.ofSeconds(10));
+
+        // then
+        assertThat(json.get()).isEqualTo(100);
+        assertThat(reads.get()).isEqualTo(100);
+        assertThat(report.steps()).extracting(LifecycleManager.PhaseTiming::phase).containsExactly("json", "reads");
+        assertThat(report.failedSteps()).isEmpty();
+        assertThat(report.timedOut()).isFalse();
+        assertThat(warmUp.getLastReport()).isSameAs(report);
+    }
+
+    @Test
+    @DisplayName("Ошибка шага не прерывает прогрев")
+    void shouldContinueAfterFailedStep() {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        WarmUp warmUp = new WarmUp()
+                .register("broken", () -> {
+                    throw new IllegalStateException("no data");
+                })
+                .register("points", calls::incrementAndGet);
+
+        // when
+        WarmUp.Report report = warmUp.run(10, Duration.ofSeconds(10));
+
+        // then
+        assertThat(report.failedSteps()).containsExactly("broken");
+        assertThat(calls.get()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("По истечении timeout итерации прекращаются, но каждый шаг вызывается хотя бы раз")
+    void shouldStopIteratingAfterTimeout() {
+        // given - каждый вызов шага сдвигает часы на 1 секунду
+        AtomicLong clock = new AtomicLong();
+        AtomicInteger slow = new AtomicInteger();
+        AtomicInteger next = new AtomicInteger();
+        WarmUp warmUp = new WarmUp(clock::get)
+                .register("slow", () -> {
+                    slow.incrementAndGet();
+                    clock.addAndGet(Duration.ofSeconds(1).toNanos());
+                })
+                .register("next", next::incrementAndGet);
+
+        // when
+        WarmUp.Report report = warmUp.run(1000, Duration.ofSeconds(3));
+
+        // then
+        assertThat(slow.get()).isEqualTo(3);
+        assertThat(next.get()).isEqualTo(1);
+        assertThat(report.timedOut()).isTrue();
+        assertThat(report.durationMillis()).isEqualTo(3000);
+        assertThat(report.steps()).extracting(LifecycleManager.PhaseTiming::phase).isEqualTo(List.of("slow", "next"));
+    }
+}
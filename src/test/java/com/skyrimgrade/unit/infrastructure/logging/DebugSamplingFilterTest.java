@@ -0,0 +1,77 @@
+package com.skyrimgrade.unit.infrastructure.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+import com.skyrimgrade.infrastructure.logging.DebugSamplingFilter;
+
+/**
+ * Unit тесты для DebugSamplingFilter на отдельном LoggerContext.
+ */
+class DebugSamplingFilterTest {
+
+    private LoggerContext context;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        DebugSamplingFilter filter = new DebugSamplingFilter();
+        filter.setContext(context);
+        filter.addSample("com.example.noisy=10");
+        filter.start();
+        context.addTurboFilter(filter);
+
+        appender = new ListAppender<>();
+        appender.setContext(context);
+        appender.start();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.DEBUG);
+        root.addAppender(appender);
+    }
+
+    @Test
+    @DisplayName("DEBUG шумного логгера и его потомков пропускается 1 раз из N")
+    void shouldSampleDebugOfConfiguredLoggers() {
+        Logger noisy = context.getLogger("com.example.noisy.Search");
+        for (int i = 0; i < 100; i++) {
+            noisy.debug("hit {}", i);
+        }
+
+        assertThat(appender.list).hasSize(10);
+    }
+
+    @Test
+    @DisplayName("INFO и логгеры без правила не сэмплируются")
+    void shouldKeepInfoAndOtherLoggers() {
+        Logger noisy = context.getLogger("com.example.noisy");
+        Logger quiet = context.getLogger("com.example.quiet");
+        for (int i = 0; i < 20; i++) {
+            noisy.info("info {}", i);
+            quiet.debug("debug {}", i);
+        }
+
+        assertThat(appender.list).hasSize(40);
+    }
+
+    @Test
+    @DisplayName("Выключенный DEBUG не сдвигает счетчик")
+    void shouldIgnoreDisabledLevels() {
+        Logger noisy = context.getLogger("com.example.noisy");
+        noisy.setLevel(Level.INFO);
+        noisy.debug("dropped by level");
+        noisy.setLevel(Level.DEBUG);
+
+        noisy.debug("first sampled");
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly("first sampled");
+    }
+}
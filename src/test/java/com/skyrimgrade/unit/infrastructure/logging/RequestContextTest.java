@@ -0,0 +1,61 @@
+package com.skyrimgrade.unit.infrastructure.logging;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import com.skyrimgrade.infrastructure.logging.RequestContext;
+
+/**
+ * Unit тесты для RequestContext.
+ */
+class RequestContextTest {
+
+    @Test
+    @DisplayName("request_id доступен через ScopedValue и MDC только внутри запроса")
+    void shouldBindRequestIdForScope() {
+        RequestContext.run("req-1", () -> {
+            assertThat(RequestContext.currentRequestId()).contains("req-1");
+            assertThat(MDC.get(RequestContext.MDC_KEY)).isEqualTo("req-1");
+        });
+
+        assertThat(RequestContext.currentRequestId()).isEmpty();
+        assertThat(MDC.get(RequestContext.MDC_KEY)).isNull();
+    }
+
+    @Test
+    @DisplayName("Вложенный запрос восстанавливает внешний request_id в MDC")
+    void shouldRestoreOuterRequestId() {
+        RequestContext.run("outer", () -> {
+            RequestContext.run("inner", () -> assertThat(MDC.get(RequestContext.MDC_KEY)).isEqualTo("inner"));
+            assertThat(MDC.get(RequestContext.MDC_KEY)).isEqualTo("outer");
+            assertThat(RequestContext.currentRequestId()).contains("outer");
+        });
+    }
+
+    @Test
+    @DisplayName("wrap переносит request_id в дочерний виртуальный поток")
+    void shouldPropagateIntoVirtualThreads() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> mdcInChild = RequestContext.call("req-2", () ->
+                    executor.submit(RequestContext.wrap(() -> MDC.get(RequestContext.MDC_KEY))));
+            Future<String> unwrapped = RequestContext.call("req-3", () ->
+                    executor.submit(() -> RequestContext.currentRequestId().orElse("none")));
+
+            assertThat(mdcInChild.get()).isEqualTo("req-2");
+            assertThat(unwrapped.get()).isEqualTo("none");
+        }
+    }
+
+    @Test
+    @DisplayName("Идентификатор помещается в error_log.request_id")
+    void shouldGenerateShortIds() {
+        assertThat(RequestContext.newRequestId()).hasSizeLessThanOrEqualTo(50)
+                .isNotEqualTo(RequestContext.newRequestId());
+    }
+}
@@ -3,8 +3,16 @@ package com.skyrimgrade.unit.infrastructure.persistence;
 import java.lang.reflect.Field;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,6 +25,9 @@ import static org.mockito.Mockito.when;
 
 import com.skyrimgrade.infrastructure.config.AppConfig;
 import com.skyrimgrade.infrastructure.persistence.DatabaseConnectionManager;
+import com.skyrimgrade.infrastructure.persistence.DatabaseHealthProbe;
+import com.skyrimgrade.infrastructure.resilience.CircuitBreaker;
+import com.skyrimgrade.infrastructure.resilience.RequestDeadline;
 
 /**
  * Unit тесты для DatabaseConnectionManager.
@@ -42,6 +53,10 @@ class DatabaseConnectionManagerTest {
         when(mockConfig.getDatabasePoolSize()).thenReturn(5);
         when(mockConfig.getDatabaseConnectionTimeout()).thenReturn(3000);
         when(mockConfig.isDevelopment()).thenReturn(true);
+        when(mockConfig.getDatabaseHealthIntervalMillis()).thenReturn(100);
+        when(mockConfig.getDatabaseHealthTimeoutSeconds()).thenReturn(1);
+        when(mockConfig.getDatabaseBreakerFailureThreshold()).thenReturn(2);
+        when(mockConfig.getDatabaseBreakerOpenMillis()).thenReturn(60_000);
     }
 
     @Test
@@ -193,6 +208,165 @@ class DatabaseConnectionManagerTest {
         assertThat(manager.isClosed()).isTrue();
     }
 
+    @Test
+    @Order(10)
+    @DisplayName("Фоновая проверка публикует кэшированное состояние БД")
+    void shouldPublishCachedHealthState() {
+        // given
+        DatabaseConnectionManager manager = DatabaseConnectionManager.getInstance(mockConfig);
+
+        // when
+        manager.startHealthProbe();
+        DatabaseHealthProbe.HealthState state = manager.getHealthState();
+
+        // then
+        assertThat(state.healthy()).isTrue();
+        assertThat(state.latencyMillis()).isGreaterThanOrEqualTo(0);
+        assertThat(state.checkedAt()).isNotNull();
+        assertThat(manager.isHealthy()).isTrue();
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Circuit breaker открывается после ошибок и отказывает без ожидания пула")
+    void shouldFailFastWhenCircuitBreakerIsOpen() {
+        // given - пул закрыт, каждое получение соединения через DataSource приложения падает
+        DatabaseConnectionManager manager = DatabaseConnectionManager.getInstance(mockConfig);
+        DataSource dataSource = manager.getDataSource();
+        manager.shutdown();
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLException.class);
+        }
+
+        // when & then
+        assertThat(manager.getCircuitBreakerState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLException.class)
+                .hasMessageContaining("circuit breaker is open");
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("prefill открывает соединения заранее, но не больше размера пула")
+    void shouldPrefillPoolUpToPoolSize() {
+        // given
+        when(mockConfig.getWarmupPoolPrefill()).thenReturn(50);
+        DatabaseConnectionManager manager = DatabaseConnectionManager.getInstance(mockConfig);
+
+        // when
+        int total = manager.prefill(50, Duration.ofSeconds(5));
+
+        // then - все соединения вернулись в пул и простаивают
+        assertThat(total).isEqualTo(5);
+        DatabaseConnectionManager.PoolStats stats = manager.getPoolStats();
+        assertThat(stats.active()).isZero();
+        assertThat(stats.idle()).isEqualTo(5);
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("Под сроком запроса ожидание пула ограничено остатком срока, а не connectionTimeout")
+    void shouldBoundPoolWaitByRequestDeadline() throws SQLException {
+        // given - весь пул занят
+        DatabaseConnectionManager manager = DatabaseConnectionManager.getInstance(mockConfig);
+        List<Connection> held = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            held.add(manager.getConnection());
+        }
+
+        // when
+        long start = System.nanoTime();
+        try {
+            assertThatThrownBy(() -> RequestDeadline.call("GET /api/tasks", Duration.ofMillis(300),
+                    manager::getConnection))
+                    .isInstanceOf(SQLTransientConnectionException.class);
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+
+        // then - connectionTimeout в тесте 3000 мс
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(2000));
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Исчерпание пула и истекший срок запроса не открывают circuit breaker")
+    void shouldNotOpenCircuitBreakerOnPoolExhaustion() throws Exception {
+        // given - весь пул занят
+        DatabaseConnectionManager manager = DatabaseConnectionManager.getInstance(mockConfig);
+        DataSource dataSource = manager.getDataSource();
+        List<Connection> held = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            held.add(dataSource.getConnection());
+        }
+
+        // when - порог breaker в тесте 2
+        try {
+            for (int i = 0; i < 3; i++) {
+                assertThatThrownBy(() -> RequestDeadline.call("GET /api/tasks", Duration.ofMillis(100),
+                        dataSource::getConnection))
+                        .isInstanceOf(SQLTransientConnectionException.class);
+            }
+            assertThatThrownBy(() -> RequestDeadline.call("GET /api/tasks", Duration.ZERO,
+                    dataSource::getConnection))
+                    .isInstanceOf(SQLTimeoutException.class);
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+
+        // then
+        assertThat(manager.getCircuitBreakerState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.isValid(1)).isTrue();
+        }
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("prefill не занимает соединения и не падает, если весь пул уже занят")
+    void shouldNotFailPrefillWhenPoolIsHeld() throws SQLException {
+        // given - prefill равен размеру пула, все соединения держат другие (LISTEN, фоновые job'ы)
+        when(mockConfig.getWarmupPoolPrefill()).thenReturn(5);
+        DatabaseConnectionManager manager = DatabaseConnectionManager.getInstance(mockConfig);
+        List<Connection> held = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            held.add(manager.getDataSource().getConnection());
+        }
+
+        // when
+        int total;
+        try {
+            total = manager.prefill(5, Duration.ofMillis(500));
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+
+        // then
+        assertThat(total).isEqualTo(5);
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("prefill ждет не дольше timeout и возвращает, сколько соединений успело открыться")
+    void shouldStopPrefillAtTimeout() {
+        // given - minimumIdle в тесте 2, больше Hikari заранее не откроет
+        DatabaseConnectionManager manager = DatabaseConnectionManager.getInstance(mockConfig);
+
+        // when
+        long start = System.nanoTime();
+        int total = manager.prefill(5, Duration.ofMillis(200));
+
+        // then
+        assertThat(total).isLessThan(5);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(2000));
+    }
+
     @AfterEach
     void tearDown() {
         // Закрываем пул после каждого теста
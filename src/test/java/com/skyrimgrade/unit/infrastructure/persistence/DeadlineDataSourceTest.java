@@ -0,0 +1,145 @@
+package com.skyrimgrade.unit.infrastructure.persistence;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.infrastructure.persistence.DeadlineDataSource;
+import com.skyrimgrade.infrastructure.resilience.RequestDeadline;
+import com.skyrimgrade.support.H2TestDatabase;
+
+/**
+ * Тесты ограничения работы с БД сроком запроса на H2.
+ */
+class DeadlineDataSourceTest {
+
+    // не завершается за время теста, H2 проверяет отмену каждые 256 строк
+    private static final String ENDLESS_SQL = "SELECT SUM(X) FROM SYSTEM_RANGE(1, 100000000000)";
+
+    private DataSource h2;
+    private DeadlineDataSource dataSource;
+    private AtomicInteger timedAcquisitions;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        h2 = H2TestDatabase.create();
+        timedAcquisitions = new AtomicInteger();
+        dataSource = new DeadlineDataSource(h2, timeoutMillis -> {
+            timedAcquisitions.incrementAndGet();
+            return h2.getConnection();
+        });
+    }
+
+    @Test
+    @DisplayName("Без срока отдается исходное соединение")
+    void shouldPassThroughWithoutDeadline() throws SQLException {
+        // when
+        try (Connection connection = dataSource.getConnection()) {
+            // then
+            assertThat(Proxy.isProxyClass(connection.getClass())).isFalse();
+            assertThat(timedAcquisitions).hasValue(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Остаток срока ставится как query timeout, истекший срок не берет соединение")
+    void shouldApplyRemainingBudgetAsQueryTimeout() throws Exception {
+        // when
+        int queryTimeout = RequestDeadline.call("GET /api/tasks", Duration.ofMillis(2500), () -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM users")) {
+                statement.executeQuery().close();
+                return statement.getQueryTimeout();
+            }
+        });
+
+        // then - JDBC дает только секунды, остаток округляется вверх
+        assertThat(queryTimeout).isBetween(1, 3);
+        assertThat(timedAcquisitions).hasValue(1);
+        assertThatThrownBy(() -> RequestDeadline.call("GET /api/tasks", Duration.ZERO, dataSource::getConnection))
+                .isInstanceOf(SQLTimeoutException.class);
+        assertThat(timedAcquisitions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Запрос, не уложившийся в срок, отменяется и завершается SQLTimeoutException")
+    void shouldCancelQueryAtDeadline() {
+        // when
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> RequestDeadline.call("GET /api/analytics/activity", Duration.ofMillis(500),
+                () -> runQuery(ENDLESS_SQL)))
+                .isInstanceOf(SQLTimeoutException.class)
+                .hasMessageContaining("exceeded its deadline");
+
+        // then - не дольше секунды timeout H2 с запасом
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("cancel() прерывает выполняющийся запрос и не дает начать новый")
+    void shouldCancelRunningQueryWhenClientDisconnects() throws Exception {
+        // given
+        long start = System.nanoTime();
+
+        // when - клиент "отключается" через 200 мс
+        Throwable failure = RequestDeadline.call("GET /api/dashboard", Duration.ofMinutes(1), () -> {
+            RequestDeadline deadline = RequestDeadline.current().orElseThrow();
+            Thread.ofVirtual().start(() -> {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                deadline.cancel();
+            });
+            try {
+                runQuery(ENDLESS_SQL);
+                return null;
+            } catch (SQLException e) {
+                return e;
+            }
+        });
+
+        // then
+        assertThat(failure).isInstanceOf(SQLTimeoutException.class).hasMessageContaining("was cancelled");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("Вложенный срок не продлевает внешний")
+    void shouldNotExtendOuterDeadline() throws Exception {
+        // when
+        Duration inner = RequestDeadline.call("outer", Duration.ofMillis(300),
+                () -> RequestDeadline.call("inner", Duration.ofMinutes(1),
+                        () -> RequestDeadline.current().orElseThrow().remaining()));
+        Duration capped = RequestDeadline.call("outer", Duration.ofMillis(300),
+                () -> RequestDeadline.cap(Duration.ofSeconds(2)));
+
+        // then
+        assertThat(inner).isLessThanOrEqualTo(Duration.ofMillis(300));
+        assertThat(capped).isLessThanOrEqualTo(Duration.ofMillis(300));
+        assertThat(RequestDeadline.cap(Duration.ofSeconds(2))).isEqualTo(Duration.ofSeconds(2));
+    }
+
+    private long runQuery(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
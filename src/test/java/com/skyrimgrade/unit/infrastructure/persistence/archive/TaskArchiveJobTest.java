@@ -0,0 +1,127 @@
+package com.skyrimgrade.unit.infrastructure.persistence.archive;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.infrastructure.persistence.archive.TaskArchiveJob;
+import com.skyrimgrade.support.H2TestDatabase;
+
+/**
+ * Unit тесты для TaskArchiveJob на H2.
+ */
+class TaskArchiveJobTest {
+
+    private DataSource dataSource;
+    private List<DomainEvent> published;
+    private int userId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = H2TestDatabase.create();
+        published = new ArrayList<>();
+        userId = H2TestDatabase.createUser(dataSource, "dovahkiin");
+    }
+
+    @Test
+    @DisplayName("Переносит в архив только давно завершенные задачи")
+    void shouldArchiveOnlyOldFinishedTasks() throws SQLException {
+        // given
+        int oldCompleted = insertTask("COMPLETED", 200);
+        int oldCancelled = insertTask("CANCELLED", 200);
+        int recentCompleted = insertTask("COMPLETED", 1);
+        int oldActive = insertTask("ACTIVE", 200);
+        TaskArchiveJob job = new TaskArchiveJob(dataSource, published::add, 100, 90);
+
+        // when
+        int moved = job.archiveBatch();
+
+        // then
+        assertThat(moved).isEqualTo(2);
+        assertThat(ids("SELECT id FROM tasks_archive ORDER BY id")).containsExactly(oldCompleted, oldCancelled);
+        assertThat(ids("SELECT id FROM tasks ORDER BY id")).containsExactly(recentCompleted, oldActive);
+        assertThat(published).singleElement().isInstanceOfSatisfying(DomainEvent.TasksArchived.class, event -> {
+            assertThat(event.userId()).isEqualTo(userId);
+            assertThat(event.count()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    @DisplayName("Ссылки из plan_items и истории баллов сохраняются")
+    void shouldKeepReferencesToArchivedTask() throws SQLException {
+        // given
+        int taskId = insertTask("COMPLETED", 200);
+        H2TestDatabase.execute(dataSource, "INSERT INTO daily_plans (id, user_id, plan_date) VALUES (1, "
+                + userId + ", DATE '2026-01-04')");
+        H2TestDatabase.execute(dataSource, "INSERT INTO plan_items (plan_id, task_id, title, time_from, time_to) "
+                + "VALUES (1, " + taskId + ", 'dragon', TIME '10:00:00', TIME '11:00:00')");
+        H2TestDatabase.execute(dataSource, "INSERT INTO user_points_history (user_id, points_earned, reason, task_id) "
+                + "VALUES (" + userId + ", 200, 'Task completed', " + taskId + ")");
+
+        // when
+        new TaskArchiveJob(dataSource, published::add, 100, 90).archiveBatch();
+
+        // then
+        assertThat(ids("SELECT task_id FROM plan_items")).containsExactly(taskId);
+        assertThat(ids("SELECT task_id FROM user_points_history")).containsExactly(taskId);
+        assertThat(ids("SELECT points FROM tasks_archive")).containsExactly(200);
+    }
+
+    @Test
+    @DisplayName("Переносит пачками не больше batchSize")
+    void shouldRespectBatchSize() throws SQLException {
+        // given
+        for (int i = 0; i < 5; i++) {
+            insertTask("COMPLETED", 200);
+        }
+        TaskArchiveJob job = new TaskArchiveJob(dataSource, published::add, 2, 90);
+
+        // when
+        int first = job.archiveBatch();
+        int second = job.archiveBatch();
+        int third = job.archiveBatch();
+        int fourth = job.archiveBatch();
+
+        // then
+        assertThat(List.of(first, second, third, fourth)).containsExactly(2, 2, 1, 0);
+        assertThat(ids("SELECT COUNT(*) FROM tasks")).containsExactly(0);
+    }
+
+    private int insertTask(String status, int daysAgo) throws SQLException {
+        String finishedAt = "DATEADD('DAY', -" + daysAgo + ", CURRENT_TIMESTAMP)";
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO tasks (user_id, title, difficulty, points, status, completed_at, "
+                    + "updated_at) VALUES (" + userId + ", 'task', 'LEGENDARY', 200, '" + status + "', "
+                    + ("COMPLETED".equals(status) ? finishedAt : "NULL") + ", " + finishedAt + ")",
+                    new String[] {"id"});
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    private List<Integer> ids(String sql) throws SQLException {
+        List<Integer> result = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                result.add(rs.getInt(1));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,135 @@
+package com.skyrimgrade.unit.infrastructure.persistence.instrument;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+import com.skyrimgrade.infrastructure.logging.RequestContext;
+import com.skyrimgrade.infrastructure.persistence.instrument.InstrumentedDataSource;
+import com.skyrimgrade.infrastructure.persistence.instrument.QueryStatistics;
+import com.skyrimgrade.infrastructure.persistence.instrument.SqlInstrumentation;
+import com.skyrimgrade.infrastructure.persistence.instrument.SqlShape;
+import com.skyrimgrade.support.H2TestDatabase;
+
+/**
+ * Тесты инструментирования JDBC на H2.
+ */
+class InstrumentedDataSourceTest {
+
+    private QueryStatistics statistics;
+    private InstrumentedDataSource dataSource;
+    private ListAppender<ILoggingEvent> warnings;
+    private Logger instrumentationLogger;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource h2 = H2TestDatabase.create();
+        H2TestDatabase.createUser(h2, "dovahkiin");
+        statistics = new QueryStatistics(100);
+        dataSource = new InstrumentedDataSource(h2, new SqlInstrumentation(statistics, 10_000, 3));
+
+        instrumentationLogger = (Logger) LoggerFactory.getLogger(SqlInstrumentation.class);
+        warnings = new ListAppender<>();
+        warnings.start();
+        instrumentationLogger.addAppender(warnings);
+    }
+
+    @AfterEach
+    void tearDown() {
+        instrumentationLogger.detachAppender(warnings);
+    }
+
+    @Test
+    @DisplayName("Форма SQL не зависит от литералов, пробелов и длины IN списка")
+    void shouldNormalizeSqlShape() {
+        assertThat(SqlShape.normalize("SELECT *  FROM tasks\n WHERE id = 42 AND title = 'it''s'"))
+                .isEqualTo("SELECT * FROM tasks WHERE id = ? AND title = ?");
+        assertThat(SqlShape.normalize("SELECT * FROM t1 WHERE id IN (?, ?, ?)"))
+                .isEqualTo(SqlShape.normalize("SELECT * FROM t1 WHERE id IN (?,?)"))
+                .isEqualTo("SELECT * FROM t1 WHERE id IN (?...)");
+    }
+
+    @Test
+    @DisplayName("Выполнения агрегируются по форме SQL")
+    void shouldAggregateByShape() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            for (int i = 0; i < 3; i++) {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT id FROM users WHERE id = ?")) {
+                    statement.setInt(1, i);
+                    statement.executeQuery().close();
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.executeQuery("SELECT COUNT(*) FROM users WHERE username = 'a'").close();
+                statement.executeQuery("SELECT COUNT(*) FROM users WHERE username = 'b'").close();
+            }
+        }
+
+        List<QueryStatistics.ShapeStats> snapshot = statistics.snapshot();
+        assertThat(snapshot).extracting(QueryStatistics.ShapeStats::shape).containsExactlyInAnyOrder(
+                "SELECT id FROM users WHERE id = ?",
+                "SELECT COUNT(*) FROM users WHERE username = ?");
+        assertThat(snapshot).allSatisfy(stats -> {
+            assertThat(stats.count()).isBetween(2L, 3L);
+            assertThat(stats.p99Millis()).isGreaterThanOrEqualTo(0);
+        });
+    }
+
+    @Test
+    @DisplayName("Повтор одной формы в рамках запроса сверх порога помечается как N+1 один раз")
+    void shouldDetectNPlusOne() {
+        RequestContext.run("req-n1", () -> {
+            try (Connection connection = dataSource.getConnection()) {
+                for (int i = 0; i < 10; i++) {
+                    try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM tasks WHERE user_id = ?")) {
+                        statement.setInt(1, i);
+                        try (ResultSet rs = statement.executeQuery()) {
+                            rs.next();
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(warnings.list).singleElement()
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .asString()
+                .contains("N+1", "req-n1", "SELECT * FROM tasks WHERE user_id = ?");
+    }
+
+    @Test
+    @DisplayName("Без контекста запроса N+1 не отслеживается, ошибки SQL пробрасываются как есть")
+    void shouldPassThroughOutsideRequests() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (int i = 0; i < 10; i++) {
+                statement.execute("SELECT 1");
+            }
+            assertThatThrownBy(() -> statement.execute("SELECT * FROM missing_table"))
+                    .isInstanceOf(SQLException.class);
+            assertThat(statement.getConnection()).isSameAs(connection);
+        }
+
+        assertThat(warnings.list).isEmpty();
+        assertThat(statistics.snapshot()).hasSize(2);
+    }
+}
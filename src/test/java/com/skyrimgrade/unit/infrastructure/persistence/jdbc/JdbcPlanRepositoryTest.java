@@ -0,0 +1,137 @@
+package com.skyrimgrade.unit.infrastructure.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.domain.plan.PlanItem;
+import com.skyrimgrade.domain.plan.PlanUpdateResult;
+import com.skyrimgrade.infrastructure.persistence.jdbc.JdbcPlanRepository;
+import com.skyrimgrade.support.H2TestDatabase;
+
+/**
+ * Unit тесты для JdbcPlanRepository на H2.
+ */
+class JdbcPlanRepositoryTest {
+
+    private static final LocalDateTime VERSION = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    private DataSource dataSource;
+    private JdbcPlanRepository repository;
+    private int userId;
+    private int planId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = H2TestDatabase.create();
+        repository = new JdbcPlanRepository(dataSource);
+        userId = H2TestDatabase.createUser(dataSource, "dovahkiin");
+        H2TestDatabase.execute(dataSource, "INSERT INTO daily_plans (user_id, plan_date, updated_at) VALUES ("
+                + userId + ", DATE '2026-01-05', TIMESTAMP '2026-01-01 10:00:00')");
+        planId = (int) count("SELECT MAX(id) FROM daily_plans");
+        for (int hour = 8; hour < 11; hour++) {
+            H2TestDatabase.execute(dataSource, String.format(
+                    "INSERT INTO plan_items (plan_id, title, time_from, time_to) VALUES (%d, 'Slot %d', TIME '%02d:00:00', TIME '%02d:30:00')",
+                    planId, hour, hour, hour));
+        }
+    }
+
+    @Test
+    @DisplayName("Записывается только разница: перенос одного слота не трогает остальные строки")
+    void shouldWriteOnlyChangedItems() throws SQLException {
+        // given - переносим второй слот, удаляем третий, добавляем новый
+        List<PlanItem> items = new ArrayList<>(repository.findItems(userId, planId));
+        PlanItem moved = items.get(1);
+        items.set(1, new PlanItem(moved.id(), null, moved.title(), null,
+                LocalTime.of(14, 0), LocalTime.of(15, 0), false));
+        int removedId = items.remove(2).id();
+        items.add(new PlanItem(null, null, "Read a book", null, LocalTime.of(20, 0), LocalTime.of(21, 0), false));
+        int untouchedId = items.get(0).id();
+
+        // when
+        PlanUpdateResult result = repository.updateItems(userId, planId, VERSION, items);
+
+        // then
+        assertThat(result.status()).isEqualTo(PlanUpdateResult.Status.UPDATED);
+        assertThat(result.planDate()).isEqualTo(LocalDate.of(2026, 1, 5));
+        assertThat(result.updatedAt()).isAfter(VERSION);
+        assertThat(result.inserted()).isEqualTo(1);
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(result.deleted()).isEqualTo(1);
+        assertThat(repository.findItems(userId, planId))
+                .extracting(PlanItem::title)
+                .containsExactly("Slot 8", "Slot 9", "Read a book");
+        assertThat(count("SELECT COUNT(*) FROM plan_items WHERE id = " + removedId)).isZero();
+        assertThat(count("SELECT COUNT(*) FROM plan_items WHERE id = " + untouchedId)).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM audit_log WHERE action = 'PLAN_UPDATED'")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Устаревший updated_at дает CONFLICT и ничего не меняет")
+    void shouldRejectStaleVersion() throws SQLException {
+        // given
+        List<PlanItem> items = repository.findItems(userId, planId);
+        PlanUpdateResult first = repository.updateItems(userId, planId, VERSION, items.subList(0, 2));
+
+        // when - второй клиент видел план до первого изменения
+        PlanUpdateResult second = repository.updateItems(userId, planId, VERSION, List.of());
+
+        // then
+        assertThat(second.status()).isEqualTo(PlanUpdateResult.Status.CONFLICT);
+        assertThat(second.updatedAt()).isEqualTo(first.updatedAt());
+        assertThat(repository.findItems(userId, planId)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Без изменений ничего не пишется и updated_at не сдвигается")
+    void shouldNotTouchPlanWhenNothingChanged() throws SQLException {
+        // when
+        PlanUpdateResult result = repository.updateItems(userId, planId, VERSION, repository.findItems(userId, planId));
+
+        // then
+        assertThat(result.status()).isEqualTo(PlanUpdateResult.Status.UNCHANGED);
+        assertThat(result.updatedAt()).isEqualTo(VERSION);
+        assertThat(repository.updateItems(userId, planId, VERSION, List.of()).status())
+                .isEqualTo(PlanUpdateResult.Status.UPDATED);
+    }
+
+    @Test
+    @DisplayName("Чужой план - NOT_FOUND, чужой слот - ошибка без частичной записи")
+    void shouldRejectForeignPlanAndItems() throws SQLException {
+        // given
+        int otherUser = H2TestDatabase.createUser(dataSource, "lydia");
+        List<PlanItem> items = new ArrayList<>(repository.findItems(userId, planId));
+        items.add(new PlanItem(9999, null, "Foreign", null, LocalTime.of(12, 0), LocalTime.of(13, 0), false));
+
+        // when & then
+        assertThat(repository.updateItems(otherUser, planId, VERSION, List.of()).status())
+                .isEqualTo(PlanUpdateResult.Status.NOT_FOUND);
+        assertThatThrownBy(() -> repository.updateItems(userId, planId, VERSION, items))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(repository.updateItems(userId, planId, VERSION, items.subList(0, 3)).status())
+                .isEqualTo(PlanUpdateResult.Status.UNCHANGED);
+    }
+
+    private long count(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
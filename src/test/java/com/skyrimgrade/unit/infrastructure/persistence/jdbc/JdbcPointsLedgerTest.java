@@ -0,0 +1,218 @@
+package com.skyrimgrade.unit.infrastructure.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.domain.points.IdempotencyKeyMismatchException;
+import com.skyrimgrade.domain.points.LedgerResult;
+import com.skyrimgrade.domain.task.Difficulty;
+import com.skyrimgrade.domain.task.Task;
+import com.skyrimgrade.domain.task.TaskStatus;
+import com.skyrimgrade.infrastructure.persistence.jdbc.JdbcPointsLedger;
+import com.skyrimgrade.infrastructure.persistence.jdbc.JdbcTaskBatchRepository;
+import com.skyrimgrade.support.H2TestDatabase;
+
+/**
+ * Unit тесты для JdbcPointsLedger на H2.
+ */
+class JdbcPointsLedgerTest {
+
+    private DataSource dataSource;
+    private JdbcPointsLedger ledger;
+    private int userId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = H2TestDatabase.create();
+        ledger = new JdbcPointsLedger(dataSource, Duration.ofHours(24));
+        userId = H2TestDatabase.createUser(dataSource, "dovahkiin");
+    }
+
+    @Test
+    @DisplayName("Выполнение задачи начисляет баллы и увеличивает версию задачи")
+    void shouldCompleteTaskAndAwardPoints() throws SQLException {
+        // given
+        int taskId = createTask("Slay a dragon", 200);
+
+        // when
+        LedgerResult result = ledger.completeTask(userId, taskId, null);
+
+        // then
+        assertThat(result.status()).isEqualTo(LedgerResult.Status.COMPLETED);
+        assertThat(result.points()).isEqualTo(200);
+        assertThat(result.balance()).isEqualTo(200);
+        assertThat(result.version()).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM tasks WHERE status = 'COMPLETED'")).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM user_points_history")).isEqualTo(1);
+        assertThat(count("SELECT points_earned FROM points_rollup WHERE granularity = 'D'")).isEqualTo(200);
+        assertThat(count("SELECT COUNT(*) FROM audit_log WHERE action = 'TASK_COMPLETED'")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Повторное выполнение без ключа не начисляет баллы второй раз")
+    void shouldNotAwardTwiceWithoutKey() throws SQLException {
+        // given
+        int taskId = createTask("Slay a dragon", 200);
+        ledger.completeTask(userId, taskId, null);
+
+        // when
+        LedgerResult second = ledger.completeTask(userId, taskId, null);
+
+        // then
+        assertThat(second.status()).isEqualTo(LedgerResult.Status.NOT_ACTIVE);
+        assertThat(count("SELECT total_points FROM users WHERE id = " + userId)).isEqualTo(200);
+        assertThat(count("SELECT COUNT(*) FROM user_points_history")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Повтор с тем же ключом получает сохраненный результат")
+    void shouldReplayResultForSameKey() throws SQLException {
+        // given
+        int taskId = createTask("Slay a dragon", 200);
+        LedgerResult first = ledger.completeTask(userId, taskId, "key-1");
+
+        // when
+        LedgerResult retry = ledger.completeTask(userId, taskId, "key-1");
+
+        // then
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.status()).isEqualTo(LedgerResult.Status.COMPLETED);
+        assertThat(retry.points()).isEqualTo(first.points());
+        assertThat(retry.balance()).isEqualTo(first.balance());
+        assertThat(count("SELECT total_points FROM users WHERE id = " + userId)).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Ключ нельзя использовать для другого запроса")
+    void shouldRejectKeyReusedForAnotherTask() throws SQLException {
+        // given
+        int first = createTask("Slay a dragon", 200);
+        int second = createTask("Buy potions", 5);
+        ledger.completeTask(userId, first, "key-1");
+
+        // when & then
+        assertThatThrownBy(() -> ledger.completeTask(userId, second, "key-1"))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(count("SELECT COUNT(*) FROM tasks WHERE status = 'ACTIVE'")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Списание не уводит остаток в минус")
+    void shouldNotOverspend() throws SQLException {
+        // given
+        ledger.completeTask(userId, createTask("Slay a dragon", 200), null);
+
+        // when
+        LedgerResult spent = ledger.spendPoints(userId, 150, "spend-1");
+        LedgerResult rejected = ledger.spendPoints(userId, 100, "spend-2");
+
+        // then
+        assertThat(spent.status()).isEqualTo(LedgerResult.Status.SPENT);
+        assertThat(spent.balance()).isEqualTo(50);
+        assertThat(rejected.status()).isEqualTo(LedgerResult.Status.INSUFFICIENT_POINTS);
+        assertThat(rejected.balance()).isEqualTo(50);
+        assertThat(count("SELECT points_spent FROM users WHERE id = " + userId)).isEqualTo(150);
+        assertThat(count("SELECT COUNT(*) FROM audit_log WHERE action = 'POINTS_SPENT'")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Неуспешное списание не занимает ключ")
+    void shouldReleaseKeyOnRejectedSpend() throws SQLException {
+        // given
+        LedgerResult rejected = ledger.spendPoints(userId, 100, "spend-1");
+        ledger.completeTask(userId, createTask("Slay a dragon", 200), null);
+
+        // when
+        LedgerResult retried = ledger.spendPoints(userId, 100, "spend-1");
+
+        // then
+        assertThat(rejected.status()).isEqualTo(LedgerResult.Status.INSUFFICIENT_POINTS);
+        assertThat(retried.status()).isEqualTo(LedgerResult.Status.SPENT);
+        assertThat(retried.replayed()).isFalse();
+        assertThat(retried.balance()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Выполнение задачи и импорт того же пользователя параллельно не дедлокаются")
+    void shouldNotDeadlockCompletionWithConcurrentImport() throws Exception {
+        // given - обе операции пишут сегодняшние бакеты rollup и строку пользователя
+        int rounds = 20;
+        List<Integer> taskIds = new ArrayList<>();
+        for (int i = 0; i < rounds; i++) {
+            taskIds.add(createTask("Slay dragon " + i, 200));
+        }
+        JdbcTaskBatchRepository imports = new JdbcTaskBatchRepository(dataSource);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // when
+        try {
+            Future<?> completions = executor.submit(() -> {
+                start.await();
+                for (int taskId : taskIds) {
+                    ledger.completeTask(userId, taskId, null);
+                }
+                return null;
+            });
+            Future<?> imported = executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < rounds; i++) {
+                    imports.insertBatch(userId, List.of(new Task(null, userId, "Imported " + i, null,
+                            Difficulty.NOVICE, Difficulty.NOVICE.points(), TaskStatus.COMPLETED, null,
+                            LocalDateTime.now(), null, null, null)));
+                }
+                return null;
+            });
+            start.countDown();
+            completions.get(30, TimeUnit.SECONDS);
+            imported.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // then
+        int expected = rounds * 200 + rounds * Difficulty.NOVICE.points();
+        assertThat(count("SELECT total_points FROM users WHERE id = " + userId)).isEqualTo(expected);
+        assertThat(count("SELECT points_earned FROM points_rollup WHERE granularity = 'D'")).isEqualTo(expected);
+    }
+
+    private int createTask(String title, int points) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO tasks (user_id, title, difficulty, points) VALUES ("
+                    + userId + ", '" + title + "', 'LEGENDARY', " + points + ")", new String[] {"id"});
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
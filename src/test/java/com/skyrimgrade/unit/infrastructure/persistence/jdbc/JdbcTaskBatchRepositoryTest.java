@@ -0,0 +1,130 @@
+package com.skyrimgrade.unit.infrastructure.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.domain.task.Difficulty;
+import com.skyrimgrade.domain.task.Task;
+import com.skyrimgrade.domain.task.TaskBatchRepository;
+import com.skyrimgrade.domain.task.TaskStatus;
+import com.skyrimgrade.infrastructure.persistence.jdbc.JdbcTaskBatchRepository;
+import com.skyrimgrade.support.H2TestDatabase;
+
+/**
+ * Unit тесты для JdbcTaskBatchRepository на H2.
+ */
+class JdbcTaskBatchRepositoryTest {
+
+    private DataSource dataSource;
+    private JdbcTaskBatchRepository repository;
+    private int userId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = H2TestDatabase.create();
+        repository = new JdbcTaskBatchRepository(dataSource);
+        userId = H2TestDatabase.createUser(dataSource, "dovahkiin");
+    }
+
+    @Test
+    @DisplayName("Должен вставить пачку задач, начислить баллы и записать аудит")
+    void shouldInsertBatchWithPointsAndAudit() throws SQLException {
+        // given
+        List<Task> tasks = List.of(
+                task("Slay a dragon", Difficulty.LEGENDARY, TaskStatus.COMPLETED),
+                task("Buy potions", Difficulty.NOVICE, TaskStatus.ACTIVE),
+                task("Learn a shout", Difficulty.EXPERT, TaskStatus.COMPLETED));
+
+        // when
+        TaskBatchRepository.BatchResult result = repository.insertBatch(userId, tasks);
+
+        // then
+        assertThat(result.taskIds()).hasSize(3).doesNotHaveDuplicates();
+        assertThat(result.pointsAwarded()).isEqualTo(250);
+        assertThat(count("SELECT COUNT(*) FROM tasks")).isEqualTo(3);
+        assertThat(count("SELECT COUNT(*) FROM user_points_history")).isEqualTo(2);
+        assertThat(count("SELECT total_points FROM users WHERE id = " + userId)).isEqualTo(250);
+        assertThat(count("SELECT COUNT(*) FROM audit_log WHERE action = 'TASK_CREATED'")).isEqualTo(3);
+        assertThat(count("SELECT points_earned FROM points_rollup WHERE granularity = 'D'")).isEqualTo(250);
+        assertThat(count("SELECT SUM(completions) FROM completion_rollup WHERE granularity = 'M'")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Выполнение из импорта учитывается днем completedAt, баллы - днем импорта")
+    void shouldBucketImportedCompletionByCompletedAt() throws SQLException {
+        // given
+        LocalDateTime completedAt = LocalDateTime.of(2024, 3, 15, 10, 30);
+        Task task = new Task(null, userId, "Old quest", null, Difficulty.EXPERT, Difficulty.EXPERT.points(),
+                TaskStatus.COMPLETED, null, completedAt, null, null, null);
+
+        // when
+        repository.insertBatch(userId, List.of(task));
+
+        // then
+        assertThat(count("SELECT completions FROM completion_rollup WHERE granularity = 'D'"
+                + " AND bucket_start = DATE '2024-03-15'")).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM points_rollup WHERE granularity = 'D'"
+                + " AND bucket_start = CURRENT_DATE")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Должен откатить пачку целиком при ошибке")
+    void shouldRollbackWholeBatchOnError() throws SQLException {
+        // given - проект 999 не существует, FK упадет на второй строке
+        Task broken = new Task(null, userId, "broken", null, Difficulty.NOVICE, 5, TaskStatus.COMPLETED,
+                null, LocalDateTime.now(), 999, null, null);
+        List<Task> tasks = List.of(task("ok", Difficulty.NOVICE, TaskStatus.COMPLETED), broken);
+
+        // when
+        boolean failed = false;
+        try {
+            repository.insertBatch(userId, tasks);
+        } catch (SQLException e) {
+            failed = true;
+        }
+
+        // then
+        assertThat(failed).isTrue();
+        assertThat(count("SELECT COUNT(*) FROM tasks")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM user_points_history")).isZero();
+        assertThat(count("SELECT total_points FROM users WHERE id = " + userId)).isZero();
+        assertThat(count("SELECT COUNT(*) FROM points_rollup")).isZero();
+    }
+
+    @Test
+    @DisplayName("Должен вернуть только проекты пользователя")
+    void shouldFindOnlyUserProjects() throws SQLException {
+        // given
+        int otherUser = H2TestDatabase.createUser(dataSource, "lydia");
+        H2TestDatabase.execute(dataSource, "INSERT INTO projects (user_id, name) VALUES (" + userId + ", 'Main quest')");
+        H2TestDatabase.execute(dataSource, "INSERT INTO projects (user_id, name) VALUES (" + otherUser + ", 'Carry burdens')");
+
+        // when & then
+        assertThat(repository.findProjectIds(userId)).hasSize(1);
+    }
+
+    private Task task(String title, Difficulty difficulty, TaskStatus status) {
+        return new Task(null, userId, title, null, difficulty, difficulty.points(), status, null,
+                status == TaskStatus.COMPLETED ? LocalDateTime.now() : null, null, null, null);
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
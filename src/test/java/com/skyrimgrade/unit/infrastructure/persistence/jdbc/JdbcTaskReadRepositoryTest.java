@@ -0,0 +1,96 @@
+package com.skyrimgrade.unit.infrastructure.persistence.jdbc;
+
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.domain.task.Task;
+import com.skyrimgrade.domain.task.TaskStatus;
+import com.skyrimgrade.infrastructure.persistence.jdbc.JdbcTaskReadRepository;
+import com.skyrimgrade.support.H2TestDatabase;
+
+/**
+ * Unit тесты для JdbcTaskReadRepository на H2.
+ */
+class JdbcTaskReadRepositoryTest {
+
+    private DataSource dataSource;
+    private JdbcTaskReadRepository repository;
+    private int userId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = H2TestDatabase.create();
+        repository = new JdbcTaskReadRepository(dataSource);
+        userId = H2TestDatabase.createUser(dataSource, "dovahkiin");
+
+        H2TestDatabase.execute(dataSource, "INSERT INTO tasks (id, user_id, title, difficulty, points, status, created_at) "
+                + "VALUES (1, " + userId + ", 'Buy potions', 'NOVICE', 5, 'ACTIVE', TIMESTAMP '2026-01-03 10:00:00')");
+        H2TestDatabase.execute(dataSource, "INSERT INTO tasks (id, user_id, title, difficulty, points, status, created_at) "
+                + "VALUES (2, " + userId + ", 'Learn a shout', 'EXPERT', 50, 'COMPLETED', TIMESTAMP '2026-01-02 10:00:00')");
+        H2TestDatabase.execute(dataSource, "INSERT INTO tasks_archive (id, user_id, title, difficulty, points, status, "
+                + "completed_at, created_at) VALUES (3, " + userId + ", 'Slay a dragon', 'LEGENDARY', 200, 'COMPLETED', "
+                + "TIMESTAMP '2025-06-01 10:00:00', TIMESTAMP '2025-05-01 10:00:00')");
+    }
+
+    @Test
+    @DisplayName("Без includeArchived архив не читается")
+    void shouldReadHotTableByDefault() throws SQLException {
+        // when
+        List<Task> tasks = repository.findByUser(userId, Set.of(), false, 100);
+
+        // then
+        assertThat(tasks).extracting(Task::id).containsExactly(1, 2);
+    }
+
+    @Test
+    @DisplayName("С includeArchived архив объединяется с горячей таблицей")
+    void shouldUnionArchiveWhenAsked() throws SQLException {
+        // when
+        List<Task> all = repository.findByUser(userId, Set.of(), true, 100);
+        List<Task> completed = repository.findByUser(userId, EnumSet.of(TaskStatus.COMPLETED), true, 100);
+        List<Task> limited = repository.findByUser(userId, Set.of(), true, 2);
+
+        // then
+        assertThat(all).extracting(Task::id).containsExactly(1, 2, 3);
+        assertThat(completed).extracting(Task::id).containsExactly(2, 3);
+        assertThat(limited).extracting(Task::id).containsExactly(1, 2);
+    }
+
+    @Test
+    @DisplayName("Открытые задачи читаются только из горячей таблицы")
+    void shouldFilterOpenTasks() throws SQLException {
+        // when
+        List<Task> open = repository.findByUser(userId, EnumSet.of(TaskStatus.ACTIVE, TaskStatus.OVERDUE), true, 100);
+
+        // then
+        assertThat(open).extracting(Task::id).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Задача из архива находится по id только с includeArchived")
+    void shouldFindArchivedTaskById() throws SQLException {
+        // when & then
+        assertThat(repository.findById(userId, 3, false)).isEmpty();
+        assertThat(repository.findById(userId, 3, true)).hasValueSatisfying(task -> {
+            assertThat(task.title()).isEqualTo("Slay a dragon");
+            assertThat(task.status()).isEqualTo(TaskStatus.COMPLETED);
+        });
+    }
+
+    @Test
+    @DisplayName("countOpen считает только ACTIVE и OVERDUE")
+    void shouldCountOpenTasks() throws SQLException {
+        // when & then
+        assertThat(repository.countOpen(userId)).containsExactly(Map.entry(TaskStatus.ACTIVE, 1));
+    }
+}
@@ -0,0 +1,79 @@
+package com.skyrimgrade.unit.infrastructure.persistence.overdue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.infrastructure.persistence.overdue.TaskOverdueJob;
+import com.skyrimgrade.support.H2TestDatabase;
+
+/**
+ * Unit тесты для TaskOverdueJob на H2.
+ */
+class TaskOverdueJobTest {
+
+    private DataSource dataSource;
+    private List<DomainEvent> published;
+    private int userId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = H2TestDatabase.create();
+        published = new ArrayList<>();
+        userId = H2TestDatabase.createUser(dataSource, "dovahkiin");
+    }
+
+    @Test
+    @DisplayName("Переводит в OVERDUE только активные задачи с прошедшим deadline и публикует TaskOverdue")
+    void shouldMarkOnlyActiveTasksPastDeadline() throws SQLException {
+        // given
+        int overdue = insertTask("ACTIVE", "TIMESTAMP '2026-01-05 10:00:00'");
+        insertTask("ACTIVE", "TIMESTAMP '2999-01-01 00:00:00'");
+        insertTask("ACTIVE", "NULL");
+        insertTask("COMPLETED", "TIMESTAMP '2026-01-04 10:00:00'");
+        TaskOverdueJob job = new TaskOverdueJob(dataSource, published::add, 100);
+
+        // when
+        int marked = job.markBatch();
+        int again = job.markBatch();
+
+        // then
+        assertThat(marked).isEqualTo(1);
+        assertThat(again).isZero();
+        assertThat(ids("SELECT id FROM tasks WHERE status = 'OVERDUE'")).containsExactly(overdue);
+        assertThat(ids("SELECT version FROM tasks WHERE status = 'OVERDUE'")).containsExactly(1);
+        assertThat(published).singleElement().isInstanceOfSatisfying(DomainEvent.TaskOverdue.class, event -> {
+            assertThat(event.userId()).isEqualTo(userId);
+            assertThat(event.taskId()).isEqualTo(overdue);
+        });
+    }
+
+    private int insertTask(String status, String deadline) throws SQLException {
+        H2TestDatabase.execute(dataSource, "INSERT INTO tasks (user_id, title, difficulty, status, deadline) VALUES ("
+                + userId + ", 'Slay a dragon', 'NOVICE', '" + status + "', " + deadline + ")");
+        return ids("SELECT MAX(id) FROM tasks").get(0);
+    }
+
+    private List<Integer> ids(String sql) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,68 @@
+package com.skyrimgrade.unit.infrastructure.persistence.partition;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.infrastructure.persistence.partition.PartitionMaintenanceJob;
+import com.skyrimgrade.infrastructure.persistence.partition.PartitionedTable;
+
+/**
+ * Unit тесты для расчета партиций в PartitionMaintenanceJob.
+ */
+class PartitionMaintenanceJobTest {
+
+    @Test
+    @DisplayName("Имя партиции строится как <table>_YYYY_MM")
+    void shouldBuildPartitionName() {
+        // when
+        String name = PartitionMaintenanceJob.partitionName(PartitionedTable.AUDIT_LOG, YearMonth.of(2026, 3));
+
+        // then
+        assertThat(name).isEqualTo("audit_log_2026_03");
+    }
+
+    @Test
+    @DisplayName("Месяц парсится только из партиций своей таблицы")
+    void shouldParseMonthFromPartitionName() {
+        assertThat(PartitionMaintenanceJob.parseMonth(PartitionedTable.POINTS_HISTORY, "user_points_history_2025_12"))
+                .contains(YearMonth.of(2025, 12));
+        assertThat(PartitionMaintenanceJob.parseMonth(PartitionedTable.POINTS_HISTORY, "user_points_history_default"))
+                .isEmpty();
+        assertThat(PartitionMaintenanceJob.parseMonth(PartitionedTable.ERROR_LOG, "audit_log_2025_12"))
+                .isEmpty();
+        assertThat(PartitionMaintenanceJob.parseMonth(PartitionedTable.ERROR_LOG, "error_log_2025_13"))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Создаются текущий месяц и premake месяцев вперед")
+    void shouldPlanFuturePartitions() {
+        // when
+        List<YearMonth> months = PartitionMaintenanceJob.monthsToCreate(YearMonth.of(2026, 11), 2);
+
+        // then
+        assertThat(months).containsExactly(YearMonth.of(2026, 11), YearMonth.of(2026, 12), YearMonth.of(2027, 1));
+    }
+
+    @Test
+    @DisplayName("Партиция устаревает после retention полных месяцев")
+    void shouldDetectExpiredPartitions() {
+        // given
+        YearMonth current = YearMonth.of(2026, 10);
+
+        // then
+        assertThat(PartitionMaintenanceJob.isExpired(YearMonth.of(2026, 6), current, 3)).isTrue();
+        assertThat(PartitionMaintenanceJob.isExpired(YearMonth.of(2026, 7), current, 3)).isFalse();
+        assertThat(PartitionMaintenanceJob.isExpired(YearMonth.of(2026, 10), current, 3)).isFalse();
+    }
+
+    @Test
+    @DisplayName("retention = 0 означает бессрочное хранение")
+    void shouldKeepForeverWhenRetentionDisabled() {
+        assertThat(PartitionMaintenanceJob.isExpired(YearMonth.of(2000, 1), YearMonth.of(2026, 10), 0)).isFalse();
+    }
+}
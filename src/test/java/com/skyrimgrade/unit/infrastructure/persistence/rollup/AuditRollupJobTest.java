@@ -0,0 +1,195 @@
+package com.skyrimgrade.unit.infrastructure.persistence.rollup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.application.analytics.AuditAnalyticsService;
+import com.skyrimgrade.domain.analytics.ActionCount;
+import com.skyrimgrade.domain.analytics.DailyActivity;
+import com.skyrimgrade.domain.analytics.FacetCount;
+import com.skyrimgrade.domain.analytics.HeatmapCell;
+import com.skyrimgrade.infrastructure.persistence.jdbc.JdbcAuditAnalyticsRepository;
+import com.skyrimgrade.infrastructure.persistence.rollup.AuditRollupJob;
+import com.skyrimgrade.support.H2TestDatabase;
+
+/**
+ * Тесты инкрементальной агрегации audit_log и чтения аналитики из агрегатов на H2.
+ */
+class AuditRollupJobTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 1, 5);
+
+    private DataSource dataSource;
+    private AuditAnalyticsService analytics;
+    private Clock clock;
+    private int userId;
+    private int otherUserId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = H2TestDatabase.create();
+        analytics = new AuditAnalyticsService(new JdbcAuditAnalyticsRepository(dataSource));
+        clock = Clock.fixed(Instant.parse("2026-01-05T12:00:00Z"), ZoneOffset.UTC);
+        userId = H2TestDatabase.createUser(dataSource, "dovahkiin");
+        otherUserId = H2TestDatabase.createUser(dataSource, "lydia");
+    }
+
+    @Test
+    @DisplayName("Записи аудита попадают в счетчики пользователя, общие счетчики и значения details")
+    void shouldAggregateUserAndGlobalCounters() throws SQLException {
+        // given
+        insertAudit(1, userId, "TASK_CREATED", "TASK", "{\"source\":\"import\",\"difficulty\":\"EXPERT\",\"status\":\"ACTIVE\"}",
+                MONDAY.atTime(10, 15));
+        insertAudit(2, userId, "TASK_COMPLETED", "TASK", "{\"points\":50}", MONDAY.atTime(10, 40));
+        insertAudit(3, otherUserId, "TASK_CREATED", "TASK", "{\"source\":\"import\",\"difficulty\":\"NOVICE\"}",
+                MONDAY.plusDays(2).atTime(21, 5));
+
+        // when
+        AuditRollupJob.ChunkResult result = job(100).runChunk();
+
+        // then
+        assertThat(result.processed()).isEqualTo(3);
+        assertThat(result.lastId()).isEqualTo(3);
+        assertThat(result.caughtUp()).isTrue();
+
+        AuditAnalyticsService.ActivityReport own = analytics.activity(userId, MONDAY, MONDAY.plusDays(2));
+        assertThat(own.daily()).containsExactly(
+                new DailyActivity(MONDAY, 2),
+                new DailyActivity(MONDAY.plusDays(1), 0),
+                new DailyActivity(MONDAY.plusDays(2), 0));
+        assertThat(own.heatmap()).hasSize(7 * 24).contains(new HeatmapCell(1, 10, 2));
+        assertThat(own.actions()).containsExactlyInAnyOrder(
+                new ActionCount("TASK_CREATED", "TASK", 1),
+                new ActionCount("TASK_COMPLETED", "TASK", 1));
+
+        AuditAnalyticsService.ActivityReport all = analytics.activity(null, MONDAY, MONDAY.plusDays(2));
+        assertThat(all.daily()).extracting(DailyActivity::events).containsExactly(2L, 0L, 1L);
+        assertThat(all.heatmap()).contains(new HeatmapCell(1, 10, 2), new HeatmapCell(3, 21, 1));
+        assertThat(all.actions()).first().isEqualTo(new ActionCount("TASK_CREATED", "TASK", 2));
+
+        assertThat(analytics.facets(null, MONDAY, MONDAY.plusDays(2), "TASK_CREATED")).containsExactly(
+                new FacetCount("difficulty", "EXPERT", 1),
+                new FacetCount("difficulty", "NOVICE", 1),
+                new FacetCount("source", "import", 2),
+                new FacetCount("status", "ACTIVE", 1));
+        assertThat(analytics.facets(userId, MONDAY, MONDAY, "TASK_COMPLETED")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Агрегация продолжается с чекпоинта и не учитывает записи дважды")
+    void shouldResumeFromCheckpoint() throws SQLException {
+        // given
+        for (int id = 1; id <= 5; id++) {
+            insertAudit(id, userId, "POINTS_SPENT", "USER", null, MONDAY.atTime(9, 0));
+        }
+
+        // when - первый экземпляр обработал одну порцию, второй дочитал остальное
+        AuditRollupJob.ChunkResult first = job(3).runChunk();
+        AuditRollupJob resumed = job(3);
+        AuditRollupJob.ChunkResult second = resumed.runChunk();
+        AuditRollupJob.ChunkResult third = resumed.runChunk();
+
+        // then
+        assertThat(first.processed()).isEqualTo(3);
+        assertThat(first.caughtUp()).isFalse();
+        assertThat(second.processed()).isEqualTo(2);
+        assertThat(second.caughtUp()).isTrue();
+        assertThat(third.processed()).isZero();
+        assertThat(third.lastId()).isEqualTo(5);
+        assertThat(analytics.activity(userId, MONDAY, MONDAY).actions())
+                .containsExactly(new ActionCount("POINTS_SPENT", "USER", 5));
+    }
+
+    @Test
+    @DisplayName("Пропуски id не задерживают чтение: поздняя запись учитывается, потерянный id забывается")
+    void shouldTrackMissingIdsWithoutBlockingLaterRows() throws SQLException {
+        // given - id 3 еще не закоммичен, id 6 не появится никогда
+        insertAudit(1, userId, "TASK_CREATED", "TASK", null, MONDAY.atTime(8, 0));
+        insertAudit(2, userId, "TASK_CREATED", "TASK", null, MONDAY.atTime(8, 0));
+        insertAudit(4, userId, "TASK_CREATED", "TASK", null, MONDAY.atTime(8, 0));
+        insertAudit(5, userId, "TASK_CREATED", "TASK", null, MONDAY.atTime(8, 0));
+        insertAudit(7, userId, "TASK_CREATED", "TASK", null, MONDAY.atTime(8, 0));
+
+        // when - каждый раз новый экземпляр job: пропуски хранятся в БД, а не в памяти узла
+        AuditRollupJob.ChunkResult first = job(100).runChunk();
+        long trackedGaps = count("SELECT COUNT(*) FROM rollup_gap");
+        advanceClock(Duration.ofSeconds(5));
+        insertAudit(3, userId, "TASK_CREATED", "TASK", null, MONDAY.atTime(8, 0));
+        AuditRollupJob.ChunkResult late = job(100).runChunk();
+        AuditRollupJob.ChunkResult idle = job(100).runChunk();
+        advanceClock(Duration.ofSeconds(31));
+        AuditRollupJob.ChunkResult expired = job(100).runChunk();
+
+        // then
+        assertThat(first.processed()).isEqualTo(5);
+        assertThat(first.lastId()).isEqualTo(7);
+        assertThat(first.caughtUp()).isTrue();
+        assertThat(trackedGaps).isEqualTo(2);
+        assertThat(late.processed()).isEqualTo(1);
+        assertThat(late.lastId()).isEqualTo(7);
+        assertThat(idle.processed()).isZero();
+        assertThat(expired.processed()).isZero();
+        assertThat(count("SELECT COUNT(*) FROM rollup_gap")).isZero();
+        assertThat(analytics.activity(userId, MONDAY, MONDAY).actions())
+                .containsExactly(new ActionCount("TASK_CREATED", "TASK", 6));
+    }
+
+    private AuditRollupJob job(int chunkSize) {
+        return new AuditRollupJob(dataSource, chunkSize, 30_000, clock);
+    }
+
+    private void advanceClock(Duration duration) {
+        clock = Clock.offset(clock, duration);
+    }
+
+    private long count(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * details передаются строкой с FORMAT JSON: в отличие от CAST(? AS JSON) H2 разбирает ее как JSON,
+     * а не сохраняет JSON-строкой, и колонка читается так же, как jsonb в PostgreSQL.
+     */
+    private void insertAudit(long id, int user, String action, String entityType, String details, LocalDateTime createdAt)
+            throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO audit_log (id, user_id, action, entity_type, details, created_at)"
+                             + " VALUES (?, ?, ?, ?, ? FORMAT JSON, ?)")) {
+            statement.setLong(1, id);
+            statement.setInt(2, user);
+            statement.setString(3, action);
+            statement.setString(4, entityType);
+            if (details != null) {
+                statement.setString(5, details);
+            } else {
+                statement.setNull(5, Types.VARCHAR);
+            }
+            statement.setTimestamp(6, Timestamp.valueOf(createdAt));
+            statement.executeUpdate();
+        }
+    }
+}
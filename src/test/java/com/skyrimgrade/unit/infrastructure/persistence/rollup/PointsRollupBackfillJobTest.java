@@ -0,0 +1,140 @@
+package com.skyrimgrade.unit.infrastructure.persistence.rollup;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.domain.stats.PointsBucket;
+import com.skyrimgrade.domain.stats.RollupGranularity;
+import com.skyrimgrade.domain.task.Difficulty;
+import com.skyrimgrade.domain.task.Task;
+import com.skyrimgrade.domain.task.TaskStatus;
+import com.skyrimgrade.infrastructure.persistence.jdbc.JdbcStatsRollupRepository;
+import com.skyrimgrade.infrastructure.persistence.jdbc.JdbcTaskBatchRepository;
+import com.skyrimgrade.infrastructure.persistence.rollup.PointsRollupBackfillJob;
+import com.skyrimgrade.support.H2TestDatabase;
+
+/**
+ * Тесты заполнения rollup-статистики из истории баллов на H2.
+ */
+class PointsRollupBackfillJobTest {
+
+    private DataSource dataSource;
+    private JdbcStatsRollupRepository rollups;
+    private int userId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = H2TestDatabase.create();
+        rollups = new JdbcStatsRollupRepository(dataSource);
+        userId = H2TestDatabase.createUser(dataSource, "dovahkiin");
+    }
+
+    @Test
+    @DisplayName("Backfill обрабатывает историю порциями и продолжает с чекпоинта")
+    void shouldBackfillInResumableChunks() throws SQLException {
+        // given - история до миграции: два дня января и один день февраля
+        int taskId = insertTask("Slay a dragon", "LEGENDARY");
+        insertHistory(200, taskId, "2026-01-05 10:00:00");
+        insertHistory(10, null, "2026-01-05 18:00:00");
+        insertHistory(20, null, "2026-01-07 09:00:00");
+        insertHistory(5, null, "2026-02-01 12:00:00");
+        markMigrated();
+
+        // when - первый экземпляр job обработал одну порцию, второй дочитал остальное
+        PointsRollupBackfillJob.ChunkResult first = new PointsRollupBackfillJob(dataSource, 3).runChunk();
+        PointsRollupBackfillJob resumed = new PointsRollupBackfillJob(dataSource, 3);
+        PointsRollupBackfillJob.ChunkResult second = resumed.runChunk();
+        PointsRollupBackfillJob.ChunkResult third = resumed.runChunk();
+
+        // then
+        assertThat(first.processed()).isEqualTo(3);
+        assertThat(first.complete()).isFalse();
+        assertThat(second.processed()).isEqualTo(1);
+        assertThat(second.complete()).isTrue();
+        assertThat(third.processed()).isZero();
+
+        assertThat(points(RollupGranularity.DAY, "2026-01-01", "2026-02-28")).containsExactly(
+                new PointsBucket(LocalDate.of(2026, 1, 5), 210),
+                new PointsBucket(LocalDate.of(2026, 1, 7), 20),
+                new PointsBucket(LocalDate.of(2026, 2, 1), 5));
+        assertThat(points(RollupGranularity.WEEK, "2026-01-01", "2026-02-28")).containsExactly(
+                new PointsBucket(LocalDate.of(2026, 1, 5), 230),
+                new PointsBucket(LocalDate.of(2026, 1, 26), 5));
+        assertThat(points(RollupGranularity.MONTH, "2026-01-01", "2026-02-28")).containsExactly(
+                new PointsBucket(LocalDate.of(2026, 1, 1), 230),
+                new PointsBucket(LocalDate.of(2026, 2, 1), 5));
+        assertThat(rollups.findCompletions(userId, RollupGranularity.MONTH, LocalDate.of(2026, 1, 1),
+                LocalDate.of(2026, 1, 31))).singleElement()
+                .satisfies(bucket -> {
+                    assertThat(bucket.difficulty()).isEqualTo(Difficulty.LEGENDARY);
+                    assertThat(bucket.completions()).isEqualTo(1);
+                });
+        assertThat(count("SELECT COUNT(*) FROM rollup_backfill WHERE completed_at IS NOT NULL")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Новые начисления учитываются при записи и не дублируются backfill")
+    void shouldNotDoubleCountLiveWrites() throws SQLException {
+        // given
+        insertHistory(10, null, LocalDate.now() + " 00:00:01");
+        markMigrated();
+
+        // when - импорт после миграции пишет rollup сам, затем backfill дочитывает старую историю
+        new JdbcTaskBatchRepository(dataSource).insertBatch(userId, List.of(new Task(null, userId, "Learn a shout",
+                null, Difficulty.EXPERT, 50, TaskStatus.COMPLETED, null, LocalDateTime.now(), null, null, null)));
+        PointsRollupBackfillJob job = new PointsRollupBackfillJob(dataSource, 100);
+        while (!job.runChunk().complete()) {
+            // до конца истории
+        }
+
+        // then
+        LocalDate today = LocalDate.now();
+        assertThat(rollups.findPoints(userId, RollupGranularity.DAY, today.minusDays(1), today))
+                .extracting(PointsBucket::points)
+                .containsExactly(60L);
+    }
+
+    private List<PointsBucket> points(RollupGranularity granularity, String from, String to) throws SQLException {
+        return rollups.findPoints(userId, granularity, LocalDate.parse(from), LocalDate.parse(to));
+    }
+
+    private int insertTask(String title, String difficulty) throws SQLException {
+        H2TestDatabase.execute(dataSource, "INSERT INTO tasks (user_id, title, difficulty, status) VALUES ("
+                + userId + ", '" + title + "', '" + difficulty + "', 'COMPLETED')");
+        return count("SELECT MAX(id) FROM tasks");
+    }
+
+    private void insertHistory(int points, Integer taskId, String createdAt) throws SQLException {
+        H2TestDatabase.execute(dataSource, "INSERT INTO user_points_history (user_id, points_earned, reason, task_id, created_at)"
+                + " VALUES (" + userId + ", " + points + ", 'test', " + taskId + ", TIMESTAMP '" + createdAt + "')");
+    }
+
+    /**
+     * То же, что делает V9: граница backfill - последний id на момент миграции.
+     */
+    private void markMigrated() throws SQLException {
+        H2TestDatabase.execute(dataSource,
+                "UPDATE rollup_backfill SET high_water_id = (SELECT COALESCE(MAX(id), 0) FROM user_points_history)");
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
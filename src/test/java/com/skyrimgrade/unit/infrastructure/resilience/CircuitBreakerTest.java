@@ -0,0 +1,119 @@
+package com.skyrimgrade.unit.infrastructure.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.infrastructure.resilience.CircuitBreaker;
+
+/**
+ * Unit тесты для CircuitBreaker.
+ */
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("Открывается после threshold ошибок подряд")
+    void shouldOpenAfterConsecutiveFailures() {
+        // given
+        CircuitBreaker breaker = new CircuitBreaker("db", 3, 1000, now::get);
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.recordFailure();
+        }
+
+        // then
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Успех между ошибками сбрасывает счетчик")
+    void shouldResetFailuresOnSuccess() {
+        // given
+        CircuitBreaker breaker = new CircuitBreaker("db", 2, 1000, now::get);
+
+        // when
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+
+        // then
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("После openDuration пропускает один пробный вызов")
+    void shouldHalfOpenAfterTimeoutWithSingleTrial() {
+        // given
+        CircuitBreaker breaker = new CircuitBreaker("db", 1, 1000, now::get);
+        breaker.recordFailure();
+
+        // when
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1001));
+
+        // then
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.recordSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Пробный вызов без результата освобождает место для следующего пробного")
+    void shouldAllowNewTrialAfterRelease() {
+        // given
+        CircuitBreaker breaker = new CircuitBreaker("db", 1, 1000, now::get);
+        breaker.recordFailure();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        // when
+        breaker.release();
+
+        // then
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Ошибка пробного вызова снова открывает breaker")
+    void shouldReopenWhenTrialFails() {
+        // given
+        CircuitBreaker breaker = new CircuitBreaker("db", 1, 1000, now::get);
+        breaker.recordFailure();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        breaker.tryAcquire();
+
+        // when
+        breaker.recordFailure();
+
+        // then
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Успешная фоновая проверка переводит в HALF_OPEN раньше таймаута")
+    void shouldHalfOpenOnSuccessfulProbe() {
+        // given
+        CircuitBreaker breaker = new CircuitBreaker("db", 1, 60_000, now::get);
+        breaker.recordFailure();
+
+        // when
+        breaker.probeSucceeded();
+
+        // then
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+}
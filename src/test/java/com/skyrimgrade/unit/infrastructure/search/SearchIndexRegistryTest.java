@@ -0,0 +1,142 @@
+package com.skyrimgrade.unit.infrastructure.search;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.domain.task.Difficulty;
+import com.skyrimgrade.domain.task.Task;
+import com.skyrimgrade.domain.task.TaskStatus;
+import com.skyrimgrade.infrastructure.event.InProcessEventBus;
+import com.skyrimgrade.infrastructure.search.JdbcSearchDocumentLoader;
+import com.skyrimgrade.infrastructure.search.SearchDocumentLoader;
+import com.skyrimgrade.infrastructure.search.SearchHit;
+import com.skyrimgrade.infrastructure.search.SearchIndexRegistry;
+import com.skyrimgrade.infrastructure.search.SearchQuery;
+import com.skyrimgrade.support.H2TestDatabase;
+
+/**
+ * Тесты SearchIndexRegistry на H2: ленивое построение, обновление событиями и вытеснение.
+ */
+class SearchIndexRegistryTest {
+
+    private DataSource dataSource;
+    private InProcessEventBus bus;
+    private int userId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = H2TestDatabase.create();
+        bus = new InProcessEventBus();
+        userId = H2TestDatabase.createUser(dataSource, "dovahkiin");
+        H2TestDatabase.execute(dataSource, "INSERT INTO projects (user_id, name, description) VALUES ("
+                + userId + ", 'Коллегия Винтерхолда', 'Обучение магии')");
+        H2TestDatabase.execute(dataSource, "INSERT INTO tasks (user_id, title, description, difficulty, points) VALUES ("
+                + userId + ", 'Изучить заклинание', 'Огненный шар', 'ADEPT', 20)");
+    }
+
+    private static List<String> titles(List<SearchHit> hits) {
+        return hits.stream().map(hit -> hit.document().title()).toList();
+    }
+
+    private Task task(int id, String title, TaskStatus status) {
+        return new Task(id, userId, title, null, Difficulty.NOVICE, Difficulty.NOVICE.points(), status,
+                null, null, null, null, null);
+    }
+
+    @Test
+    @DisplayName("Индекс строится из БД при первом поиске")
+    void shouldBuildIndexLazily() throws SQLException {
+        SearchIndexRegistry registry = new SearchIndexRegistry(new JdbcSearchDocumentLoader(dataSource), bus, 10, 1000);
+        assertThat(registry.loadedUsers()).isZero();
+
+        assertThat(titles(registry.search(userId, SearchQuery.of("заклин")))).containsExactly("Изучить заклинание");
+        assertThat(titles(registry.search(userId, SearchQuery.of("магии")))).containsExactly("Коллегия Винтерхолда");
+        assertThat(registry.loadedUsers()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("События задач обновляют загруженный индекс без обращения к БД")
+    void shouldApplyEventsIncrementally() throws SQLException {
+        AtomicInteger loads = new AtomicInteger();
+        JdbcSearchDocumentLoader jdbc = new JdbcSearchDocumentLoader(dataSource);
+        SearchDocumentLoader counting = user -> {
+            loads.incrementAndGet();
+            return jdbc.loadForUser(user);
+        };
+        SearchIndexRegistry registry = new SearchIndexRegistry(counting, bus, 10, 1000);
+        registry.search(userId, SearchQuery.of("заклинание"));
+
+        bus.publish(new DomainEvent.TaskSaved(userId, task(100, "Найти драконий камень", TaskStatus.ACTIVE), Instant.now()));
+        bus.publish(new DomainEvent.TaskCompleted(userId, 100, 5, Instant.now()));
+
+        SearchQuery completed = new SearchQuery("драконий", null, Set.of("COMPLETED"), null, null, 20);
+        assertThat(titles(registry.search(userId, completed))).containsExactly("Найти драконий камень");
+
+        bus.publish(new DomainEvent.TaskDeleted(userId, 100, Instant.now()));
+        assertThat(registry.search(userId, SearchQuery.of("драконий"))).isEmpty();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Импорт сбрасывает индекс пользователя, следующий поиск читает БД заново")
+    void shouldRebuildAfterImport() throws SQLException {
+        SearchIndexRegistry registry = new SearchIndexRegistry(new JdbcSearchDocumentLoader(dataSource), bus, 10, 1000);
+        registry.search(userId, SearchQuery.of("заклинание"));
+
+        H2TestDatabase.execute(dataSource, "INSERT INTO tasks (user_id, title, difficulty, points) VALUES ("
+                + userId + ", 'Победить Алдуина', 'LEGENDARY', 200)");
+        bus.publish(new DomainEvent.TasksImported(userId, 1, Instant.now()));
+
+        assertThat(registry.loadedUsers()).isZero();
+        assertThat(titles(registry.search(userId, SearchQuery.of("алдуина")))).containsExactly("Победить Алдуина");
+    }
+
+    @Test
+    @DisplayName("При превышении лимита вытесняется давно не использованный индекс")
+    void shouldEvictLeastRecentlyUsed() throws SQLException {
+        AtomicInteger loads = new AtomicInteger();
+        SearchDocumentLoader loader = user -> {
+            loads.incrementAndGet();
+            return List.of();
+        };
+        SearchIndexRegistry registry = new SearchIndexRegistry(loader, bus, 2, 1000);
+
+        registry.search(1, SearchQuery.of("x"));
+        registry.search(2, SearchQuery.of("x"));
+        registry.search(1, SearchQuery.of("x"));
+        registry.search(3, SearchQuery.of("x"));
+        assertThat(loads).hasValue(3);
+
+        registry.search(1, SearchQuery.of("x"));
+        assertThat(loads).hasValue(3);
+        registry.search(2, SearchQuery.of("x"));
+        assertThat(loads).hasValue(4);
+        assertThat(registry.loadedUsers()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Ошибка загрузки пробрасывается и не оставляет индекс в кэше")
+    void shouldPropagateLoadFailure() {
+        SearchDocumentLoader failing = user -> {
+            throw new SQLException("connection refused");
+        };
+        SearchIndexRegistry registry = new SearchIndexRegistry(failing, bus, 10, 1000);
+
+        assertThatThrownBy(() -> registry.search(userId, SearchQuery.of("x")))
+                .isInstanceOf(SQLException.class)
+                .hasMessageContaining("connection refused");
+        assertThat(registry.loadedUsers()).isZero();
+    }
+}
@@ -0,0 +1,96 @@
+package com.skyrimgrade.unit.infrastructure.search;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.infrastructure.search.SearchDocument;
+import com.skyrimgrade.infrastructure.search.SearchHit;
+import com.skyrimgrade.infrastructure.search.SearchQuery;
+import com.skyrimgrade.infrastructure.search.TextTokenizer;
+import com.skyrimgrade.infrastructure.search.UserSearchIndex;
+
+/**
+ * Unit тесты для UserSearchIndex и TextTokenizer.
+ */
+class UserSearchIndexTest {
+
+    private static SearchDocument task(int id, String title, String body) {
+        return new SearchDocument(SearchDocument.Type.TASK, id, title, body, "ACTIVE", "NOVICE", null);
+    }
+
+    private static List<Integer> ids(List<SearchHit> hits) {
+        return hits.stream().map(hit -> hit.document().id()).toList();
+    }
+
+    @Test
+    @DisplayName("Токенизатор нормализует регистр, ё и отбрасывает стоп-слова")
+    void shouldNormalizeTokens() {
+        assertThat(TextTokenizer.tokenize("Ёлка и ПОДАРКИ для семьи"))
+                .containsExactly("елка", "подарки", "семьи");
+        assertThat(TextTokenizer.tokenize("Café of the year")).containsExactly("cafe", "year");
+    }
+
+    @Test
+    @DisplayName("Совпадение в заголовке ранжируется выше совпадения в описании")
+    void shouldRankTitleMatchesHigher() {
+        UserSearchIndex index = new UserSearchIndex(List.of(
+                task(1, "Сходить в магазин", "купить молоко"),
+                task(2, "Купить молоко", null)));
+
+        List<SearchHit> hits = index.search(SearchQuery.of("молоко"));
+
+        assertThat(ids(hits)).containsExactly(2, 1);
+        assertThat(hits.get(0).score()).isGreaterThan(hits.get(1).score());
+    }
+
+    @Test
+    @DisplayName("Все слова запроса обязательны, последнее может быть префиксом")
+    void shouldRequireAllTermsAndSupportPrefix() {
+        UserSearchIndex index = new UserSearchIndex(List.of(
+                task(1, "Отчет по проекту", null),
+                task(2, "Отчет за квартал", null)));
+
+        assertThat(ids(index.search(SearchQuery.of("отчет кварт")))).containsExactly(2);
+        assertThat(ids(index.search(SearchQuery.of("отч")))).containsExactlyInAnyOrder(1, 2);
+        assertThat(index.search(SearchQuery.of("отчет бюджет"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Upsert заменяет термины документа, remove убирает его из индекса")
+    void shouldApplyIncrementalChanges() {
+        UserSearchIndex index = new UserSearchIndex(List.of(task(1, "Старое название", null)));
+        int postingsBefore = index.postingCount();
+
+        index.upsert(task(1, "Новое название", null));
+        assertThat(index.search(SearchQuery.of("старое"))).isEmpty();
+        assertThat(ids(index.search(SearchQuery.of("новое")))).containsExactly(1);
+        assertThat(index.postingCount()).isEqualTo(postingsBefore);
+
+        index.remove(new SearchDocument.Key(SearchDocument.Type.TASK, 1));
+        assertThat(index.search(SearchQuery.of("новое"))).isEmpty();
+        assertThat(index.documentCount()).isZero();
+        assertThat(index.postingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Фильтры по статусу и типу применяются к найденным документам")
+    void shouldApplyFilters() {
+        UserSearchIndex index = new UserSearchIndex(List.of(
+                task(1, "Тренировка утром", null),
+                task(2, "Тренировка вечером", null),
+                new SearchDocument(SearchDocument.Type.PROJECT, 3, "План тренировок", null, "ACTIVE", null, 3)));
+        index.updateStatus(new SearchDocument.Key(SearchDocument.Type.TASK, 2), "COMPLETED");
+
+        SearchQuery completedTasks = new SearchQuery("тренировка", Set.of(SearchDocument.Type.TASK),
+                Set.of("COMPLETED"), null, null, 20);
+        SearchQuery projects = new SearchQuery("трениров", Set.of(SearchDocument.Type.PROJECT),
+                null, null, null, 20);
+
+        assertThat(ids(index.search(completedTasks))).containsExactly(2);
+        assertThat(ids(index.search(projects))).containsExactly(3);
+    }
+}
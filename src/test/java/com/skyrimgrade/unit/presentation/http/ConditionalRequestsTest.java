@@ -0,0 +1,36 @@
+package com.skyrimgrade.unit.presentation.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.presentation.http.ConditionalRequests;
+
+/**
+ * Unit тесты для ConditionalRequests.
+ */
+class ConditionalRequestsTest {
+
+    private static final String ETAG = "\"abc-1f\"";
+
+    @Test
+    @DisplayName("Совпадающий ETag дает 304")
+    void shouldMatchSameEtag() {
+        assertThat(ConditionalRequests.isNotModified("\"abc-1f\"", ETAG)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Список и слабые ETag сравниваются слабо")
+    void shouldMatchWeakEtagInList() {
+        assertThat(ConditionalRequests.isNotModified("\"x\", W/\"abc-1f\"", ETAG)).isTrue();
+        assertThat(ConditionalRequests.isNotModified("*", ETAG)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Другой или пустой заголовок не дает 304")
+    void shouldNotMatchDifferentEtag() {
+        assertThat(ConditionalRequests.isNotModified("\"abc-20\"", ETAG)).isFalse();
+        assertThat(ConditionalRequests.isNotModified(null, ETAG)).isFalse();
+        assertThat(ConditionalRequests.isNotModified("", ETAG)).isFalse();
+    }
+}
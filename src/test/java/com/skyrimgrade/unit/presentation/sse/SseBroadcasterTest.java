@@ -0,0 +1,191 @@
+package com.skyrimgrade.unit.presentation.sse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.skyrimgrade.domain.event.DomainEvent;
+import com.skyrimgrade.infrastructure.event.InProcessEventBus;
+import com.skyrimgrade.presentation.sse.SseBroadcaster;
+import com.skyrimgrade.presentation.sse.SseSink;
+
+/**
+ * Unit тесты для SseBroadcaster.
+ */
+class SseBroadcasterTest {
+
+    private InProcessEventBus bus;
+    private SseBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        bus = new InProcessEventBus();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.close();
+    }
+
+    @Test
+    @DisplayName("События пользователя доставляются только его подписчикам")
+    void shouldDeliverOnlyToOwner() throws Exception {
+        // given
+        broadcaster = new SseBroadcaster(bus, 16, Duration.ofMinutes(1));
+        RecordingSink mine = new RecordingSink(null);
+        RecordingSink foreign = new RecordingSink(null);
+        broadcaster.subscribe(1, mine);
+        broadcaster.subscribe(2, foreign);
+
+        // when
+        bus.publish(new DomainEvent.TaskCompleted(1, 10, 20, Instant.now()));
+
+        // then
+        mine.awaitFrames(1);
+        assertThat(mine.frames.get(0)).startsWith("event: TaskCompleted").contains("\"taskId\":10");
+        assertThat(foreign.frames).isEmpty();
+        assertThat(broadcaster.connectionCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Пока клиент занят, начисления баллов склеиваются")
+    void shouldCoalesceBurstWhileClientIsBusy() throws Exception {
+        // given - первая запись в сокет "висит", пока не отпустим latch
+        broadcaster = new SseBroadcaster(bus, 16, Duration.ofMinutes(1));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(release);
+        broadcaster.subscribe(1, sink);
+
+        bus.publish(new DomainEvent.TaskCompleted(1, 10, 20, Instant.now()));
+        sink.awaitSendStarted();
+
+        // when
+        bus.publish(new DomainEvent.PointsAwarded(1, 5, Instant.now()));
+        bus.publish(new DomainEvent.PointsAwarded(1, 7, Instant.now()));
+        bus.publish(new DomainEvent.TaskCompleted(1, 11, 5, Instant.now()));
+        release.countDown();
+
+        // then
+        sink.awaitFrames(3);
+        assertThat(sink.frames).hasSize(3);
+        assertThat(sink.frames.get(1)).startsWith("event: PointsAwarded").contains("\"points\":12");
+        assertThat(sink.frames.get(2)).contains("\"taskId\":11");
+    }
+
+    @Test
+    @DisplayName("Переполнение буфера приводит к resync")
+    void shouldSendResyncOnOverflow() throws Exception {
+        // given
+        broadcaster = new SseBroadcaster(bus, 2, Duration.ofMinutes(1));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(release);
+        broadcaster.subscribe(1, sink);
+
+        bus.publish(new DomainEvent.TaskCompleted(1, 1, 5, Instant.now()));
+        sink.awaitSendStarted();
+
+        // when
+        bus.publish(new DomainEvent.TaskOverdue(1, 2, Instant.now()));
+        bus.publish(new DomainEvent.TaskOverdue(1, 3, Instant.now()));
+        bus.publish(new DomainEvent.TaskOverdue(1, 4, Instant.now()));
+        release.countDown();
+
+        // then - первое событие, resync и два последних
+        sink.awaitFrames(4);
+        assertThat(sink.frames.get(1)).startsWith("event: resync");
+        assertThat(sink.frames.get(2)).contains("\"taskId\":3");
+        assertThat(sink.frames.get(3)).contains("\"taskId\":4");
+    }
+
+    @Test
+    @DisplayName("Простаивающее соединение получает heartbeat")
+    void shouldSendHeartbeatWhenIdle() throws Exception {
+        // given
+        broadcaster = new SseBroadcaster(bus, 4, Duration.ofMillis(50));
+        RecordingSink sink = new RecordingSink(null);
+
+        // when
+        broadcaster.subscribe(1, sink);
+
+        // then
+        sink.awaitFrames(1);
+        assertThat(sink.frames.get(0)).isEqualTo(":\n\n");
+    }
+
+    @Test
+    @DisplayName("Отключившийся клиент удаляется из подписчиков")
+    void shouldDropDisconnectedSubscriber() throws Exception {
+        // given
+        broadcaster = new SseBroadcaster(bus, 4, Duration.ofMinutes(1));
+        SseSink broken = new SseSink() {
+            @Override
+            public void send(String frame) throws IOException {
+                throw new IOException("connection reset");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        broadcaster.subscribe(1, broken);
+
+        // when
+        bus.publish(new DomainEvent.TaskOverdue(1, 2, Instant.now()));
+
+        // then
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (broadcaster.connectionCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(broadcaster.connectionCount()).isZero();
+    }
+
+    private static final class RecordingSink implements SseSink {
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+        private final CountDownLatch sendStarted = new CountDownLatch(1);
+
+        RecordingSink(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(String frame) throws IOException {
+            sendStarted.countDown();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            frames.add(frame);
+        }
+
+        @Override
+        public void close() {
+        }
+
+        void awaitSendStarted() throws InterruptedException {
+            assertThat(sendStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        void awaitFrames(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (frames.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+-- H2-совместимая схема для тестов (повторяет V1-V13 без PostgreSQL-специфики: JSONB, GIN, партиций, триггеров)
+CREATE TABLE users (
+    id SERIAL PRIMARY KEY,
+    username VARCHAR(100) NOT NULL UNIQUE,
+    password_hash VARCHAR(255) NOT NULL,
+    email VARCHAR(255),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    total_points INTEGER NOT NULL DEFAULT 0,
+    points_spent INTEGER NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE projects (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    manual_difficulty VARCHAR(20) CHECK (manual_difficulty IN ('NOVICE', 'APPRENTICE', 'ADEPT', 'EXPERT', 'MASTER', 'LEGENDARY')),
+    calculated_difficulty VARCHAR(20),
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE' CHECK (status IN ('ACTIVE', 'COMPLETED', 'CANCELLED')),
+    deadline TIMESTAMP,
+    completed_at TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE tasks (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    difficulty VARCHAR(20) NOT NULL CHECK (difficulty IN ('NOVICE', 'APPRENTICE', 'ADEPT', 'EXPERT', 'MASTER', 'LEGENDARY')),
+    points INTEGER NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE' CHECK (status IN ('ACTIVE', 'COMPLETED', 'OVERDUE', 'CANCELLED')),
+    deadline TIMESTAMP,
+    completed_at TIMESTAMP,
+    project_id INTEGER REFERENCES projects(id) ON DELETE SET NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE daily_plans (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    plan_date DATE NOT NULL,
+    day_of_week VARCHAR(10),
+    is_template BOOLEAN DEFAULT FALSE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE(user_id, plan_date)
+);
+
+CREATE TABLE plan_items (
+    id SERIAL PRIMARY KEY,
+    plan_id INTEGER NOT NULL REFERENCES daily_plans(id) ON DELETE CASCADE,
+    task_id INTEGER, -- задача в tasks или tasks_archive (V12)
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    time_from TIME NOT NULL,
+    time_to TIME NOT NULL,
+    is_completed BOOLEAN DEFAULT FALSE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CHECK (time_to > time_from)
+);
+
+CREATE TABLE audit_log (
+    id BIGSERIAL PRIMARY KEY,
+    user_id INTEGER REFERENCES users(id) ON DELETE SET NULL,
+    action VARCHAR(50) NOT NULL,
+    entity_type VARCHAR(50) NOT NULL,
+    entity_id INTEGER,
+    details JSON,
+    ip_address VARCHAR(45),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE user_points_history (
+    id BIGSERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    points_earned INTEGER NOT NULL,
+    reason VARCHAR(255) NOT NULL,
+    task_id INTEGER,
+    project_id INTEGER REFERENCES projects(id) ON DELETE SET NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE points_rollup (
+    user_id INTEGER NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    granularity CHAR(1) NOT NULL CHECK (granularity IN ('D', 'W', 'M')),
+    bucket_start DATE NOT NULL,
+    points_earned BIGINT NOT NULL DEFAULT 0,
+    entries INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, granularity, bucket_start)
+);
+
+CREATE TABLE completion_rollup (
+    user_id INTEGER NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    granularity CHAR(1) NOT NULL CHECK (granularity IN ('D', 'W', 'M')),
+    bucket_start DATE NOT NULL,
+    difficulty VARCHAR(20) NOT NULL,
+    completions INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, granularity, bucket_start, difficulty)
+);
+
+CREATE TABLE rollup_backfill (
+    name VARCHAR(50) PRIMARY KEY,
+    last_id BIGINT NOT NULL DEFAULT 0,
+    high_water_id BIGINT NOT NULL,
+    completed_at TIMESTAMP
+);
+
+INSERT INTO rollup_backfill (name, high_water_id) VALUES ('points_history', 0);
+
+CREATE TABLE cache_invalidation (
+    id BIGSERIAL PRIMARY KEY,
+    origin_node VARCHAR(64) NOT NULL,
+    cache_name VARCHAR(50) NOT NULL,
+    user_id INTEGER,
+    cache_key VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE idempotency_keys (
+    user_id INTEGER NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    idempotency_key VARCHAR(100) NOT NULL,
+    operation VARCHAR(30) NOT NULL,
+    fingerprint VARCHAR(100) NOT NULL,
+    outcome VARCHAR(30),
+    points INTEGER,
+    balance INTEGER,
+    entity_version BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, idempotency_key)
+);
+
+CREATE TABLE tasks_archive (
+    id INTEGER PRIMARY KEY,
+    user_id INTEGER NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    difficulty VARCHAR(20) NOT NULL,
+    points INTEGER NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('COMPLETED', 'CANCELLED')),
+    deadline TIMESTAMP,
+    completed_at TIMESTAMP,
+    project_id INTEGER REFERENCES projects(id) ON DELETE SET NULL,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE audit_activity_rollup (
+    user_id INTEGER NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    action VARCHAR(50) NOT NULL,
+    entity_type VARCHAR(50) NOT NULL,
+    events BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, bucket_start, action, entity_type)
+);
+
+CREATE TABLE audit_facet_rollup (
+    user_id INTEGER NOT NULL,
+    bucket_start DATE NOT NULL,
+    action VARCHAR(50) NOT NULL,
+    facet_key VARCHAR(50) NOT NULL,
+    facet_value VARCHAR(100) NOT NULL,
+    events BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, bucket_start, action, facet_key, facet_value)
+);
+
+CREATE TABLE rollup_checkpoint (
+    name VARCHAR(50) PRIMARY KEY,
+    last_id BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP
+);
+
+INSERT INTO rollup_checkpoint (name) VALUES ('audit_log');
+
+CREATE TABLE rollup_gap (
+    name VARCHAR(50) NOT NULL,
+    id BIGINT NOT NULL,
+    seen_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (name, id)
+);